@@ -0,0 +1,191 @@
+package it.unibz.inf.ontop.answering.reformulation.rewriting.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.reformulation.rewriting.ExistentialQueryRewriter;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.IntensionalDataNode;
+import it.unibz.inf.ontop.model.atom.AtomFactory;
+import it.unibz.inf.ontop.model.atom.AtomPredicate;
+import it.unibz.inf.ontop.model.atom.DataAtom;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.spec.ontology.*;
+import it.unibz.inf.ontop.spec.ontology.impl.OntologyBuilderImpl;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDF;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * The rewriter is shared by concurrent queries: its rewritings must not depend on the previous
+ * or concurrent ones
+ */
+public class TreeWitnessRewriterTest {
+
+    private static final String PREFIX = "http://example.org/voc#";
+    private static final int THREAD_COUNT = 8;
+    private static final int REWRITING_COUNT = 200;
+
+    private static OntopSQLOWLAPIConfiguration CONFIGURATION;
+    private static IntermediateQueryFactory IQ_FACTORY;
+    private static AtomFactory ATOM_FACTORY;
+    private static TermFactory TERM_FACTORY;
+    private static RDF RDF_FACTORY;
+
+    private static IRI A, B, C, D, R, S, P;
+    private static ClassifiedTBox TBOX;
+
+    @BeforeClass
+    public static void setUp() throws InconsistentOntologyException {
+        CONFIGURATION = OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .nativeOntopMappingFile("src/test/resources/test/simplemapping.obda")
+                .ontologyFile("src/test/resources/test/simplemapping.owl")
+                .jdbcUrl("jdbc:h2:mem:questjunitdb")
+                .jdbcUser("sa")
+                .jdbcPassword("")
+                .enableExistentialReasoning(true)
+                .enableTestMode()
+                .build();
+        IQ_FACTORY = CONFIGURATION.getIQFactory();
+        ATOM_FACTORY = CONFIGURATION.getAtomFactory();
+        TERM_FACTORY = CONFIGURATION.getTermFactory();
+        RDF_FACTORY = CONFIGURATION.getRdfFactory();
+
+        A = RDF_FACTORY.createIRI(PREFIX + "A");
+        B = RDF_FACTORY.createIRI(PREFIX + "B");
+        C = RDF_FACTORY.createIRI(PREFIX + "C");
+        D = RDF_FACTORY.createIRI(PREFIX + "D");
+        R = RDF_FACTORY.createIRI(PREFIX + "R");
+        S = RDF_FACTORY.createIRI(PREFIX + "S");
+        P = RDF_FACTORY.createIRI(PREFIX + "P");
+
+        // A <= exists R, exists R- <= B, S <= R, C <= exists S
+        OntologyBuilder builder = OntologyBuilderImpl.builder(RDF_FACTORY, TERM_FACTORY);
+        OClass a = builder.declareClass(A);
+        OClass b = builder.declareClass(B);
+        OClass c = builder.declareClass(C);
+        builder.declareClass(D);
+        ObjectPropertyExpression r = builder.declareObjectProperty(R);
+        ObjectPropertyExpression s = builder.declareObjectProperty(S);
+        builder.declareObjectProperty(P);
+        builder.addSubClassOfAxiom(a, r.getDomain());
+        builder.addSubClassOfAxiom(r.getRange(), b);
+        builder.addSubPropertyOfAxiom(s, r);
+        builder.addSubClassOfAxiom(c, s.getDomain());
+        TBOX = builder.build().tbox();
+    }
+
+    @Test
+    public void testEqualRewritings() throws Exception {
+        ExistentialQueryRewriter rewriter = createRewriter();
+        IQ query = createQuery();
+
+        IQ rewriting = rewriter.rewrite(query);
+        // A tree witness is used
+        assertTrue(getAtoms(rewriting.getTree()).contains(
+                ATOM_FACTORY.getIntensionalTripleAtom(TERM_FACTORY.getVariable("x"), A)));
+
+        for (int i = 0; i < 5; i++)
+            assertEquals(rewriting, rewriter.rewrite(query));
+
+        // Does not depend on the previous rewritings of other queries
+        ExistentialQueryRewriter freshRewriter = createRewriter();
+        assertEquals(rewriting, freshRewriter.rewrite(query));
+    }
+
+    @Test
+    public void testConcurrentRewritings() throws Exception {
+        ExistentialQueryRewriter rewriter = createRewriter();
+        IQ query = createQuery();
+        IQ expected = rewriter.rewrite(query);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<IQ>> futures = new ArrayList<>();
+            for (int i = 0; i < REWRITING_COUNT; i++)
+                futures.add(executorService.submit(() -> rewriter.rewrite(query)));
+
+            for (Future<IQ> future : futures)
+                assertEquals(expected, future.get(30, TimeUnit.SECONDS));
+        }
+        finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testGeneratorCacheHit() {
+        TreeWitnessRewriterReasoner reasoner = new TreeWitnessRewriterReasoner(TBOX);
+
+        ImmutableList<TreeWitnessGenerator> generators = reasoner.getTreeWitnessGenerators(
+                getSubProperties(R), DownwardSaturatedImmutableSet.top(), ImmutableSet.of());
+        assertFalse(generators.isEmpty());
+
+        // Equal (but not identical) key
+        assertSame(generators, reasoner.getTreeWitnessGenerators(
+                getSubProperties(R), DownwardSaturatedImmutableSet.top(), ImmutableSet.of()));
+
+        // No generator for P
+        assertTrue(reasoner.getTreeWitnessGenerators(
+                getSubProperties(P), DownwardSaturatedImmutableSet.top(), ImmutableSet.of()).isEmpty());
+    }
+
+    private static ExistentialQueryRewriter createRewriter() {
+        ExistentialQueryRewriter rewriter = CONFIGURATION.getInjector().getInstance(ExistentialQueryRewriter.class);
+        rewriter.setTBox(TBOX);
+        return rewriter;
+    }
+
+    /**
+     * SELECT ?x WHERE { ?x :R ?y . ?y a :B . ?z :P ?x . ?z a :D }
+     */
+    private static IQ createQuery() {
+        Variable x = TERM_FACTORY.getVariable("x");
+        Variable y = TERM_FACTORY.getVariable("y");
+        Variable z = TERM_FACTORY.getVariable("z");
+
+        return IQ_FACTORY.createIQ(
+                ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ATOM_FACTORY.getRDFAnswerPredicate(1), x),
+                IQ_FACTORY.createUnaryIQTree(
+                        IQ_FACTORY.createConstructionNode(ImmutableSet.of(x)),
+                        IQ_FACTORY.createNaryIQTree(
+                                IQ_FACTORY.createInnerJoinNode(),
+                                ImmutableList.<IQTree>of(
+                                        IQ_FACTORY.createIntensionalDataNode(ATOM_FACTORY.getIntensionalTripleAtom(x, R, y)),
+                                        IQ_FACTORY.createIntensionalDataNode(ATOM_FACTORY.getIntensionalTripleAtom(y, B)),
+                                        IQ_FACTORY.createIntensionalDataNode(ATOM_FACTORY.getIntensionalTripleAtom(z, P, x)),
+                                        IQ_FACTORY.createIntensionalDataNode(ATOM_FACTORY.getIntensionalTripleAtom(z, D))))));
+    }
+
+    private static DownwardSaturatedImmutableSet<ObjectPropertyExpression> getSubProperties(IRI property) {
+        return DownwardSaturatedImmutableSet.create(TBOX.objectPropertiesDAG()
+                .getSubRepresentatives(TBOX.objectProperties().get(property)));
+    }
+
+    private static ImmutableSet<DataAtom<AtomPredicate>> getAtoms(IQTree tree) {
+        return getIntensionalDataNodes(tree)
+                .map(IntensionalDataNode::getProjectionAtom)
+                .collect(ImmutableCollectors.toSet());
+    }
+
+    private static Stream<IntensionalDataNode> getIntensionalDataNodes(IQTree tree) {
+        return tree.getRootNode() instanceof IntensionalDataNode
+                ? Stream.of((IntensionalDataNode) tree.getRootNode())
+                : tree.getChildren().stream().flatMap(TreeWitnessRewriterTest::getIntensionalDataNodes);
+    }
+}
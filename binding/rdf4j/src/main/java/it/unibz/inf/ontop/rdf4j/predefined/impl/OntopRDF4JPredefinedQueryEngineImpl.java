@@ -15,6 +15,7 @@ import it.unibz.inf.ontop.answering.connection.OntopStatement;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.evaluator.QueryContext;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
+import it.unibz.inf.ontop.answering.reformulation.impl.ReferenceValueReplacer;
 import it.unibz.inf.ontop.query.ConstructTemplate;
 import it.unibz.inf.ontop.query.RDF4JQuery;
 import it.unibz.inf.ontop.query.resultset.GraphResultSet;
@@ -3,12 +3,15 @@ package it.unibz.inf.ontop.rdf4j.query.impl;
 import com.google.common.collect.ImmutableMultimap;
 import it.unibz.inf.ontop.query.RDF4JQueryFactory;
 import it.unibz.inf.ontop.query.SelectQuery;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.exception.OntopQueryAnsweringException;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
 import it.unibz.inf.ontop.query.resultset.TupleResultSet;
 
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
 import it.unibz.inf.ontop.injection.OntopSystemSettings;
+import it.unibz.inf.ontop.rdf4j.query.resultio.OntopTupleResultWriter;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
 import org.eclipse.rdf4j.query.TupleQuery;
 import org.eclipse.rdf4j.query.TupleQueryResult;
@@ -16,6 +19,7 @@ import org.eclipse.rdf4j.query.TupleQueryResultHandler;
 import org.eclipse.rdf4j.query.TupleQueryResultHandlerException;
 import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
 
+import java.io.IOException;
 import java.util.List;
 
 
@@ -31,27 +35,8 @@ public class OntopTupleQuery extends AbstractOntopQuery<ParsedTupleQuery> implem
 
     @Override
 	public TupleQueryResult evaluate() throws QueryEvaluationException {
-		long start = System.currentTimeMillis();
-
 		try {
-			OntopStatement stm = conn.createStatement();
-			if (queryTimeout > 0)
-				stm.setQueryTimeout(queryTimeout);
-			TupleResultSet res;
-			try {
-				SelectQuery inputQuery = factory.createSelectQuery(getQueryString(), getParsedQuery(), bindings);
-				res = stm.execute(inputQuery, getHttpHeaders());
-			}
-			catch (OntopQueryAnsweringException e) {
-				long end = System.currentTimeMillis();
-				if (queryTimeout > 0 && (end - start) >= queryTimeout * 1000L) {
-					throw new QueryEvaluationException("OntopTupleQuery timed out. More than " + queryTimeout + " seconds passed", e);
-				}
-				else {
-					throw e;
-				}
-			}
-
+			TupleResultSet res = execute();
 			List<String> signature = res.getSignature();
 			return new OntopTupleQueryResult(res, signature);
 		}
@@ -63,6 +48,64 @@ public class OntopTupleQuery extends AbstractOntopQuery<ParsedTupleQuery> implem
 		}
 	}
 
+	/**
+	 * Streams the results to the writer, without building RDF terms for the common cases
+	 */
+	public void evaluate(OntopTupleResultWriter writer)
+			throws QueryEvaluationException, TupleQueryResultHandlerException {
+		TupleResultSet res;
+		try {
+			res = execute();
+		}
+		catch (QueryEvaluationException e) {
+			throw e;
+		}
+		catch (Exception e) {
+			throw new QueryEvaluationException(e);
+		}
+
+		try {
+			writer.startQueryResult(res.getSignature());
+			res.forEachLexicalRow(writer);
+			writer.endQueryResult();
+		}
+		catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+		catch (OntopConnectionException | OntopResultConversionException e) {
+			throw new QueryEvaluationException(e);
+		}
+		finally {
+			try {
+				res.close();
+			}
+			catch (OntopConnectionException e) {
+				// Already closed when all the results have been consumed
+			}
+		}
+	}
+
+	private TupleResultSet execute() throws OntopQueryAnsweringException, OntopConnectionException {
+		long start = System.currentTimeMillis();
+
+		OntopStatement stm = conn.createStatement();
+		if (queryTimeout > 0)
+			stm.setQueryTimeout(queryTimeout);
+		try {
+			SelectQuery inputQuery = factory.createSelectQuery(getQueryString(), getParsedQuery(), bindings);
+			return stm.execute(inputQuery, getHttpHeaders());
+		}
+		catch (OntopQueryAnsweringException e) {
+			long end = System.currentTimeMillis();
+			if (queryTimeout > 0 && (end - start) >= queryTimeout * 1000L) {
+				throw new QueryEvaluationException("OntopTupleQuery timed out. More than " + queryTimeout + " seconds passed", e);
+			}
+			else {
+				throw e;
+			}
+		}
+	}
+
     @Override
 	public void evaluate(TupleQueryResultHandler handler) 
 			throws QueryEvaluationException, TupleQueryResultHandlerException {
@@ -0,0 +1,22 @@
+package it.unibz.inf.ontop.rdf4j.query.resultio;
+
+import it.unibz.inf.ontop.query.resultset.LexicalRowHandler;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Serializes SELECT results directly from the lexical values and types of the rows,
+ * without building RDF terms (neither Ontop constants nor RDF4J values).
+ *
+ * See {@link it.unibz.inf.ontop.rdf4j.query.impl.OntopTupleQuery#evaluate(OntopTupleResultWriter)}
+ */
+public interface OntopTupleResultWriter extends LexicalRowHandler {
+
+    void startQueryResult(List<String> bindingNames) throws IOException;
+
+    /**
+     * Flushes the output, but does not close it
+     */
+    void endQueryResult() throws IOException;
+}
@@ -0,0 +1,119 @@
+package it.unibz.inf.ontop.rdf4j.query.resultio.impl;
+
+import it.unibz.inf.ontop.model.type.LanguageTag;
+import it.unibz.inf.ontop.model.type.ObjectRDFType;
+import it.unibz.inf.ontop.model.type.RDFDatatype;
+import it.unibz.inf.ontop.model.type.RDFTermType;
+import it.unibz.inf.ontop.model.vocabulary.XSD;
+import it.unibz.inf.ontop.rdf4j.query.resultio.OntopTupleResultWriter;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Writes into a char buffer that is flushed to the output stream (UTF-8) when full.
+ *
+ * Not thread-safe.
+ */
+public abstract class AbstractOntopTupleResultWriter implements OntopTupleResultWriter {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Writer writer;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position = 0;
+    private final Map<RDFTermType, TermDescription> descriptions = new IdentityHashMap<>();
+
+    protected AbstractOntopTupleResultWriter(OutputStream outputStream) {
+        this.writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void endQueryResult() throws IOException {
+        flushBuffer();
+        writer.flush();
+    }
+
+    protected final void write(char c) throws IOException {
+        if (position == BUFFER_SIZE)
+            flushBuffer();
+        buffer[position++] = c;
+    }
+
+    protected final void write(String s) throws IOException {
+        int length = s.length();
+        int start = 0;
+        while (start < length) {
+            if (position == BUFFER_SIZE)
+                flushBuffer();
+            int end = Math.min(length, start + BUFFER_SIZE - position);
+            s.getChars(start, end, buffer, position);
+            position += end - start;
+            start = end;
+        }
+    }
+
+    protected final void write(CharSequence s) throws IOException {
+        if (s instanceof String) {
+            write((String) s);
+            return;
+        }
+        for (int i = 0; i < s.length(); i++)
+            write(s.charAt(i));
+    }
+
+    private void flushBuffer() throws IOException {
+        writer.write(buffer, 0, position);
+        position = 0;
+    }
+
+    /**
+     * Cached, as the types of a column rarely vary
+     */
+    protected final TermDescription describe(RDFTermType type) {
+        return descriptions.computeIfAbsent(type, TermDescription::new);
+    }
+
+
+    protected static class TermDescription {
+        protected final boolean isIRI;
+        protected final boolean isBlankNode;
+        /**
+         * Null for IRIs, blank nodes, language-tagged literals and xsd:string (default datatype)
+         */
+        @Nullable
+        protected final String datatype;
+        @Nullable
+        protected final String languageTag;
+
+        private TermDescription(RDFTermType type) {
+            if (type instanceof RDFDatatype) {
+                RDFDatatype rdfDatatype = (RDFDatatype) type;
+                this.isIRI = false;
+                this.isBlankNode = false;
+                this.languageTag = rdfDatatype.getLanguageTag()
+                        .map(LanguageTag::getFullString)
+                        .orElse(null);
+                this.datatype = (languageTag != null || rdfDatatype.getIRI().equals(XSD.STRING))
+                        ? null
+                        : rdfDatatype.getIRI().getIRIString();
+            }
+            else {
+                this.isBlankNode = (type instanceof ObjectRDFType) && ((ObjectRDFType) type).isBlankNode();
+                this.isIRI = !isBlankNode;
+                this.languageTag = null;
+                this.datatype = null;
+            }
+        }
+
+        protected boolean isLiteral() {
+            return !isIRI && !isBlankNode;
+        }
+    }
+}
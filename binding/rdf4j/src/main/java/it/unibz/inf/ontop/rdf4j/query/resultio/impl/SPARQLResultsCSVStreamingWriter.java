@@ -0,0 +1,70 @@
+package it.unibz.inf.ontop.rdf4j.query.resultio.impl;
+
+import it.unibz.inf.ontop.model.type.RDFTermType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * SPARQL 1.1 Query Results CSV Format: only the lexical values are written (no datatype nor language tag)
+ */
+public class SPARQLResultsCSVStreamingWriter extends AbstractOntopTupleResultWriter {
+
+    public SPARQLResultsCSVStreamingWriter(OutputStream outputStream) {
+        super(outputStream);
+    }
+
+    @Override
+    public void startQueryResult(List<String> bindingNames) throws IOException {
+        for (int i = 0; i < bindingNames.size(); i++) {
+            if (i > 0)
+                write(',');
+            writeField(bindingNames.get(i));
+        }
+        write("\r\n");
+    }
+
+    @Override
+    public void handleRow(CharSequence[] lexicalValues, RDFTermType[] types) throws IOException {
+        for (int i = 0; i < lexicalValues.length; i++) {
+            if (i > 0)
+                write(',');
+            CharSequence value = lexicalValues[i];
+            if (value == null)
+                continue;
+
+            if (describe(types[i]).isBlankNode) {
+                write("_:");
+                write(value);
+            }
+            else
+                writeField(value);
+        }
+        write("\r\n");
+    }
+
+    private void writeField(CharSequence value) throws IOException {
+        if (!requiresQuotes(value)) {
+            write(value);
+            return;
+        }
+        write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"')
+                write('"');
+            write(c);
+        }
+        write('"');
+    }
+
+    private static boolean requiresQuotes(CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == ',' || c == '\n' || c == '\r')
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,125 @@
+package it.unibz.inf.ontop.rdf4j.query.resultio.impl;
+
+import it.unibz.inf.ontop.model.type.RDFTermType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * SPARQL 1.1 Query Results JSON Format
+ */
+public class SPARQLResultsJSONStreamingWriter extends AbstractOntopTupleResultWriter {
+
+    private String[] bindingPrefixes;
+    private boolean isFirstRow = true;
+
+    public SPARQLResultsJSONStreamingWriter(OutputStream outputStream) {
+        super(outputStream);
+    }
+
+    @Override
+    public void startQueryResult(List<String> bindingNames) throws IOException {
+        write("{\"head\":{\"vars\":[");
+        bindingPrefixes = new String[bindingNames.size()];
+        for (int i = 0; i < bindingPrefixes.length; i++) {
+            if (i > 0)
+                write(',');
+            String quotedName = quote(bindingNames.get(i));
+            write(quotedName);
+            bindingPrefixes[i] = quotedName + ":{\"type\":\"";
+        }
+        write("]},\"results\":{\"bindings\":[");
+    }
+
+    @Override
+    public void handleRow(CharSequence[] lexicalValues, RDFTermType[] types) throws IOException {
+        if (!isFirstRow)
+            write(',');
+        isFirstRow = false;
+
+        write('{');
+        boolean isFirstBinding = true;
+        for (int i = 0; i < lexicalValues.length; i++) {
+            CharSequence value = lexicalValues[i];
+            if (value == null)
+                continue;
+            if (!isFirstBinding)
+                write(',');
+            isFirstBinding = false;
+
+            TermDescription description = describe(types[i]);
+            write(bindingPrefixes[i]);
+            write(description.isIRI ? "uri" : description.isBlankNode ? "bnode" : "literal");
+            write("\",\"value\":\"");
+            writeEscaped(value);
+            write('"');
+            if (description.languageTag != null) {
+                write(",\"xml:lang\":\"");
+                writeEscaped(description.languageTag);
+                write('"');
+            }
+            else if (description.datatype != null) {
+                write(",\"datatype\":\"");
+                writeEscaped(description.datatype);
+                write('"');
+            }
+            write('}');
+        }
+        write('}');
+    }
+
+    @Override
+    public void endQueryResult() throws IOException {
+        write("]}}");
+        super.endQueryResult();
+    }
+
+    private void writeEscaped(CharSequence s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    write("\\\"");
+                    break;
+                case '\\':
+                    write("\\\\");
+                    break;
+                case '\n':
+                    write("\\n");
+                    break;
+                case '\r':
+                    write("\\r");
+                    break;
+                case '\t':
+                    write("\\t");
+                    break;
+                case '\b':
+                    write("\\b");
+                    break;
+                case '\f':
+                    write("\\f");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        write("\\u00");
+                        write(Character.forDigit(c >> 4, 16));
+                        write(Character.forDigit(c & 0xF, 16));
+                    }
+                    else
+                        write(c);
+            }
+        }
+    }
+
+    private static String quote(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\')
+                sb.append('\\');
+            sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,90 @@
+package it.unibz.inf.ontop.rdf4j.query.resultio.impl;
+
+import it.unibz.inf.ontop.model.type.RDFTermType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * SPARQL 1.1 Query Results TSV Format: RDF terms are written in the Turtle syntax
+ */
+public class SPARQLResultsTSVStreamingWriter extends AbstractOntopTupleResultWriter {
+
+    public SPARQLResultsTSVStreamingWriter(OutputStream outputStream) {
+        super(outputStream);
+    }
+
+    @Override
+    public void startQueryResult(List<String> bindingNames) throws IOException {
+        for (int i = 0; i < bindingNames.size(); i++) {
+            if (i > 0)
+                write('\t');
+            write('?');
+            write(bindingNames.get(i));
+        }
+        write('\n');
+    }
+
+    @Override
+    public void handleRow(CharSequence[] lexicalValues, RDFTermType[] types) throws IOException {
+        for (int i = 0; i < lexicalValues.length; i++) {
+            if (i > 0)
+                write('\t');
+            CharSequence value = lexicalValues[i];
+            if (value == null)
+                continue;
+
+            TermDescription description = describe(types[i]);
+            if (description.isIRI) {
+                write('<');
+                write(value);
+                write('>');
+            }
+            else if (description.isBlankNode) {
+                write("_:");
+                write(value);
+            }
+            else {
+                write('"');
+                writeEscaped(value);
+                write('"');
+                if (description.languageTag != null) {
+                    write('@');
+                    write(description.languageTag);
+                }
+                else if (description.datatype != null) {
+                    write("^^<");
+                    write(description.datatype);
+                    write('>');
+                }
+            }
+        }
+        write('\n');
+    }
+
+    private void writeEscaped(CharSequence s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    write("\\\"");
+                    break;
+                case '\\':
+                    write("\\\\");
+                    break;
+                case '\n':
+                    write("\\n");
+                    break;
+                case '\r':
+                    write("\\r");
+                    break;
+                case '\t':
+                    write("\\t");
+                    break;
+                default:
+                    write(c);
+            }
+        }
+    }
+}
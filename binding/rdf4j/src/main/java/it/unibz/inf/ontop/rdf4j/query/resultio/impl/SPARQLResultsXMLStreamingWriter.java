@@ -0,0 +1,111 @@
+package it.unibz.inf.ontop.rdf4j.query.resultio.impl;
+
+import it.unibz.inf.ontop.model.type.RDFTermType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * SPARQL Query Results XML Format
+ */
+public class SPARQLResultsXMLStreamingWriter extends AbstractOntopTupleResultWriter {
+
+    private String[] bindingPrefixes;
+
+    public SPARQLResultsXMLStreamingWriter(OutputStream outputStream) {
+        super(outputStream);
+    }
+
+    @Override
+    public void startQueryResult(List<String> bindingNames) throws IOException {
+        write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        write("<sparql xmlns=\"http://www.w3.org/2005/sparql-results#\">\n");
+        write("<head>\n");
+        bindingPrefixes = new String[bindingNames.size()];
+        for (int i = 0; i < bindingPrefixes.length; i++) {
+            String name = escape(bindingNames.get(i));
+            write("<variable name=\"");
+            write(name);
+            write("\"/>\n");
+            bindingPrefixes[i] = "<binding name=\"" + name + "\">";
+        }
+        write("</head>\n<results>\n");
+    }
+
+    @Override
+    public void handleRow(CharSequence[] lexicalValues, RDFTermType[] types) throws IOException {
+        write("<result>\n");
+        for (int i = 0; i < lexicalValues.length; i++) {
+            CharSequence value = lexicalValues[i];
+            if (value == null)
+                continue;
+
+            TermDescription description = describe(types[i]);
+            write(bindingPrefixes[i]);
+            if (description.isIRI) {
+                write("<uri>");
+                writeEscaped(value);
+                write("</uri>");
+            }
+            else if (description.isBlankNode) {
+                write("<bnode>");
+                writeEscaped(value);
+                write("</bnode>");
+            }
+            else {
+                if (description.languageTag != null) {
+                    write("<literal xml:lang=\"");
+                    writeEscaped(description.languageTag);
+                    write("\">");
+                }
+                else if (description.datatype != null) {
+                    write("<literal datatype=\"");
+                    writeEscaped(description.datatype);
+                    write("\">");
+                }
+                else
+                    write("<literal>");
+                writeEscaped(value);
+                write("</literal>");
+            }
+            write("</binding>\n");
+        }
+        write("</result>\n");
+    }
+
+    @Override
+    public void endQueryResult() throws IOException {
+        write("</results>\n</sparql>\n");
+        super.endQueryResult();
+    }
+
+    private void writeEscaped(CharSequence s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '&':
+                    write("&amp;");
+                    break;
+                case '<':
+                    write("&lt;");
+                    break;
+                case '>':
+                    write("&gt;");
+                    break;
+                case '"':
+                    write("&quot;");
+                    break;
+                case '\r':
+                    write("&#xD;");
+                    break;
+                default:
+                    write(c);
+            }
+        }
+    }
+
+    private static String escape(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,91 @@
+package it.unibz.inf.ontop.rdf4j.repository.impl;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import it.unibz.inf.ontop.query.*;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.eclipse.rdf4j.query.parser.*;
+
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Reuses the KG queries without bindings built from the same parsed query (see ParsedQueryCache).
+ *
+ * The parsed queries are compared by identity. As the KG queries refer to their parsed query,
+ * the entries are not garbage-collected with the parsed queries: the cache is bounded
+ * like the ParsedQueryCache.
+ */
+class CachingRDF4JQueryFactory implements RDF4JQueryFactory {
+
+    private final RDF4JQueryFactory factory;
+    private final Cache<ParsedQuery, KGQuery<?>> queries;
+
+    CachingRDF4JQueryFactory(RDF4JQueryFactory factory, long maxSize) {
+        this.factory = factory;
+        this.queries = CacheBuilder.newBuilder()
+                // Identity comparison
+                .weakKeys()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    @Override
+    public RDF4JSelectQuery createSelectQuery(String queryString, ParsedTupleQuery parsedQuery, BindingSet bindings) {
+        return bindings.size() == 0
+                ? get(queryString, parsedQuery, RDF4JSelectQuery.class,
+                        () -> factory.createSelectQuery(queryString, parsedQuery, EmptyBindingSet.getInstance()))
+                : factory.createSelectQuery(queryString, parsedQuery, bindings);
+    }
+
+    @Override
+    public RDF4JAskQuery createAskQuery(String queryString, ParsedBooleanQuery parsedQuery, BindingSet bindings) {
+        return bindings.size() == 0
+                ? get(queryString, parsedQuery, RDF4JAskQuery.class,
+                        () -> factory.createAskQuery(queryString, parsedQuery, EmptyBindingSet.getInstance()))
+                : factory.createAskQuery(queryString, parsedQuery, bindings);
+    }
+
+    @Override
+    public RDF4JConstructQuery createConstructQuery(String queryString, ParsedGraphQuery parsedQuery, BindingSet bindings) {
+        return bindings.size() == 0
+                ? get(queryString, parsedQuery, RDF4JConstructQuery.class,
+                        () -> factory.createConstructQuery(queryString, parsedQuery, EmptyBindingSet.getInstance()))
+                : factory.createConstructQuery(queryString, parsedQuery, bindings);
+    }
+
+    @Override
+    public RDF4JDescribeQuery createDescribeQuery(String queryString, ParsedDescribeQuery parsedQuery, BindingSet bindings) {
+        return bindings.size() == 0
+                ? get(queryString, parsedQuery, RDF4JDescribeQuery.class,
+                        () -> factory.createDescribeQuery(queryString, parsedQuery, EmptyBindingSet.getInstance()))
+                : factory.createDescribeQuery(queryString, parsedQuery, bindings);
+    }
+
+    @Override
+    public RDF4JInsertOperation createInsertOperation(String queryString, ParsedUpdate parsedUpdate) {
+        return factory.createInsertOperation(queryString, parsedUpdate);
+    }
+
+    private <Q extends KGQuery<?>> Q get(String queryString, ParsedQuery parsedQuery, Class<Q> queryClass,
+                                         Supplier<Q> constructor) {
+        KGQuery<?> query;
+        try {
+            // Concurrent requests for the same parsed query wait for a single construction
+            query = queries.get(parsedQuery, constructor::get);
+        }
+        catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+
+        // Should not happen as the parsed queries are cached by query string
+        if (!queryClass.isInstance(query) || !query.getOriginalString().equals(queryString))
+            return constructor.get();
+
+        return queryClass.cast(query);
+    }
+}
@@ -46,6 +46,8 @@ public class OntopRepositoryConnectionImpl implements OntopRepositoryConnection
     private final OntopConnection ontopConnection;
     private final RDF4JQueryFactory inputQueryFactory;
     private final OntopSystemSettings settings;
+    private final ParsedQueryCache parsedQueryCache;
+    private final Runnable closeListener;
     private boolean isOpen;
     private boolean isActive;
     private final RDFParser rdfParser;
@@ -53,11 +55,14 @@ public class OntopRepositoryConnectionImpl implements OntopRepositoryConnection
 
 
     OntopRepositoryConnectionImpl(OntopRepository rep, OntopConnection connection,
-                                  RDF4JQueryFactory inputQueryFactory, OntopSystemSettings settings) {
+                                  RDF4JQueryFactory inputQueryFactory, OntopSystemSettings settings,
+                                  ParsedQueryCache parsedQueryCache, Runnable closeListener) {
         this.repository = rep;
         this.ontopConnection = connection;
         this.inputQueryFactory = inputQueryFactory;
         this.settings = settings;
+        this.parsedQueryCache = parsedQueryCache;
+        this.closeListener = closeListener;
         this.isOpen = true;
         this.isActive = false;
         this.rdfParser = Rio.createParser(RDFFormat.RDFXML, this.repository.getValueFactory());
@@ -127,11 +132,15 @@ public class OntopRepositoryConnectionImpl implements OntopRepositoryConnection
         //Closes the connection, freeing resources.
         //If the connection is not in autoCommit mode,
         //all non-committed operations will be lost.
+        boolean wasOpen = isOpen;
         isOpen = false;
         try {
             ontopConnection.close();
         } catch (Exception e) {
             throw new RepositoryException(e);
+        } finally {
+            if (wasOpen)
+                closeListener.run();
         }
     }
 
@@ -328,7 +337,7 @@ public class OntopRepositoryConnectionImpl implements OntopRepositoryConnection
             throw new MalformedQueryException("SPARQL query expected!");
 
         String safeBaseIRI = getSafeBaseIri(baseIRI);
-        ParsedBooleanQuery q = (ParsedBooleanQuery) QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, safeBaseIRI);
+        ParsedBooleanQuery q = (ParsedBooleanQuery) parseQuery(queryString, safeBaseIRI);
         return new OntopBooleanQuery(queryString, q, safeBaseIRI, ontopConnection, httpHeaders, inputQueryFactory, settings);
     }
 
@@ -356,7 +365,7 @@ public class OntopRepositoryConnectionImpl implements OntopRepositoryConnection
             throw new MalformedQueryException("SPARQL query expected!");
 
         String safeBaseIRI = getSafeBaseIri(baseIRI);
-        ParsedGraphQuery q = (ParsedGraphQuery) QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, safeBaseIRI);
+        ParsedGraphQuery q = (ParsedGraphQuery) parseQuery(queryString, safeBaseIRI);
         return new OntopGraphQuery(queryString, q, safeBaseIRI, ontopConnection, httpHeaders, inputQueryFactory, settings);
     }
 
@@ -391,9 +400,7 @@ public class OntopRepositoryConnectionImpl implements OntopRepositoryConnection
         if (ql != QueryLanguage.SPARQL)
             throw new MalformedQueryException("SPARQL query expected! ");
 
-        long beforeParsing = System.currentTimeMillis();
-        ParsedQuery q = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, baseIRI);
-        LOGGER.debug(String.format("Parsing time: %d ms", System.currentTimeMillis() - beforeParsing));
+        ParsedQuery q = parseQuery(queryString, baseIRI);
 
         // TODO: why no getSafeBaseIri?
         if (q instanceof ParsedTupleQuery)
@@ -431,10 +438,14 @@ public class OntopRepositoryConnectionImpl implements OntopRepositoryConnection
             throw new MalformedQueryException("SPARQL query expected!");
 
         String safeBaseIRI = getSafeBaseIri(baseIRI);
-        ParsedTupleQuery q = (ParsedTupleQuery) QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, safeBaseIRI);
+        ParsedTupleQuery q = (ParsedTupleQuery) parseQuery(queryString, safeBaseIRI);
         return new OntopTupleQuery(queryString, q, safeBaseIRI, ontopConnection, httpHeaders, inputQueryFactory, settings);
     }
 
+    private ParsedQuery parseQuery(String queryString, String baseIRI) throws MalformedQueryException {
+        return parsedQueryCache.parse(queryString, baseIRI);
+    }
+
     private static String getSafeBaseIri(String baseIRI) {
         return baseIRI == null
                 ? null
@@ -4,6 +4,7 @@ import com.google.inject.Injector;
 import it.unibz.inf.ontop.answering.OntopQueryEngine;
 import it.unibz.inf.ontop.answering.cache.HTTPCacheHeaders;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.evaluator.metrics.QueryPipelineMetrics;
 import it.unibz.inf.ontop.query.RDF4JQueryFactory;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
 import it.unibz.inf.ontop.injection.OntopSystemSettings;
@@ -32,13 +33,27 @@ public class OntopVirtualRepository extends AbstractRepository implements OntopR
     private OntopQueryEngine queryEngine;
     private final RDF4JQueryFactory inputQueryFactory;
     private final HTTPCacheHeaders cacheHeaders;
+    private final QueryPipelineMetrics metrics;
+    private final ParsedQueryCache parsedQueryCache;
+
+    // Repository connections not closed yet (see drain())
+    private final Object connectionMonitor = new Object();
+    private int openConnections = 0;
+    private boolean draining = false;
 
     public OntopVirtualRepository(OntopSystemConfiguration configuration) {
         this.configuration = configuration;
         Injector injector = configuration.getInjector();
-        inputQueryFactory = injector.getInstance(RDF4JQueryFactory.class);
         cacheHeaders = injector.getInstance(HTTPCacheHeaders.class);
+        metrics = injector.getInstance(QueryPipelineMetrics.class);
         settings = configuration.getSettings();
+
+        parsedQueryCache = new ParsedQueryCache(settings.getParsedQueryCacheMaxSize(), metrics);
+        RDF4JQueryFactory queryFactory = injector.getInstance(RDF4JQueryFactory.class);
+        // The KG queries can only be reused if the parsed queries are
+        inputQueryFactory = parsedQueryCache.isEnabled()
+                ? new CachingRDF4JQueryFactory(queryFactory, settings.getParsedQueryCacheMaxSize())
+                : queryFactory;
     }
 
     /**
@@ -49,18 +64,60 @@ public class OntopVirtualRepository extends AbstractRepository implements OntopR
      */
     @Override
     public OntopRepositoryConnection getConnection() throws RepositoryException {
+        // Before the initialization, so that a drained repository is not initialized again
+        synchronized (connectionMonitor) {
+            if (draining)
+                throw new RepositoryException("The repository is being shut down");
+            openConnections++;
+        }
+
         if (!isInitialized()) {
-            init();
+            try {
+                init();
+            } catch (RepositoryException e) {
+                connectionClosed();
+                throw e;
+            }
         }
 
         try {
-            return new OntopRepositoryConnectionImpl(this, getOntopConnection(), inputQueryFactory, settings);
+            return new OntopRepositoryConnectionImpl(this, getOntopConnection(), inputQueryFactory, settings,
+                    parsedQueryCache, this::connectionClosed);
         } catch (Exception e) {
+            connectionClosed();
             logger.error("Error creating repo connection: " + e.getMessage());
             throw new RepositoryException(e);
         }
     }
 
+    private void connectionClosed() {
+        synchronized (connectionMonitor) {
+            openConnections--;
+            if (openConnections == 0)
+                connectionMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * Stops providing new connections and waits for the open ones to be closed (e.g. before shutting down
+     * a repository that has been replaced).
+     *
+     * Returns false if some connections are still open after the timeout (in ms).
+     */
+    public boolean drain(long timeout) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout;
+        synchronized (connectionMonitor) {
+            draining = true;
+            while (openConnections > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0)
+                    return false;
+                connectionMonitor.wait(remaining);
+            }
+            return true;
+        }
+    }
+
 
     /**
      * This method leads to the reasoner being initialized (connecting to the database,
@@ -73,6 +130,15 @@ public class OntopVirtualRepository extends AbstractRepository implements OntopR
             queryEngine.connect();
             logger.info("Ontop virtual repository initialized successfully!");
         } catch (Exception e) {
+            // Not initialized, so shutDown() would not release it
+            if (queryEngine != null) {
+                try {
+                    queryEngine.close();
+                } catch (Exception e1) {
+                    e.addSuppressed(e1);
+                }
+                queryEngine = null;
+            }
             throw new RepositoryException(e);
         }
     }
@@ -96,10 +162,15 @@ public class OntopVirtualRepository extends AbstractRepository implements OntopR
 
     @Override
     protected void shutDownInternal() throws RepositoryException {
+        // Already shut down (e.g. by the reloadable repository and by its draining thread)
+        if (queryEngine == null)
+            return;
         try {
             queryEngine.close();
         } catch (Exception e) {
             throw new RepositoryException(e);
+        } finally {
+            queryEngine = null;
         }
     }
 
@@ -129,6 +200,20 @@ public class OntopVirtualRepository extends AbstractRepository implements OntopR
         return cacheHeaders;
     }
 
+    /**
+     * Useful for the endpoints (e.g. for configuring the result cache)
+     */
+    public OntopSystemSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Useful for the endpoints (e.g. for exposing the latency histograms)
+     */
+    public QueryPipelineMetrics getQueryPipelineMetrics() {
+        return metrics;
+    }
+
     /**
      * Useful for the endpoints: allows to share the same query engine for the SPARQL and the predefined query endpoints
      */
@@ -0,0 +1,76 @@
+package it.unibz.inf.ontop.rdf4j.repository.impl;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import it.unibz.inf.ontop.evaluator.metrics.QueryPipelineMetrics;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses the SPARQL queries, reusing the parsed queries of the previous calls.
+ * Shared by the connections of a repository.
+ *
+ * The parsed queries are never modified afterwards (e.g. the CONSTRUCT queries are split on a copy),
+ * so they can be shared by concurrent queries.
+ */
+class ParsedQueryCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParsedQueryCache.class);
+
+    // Key: query string and base IRI (nullable). Null when disabled.
+    @Nullable
+    private final Cache<Map.Entry<String, String>, ParsedQuery> cache;
+    private final QueryPipelineMetrics metrics;
+
+    ParsedQueryCache(long maxSize, QueryPipelineMetrics metrics) {
+        this.cache = maxSize > 0
+                ? CacheBuilder.newBuilder()
+                    .maximumSize(maxSize)
+                    .build()
+                : null;
+        this.metrics = metrics;
+    }
+
+    ParsedQuery parse(String queryString, @Nullable String baseIRI) throws MalformedQueryException {
+        if (cache == null)
+            return parseWithoutCache(queryString, baseIRI);
+
+        try {
+            // Concurrent requests for the same query wait for a single parsing
+            return cache.get(Maps.immutableEntry(queryString, baseIRI), () -> parseWithoutCache(queryString, baseIRI));
+        }
+        catch (ExecutionException | UncheckedExecutionException e) {
+            // Malformed queries are not cached
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RepositoryException(e.getCause());
+        }
+    }
+
+    private ParsedQuery parseWithoutCache(String queryString, @Nullable String baseIRI) throws MalformedQueryException {
+        long beforeParsing = System.nanoTime();
+        ParsedQuery query = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, baseIRI);
+        long parsingDuration = System.nanoTime() - beforeParsing;
+        LOGGER.debug("Parsing time: {} ms", TimeUnit.NANOSECONDS.toMillis(parsingDuration));
+
+        if (metrics.isEnabled())
+            metrics.record(QueryPipelineMetrics.PARSE, metrics.getTemplateLabel(queryString), parsingDuration);
+        return query;
+    }
+
+    boolean isEnabled() {
+        return cache != null;
+    }
+}
@@ -0,0 +1,230 @@
+package it.unibz.inf.ontop.rdf4j.repository.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.cache.HTTPCacheHeaders;
+import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
+import it.unibz.inf.ontop.evaluator.QueryContext;
+import it.unibz.inf.ontop.exception.OntopReformulationException;
+import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
+import it.unibz.inf.ontop.query.KGQuery;
+import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
+import it.unibz.inf.ontop.rdf4j.repository.OntopRepositoryConnection;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.base.AbstractRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Repository whose OBDA specification can be reloaded without interrupting the query answering.
+ *
+ * On reload, a new OntopVirtualRepository is built from the new configuration and its query cache is warmed up
+ * with the most used queries of the current one. It then replaces the current repository atomically.
+ * The connections already open keep using the previous repository, which is shut down once they are all closed
+ * (or after the drain timeout, see OntopSystemSettings.getReloadDrainTimeout()).
+ *
+ * If the new specification cannot be loaded, the current repository is kept.
+ */
+public class ReloadableOntopRepository extends AbstractRepository implements OntopRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReloadableOntopRepository.class);
+
+    private final AtomicReference<OntopVirtualRepository> repository;
+    private final List<ReloadListener> listeners = new CopyOnWriteArrayList<>();
+    // Previous repositories not shut down yet -> their draining thread
+    private final Map<OntopVirtualRepository, Thread> drainingRepositories = new ConcurrentHashMap<>();
+
+    public ReloadableOntopRepository(OntopVirtualRepository repository) {
+        this.repository = new AtomicReference<>(repository);
+    }
+
+    /**
+     * Repository answering the new queries.
+     *
+     * Useful for the endpoints (e.g. for accessing the query engine or the metrics).
+     * Should not be kept, as it may be replaced at any time.
+     */
+    public OntopVirtualRepository getCurrentRepository() {
+        return repository.get();
+    }
+
+    /**
+     * The listeners are called (in the reloading thread) right after the new repository has been swapped in
+     */
+    public void addReloadListener(ReloadListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Returns once the new repository answers the new queries. The previous repository is drained and
+     * shut down in the background.
+     *
+     * Concurrent reloads are serialized.
+     */
+    public synchronized void reload(OntopSystemConfiguration configuration) throws RepositoryException {
+        long beginning = System.currentTimeMillis();
+
+        OntopVirtualRepository newRepository = OntopRepository.defaultRepository(configuration);
+        OntopVirtualRepository previousRepository = repository.get();
+        try {
+            // Loads the specification and connects to the DB
+            newRepository.init();
+            warmUp(previousRepository, newRepository);
+        }
+        catch (RuntimeException e) {
+            // Releases what has already been allocated (e.g. the DB connections)
+            shutDown(newRepository);
+            throw e;
+        }
+
+        repository.set(newRepository);
+        LOGGER.info("Ontop virtual repository reloaded in {} ms", System.currentTimeMillis() - beginning);
+
+        for (ReloadListener listener : listeners) {
+            try {
+                listener.reloaded(newRepository, configuration);
+            }
+            catch (Exception e) {
+                LOGGER.error("Error when notifying the reload of the repository", e);
+            }
+        }
+
+        Thread drainingThread = new Thread(
+                () -> drainAndShutDown(previousRepository, newRepository.getSettings().getReloadDrainTimeout()),
+                "ontop-repository-drain");
+        drainingThread.setDaemon(true);
+        drainingRepositories.put(previousRepository, drainingThread);
+        drainingThread.start();
+    }
+
+    /**
+     * Reformulates the most used queries of the previous repository with the new one, so that they
+     * do not pay the reformulation cost after the swap
+     */
+    private static void warmUp(OntopVirtualRepository previousRepository, OntopVirtualRepository newRepository) {
+        int maxCount = newRepository.getSettings().getReloadWarmUpQueries();
+        // Lazy repository not used yet
+        if (maxCount <= 0 || !previousRepository.isInitialized())
+            return;
+
+        ImmutableList<Map.Entry<KGQuery<?>, QueryContext>> queries = previousRepository.getOntopEngine()
+                .getQueryReformulator()
+                .getMostUsedCachedQueries(maxCount);
+
+        QueryReformulator reformulator = newRepository.getOntopEngine().getQueryReformulator();
+        int failures = 0;
+        for (Map.Entry<KGQuery<?>, QueryContext> query : queries) {
+            try {
+                reformulator.warmUp(query.getKey(), query.getValue());
+            }
+            // The query may not be valid anymore for the new specification
+            catch (OntopReformulationException e) {
+                failures++;
+                LOGGER.debug("Query not reformulated during the warm-up:\n{}\n{}",
+                        query.getKey().getOriginalString(), e.getMessage());
+            }
+        }
+        LOGGER.info("Query cache warmed up with {} queries ({} failed)", queries.size() - failures, failures);
+    }
+
+    private void drainAndShutDown(OntopVirtualRepository previousRepository, long timeout) {
+        try {
+            if (!previousRepository.drain(timeout))
+                LOGGER.warn("Some connections to the previous repository were still open after {} ms", timeout);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            shutDown(previousRepository);
+            drainingRepositories.remove(previousRepository);
+        }
+    }
+
+    private static void shutDown(OntopVirtualRepository repository) {
+        try {
+            repository.shutDown();
+        }
+        catch (RepositoryException e) {
+            LOGGER.error("Error when shutting down a replaced or discarded repository", e);
+        }
+    }
+
+    @Override
+    public OntopRepositoryConnection getConnection() throws RepositoryException {
+        if (!isInitialized()) {
+            init();
+        }
+
+        OntopVirtualRepository currentRepository = repository.get();
+        try {
+            return currentRepository.getConnection();
+        }
+        catch (RepositoryException e) {
+            // The repository may have been replaced (and is being drained) in the meantime
+            OntopVirtualRepository newRepository = repository.get();
+            if (newRepository == currentRepository)
+                throw e;
+            return newRepository.getConnection();
+        }
+    }
+
+    @Override
+    protected void initializeInternal() throws RepositoryException {
+        repository.get().init();
+    }
+
+    @Override
+    protected synchronized void shutDownInternal() throws RepositoryException {
+        // Does not wait for the end of the drain of the previous repositories
+        for (Map.Entry<OntopVirtualRepository, Thread> e : drainingRepositories.entrySet()) {
+            e.getValue().interrupt();
+            shutDown(e.getKey());
+        }
+        drainingRepositories.clear();
+        repository.get().shutDown();
+    }
+
+    @Override
+    public boolean isWritable() throws RepositoryException {
+        return false;
+    }
+
+    @Override
+    public File getDataDir() {
+        throw new RepositoryException("Ontop does not have a data directory");
+    }
+
+    @Override
+    public void setDataDir(File arg0) {
+        // Ignores it
+    }
+
+    @Override
+    public ValueFactory getValueFactory() {
+        return SimpleValueFactory.getInstance();
+    }
+
+    @Override
+    public void close() throws RepositoryException {
+        this.shutDown();
+    }
+
+    @Override
+    public HTTPCacheHeaders getHttpCacheHeaders() {
+        return repository.get().getHttpCacheHeaders();
+    }
+
+    @FunctionalInterface
+    public interface ReloadListener {
+        void reloaded(OntopVirtualRepository repository, OntopSystemConfiguration configuration) throws Exception;
+    }
+}
@@ -219,8 +219,11 @@ public class AbstractRDF4JTest {
     }
 
     protected TupleQueryResult evaluate(String queryString) {
-        TupleQuery query = REPO_CONNECTION.prepareTupleQuery(QueryLanguage.SPARQL, queryString);
-        return query.evaluate();
+        return prepareTupleQuery(queryString).evaluate();
+    }
+
+    protected TupleQuery prepareTupleQuery(String queryString) {
+        return REPO_CONNECTION.prepareTupleQuery(QueryLanguage.SPARQL, queryString);
     }
 
     protected GraphQueryResult evaluateGraph(String queryString) {
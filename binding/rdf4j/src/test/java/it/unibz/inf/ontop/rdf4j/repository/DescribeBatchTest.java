@@ -0,0 +1,54 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+
+public class DescribeBatchTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/employee/employee.obda";
+    private static final String SQL_SCRIPT = "/employee/employee.sql";
+    private static final String PROPERTIES_FILE = "/employee/employee-describe-batch.properties";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTIES_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testDescribeEmployees() {
+        String query = "PREFIX : <http://employee.example.org/voc#>\n" +
+                "DESCRIBE ?p WHERE {\n" +
+                "  ?p a :Employee .\n" +
+                "}";
+        assertEquals(11, runGraphQueryAndCount(query));
+    }
+
+    @Test
+    public void testDescribeCountries() {
+        String query = "PREFIX : <http://employee.example.org/voc#>\n" +
+                "DESCRIBE ?c WHERE {\n" +
+                "  ?c a :Country .\n" +
+                "}";
+        assertEquals(6, runGraphQueryAndCount(query));
+    }
+
+    @Test
+    public void testDescribeSeveralBlocks() {
+        String query = "PREFIX : <http://employee.example.org/voc#>\n" +
+                "DESCRIBE ?x WHERE {\n" +
+                "  { ?x a :Employee } UNION { ?x a :Country }\n" +
+                "}";
+        assertEquals(17, runGraphQueryAndCount(query));
+    }
+}
@@ -0,0 +1,22 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import org.junit.BeforeClass;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Same queries as DestinationTest, planned by the CostBasedQueryPlanner (with sampled statistics)
+ */
+public class DestinationCostBasedPlannerTest extends DestinationTest {
+
+    private static final String OBDA_FILE = "/destination/dest.obda";
+    private static final String SQL_SCRIPT = "/destination/schema.sql";
+    private static final String ONTOLOGY_FILE = "/destination/dest.owl";
+    private static final String PROPERTIES_FILE = "/destination/dest-cost-based-planner.properties";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, ONTOLOGY_FILE, PROPERTIES_FILE);
+    }
+}
@@ -0,0 +1,43 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Same queries as DestinationTest, with the literal values compared in the SQL conditions sent as parameters (H2)
+ */
+public class DestinationParameterizedSQLTest extends DestinationTest {
+
+    private static final String OBDA_FILE = "/destination/dest.obda";
+    private static final String SQL_SCRIPT = "/destination/schema.sql";
+    private static final String ONTOLOGY_FILE = "/destination/dest.owl";
+    private static final String PROPERTIES_FILE = "/destination/dest-parameterized-sql.properties";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, ONTOLOGY_FILE, PROPERTIES_FILE);
+    }
+
+    @Test
+    public void testStringConstantAsParameter() {
+        String sparql = "PREFIX schema: <http://schema.org/>\n" +
+                "SELECT ?h\n" +
+                "WHERE {\n" +
+                "  ?h a schema:LodgingBusiness ;\n" +
+                "     schema:name \"Hotel 1\"@en .\n" +
+                "}";
+
+        String sql = reformulateIntoNativeQuery(sparql);
+        assertTrue(sql.contains("?"));
+        assertFalse(sql.contains("'Hotel 1'"));
+
+        assertEquals(1, runQueryAndCount(sparql));
+    }
+}
@@ -0,0 +1,83 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableSet;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ParallelMappingConversionTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/employee/employee.obda";
+    private static final String SQL_SCRIPT = "/employee/employee.sql";
+    private static final String PROPERTIES_FILE = "/employee/employee-parallel-mapping-conversion.properties";
+    private static final String PROPERTIES_FILE_8_THREADS = "/employee/employee-parallel-mapping-conversion-8.properties";
+    private static final String INVALID_OBDA_FILE = "/employee/rejected/employee-invalid-assertions.obda";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTIES_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testAllTriples() {
+        assertEquals(23, runQueryAndCount("SELECT * WHERE { ?s ?p ?o }"));
+    }
+
+    @Test
+    public void testCountries() {
+        String query = "PREFIX : <http://employee.example.org/voc#>\n" +
+                "SELECT ?v WHERE {\n" +
+                "  ?c a :Country ; :name ?v .\n" +
+                "}";
+        runQueryAndCompare(query, ImmutableSet.of("Italy", "Germany"));
+    }
+
+    /**
+     * The first invalid assertion in the mapping order is reported, whatever the number of threads
+     */
+    @Test
+    public void testFirstErrorReported() throws IOException, SQLException {
+        String jdbcUrl = H2RDF4JTestTools.generateJdbcUrl();
+        try (Connection ignored = H2RDF4JTestTools.createH2Instance(jdbcUrl, SQL_SCRIPT)) {
+            // Sequential, 4 and 8 threads
+            for (String propertyFile : Arrays.asList(null, PROPERTIES_FILE, PROPERTIES_FILE_8_THREADS)) {
+                for (int i = 0; i < 5; i++) {
+                    String message = getInitializationErrorMessages(jdbcUrl, propertyFile);
+                    assertTrue(message, message.contains("nickname1"));
+                    for (String laterError : new String[]{"missing_table2", "nickname3", "missing_table4", "nickname5"})
+                        assertFalse(message, message.contains(laterError));
+                }
+            }
+        }
+    }
+
+    /**
+     * Messages of the whole cause chain
+     */
+    private static String getInitializationErrorMessages(String jdbcUrl, String propertyFile) {
+        try (OntopRepositoryConnection ignored = H2RDF4JTestTools.initOBDA(jdbcUrl, INVALID_OBDA_FILE, null,
+                propertyFile, null, null, null)) {
+            fail("A repository exception was expected");
+            return null;
+        }
+        catch (RepositoryException e) {
+            StringBuilder messages = new StringBuilder();
+            for (Throwable t = e; t != null; t = t.getCause())
+                messages.append(t.getMessage()).append("\n");
+            return messages.toString();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+public class QueryTemplateCacheTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/employee/employee.obda";
+    private static final String SQL_SCRIPT = "/employee/employee.sql";
+    private static final String PROPERTIES_FILE = "/employee/employee-query-template-cache.properties";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTIES_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testIRIConstants() {
+        runQueryAndCompare(buildIRIQuery(2), ImmutableList.of("Anna"));
+        runQueryAndCompare(buildIRIQuery(3), ImmutableList.of());
+        // Template verified with fresh values on its first query
+        runQueryAndCompare(buildIRIQuery(1), ImmutableList.of("Roger"));
+        runQueryAndCompare(buildIRIQuery(2), ImmutableList.of("Anna"));
+    }
+
+    @Test
+    public void testLiteralConstants() {
+        runQueryAndCompare(buildLiteralQuery("Munich"), ImmutableList.of("Anna"));
+        runQueryAndCompare(buildLiteralQuery("Berlin"), ImmutableList.of());
+        // Template verified with fresh values on its first query
+        runQueryAndCompare(buildLiteralQuery("Bozen"), ImmutableList.of("Roger"));
+    }
+
+    @Test
+    public void testLiteralAndIRIConstants() {
+        runQueryAndCompare(buildMixedQuery(1, "Bozen"), ImmutableList.of("Roger"));
+        runQueryAndCompare(buildMixedQuery(2, "Bozen"), ImmutableList.of());
+        runQueryAndCompare(buildMixedQuery(2, "Munich"), ImmutableList.of("Anna"));
+        runQueryAndCompare(buildMixedQuery(1, "Munich"), ImmutableList.of());
+    }
+
+    private static String buildIRIQuery(int id) {
+        return "PREFIX : <http://employee.example.org/voc#>\n" +
+                "SELECT ?v WHERE {\n" +
+                "  <http://employee.example.org/data/person/" + id + "> :firstName ?v .\n" +
+                "}";
+    }
+
+    private static String buildLiteralQuery(String locality) {
+        return "PREFIX : <http://employee.example.org/voc#>\n" +
+                "SELECT ?v WHERE {\n" +
+                "  ?p :firstName ?v ;\n" +
+                "     :locality \"" + locality + "\" .\n" +
+                "}";
+    }
+
+    private static String buildMixedQuery(int id, String locality) {
+        return "PREFIX : <http://employee.example.org/voc#>\n" +
+                "SELECT ?v WHERE {\n" +
+                "  <http://employee.example.org/data/person/" + id + "> :firstName ?v ;\n" +
+                "     :locality \"" + locality + "\" .\n" +
+                "}";
+    }
+}
@@ -0,0 +1,135 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
+import it.unibz.inf.ontop.rdf4j.repository.impl.ReloadableOntopRepository;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.Assert.*;
+
+public class ReloadableRepositoryTest {
+
+    private static final String SQL_SCRIPT = "/employee/employee.sql";
+    private static final String OBDA_FILE = "/employee/employee.obda";
+    private static final String RELOADED_OBDA_FILE = "/employee/employee-reload.obda";
+
+    private static final String QUERY = "PREFIX : <http://employee.example.org/voc#>\n" +
+            "SELECT ?v WHERE {\n" +
+            "  ?c a :Country ; :name ?v .\n" +
+            "}";
+
+    private String jdbcUrl;
+    private Connection sqlConnection;
+    private ReloadableOntopRepository repository;
+
+    @Before
+    public void setUp() throws SQLException, IOException {
+        jdbcUrl = H2RDF4JTestTools.generateJdbcUrl();
+        sqlConnection = H2RDF4JTestTools.createH2Instance(jdbcUrl, SQL_SCRIPT);
+        repository = new ReloadableOntopRepository(OntopRepository.defaultRepository(createConfiguration(OBDA_FILE)));
+        repository.init();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        repository.shutDown();
+        sqlConnection.close();
+    }
+
+    @Test
+    public void testReload() {
+        assertEquals(ImmutableSet.of("Italy", "Germany"), runQuery(repository));
+
+        repository.reload(createConfiguration(RELOADED_OBDA_FILE));
+
+        assertEquals(ImmutableSet.of("it", "de"), runQuery(repository));
+    }
+
+    @Test
+    public void testOpenConnectionDuringReload() throws InterruptedException {
+        OntopVirtualRepository previousRepository = repository.getCurrentRepository();
+        try (OntopRepositoryConnection connection = repository.getConnection()) {
+            repository.reload(createConfiguration(RELOADED_OBDA_FILE));
+            assertNotSame(previousRepository, repository.getCurrentRepository());
+
+            // Still answered by the previous specification
+            assertEquals(ImmutableSet.of("Italy", "Germany"), runQuery(connection));
+            assertFalse(previousRepository.drain(0));
+        }
+        assertTrue(previousRepository.drain(1000));
+        assertEquals(ImmutableSet.of("it", "de"), runQuery(repository));
+    }
+
+    @Test
+    public void testFailedReload() throws IOException {
+        OntopVirtualRepository previousRepository = repository.getCurrentRepository();
+        Path invalidMapping = Files.createTempFile("invalid", ".obda");
+        try {
+            Files.writeString(invalidMapping, "[MappingDeclaration] @collection [[\nmappingId\tm1\n");
+            repository.reload(createConfigurationFromPath(invalidMapping.toString()));
+            fail("A RepositoryException was expected");
+        }
+        catch (RepositoryException e) {
+            // Expected
+        }
+        finally {
+            Files.delete(invalidMapping);
+        }
+        assertSame(previousRepository, repository.getCurrentRepository());
+        assertEquals(ImmutableSet.of("Italy", "Germany"), runQuery(repository));
+    }
+
+    @Test
+    public void testShutDownDuringDrain() {
+        OntopVirtualRepository previousRepository = repository.getCurrentRepository();
+        OntopRepositoryConnection connection = repository.getConnection();
+        repository.reload(createConfiguration(RELOADED_OBDA_FILE));
+        assertTrue(previousRepository.isInitialized());
+
+        // Does not wait for the connection to be closed
+        repository.shutDown();
+        assertFalse(previousRepository.isInitialized());
+        assertFalse(repository.getCurrentRepository().isInitialized());
+    }
+
+    private OntopSQLOWLAPIConfiguration createConfiguration(String obdaFile) {
+        return createConfigurationFromPath(ReloadableRepositoryTest.class.getResource(obdaFile).getPath());
+    }
+
+    private OntopSQLOWLAPIConfiguration createConfigurationFromPath(String obdaPath) {
+        return OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .nativeOntopMappingFile(obdaPath)
+                .jdbcUrl(jdbcUrl)
+                .jdbcUser("sa")
+                .jdbcPassword("")
+                .enableTestMode()
+                .build();
+    }
+
+    private static ImmutableSet<String> runQuery(OntopRepository repository) {
+        try (OntopRepositoryConnection connection = repository.getConnection()) {
+            return runQuery(connection);
+        }
+    }
+
+    private static ImmutableSet<String> runQuery(OntopRepositoryConnection connection) {
+        ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+        try (TupleQueryResult result = connection.prepareTupleQuery(QueryLanguage.SPARQL, QUERY).evaluate()) {
+            while (result.hasNext())
+                builder.add(result.next().getValue("v").stringValue());
+        }
+        return builder.build();
+    }
+}
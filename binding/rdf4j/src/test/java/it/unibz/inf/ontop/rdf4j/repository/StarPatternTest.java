@@ -0,0 +1,78 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Triple patterns with a variable property or class
+ */
+public class StarPatternTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/employee/employee.obda";
+    private static final String SQL_SCRIPT = "/employee/employee.sql";
+    private static final String PREFIXES = "PREFIX : <http://employee.example.org/voc#>\n" +
+            "PREFIX data: <http://employee.example.org/data/>\n";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testVariableSubject() {
+        assertEquals(23, runQueryAndCount("SELECT * WHERE { ?s ?p ?o }"));
+    }
+
+    @Test
+    public void testConstantSubject() {
+        String sparql = PREFIXES + "SELECT ?v WHERE { data:country/it ?p ?v }";
+
+        String sql = reformulateIntoNativeQuery(sparql);
+        assertFalse(sql.contains("\"employee\""));
+        assertFalse(sql.contains("\"activity_denorm\""));
+
+        runQueryAndCompare(sparql, ImmutableSet.of("Italy", "Europe",
+                "http://employee.example.org/voc#Country",
+                "http://employee.example.org/data/continent/Europe"));
+    }
+
+    @Test
+    public void testConstantSubjectVariableClass() {
+        String sparql = PREFIXES + "SELECT ?v WHERE { data:person/1 a ?v }";
+
+        String sql = reformulateIntoNativeQuery(sparql);
+        assertFalse(sql.contains("\"country\""));
+        assertFalse(sql.contains("\"activity_denorm\""));
+
+        runQueryAndCompare(sparql, ImmutableSet.of("http://employee.example.org/voc#Employee",
+                "http://employee.example.org/voc#Developer"));
+    }
+
+    @Test
+    public void testConstantObject() {
+        String sparql = PREFIXES + "SELECT ?v WHERE { ?v ?p data:country/it }";
+
+        String sql = reformulateIntoNativeQuery(sparql);
+        assertFalse(sql.contains("\"activity_denorm\""));
+
+        runQueryAndCompare(sparql, ImmutableSet.of("http://employee.example.org/data/person/1"));
+    }
+
+    @Test
+    public void testUnknownSubject() {
+        assertEquals(0, runQueryAndCount(PREFIXES + "SELECT * WHERE { <http://example.org/other> ?p ?o }"));
+    }
+}
@@ -0,0 +1,101 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableMultiset;
+import it.unibz.inf.ontop.rdf4j.query.impl.OntopTupleQuery;
+import it.unibz.inf.ontop.rdf4j.query.resultio.OntopTupleResultWriter;
+import it.unibz.inf.ontop.rdf4j.query.resultio.impl.SPARQLResultsCSVStreamingWriter;
+import it.unibz.inf.ontop.rdf4j.query.resultio.impl.SPARQLResultsJSONStreamingWriter;
+import it.unibz.inf.ontop.rdf4j.query.resultio.impl.SPARQLResultsTSVStreamingWriter;
+import it.unibz.inf.ontop.rdf4j.query.resultio.impl.SPARQLResultsXMLStreamingWriter;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.resultio.QueryResultIO;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.helpers.QueryResultCollector;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The streaming writers must produce the same results as the RDF4J writers
+ */
+public class StreamingTupleResultWriterTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/destination/dest.obda";
+    private static final String SQL_SCRIPT = "/destination/schema.sql";
+    private static final String ONTOLOGY_FILE = "/destination/dest.owl";
+    private static final String PROPERTIES_FILE = "/destination/dest.properties";
+
+    private static final String QUERY = "PREFIX schema: <http://schema.org/>\n" +
+            "SELECT ?a ?n ?t ?s ?c WHERE {\n" +
+            "  ?a schema:name ?n .\n" +
+            "  OPTIONAL { ?a schema:telephone ?t }\n" +
+            "  BIND(CONCAT(str(?n), \" \\\"quoted\\\", <tag> & \\t\\n\") AS ?s)\n" +
+            "  BIND(42 AS ?c)\n" +
+            "}";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, ONTOLOGY_FILE, PROPERTIES_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testJSON() throws IOException {
+        compare(TupleQueryResultFormat.JSON, SPARQLResultsJSONStreamingWriter::new);
+    }
+
+    @Test
+    public void testXML() throws IOException {
+        compare(TupleQueryResultFormat.SPARQL, SPARQLResultsXMLStreamingWriter::new);
+    }
+
+    @Test
+    public void testCSV() throws IOException {
+        compare(TupleQueryResultFormat.CSV, SPARQLResultsCSVStreamingWriter::new);
+    }
+
+    @Test
+    public void testTSV() throws IOException {
+        compare(TupleQueryResultFormat.TSV, SPARQLResultsTSVStreamingWriter::new);
+    }
+
+    private void compare(TupleQueryResultFormat format,
+                         Function<OutputStream, OntopTupleResultWriter> streamingWriterConstructor) throws IOException {
+        TupleQuery query = prepareTupleQuery(QUERY);
+        assertTrue(query instanceof OntopTupleQuery);
+
+        ByteArrayOutputStream streamingOutput = new ByteArrayOutputStream();
+        ((OntopTupleQuery) query).evaluate(streamingWriterConstructor.apply(streamingOutput));
+
+        ByteArrayOutputStream rdf4jOutput = new ByteArrayOutputStream();
+        prepareTupleQuery(QUERY).evaluate(QueryResultIO.createTupleWriter(format, rdf4jOutput));
+
+        ImmutableMultiset<BindingSet> expected = parse(rdf4jOutput, format);
+        assertEquals(6, expected.size());
+        assertEquals(expected, parse(streamingOutput, format));
+    }
+
+    private static ImmutableMultiset<BindingSet> parse(ByteArrayOutputStream output, TupleQueryResultFormat format)
+            throws IOException {
+        QueryResultCollector collector = new QueryResultCollector();
+        QueryResultIO.parseTuple(new ByteArrayInputStream(output.toByteArray()), format, collector,
+                SimpleValueFactory.getInstance());
+        return ImmutableMultiset.copyOf(collector.getBindingSets());
+    }
+}
@@ -0,0 +1,87 @@
+package it.unibz.inf.ontop.rdf4j.repository.impl;
+
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.evaluator.metrics.QueryPipelineMetrics;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.query.RDF4JQueryFactory;
+import it.unibz.inf.ontop.query.RDF4JSelectQuery;
+import it.unibz.inf.ontop.rdf4j.repository.H2RDF4JTestTools;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ParsedQueryCacheTest {
+
+    private static final String QUERY = "PREFIX : <http://example.org/>\n" +
+            "SELECT ?v WHERE { ?x :firstName ?v }";
+
+    private static QueryPipelineMetrics metrics;
+    private static RDF4JQueryFactory queryFactory;
+
+    @BeforeClass
+    public static void setUp() {
+        // The DB is not accessed
+        Injector injector = OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .nativeOntopMappingFile(ParsedQueryCacheTest.class.getResource("/employee/employee.obda").getPath())
+                .jdbcUrl(H2RDF4JTestTools.generateJdbcUrl())
+                .jdbcUser("sa")
+                .jdbcPassword("")
+                .build()
+                .getInjector();
+        metrics = injector.getInstance(QueryPipelineMetrics.class);
+        queryFactory = injector.getInstance(RDF4JQueryFactory.class);
+    }
+
+    @Test
+    public void testReuse() {
+        ParsedQueryCache cache = new ParsedQueryCache(10, metrics);
+        ParsedQuery parsedQuery = cache.parse(QUERY, null);
+        assertSame(parsedQuery, cache.parse(QUERY, null));
+        assertNotSame(parsedQuery, cache.parse(QUERY, "http://example.org/base/"));
+        assertNotSame(parsedQuery, cache.parse(QUERY + " LIMIT 1", null));
+    }
+
+    @Test
+    public void testDisabled() {
+        ParsedQueryCache cache = new ParsedQueryCache(0, metrics);
+        assertFalse(cache.isEnabled());
+        assertNotSame(cache.parse(QUERY, null), cache.parse(QUERY, null));
+    }
+
+    @Test
+    public void testMalformedQuery() {
+        ParsedQueryCache cache = new ParsedQueryCache(10, metrics);
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.parse("SELECT ?v WHERE { ?x ", null);
+                fail("A MalformedQueryException was expected");
+            }
+            catch (MalformedQueryException e) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void testKGQueryReuse() {
+        ParsedQueryCache cache = new ParsedQueryCache(10, metrics);
+        CachingRDF4JQueryFactory factory = new CachingRDF4JQueryFactory(queryFactory, 10);
+        ParsedTupleQuery parsedQuery = (ParsedTupleQuery) cache.parse(QUERY, null);
+
+        MapBindingSet bindings = new MapBindingSet();
+        RDF4JSelectQuery query = factory.createSelectQuery(QUERY, parsedQuery, bindings);
+        assertSame(query, factory.createSelectQuery(QUERY, parsedQuery, new MapBindingSet()));
+
+        // The cached query must not see the bindings added afterwards
+        bindings.addBinding("x", SimpleValueFactory.getInstance().createIRI("http://example.org/1"));
+        RDF4JSelectQuery queryWithBindings = factory.createSelectQuery(QUERY, parsedQuery, bindings);
+        assertNotEquals(query, queryWithBindings);
+        assertSame(query, factory.createSelectQuery(QUERY, parsedQuery, new MapBindingSet()));
+    }
+}
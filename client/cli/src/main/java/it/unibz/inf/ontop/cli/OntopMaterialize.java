@@ -24,9 +24,14 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
@@ -88,6 +93,16 @@ public class OntopMaterialize extends OntopMappingOntologyRelatedCommand {
             description = "All the SQL results of one big query will be stored in memory. Not recommended. Default: false.")
     private boolean noStream = false;
 
+    @Option(type = OptionType.COMMAND, name = {"--workers"}, title = "number of workers",
+            description = "Number of classes/properties materialized in parallel, each one on its own DB connection." +
+                    " With --separate-files, each file is written by its worker. Default: 1.")
+    private int workers = 1;
+
+    @Option(type = OptionType.COMMAND, name = {"--direct"}, title = "direct materialization",
+            description = "Generates the native queries directly from the mapping definitions of the classes/properties," +
+                    " without going through SPARQL queries. Default: false.")
+    private boolean direct = false;
+
     public OntopMaterialize() {
     }
 
@@ -110,6 +125,8 @@ public class OntopMaterialize extends OntopMappingOntologyRelatedCommand {
             return RDF4JMaterializer.defaultMaterializer(
                     configurationBuilder.build(),
                     MaterializationParams.defaultBuilder()
+                            .workerCount(workers)
+                            .enableDirectMaterialization(direct)
                             .build()
             );
         } catch (OBDASpecificationException e) {
@@ -148,8 +165,13 @@ public class OntopMaterialize extends OntopMappingOntologyRelatedCommand {
     private void runWithSeparateFiles(RDF4JMaterializer materializer) {
         try {
             validateBaseDirectory();
-            materializeClassesByFile(materializer);
-            materializePropertiesByFile(materializer);
+            if (workers > 1) {
+                materializeByFileInParallel(materializer);
+            }
+            else {
+                materializeClassesByFile(materializer);
+                materializePropertiesByFile(materializer);
+            }
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -194,6 +216,40 @@ public class OntopMaterialize extends OntopMappingOntologyRelatedCommand {
         }
     }
 
+    /**
+     * Each class/property is serialized by one of the workers, into its own file(s).
+     */
+    private void materializeByFileInParallel(RDF4JMaterializer materializer) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            submitPredicateSerializations(materializer, materializer.getClasses(), PredicateType.CLASS,
+                    executorService, futures);
+            submitPredicateSerializations(materializer, materializer.getProperties(), PredicateType.PROPERTY,
+                    executorService, futures);
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void submitPredicateSerializations(RDF4JMaterializer materializer, ImmutableSet<IRI> predicates,
+                                               PredicateType predicateType, ExecutorService executorService,
+                                               List<Future<?>> futures) {
+        int total = predicates.size();
+        int i = 0;
+        for (IRI predicate : predicates) {
+            int index = ++i;
+            futures.add(executorService.submit(() -> {
+                serializePredicate(materializer, predicate, predicateType, index, total);
+                return null;
+            }));
+        }
+    }
+
     /**
      * Serializes the A-box corresponding to a predicate into one or multiple file.
      */
@@ -0,0 +1,64 @@
+package it.unibz.inf.ontop.cli;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.ExternalResource;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class OntopEndpointMetricsTest {
+
+    @ClassRule
+    public static ExternalResource h2Connection = new H2ExternalResourceForBookExample();
+    private static final String PORT = "29843";
+
+    @BeforeClass
+    public static void setupEndpoint() {
+        Ontop.main("endpoint", "-m", "src/test/resources/books/exampleBooks.obda",
+                "-p", "src/test/resources/books/exampleBooks-metrics.properties",
+                "-t", "src/test/resources/books/exampleBooks.owl",
+                "-d", "src/test/resources/exampleBooks-metadata.json",
+                "--port=" + PORT,
+                "--disable-portal-page");
+    }
+
+    @Test
+    public void testPrometheusMetrics() throws IOException {
+        HttpClient client = HttpClientBuilder.create().build();
+
+        String query = "PREFIX : <http://meraka/moss/exampleBooks.owl#>\n" +
+                "SELECT ?x ?title WHERE {\n" +
+                "  ?x a :Book ; :title ?title .\n" +
+                "}";
+        HttpGet queryRequest = new HttpGet("http://localhost:" + PORT + "/sparql?query="
+                + URLEncoder.encode(query, StandardCharsets.UTF_8));
+        queryRequest.setHeader("Accept", "application/sparql-results+json");
+        HttpResponse queryResponse = client.execute(queryRequest);
+        assertEquals(HttpStatus.SC_OK, queryResponse.getStatusLine().getStatusCode());
+        EntityUtils.consume(queryResponse.getEntity());
+
+        HttpResponse response = client.execute(new HttpGet("http://localhost:" + PORT + "/ontop/metrics"));
+        assertEquals(HttpStatus.SC_OK, response.getStatusLine().getStatusCode());
+        assertTrue(response.getFirstHeader("Content-Type").getValue().startsWith("text/plain"));
+        String content = EntityUtils.toString(response.getEntity());
+
+        for (String phase : new String[]{"parse", "translate", "rewrite", "unfold", "optimize", "plan", "generate",
+                "first_row", "fetch"})
+            assertTrue("Missing phase " + phase, content.contains(
+                    "ontop_query_phase_duration_seconds_count{phase=\"" + phase + "\",template=\"all\"} 1\n"));
+
+        assertTrue(content.contains("ontop_query_phase_duration_seconds{phase=\"optimize.joinLike\",template=\"all\",quantile=\"0.99\"}"));
+        assertTrue(content.contains("ontop_query_template_info{template=\""));
+    }
+}
@@ -0,0 +1,85 @@
+package it.unibz.inf.ontop.cli;
+
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.ExternalResource;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class OntopEndpointResultCacheTest {
+
+    @ClassRule
+    public static ExternalResource h2Connection = new H2ExternalResourceForBookExample();
+    private static final String PORT = "29842";
+
+    private static final String QUERY = "PREFIX : <http://meraka/moss/exampleBooks.owl#>\n" +
+            "SELECT ?x ?title WHERE {\n" +
+            "  ?x a :Book ; :title ?title . # comment\n" +
+            "}";
+
+    @BeforeClass
+    public static void setupEndpoint() {
+        Ontop.main("endpoint", "-m", "src/test/resources/books/exampleBooks.obda",
+                "-p", "src/test/resources/books/exampleBooks-result-cache.properties",
+                "-t", "src/test/resources/books/exampleBooks.owl",
+                "-d", "src/test/resources/exampleBooks-metadata.json",
+                "--port=" + PORT,
+                "--disable-portal-page");
+    }
+
+    @Test
+    public void testETag() throws IOException {
+        HttpClient client = HttpClientBuilder.create().build();
+
+        HttpResponse firstResponse = client.execute(createRequest(QUERY));
+        assertEquals(HttpStatus.SC_OK, firstResponse.getStatusLine().getStatusCode());
+        Header etag = firstResponse.getFirstHeader("ETag");
+        assertNotNull(etag);
+        assertEquals("max-age=60", firstResponse.getFirstHeader("Cache-Control").getValue());
+        String firstContent = EntityUtils.toString(firstResponse.getEntity());
+
+        // Same query up to the whitespace and the comments: served from the cache
+        HttpResponse secondResponse = client.execute(createRequest(QUERY.replace("# comment\n", "\n  ")));
+        assertEquals(HttpStatus.SC_OK, secondResponse.getStatusLine().getStatusCode());
+        assertEquals(etag.getValue(), secondResponse.getFirstHeader("ETag").getValue());
+        assertEquals(firstContent, EntityUtils.toString(secondResponse.getEntity()));
+
+        HttpGet conditionalRequest = createRequest(QUERY);
+        conditionalRequest.setHeader("If-None-Match", etag.getValue());
+        HttpResponse thirdResponse = client.execute(conditionalRequest);
+        assertEquals(HttpStatus.SC_NOT_MODIFIED, thirdResponse.getStatusLine().getStatusCode());
+        assertEquals(etag.getValue(), thirdResponse.getFirstHeader("ETag").getValue());
+    }
+
+    @Test
+    public void testNonDeterministicQuery() throws IOException {
+        String query = "PREFIX : <http://meraka/moss/exampleBooks.owl#>\n" +
+                "SELECT ?x ?r WHERE {\n" +
+                "  ?x a :Book .\n" +
+                "  BIND(RAND() AS ?r)\n" +
+                "}";
+        HttpResponse response = HttpClientBuilder.create().build().execute(createRequest(query));
+        assertEquals(HttpStatus.SC_OK, response.getStatusLine().getStatusCode());
+        assertNull(response.getFirstHeader("ETag"));
+        assertNull(response.getFirstHeader("Cache-Control"));
+    }
+
+    private static HttpGet createRequest(String query) {
+        HttpGet request = new HttpGet("http://localhost:" + PORT + "/sparql?query="
+                + URLEncoder.encode(query, StandardCharsets.UTF_8));
+        request.setHeader("Accept", "application/sparql-results+json");
+        return request;
+    }
+}
@@ -203,6 +203,44 @@ public class SimpleMaterializerTest {
         assertEquals(4, numOfAnnotationAssertions(outFile));
     }
 
+    @Test
+    public void runMaterializationWithReasoningTrigWithWorkers() throws Exception {
+        String outFile = "src/test/resources/output/simplemapping_materialzed_with_reasoning_named_workers.trig";
+        String ontoFile = "src/test/resources/test/simplemapping.owl";
+        String mappingFile = "src/test/resources/test/simplemapping_named.obda";
+        String propertiesFile = "src/test/resources/test/simplemapping.properties";
+        Ontop.main("materialize", "-m", mappingFile, "-t", ontoFile, "-f", "trig",
+                "-o", outFile, "-p", propertiesFile, "--workers", "3");
+        assertEquals(9, numOfClassAssertions(outFile));
+        assertEquals(0, numOfObjectPropertyAssertions(outFile));
+        assertEquals(6, numOfAnnotationAssertions(outFile));
+    }
+
+    @Test
+    public void runDirectMaterializationWithReasoningTrig() throws Exception {
+        String outFile = "src/test/resources/output/simplemapping_materialzed_with_reasoning_named_direct.trig";
+        String ontoFile = "src/test/resources/test/simplemapping.owl";
+        String mappingFile = "src/test/resources/test/simplemapping_named.obda";
+        String propertiesFile = "src/test/resources/test/simplemapping.properties";
+        Ontop.main("materialize", "-m", mappingFile, "-t", ontoFile, "-f", "trig",
+                "-o", outFile, "-p", propertiesFile, "--direct");
+        assertEquals(9, numOfClassAssertions(outFile));
+        assertEquals(0, numOfObjectPropertyAssertions(outFile));
+        assertEquals(6, numOfAnnotationAssertions(outFile));
+    }
+
+    @Test
+    public void runDirectMaterializationWithoutReasoningTrigWithWorkers() throws Exception {
+        String outFile = "src/test/resources/output/simplemapping_materialzed_no_reasoning_named_direct.trig";
+        String mappingFile = "src/test/resources/test/simplemapping_named.obda";
+        String propertiesFile = "src/test/resources/test/simplemapping.properties";
+        Ontop.main("materialize", "-m", mappingFile, "-f", "trig",
+                "-o", outFile, "-p", propertiesFile, "--direct", "--workers", "2");
+        assertEquals(7, numOfClassAssertions(outFile));
+        assertEquals(0, numOfObjectPropertyAssertions(outFile));
+        assertEquals(4, numOfAnnotationAssertions(outFile));
+    }
+
     @Test
     public void runMaterializationWithReasoningTrig_multi_files() {
         String outFile = "src/test/resources/output/";
@@ -213,4 +251,14 @@ public class SimpleMaterializerTest {
                 "-o", outFile, "-p", propertiesFile, "--separate-files");
     }
 
+
+    @Test
+    public void runMaterializationWithReasoningTrig_multi_files_with_workers() {
+        String outFile = "src/test/resources/output/";
+        String ontoFile = "src/test/resources/test/simplemapping.owl";
+        String mappingFile = "src/test/resources/test/simplemapping_named.obda";
+        String propertiesFile = "src/test/resources/test/simplemapping.properties";
+        Ontop.main("materialize", "-m", mappingFile, "-t", ontoFile, "-f", "trig",
+                "-o", outFile, "-p", propertiesFile, "--separate-files", "--workers", "2");
+    }
 }
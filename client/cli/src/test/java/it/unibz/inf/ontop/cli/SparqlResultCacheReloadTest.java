@@ -0,0 +1,99 @@
+package it.unibz.inf.ontop.cli;
+
+import com.google.common.collect.ImmutableMultimap;
+import it.unibz.inf.ontop.endpoint.processor.SparqlResultCache;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
+import it.unibz.inf.ontop.rdf4j.repository.OntopRepositoryConnection;
+import it.unibz.inf.ontop.rdf4j.repository.impl.ReloadableOntopRepository;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.ExternalResource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * The response of a query started before a reload must not be cached after the reload
+ */
+public class SparqlResultCacheReloadTest {
+
+    @ClassRule
+    public static ExternalResource h2Connection = new H2ExternalResourceForBookExample();
+
+    private static final String QUERY = "PREFIX : <http://meraka/moss/exampleBooks.owl#>\n" +
+            "SELECT ?x ?title WHERE {\n" +
+            "  ?x a :Book ; :title ?title .\n" +
+            "}";
+    private static final String ACCEPT = "application/sparql-results+json";
+    private static final String CONTENT_TYPE = "application/sparql-results+json;charset=UTF-8";
+
+    private ReloadableOntopRepository repository;
+    private SparqlResultCache resultCache;
+
+    @Before
+    public void setUp() {
+        repository = new ReloadableOntopRepository(OntopRepository.defaultRepository(createConfiguration()));
+        repository.init();
+        resultCache = new SparqlResultCache(repository.getCurrentRepository().getSettings());
+        // Same as the endpoint
+        repository.addReloadListener((r, c) -> resultCache.clear());
+    }
+
+    @After
+    public void tearDown() {
+        resultCache.clear();
+        repository.shutDown();
+    }
+
+    @Test
+    public void testReloadDuringQuery() {
+        SparqlResultCache.Key key = getKey();
+        byte[] content;
+        try (OntopRepositoryConnection connection = repository.getConnection()) {
+            repository.reload(createConfiguration());
+            // Completes on the previous repository, after the reload
+            content = evaluate(connection);
+        }
+        resultCache.put(key, CONTENT_TYPE, "\"before-reload\"", content);
+
+        assertFalse(resultCache.get(key).isPresent());
+        assertFalse(resultCache.get(getKey()).isPresent());
+
+        // Queries started after the reload are cached
+        SparqlResultCache.Key newKey = getKey();
+        try (OntopRepositoryConnection connection = repository.getConnection()) {
+            resultCache.put(newKey, CONTENT_TYPE, "\"after-reload\"", evaluate(connection));
+        }
+        assertEquals("\"after-reload\"", resultCache.get(getKey()).get().getETag());
+    }
+
+    private SparqlResultCache.Key getKey() {
+        return resultCache.getKey(QUERY, ACCEPT, ImmutableMultimap.of(), null, null).get();
+    }
+
+    private static byte[] evaluate(OntopRepositoryConnection connection) {
+        StringBuilder sb = new StringBuilder();
+        try (TupleQueryResult result = connection.prepareTupleQuery(QueryLanguage.SPARQL, QUERY).evaluate()) {
+            while (result.hasNext())
+                sb.append(result.next()).append('\n');
+        }
+        assertTrue(sb.length() > 0);
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static OntopSQLOWLAPIConfiguration createConfiguration() {
+        return OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .nativeOntopMappingFile("src/test/resources/books/exampleBooks.obda")
+                .ontologyFile("src/test/resources/books/exampleBooks.owl")
+                .propertyFile("src/test/resources/books/exampleBooks-result-cache.properties")
+                .dbMetadataFile("src/test/resources/exampleBooks-metadata.json")
+                .enableTestMode()
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package it.unibz.inf.ontop.endpoint.processor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * Forwards the bytes to the response while keeping a copy of them, as long as they do not exceed the limit
+ */
+class CachingOutputStream extends FilterOutputStream {
+
+    private final long limit;
+    private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+    CachingOutputStream(OutputStream out, long limit) {
+        super(out);
+        this.limit = limit;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        if (reserve(1))
+            copy.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        if (reserve(len))
+            copy.write(b, off, len);
+    }
+
+    private boolean reserve(int length) {
+        if (copy == null)
+            return false;
+        if (copy.size() + (long) length > limit) {
+            // Too large for being cached
+            copy = null;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Empty if the limit has been exceeded
+     */
+    Optional<byte[]> getContent() {
+        return Optional.ofNullable(copy)
+                .map(ByteArrayOutputStream::toByteArray);
+    }
+}
@@ -1,20 +1,22 @@
 package it.unibz.inf.ontop.endpoint.processor;
 
+import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Maps;
+import it.unibz.inf.ontop.rdf4j.query.impl.OntopTupleQuery;
+import it.unibz.inf.ontop.rdf4j.query.resultio.OntopTupleResultWriter;
+import it.unibz.inf.ontop.rdf4j.query.resultio.impl.SPARQLResultsCSVStreamingWriter;
+import it.unibz.inf.ontop.rdf4j.query.resultio.impl.SPARQLResultsJSONStreamingWriter;
+import it.unibz.inf.ontop.rdf4j.query.resultio.impl.SPARQLResultsTSVStreamingWriter;
+import it.unibz.inf.ontop.rdf4j.query.resultio.impl.SPARQLResultsXMLStreamingWriter;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepositoryConnection;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.eclipse.rdf4j.query.*;
 import org.eclipse.rdf4j.query.resultio.BooleanQueryResultWriter;
-import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
 import org.eclipse.rdf4j.query.resultio.sparqljson.SPARQLBooleanJSONWriter;
-import org.eclipse.rdf4j.query.resultio.sparqljson.SPARQLResultsJSONWriter;
 import org.eclipse.rdf4j.query.resultio.sparqlxml.SPARQLBooleanXMLWriter;
-import org.eclipse.rdf4j.query.resultio.sparqlxml.SPARQLResultsXMLWriter;
 import org.eclipse.rdf4j.query.resultio.text.BooleanTextWriter;
-import org.eclipse.rdf4j.query.resultio.text.csv.SPARQLResultsCSVWriter;
-import org.eclipse.rdf4j.query.resultio.text.tsv.SPARQLResultsTSVWriter;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.eclipse.rdf4j.rio.RDFWriter;
 import org.eclipse.rdf4j.rio.jsonld.JSONLDWriter;
@@ -29,45 +31,78 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Collections;
+import java.util.Optional;
 
 public class SparqlQueryExecutor {
 
     private static final String CONTENT_TYPE = "Content-Type";
+    private static final String ETAG = "ETag";
+    private static final String IF_NONE_MATCH = "If-None-Match";
+    private static final int OK = 200;
+    private static final int NOT_MODIFIED = 304;
     private static final int BAD_REQUEST = 400;
     private static final int NOT_ACCEPTABLE = 406;
     private static final int NOT_IMPLEMENTED = 501;
 
     private final OntopRepository repository;
+    private final SparqlResultCache resultCache;
 
     public SparqlQueryExecutor(OntopRepository repository) {
+        this(repository, SparqlResultCache.disabled());
+    }
+
+    public SparqlQueryExecutor(OntopRepository repository, SparqlResultCache resultCache) {
         this.repository = repository;
+        this.resultCache = resultCache;
     }
 
     public void executeQuery(HttpServletRequest request, String accept, String query,
                              String[] defaultGraphUri, String[] namedGraphUri, HttpServletResponse response) {
 
         ImmutableMultimap<String, String> httpHeaders = extractHttpHeaders(request);
+        // The responses to non-deterministic queries must not be cached by the clients either
+        boolean isDeterministic = SparqlResultCache.isDeterministic(query);
+
+        // Created before getting the connection: if the repository is reloaded in the meantime,
+        // the generation of the key is outdated and the response is not cached
+        Optional<SparqlResultCache.Key> cacheKey = resultCache.getKey(query, accept, httpHeaders,
+                defaultGraphUri, namedGraphUri);
+        Optional<SparqlResultCache.CachedResponse> cachedResponse = cacheKey.flatMap(resultCache::get);
+        if (cachedResponse.isPresent() && sendCachedResponse(cachedResponse.get(), request, response))
+            return;
 
         try (OntopRepositoryConnection connection = repository.getConnection()) {
             Query q = connection.prepareQuery(QueryLanguage.SPARQL, query, httpHeaders);
-            OutputStream bao = response.getOutputStream();
 
-            if (q instanceof TupleQuery) {
-                TupleQuery selectQuery = (TupleQuery) q;
+            CachingOutputStream cachingStream = null;
+            String etag = null;
+            OutputStream bao;
+            if (cacheKey.isPresent()) {
+                etag = resultCache.createETag(cacheKey.get());
+                response.setHeader(ETAG, etag);
+                cachingStream = new CachingOutputStream(response.getOutputStream(), resultCache.getMaxEntrySize());
+                bao = cachingStream;
+            }
+            else
+                bao = response.getOutputStream();
+
+            // Tuple queries prepared by an Ontop connection
+            if (q instanceof OntopTupleQuery) {
+                OntopTupleQuery selectQuery = (OntopTupleQuery) q;
                 response.setCharacterEncoding("UTF-8");
 
                 if ("*/*".equals(accept) || accept.contains("json")) {
                     response.setHeader(CONTENT_TYPE, "application/sparql-results+json;charset=UTF-8");
-                    evaluateSelectQuery(selectQuery, new SPARQLResultsJSONWriter(bao), response);
+                    evaluateSelectQuery(selectQuery, new SPARQLResultsJSONStreamingWriter(bao), response, isDeterministic);
                 } else if (accept.contains("xml")) {
                     response.setHeader(CONTENT_TYPE, "application/sparql-results+xml;charset=UTF-8");
-                    evaluateSelectQuery(selectQuery, new SPARQLResultsXMLWriter(bao), response);
+                    evaluateSelectQuery(selectQuery, new SPARQLResultsXMLStreamingWriter(bao), response, isDeterministic);
                 } else if (accept.contains("csv")) {
                     response.setHeader(CONTENT_TYPE, "text/sparql-results+csv;charset=UTF-8");
-                    evaluateSelectQuery(selectQuery, new SPARQLResultsCSVWriter(bao), response);
+                    evaluateSelectQuery(selectQuery, new SPARQLResultsCSVStreamingWriter(bao), response, isDeterministic);
                 } else if (accept.contains("tsv") || accept.contains("text/tab-separated-values")) {
                     response.setHeader(CONTENT_TYPE, "text/sparql-results+tsv;charset=UTF-8");
-                    evaluateSelectQuery(selectQuery, new SPARQLResultsTSVWriter(bao), response);
+                    evaluateSelectQuery(selectQuery, new SPARQLResultsTSVStreamingWriter(bao), response, isDeterministic);
                 } else {
                     response.setStatus(NOT_ACCEPTABLE);
                 }
@@ -78,17 +113,17 @@ public class SparqlQueryExecutor {
 
                 if ("*/*".equals(accept) || accept.contains("json")) {
                     response.setHeader(CONTENT_TYPE, "application/sparql-results+json");
-                    addCacheHeaders(response);
+                    addCacheHeaders(response, isDeterministic);
                     BooleanQueryResultWriter writer = new SPARQLBooleanJSONWriter(bao);
                     writer.handleBoolean(b);
                 } else if (accept.contains("xml")) {
                     response.setHeader(CONTENT_TYPE, "application/sparql-results+xml");
-                    addCacheHeaders(response);
+                    addCacheHeaders(response, isDeterministic);
                     BooleanQueryResultWriter writer = new SPARQLBooleanXMLWriter(bao);
                     writer.handleBoolean(b);
                 } else if (accept.contains("text")) {
                     response.setHeader(CONTENT_TYPE, "text/boolean");
-                    addCacheHeaders(response);
+                    addCacheHeaders(response, isDeterministic);
                     BooleanQueryResultWriter writer = new BooleanTextWriter(bao);
                     writer.handleBoolean(b);
                 } else {
@@ -100,26 +135,26 @@ public class SparqlQueryExecutor {
 
                 if ("*/*".equals(accept) || accept.contains("turtle")) {
                     response.setHeader(CONTENT_TYPE, "text/turtle;charset=UTF-8");
-                    evaluateGraphQuery(graphQuery, new TurtleWriter(bao), response);
+                    evaluateGraphQuery(graphQuery, new TurtleWriter(bao), response, isDeterministic);
                 } else if (accept.contains("rdf+json")) {
                     response.setHeader(CONTENT_TYPE, "application/rdf+json;charset=UTF-8");
-                    evaluateGraphQuery(graphQuery, new RDFJSONWriter(bao, RDFFormat.RDFJSON), response);
+                    evaluateGraphQuery(graphQuery, new RDFJSONWriter(bao, RDFFormat.RDFJSON), response, isDeterministic);
                 } else if (accept.contains("json")) {
                     // specification of rdf/json, recommend the use of json-ld (we use it as default)
                     response.setHeader(CONTENT_TYPE, "application/ld+json;charset=UTF-8");
-                    evaluateGraphQuery(graphQuery, new JSONLDWriter(bao), response);
+                    evaluateGraphQuery(graphQuery, new JSONLDWriter(bao), response, isDeterministic);
                 }
                 else if (accept.contains("xml")) {
                     response.setHeader(CONTENT_TYPE, "application/rdf+xml;charset=UTF-8");
-                    evaluateGraphQuery(graphQuery, new RDFXMLWriter(bao), response);
+                    evaluateGraphQuery(graphQuery, new RDFXMLWriter(bao), response, isDeterministic);
                 }
                 else if (accept.contains("n-triples")) {
                     response.setHeader(CONTENT_TYPE, "application/n-triples;charset=UTF-8");
-                    evaluateGraphQuery(graphQuery, new NTriplesWriter(bao), response);
+                    evaluateGraphQuery(graphQuery, new NTriplesWriter(bao), response, isDeterministic);
                 }
                 else if (accept.contains("n-quads")) {
                     response.setHeader(CONTENT_TYPE, "application/n-quads;charset=UTF-8");
-                    evaluateGraphQuery(graphQuery, new NQuadsWriter(bao), response);
+                    evaluateGraphQuery(graphQuery, new NQuadsWriter(bao), response, isDeterministic);
                 } else {
                     response.setStatus(NOT_ACCEPTABLE);
                 }
@@ -129,12 +164,64 @@ public class SparqlQueryExecutor {
                 response.setStatus(BAD_REQUEST);
             }
             bao.flush();
+
+            if (cachingStream != null && response.getStatus() == OK) {
+                String contentType = response.getHeader(CONTENT_TYPE);
+                String cachedETag = etag;
+                cachingStream.getContent()
+                        .ifPresent(c -> resultCache.put(cacheKey.get(), contentType, cachedETag, c));
+            }
         }
         catch (IOException ex) {
             throw new Error(ex);
         }
     }
 
+    /**
+     * Returns false if the cached content is not available anymore
+     */
+    private boolean sendCachedResponse(SparqlResultCache.CachedResponse cachedResponse, HttpServletRequest request,
+                                       HttpServletResponse response) {
+        String etag = cachedResponse.getETag();
+        if (matchesETag(request.getHeader(IF_NONE_MATCH), etag)) {
+            response.setStatus(NOT_MODIFIED);
+            response.setHeader(ETAG, etag);
+            addCacheHeaders(response, true);
+            return true;
+        }
+
+        byte[] content;
+        try {
+            content = cachedResponse.getContent();
+        }
+        catch (IOException e) {
+            // Spilled content evicted in the meantime
+            return false;
+        }
+
+        response.setHeader(CONTENT_TYPE, cachedResponse.getContentType());
+        response.setHeader(ETAG, etag);
+        addCacheHeaders(response, true);
+        response.setContentLength(content.length);
+        try {
+            OutputStream out = response.getOutputStream();
+            out.write(content);
+            out.flush();
+        }
+        catch (IOException ex) {
+            throw new Error(ex);
+        }
+        return true;
+    }
+
+    private static boolean matchesETag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null)
+            return false;
+        return Splitter.on(',').trimResults().splitToStream(ifNoneMatch)
+                .map(t -> t.startsWith("W/") ? t.substring(2) : t)
+                .anyMatch(t -> t.equals("*") || t.equals(etag));
+    }
+
     public static ImmutableMultimap<String, String> extractHttpHeaders(HttpServletRequest request) {
         return Collections.list(request.getHeaderNames()).stream()
                 .flatMap(k -> Collections.list(request.getHeaders(k)).stream()
@@ -142,22 +229,27 @@ public class SparqlQueryExecutor {
                 .collect(ImmutableCollectors.toMultimap());
     }
 
-    private void evaluateSelectQuery(TupleQuery selectQuery, TupleQueryResultWriter writer, HttpServletResponse response) {
-        addCacheHeaders(response);
+    /**
+     * Results of Ontop queries are streamed directly from the rows, without building RDF terms
+     */
+    private void evaluateSelectQuery(OntopTupleQuery selectQuery, OntopTupleResultWriter writer,
+                                     HttpServletResponse response, boolean isDeterministic) {
+        addCacheHeaders(response, isDeterministic);
         selectQuery.evaluate(writer);
-
     }
-    private void evaluateGraphQuery(GraphQuery graphQuery, RDFWriter writer, HttpServletResponse response) {
-        addCacheHeaders(response);
+    private void evaluateGraphQuery(GraphQuery graphQuery, RDFWriter writer, HttpServletResponse response,
+                                    boolean isDeterministic) {
+        addCacheHeaders(response, isDeterministic);
         graphQuery.evaluate(writer);
     }
 
     /**
-     * TODO: try to find a way to detect if the query is cacheable or not
-     * (e.g. not including non-deterministic functions like NOW())
+     * Same criterion as the result cache: no cache headers for queries using non-deterministic functions
+     * (e.g. NOW(), RAND())
      */
-    private void addCacheHeaders(HttpServletResponse response) {
-        repository.getHttpCacheHeaders().getMap()
-                .forEach(response::setHeader);
+    private void addCacheHeaders(HttpServletResponse response, boolean isDeterministic) {
+        if (isDeterministic)
+            repository.getHttpCacheHeaders().getMap()
+                    .forEach(response::setHeader);
     }
 }
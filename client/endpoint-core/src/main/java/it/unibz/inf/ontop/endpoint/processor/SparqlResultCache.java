@@ -0,0 +1,500 @@
+package it.unibz.inf.ontop.endpoint.processor;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.evaluator.impl.QueryContextImpl;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Server-side cache of the responses of the SPARQL endpoint.
+ *
+ * Responses are kept in memory within a byte budget. When a directory is configured, the least recently used
+ * responses not fitting in memory are spilled to disk (with their own byte budget) instead of being evicted.
+ *
+ * Only queries without non-deterministic functions (NOW(), RAND(), UUID(), STRUUID(), BNODE()) are cached.
+ * The key also includes the Accept header and the HTTP headers that may change the results (user, groups and roles).
+ *
+ * The key is created before evaluating the query and carries the generation of the cache at that time.
+ * After a clear() (e.g. on reload), the responses of the queries started before are not cached.
+ *
+ * Thread-safe.
+ */
+public class SparqlResultCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SparqlResultCache.class);
+
+    private static final Pattern NON_DETERMINISTIC_FUNCTION = Pattern.compile(
+            "\\b(NOW|RAND|UUID|STRUUID|BNODE)\\s*\\(", Pattern.CASE_INSENSITIVE);
+
+    private static final ImmutableSet<String> RELEVANT_HTTP_HEADERS = ImmutableSet.of(
+            QueryContextImpl.USER_HTTP_HEADER_LOWERCASE,
+            QueryContextImpl.GROUPS_HTTP_HEADER_LOWERCASE,
+            QueryContextImpl.ROLES_HTTP_HEADER_LOWERCASE);
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long maxEntrySize;
+    private final long ttl;
+    @Nullable
+    private final Path directory;
+    private final long maxDiskBytes;
+
+    /**
+     * Access-ordered: the least recently used entry comes first
+     */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes = 0;
+    private long diskBytes = 0;
+    // Incremented (under the lock) by clear()
+    private volatile long generation = 0;
+
+    /**
+     * Distinguishes the ETags of different runs
+     */
+    private final String etagPrefix = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final AtomicLong etagCounter = new AtomicLong();
+
+    public SparqlResultCache(OntopSystemSettings settings) {
+        this(settings.getHttpResultCacheMaxEntries(), settings.getHttpResultCacheMaxBytes(),
+                settings.getHttpResultCacheMaxEntrySize(), settings.getHttpResultCacheTTL(),
+                settings.getHttpResultCacheDirectory().map(Paths::get).orElse(null),
+                settings.getHttpResultCacheMaxDiskBytes());
+    }
+
+    public SparqlResultCache(int maxEntries, long maxBytes, long maxEntrySize, long ttl, @Nullable Path directory,
+                             long maxDiskBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.maxEntrySize = maxEntrySize;
+        this.ttl = ttl;
+        this.directory = directory;
+        this.maxDiskBytes = maxDiskBytes;
+
+        if (directory != null && isEnabled()) {
+            try {
+                Files.createDirectories(directory);
+            }
+            catch (IOException e) {
+                throw new IllegalArgumentException("Cannot create the result cache directory " + directory, e);
+            }
+        }
+    }
+
+    public static SparqlResultCache disabled() {
+        return new SparqlResultCache(0, 0, 0, 0, null, 0);
+    }
+
+    public boolean isEnabled() {
+        return maxEntries > 0 && maxEntrySize > 0 && ttl > 0;
+    }
+
+    long getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    /**
+     * Returns empty if the response to the query cannot be cached
+     */
+    public Optional<Key> getKey(String query, String accept, ImmutableMultimap<String, String> httpHeaders,
+                                @Nullable String[] defaultGraphUri, @Nullable String[] namedGraphUri) {
+        if (!isEnabled())
+            return Optional.empty();
+
+        QueryNormalizer normalizer = new QueryNormalizer(query);
+        if (!isDeterministic(normalizer))
+            return Optional.empty();
+
+        ImmutableMultimap<String, String> relevantHeaders = httpHeaders.entries().stream()
+                .filter(e -> RELEVANT_HTTP_HEADERS.contains(e.getKey().toLowerCase()))
+                .collect(ImmutableCollectors.toMultimap(e -> e.getKey().toLowerCase(), Map.Entry::getValue));
+
+        return Optional.of(new Key(normalizer.getNormalizedQuery(), accept, relevantHeaders,
+                toList(defaultGraphUri), toList(namedGraphUri), generation));
+    }
+
+    /**
+     * False if the query uses non-deterministic functions (outside the string literals)
+     */
+    public static boolean isDeterministic(String query) {
+        return isDeterministic(new QueryNormalizer(query));
+    }
+
+    private static boolean isDeterministic(QueryNormalizer normalizer) {
+        return !NON_DETERMINISTIC_FUNCTION.matcher(normalizer.getCode()).find();
+    }
+
+    private static ImmutableList<String> toList(@Nullable String[] array) {
+        return array == null ? ImmutableList.of() : ImmutableList.copyOf(array);
+    }
+
+    /**
+     * ETag to send with a response that is not cached yet
+     */
+    String createETag(Key key) {
+        return "\"" + etagPrefix + "-" + Integer.toHexString(key.hashCode())
+                + "-" + Long.toHexString(etagCounter.incrementAndGet()) + "\"";
+    }
+
+    public synchronized Optional<CachedResponse> get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null)
+            return Optional.empty();
+
+        if (entry.isExpired()) {
+            remove(key, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.response);
+    }
+
+    /**
+     * Responses larger than the maximum entry size are ignored, as well as the responses
+     * of the queries started before the last clear()
+     */
+    public void put(Key key, String contentType, String etag, byte[] content) {
+        if (content.length > maxEntrySize)
+            return;
+
+        List<Entry> entriesToSpill;
+        synchronized (this) {
+            if (key.generation != generation)
+                return;
+
+            Entry previous = entries.remove(key);
+            if (previous != null)
+                release(previous);
+
+            Entry entry = new Entry(key, new CachedResponse(contentType, etag, content),
+                    System.currentTimeMillis() + ttl, content.length);
+            entries.put(key, entry);
+            memoryBytes += entry.size;
+
+            entriesToSpill = evict();
+        }
+        // The disk I/O does not block the other accesses to the cache
+        entriesToSpill.forEach(this::spill);
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.values().forEach(this::release);
+        entries.clear();
+    }
+
+    /**
+     * Returns the entries to spill to disk. They are already accounted for in the disk budget,
+     * but their content is written afterwards, outside the lock.
+     */
+    private List<Entry> evict() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> {
+            if (e.getValue().expirationTime > now)
+                return false;
+            release(e.getValue());
+            return true;
+        });
+
+        List<Entry> entriesToSpill = new ArrayList<>();
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || memoryBytes > maxBytes) && iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            if (entries.size() <= maxEntries) {
+                // Only the memory budget is exceeded
+                if (entry.isOnDisk)
+                    continue;
+                if (directory != null && entry.size <= maxDiskBytes) {
+                    entry.isOnDisk = true;
+                    memoryBytes -= entry.size;
+                    diskBytes += entry.size;
+                    entriesToSpill.add(entry);
+                    continue;
+                }
+            }
+            release(entry);
+            iterator.remove();
+        }
+
+        // Disk budget
+        iterator = entries.entrySet().iterator();
+        while (diskBytes > maxDiskBytes && iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            if (entry.isOnDisk) {
+                release(entry);
+                iterator.remove();
+            }
+        }
+        return entriesToSpill;
+    }
+
+    /**
+     * Moves the content of an in-memory entry to disk. Called without holding the lock.
+     */
+    private void spill(Entry entry) {
+        Path file;
+        try {
+            file = Files.createTempFile(directory, "ontop-result-", ".cache");
+            Files.write(file, entry.response.getContent());
+        }
+        catch (IOException e) {
+            LOGGER.warn("Could not spill a cached response to {}: {}", directory, e.getMessage());
+            synchronized (this) {
+                // Does not stay in memory beyond the budget
+                if (!entry.isReleased)
+                    remove(entry.key, entry);
+            }
+            return;
+        }
+
+        boolean isKept;
+        synchronized (this) {
+            isKept = !entry.isReleased;
+            if (isKept) {
+                synchronized (entry.response) {
+                    entry.response.file = file;
+                    entry.response.content = null;
+                }
+            }
+        }
+        // Evicted or cleared in the meantime
+        if (!isKept)
+            delete(file);
+    }
+
+    private void remove(Key key, Entry entry) {
+        entries.remove(key);
+        release(entry);
+    }
+
+    private void release(Entry entry) {
+        entry.isReleased = true;
+        if (!entry.isOnDisk) {
+            memoryBytes -= entry.size;
+            return;
+        }
+        diskBytes -= entry.size;
+        // Otherwise, still being spilled: the file is deleted once written
+        Path file = entry.response.file;
+        if (file != null)
+            delete(file);
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        }
+        catch (IOException e) {
+            LOGGER.warn("Could not delete the cached response {}: {}", file, e.getMessage());
+        }
+    }
+
+
+    public static final class Key {
+        private final String query;
+        private final String accept;
+        private final ImmutableMultimap<String, String> httpHeaders;
+        private final ImmutableList<String> defaultGraphUris;
+        private final ImmutableList<String> namedGraphUris;
+        private final long generation;
+        private final int hashCode;
+
+        private Key(String query, String accept, ImmutableMultimap<String, String> httpHeaders,
+                    ImmutableList<String> defaultGraphUris, ImmutableList<String> namedGraphUris, long generation) {
+            this.query = query;
+            this.accept = accept;
+            this.httpHeaders = httpHeaders;
+            this.defaultGraphUris = defaultGraphUris;
+            this.namedGraphUris = namedGraphUris;
+            this.generation = generation;
+            this.hashCode = Objects.hash(query, accept, httpHeaders, defaultGraphUris, namedGraphUris, generation);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return hashCode == key.hashCode
+                    && generation == key.generation
+                    && query.equals(key.query)
+                    && accept.equals(key.accept)
+                    && httpHeaders.equals(key.httpHeaders)
+                    && defaultGraphUris.equals(key.defaultGraphUris)
+                    && namedGraphUris.equals(key.namedGraphUris);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    public static final class CachedResponse {
+        private final String contentType;
+        private final String etag;
+        // Guarded by the cache: exactly one of them is not null
+        @Nullable
+        private byte[] content;
+        @Nullable
+        private Path file;
+
+        private CachedResponse(String contentType, String etag, byte[] content) {
+            this.contentType = contentType;
+            this.etag = etag;
+            this.content = content;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getETag() {
+            return etag;
+        }
+
+        /**
+         * Throws an IOException if the content spilled on disk has been evicted in the meantime
+         */
+        public byte[] getContent() throws IOException {
+            byte[] content;
+            Path file;
+            synchronized (this) {
+                content = this.content;
+                file = this.file;
+            }
+            return content != null ? content : Files.readAllBytes(file);
+        }
+    }
+
+    private static final class Entry {
+        private final Key key;
+        private final CachedResponse response;
+        private final long expirationTime;
+        private final long size;
+        // Guarded by the cache. Counted in the disk budget (possibly still being spilled)
+        private boolean isOnDisk;
+        // Guarded by the cache
+        private boolean isReleased;
+
+        private Entry(Key key, CachedResponse response, long expirationTime, long size) {
+            this.key = key;
+            this.response = response;
+            this.expirationTime = expirationTime;
+            this.size = size;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expirationTime;
+        }
+    }
+
+
+    /**
+     * Collapses the whitespace and removes the comments outside the string literals and the IRIs
+     */
+    static final class QueryNormalizer {
+        private final StringBuilder normalized = new StringBuilder();
+        // Same as normalized, but without the content of the string literals
+        private final StringBuilder code = new StringBuilder();
+
+        QueryNormalizer(String query) {
+            int length = query.length();
+            boolean pendingSpace = false;
+            int i = 0;
+            while (i < length) {
+                char c = query.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    pendingSpace = normalized.length() > 0;
+                    i++;
+                    continue;
+                }
+                if (c == '#') {
+                    while (i < length && query.charAt(i) != '\n' && query.charAt(i) != '\r')
+                        i++;
+                    pendingSpace = normalized.length() > 0;
+                    continue;
+                }
+                if (pendingSpace) {
+                    normalized.append(' ');
+                    code.append(' ');
+                    pendingSpace = false;
+                }
+
+                if (c == '"' || c == '\'') {
+                    i = copyStringLiteral(query, i, c);
+                }
+                else if (c == '<' && isIRIStart(query, i)) {
+                    int end = query.indexOf('>', i);
+                    normalized.append(query, i, end + 1);
+                    // Conservative: a function name in an IRI prevents caching
+                    code.append(query, i, end + 1);
+                    i = end + 1;
+                }
+                else {
+                    normalized.append(c);
+                    code.append(c);
+                    i++;
+                }
+            }
+        }
+
+        private int copyStringLiteral(String query, int start, char quote) {
+            int length = query.length();
+            boolean isLong = start + 2 < length && query.charAt(start + 1) == quote && query.charAt(start + 2) == quote;
+            int delimiterLength = isLong ? 3 : 1;
+            int i = start + delimiterLength;
+            while (i < length) {
+                char c = query.charAt(i);
+                if (c == '\\') {
+                    i += 2;
+                    continue;
+                }
+                if (c == quote && (!isLong || query.startsWith(String.valueOf(quote).repeat(3), i))) {
+                    i += delimiterLength;
+                    break;
+                }
+                i++;
+            }
+            int end = Math.min(i, length);
+            normalized.append(query, start, end);
+            code.append("\"\"");
+            return end;
+        }
+
+        /**
+         * Distinguishes an IRI reference from the "less than" operator
+         */
+        private static boolean isIRIStart(String query, int start) {
+            int end = query.indexOf('>', start);
+            if (end < 0)
+                return false;
+            for (int i = start + 1; i < end; i++) {
+                char c = query.charAt(i);
+                if (Character.isWhitespace(c) || c == '"' || c == '{' || c == '}' || c == '<')
+                    return false;
+            }
+            return true;
+        }
+
+        String getNormalizedQuery() {
+            return normalized.toString();
+        }
+
+        String getCode() {
+            return code.toString();
+        }
+    }
+}
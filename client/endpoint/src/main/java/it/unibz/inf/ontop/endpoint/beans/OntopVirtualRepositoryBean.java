@@ -3,31 +3,90 @@ package it.unibz.inf.ontop.endpoint.beans;
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
-import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
+import it.unibz.inf.ontop.rdf4j.repository.impl.ReloadableOntopRepository;
 import org.eclipse.rdf4j.repository.RepositoryException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.Nullable;
+
 @Component
 public class OntopVirtualRepositoryBean {
 
+    private final String mappings;
+    @Nullable
+    private final String ontology;
+    @Nullable
+    private final String facts;
+    @Nullable
+    private final String factFormat;
+    @Nullable
+    private final String factsBaseIRI;
+    @Nullable
+    private final String xmlCatalog;
+    @Nullable
+    private final String properties;
+    @Nullable
+    private final String constraint;
+    @Nullable
+    private final String dbMetadata;
+    @Nullable
+    private final String lenses;
+    @Nullable
+    private final String sparqlRules;
+    @Nullable
+    private final String dbUser;
+    @Nullable
+    private final String dbPassword;
+    @Nullable
+    private final String dbUrl;
+    @Nullable
+    private final String dbDriver;
+
+    @Autowired
+    public OntopVirtualRepositoryBean(@Value("${mapping}") String mappings,
+                                      @Value("${ontology:#{null}}") String ontology,
+                                      @Value("${facts:#{null}}") String facts,
+                                      @Value("${facts-format:#{null}}") String factFormat,
+                                      @Value("${facts-base-iri:#{null}}") String factsBaseIRI,
+                                      @Value("${xml-catalog:#{null}}") String xmlCatalog,
+                                      @Value("${properties:#{null}}") String properties,
+                                      @Value("${constraint:#{null}}") String constraint,
+                                      @Value("${db-metadata:#{null}}") String dbMetadata,
+                                      @Value("${lenses:#{null}}") String lenses,
+                                      @Value("${sparql-rules:#{null}}") String sparqlRules,
+                                      @Value("${db-user:#{null}}") String dbUser,
+                                      @Value("${db-password:#{null}}") String dbPassword,
+                                      @Value("${db-url:#{null}}") String dbUrl,
+                                      @Value("${db-driver:#{null}}") String dbDriver) {
+        this.mappings = mappings;
+        this.ontology = ontology;
+        this.facts = facts;
+        this.factFormat = factFormat;
+        this.factsBaseIRI = factsBaseIRI;
+        this.xmlCatalog = xmlCatalog;
+        this.properties = properties;
+        this.constraint = constraint;
+        this.dbMetadata = dbMetadata;
+        this.lenses = lenses;
+        this.sparqlRules = sparqlRules;
+        this.dbUser = dbUser;
+        this.dbPassword = dbPassword;
+        this.dbUrl = dbUrl;
+        this.dbDriver = dbDriver;
+    }
+
     @Bean
-    private OntopSystemConfiguration setupOntopConfiguration(@Value("${mapping}") String mappings,
-                                                             @Value("${ontology:#{null}}") String ontology,
-                                                             @Value("${facts:#{null}}") String facts,
-                                                             @Value("${facts-format:#{null}}") String factFormat,
-                                                             @Value("${facts-base-iri:#{null}}") String factsBaseIRI,
-                                                             @Value("${xml-catalog:#{null}}") String xmlCatalog,
-                                                             @Value("${properties:#{null}}") String properties,
-                                                             @Value("${constraint:#{null}}") String constraint,
-                                                             @Value("${db-metadata:#{null}}") String dbMetadata,
-                                                             @Value("${lenses:#{null}}") String lenses,
-                                                             @Value("${sparql-rules:#{null}}") String sparqlRules,
-                                                             @Value("${db-user:#{null}}") String dbUser,
-                                                             @Value("${db-password:#{null}}") String dbPassword,
-                                                             @Value("${db-url:#{null}}") String dbUrl,
-                                                             @Value("${db-driver:#{null}}") String dbDriver) throws RepositoryException {
+    private OntopSystemConfiguration setupOntopConfiguration() {
+        return loadConfiguration();
+    }
+
+    /**
+     * Builds a new configuration from the input files (e.g. for reloading the specification after their modification)
+     */
+    public OntopSystemConfiguration loadConfiguration() {
         OntopSQLOWLAPIConfiguration.Builder<?> builder = OntopSQLOWLAPIConfiguration.defaultBuilder();
 
         if (properties != null && !properties.isEmpty())
@@ -83,9 +142,10 @@ public class OntopVirtualRepositoryBean {
     }
 
     @Bean
-    private OntopVirtualRepository setupVirtualRepository(@Value("${lazy:false}") boolean lazy,
-                                                          OntopSystemConfiguration configuration) throws RepositoryException {
-        OntopVirtualRepository repository = OntopRepository.defaultRepository(configuration);
+    private ReloadableOntopRepository setupVirtualRepository(@Value("${lazy:false}") boolean lazy,
+                                                             OntopSystemConfiguration configuration) throws RepositoryException {
+        ReloadableOntopRepository repository = new ReloadableOntopRepository(
+                OntopRepository.defaultRepository(configuration));
 
         if (!lazy) {
             repository.init();
@@ -8,10 +8,12 @@ import it.unibz.inf.ontop.rdf4j.predefined.impl.OntopRDF4JPredefinedQueryEngineI
 import it.unibz.inf.ontop.rdf4j.predefined.parsing.PredefinedQueryParser;
 import it.unibz.inf.ontop.rdf4j.predefined.parsing.impl.PredefinedQueryParserImpl;
 import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
+import it.unibz.inf.ontop.rdf4j.repository.impl.ReloadableOntopRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.Nullable;
 import java.io.FileReader;
 import java.io.IOException;
 
@@ -22,23 +24,35 @@ public class PredefinedQueryComponent {
     private OntopRDF4JPredefinedQueryEngine setupPredefinedQueryEngine(@Value("${predefined-config:#{null}}") String configFile,
                                                                        @Value("${predefined-queries:#{null}}") String queryFile,
                                                                        @Value("${contexts:#{null}}") String contextFile,
-                                                                       OntopVirtualRepository repository,
+                                                                       ReloadableOntopRepository repository,
                                                                        OntopSystemConfiguration configuration) throws IOException {
         if (configFile != null) {
             if (queryFile == null)
                 throw new IllegalArgumentException("predefined-queries is expected when predefined-config is provided");
 
-            PredefinedQueryParser parser = new PredefinedQueryParserImpl(configuration);
-
-            FileReader queryReader = new FileReader(queryFile);
-            FileReader configReader = new FileReader(configFile);
-            PredefinedQueries predefinedQueries =  contextFile == null
-                    ? parser.parse(configReader, queryReader)
-                    : parser.parse(configReader, queryReader, new FileReader(contextFile));
-
-            return new OntopRDF4JPredefinedQueryEngineImpl(repository.getOntopEngine(), predefinedQueries, configuration);
+            ReloadablePredefinedQueryEngine engine = new ReloadablePredefinedQueryEngine(
+                    createEngine(configFile, queryFile, contextFile, repository.getCurrentRepository(), configuration));
+            // The predefined queries are parsed again with the reloaded configuration
+            repository.addReloadListener((r, c) -> engine.setEngine(
+                    createEngine(configFile, queryFile, contextFile, r, c)));
+            return engine;
         }
         else
             return new FakeOntopRDF4JPredefinedQueryEngine();
     }
+
+    private static OntopRDF4JPredefinedQueryEngine createEngine(String configFile, String queryFile,
+                                                                @Nullable String contextFile,
+                                                                OntopVirtualRepository repository,
+                                                                OntopSystemConfiguration configuration) throws IOException {
+        PredefinedQueryParser parser = new PredefinedQueryParserImpl(configuration);
+
+        FileReader queryReader = new FileReader(queryFile);
+        FileReader configReader = new FileReader(configFile);
+        PredefinedQueries predefinedQueries =  contextFile == null
+                ? parser.parse(configReader, queryReader)
+                : parser.parse(configReader, queryReader, new FileReader(contextFile));
+
+        return new OntopRDF4JPredefinedQueryEngineImpl(repository.getOntopEngine(), predefinedQueries, configuration);
+    }
 }
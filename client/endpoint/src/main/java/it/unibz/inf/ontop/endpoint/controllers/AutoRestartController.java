@@ -2,7 +2,10 @@ package it.unibz.inf.ontop.endpoint.controllers;
 
 import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.endpoint.OntopEndpointApplication;
+import it.unibz.inf.ontop.endpoint.beans.OntopVirtualRepositoryBean;
+import it.unibz.inf.ontop.rdf4j.repository.impl.ReloadableOntopRepository;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.eclipse.rdf4j.repository.RepositoryException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,11 +26,18 @@ public class AutoRestartController {
 
     private static final Logger log = LoggerFactory.getLogger(AutoRestartController.class);
 
+    private final ReloadableOntopRepository repository;
+    private final OntopVirtualRepositoryBean repositoryBean;
+
     @Autowired
     public AutoRestartController(@Value("${mapping}") String mappingFile,
                                  @Value("${properties:#{null}}") String propertiesFile,
                                  @Value("${ontology:#{null}}") String owlFile,
-                                 @Value("${portal:#{null}}") String portalFile) {
+                                 @Value("${portal:#{null}}") String portalFile,
+                                 ReloadableOntopRepository repository,
+                                 OntopVirtualRepositoryBean repositoryBean) {
+        this.repository = repository;
+        this.repositoryBean = repositoryBean;
         registerFileWatcher(mappingFile, owlFile, propertiesFile, portalFile);
     }
 
@@ -36,6 +46,14 @@ public class AutoRestartController {
         OntopEndpointApplication.restart();
     }
 
+    /**
+     * Unlike a restart, the queries keep being answered (by the previous specification) during the reload
+     */
+    @PostMapping("/ontop/reload")
+    public void reload() throws RepositoryException {
+        repository.reload(repositoryBean.loadConfiguration());
+    }
+
     private void registerFileWatcher(String mappingFile, @Nullable String owlFile, @Nullable String propertiesFile, @Nullable String portalFile) {
         FileSystem fileSystem = FileSystems.getDefault();
 
@@ -62,10 +80,21 @@ public class AutoRestartController {
                         // so we build it in another way...
                         final Path changed = Paths.get(parentDirectoryPath.toString(), localChanged.toString()).toAbsolutePath();
                         System.out.println(changed + " changed detected!");
-                        if (filesToWatch.stream().anyMatch(changed::endsWith)) {
+                        // The portal is only read at startup
+                        if (portalFile != null && changed.endsWith(new File(portalFile).getAbsolutePath())) {
                             log.info("RESTARTING Ontop!");
                             OntopEndpointApplication.restart();
                         }
+                        else if (filesToWatch.stream().anyMatch(changed::endsWith)) {
+                            log.info("RELOADING the Ontop specification");
+                            try {
+                                reload();
+                            }
+                            // The previous specification keeps being used
+                            catch (RuntimeException e) {
+                                log.error("Reloading the Ontop specification failed", e);
+                            }
+                        }
                     }
                     // reset the key
                     boolean valid = wk.reset();
@@ -0,0 +1,108 @@
+package it.unibz.inf.ontop.endpoint.controllers;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.evaluator.metrics.PhaseStatistics;
+import it.unibz.inf.ontop.evaluator.metrics.QueryPipelineMetrics;
+import it.unibz.inf.ontop.rdf4j.repository.impl.ReloadableOntopRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Locale;
+import java.util.function.ToLongFunction;
+
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+
+/**
+ * Exposes the latency histograms of the query answering phases in the Prometheus text format.
+ * Requires the query metrics to be enabled (ontop.queryMetrics).
+ */
+@RestController
+public class MetricsController {
+
+    private static final String CONTENT_TYPE_VALUE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String DURATION_METRIC = "ontop_query_phase_duration_seconds";
+    private static final String MAX_DURATION_METRIC = "ontop_query_phase_duration_max_seconds";
+    private static final String TEMPLATE_METRIC = "ontop_query_template_info";
+
+    private final ReloadableOntopRepository repository;
+
+    @Autowired
+    public MetricsController(ReloadableOntopRepository repository) {
+        this.repository = repository;
+    }
+
+    @RequestMapping(value = "/ontop/metrics", method = RequestMethod.GET)
+    public ResponseEntity<String> metrics() {
+        QueryPipelineMetrics metrics = repository.getCurrentRepository().getQueryPipelineMetrics();
+        if (!metrics.isEnabled())
+            return new ResponseEntity<>("The query metrics are disabled (see the property ontop.queryMetrics)",
+                    HttpStatus.NOT_FOUND);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(CONTENT_TYPE, CONTENT_TYPE_VALUE);
+        return new ResponseEntity<>(serialize(metrics), headers, HttpStatus.OK);
+    }
+
+    private static String serialize(QueryPipelineMetrics metrics) {
+        ImmutableList<PhaseStatistics> statistics = metrics.getStatistics();
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("# HELP ").append(DURATION_METRIC).append(" Duration of the query answering phases\n");
+        sb.append("# TYPE ").append(DURATION_METRIC).append(" summary\n");
+        for (PhaseStatistics s : statistics) {
+            appendQuantile(sb, s, "0.5", PhaseStatistics::getP50Nanos);
+            appendQuantile(sb, s, "0.9", PhaseStatistics::getP90Nanos);
+            appendQuantile(sb, s, "0.99", PhaseStatistics::getP99Nanos);
+            appendQuantile(sb, s, "0.999", PhaseStatistics::getP999Nanos);
+            appendSample(sb, DURATION_METRIC + "_sum", s, null, toSeconds(s.getSumNanos()));
+            appendSample(sb, DURATION_METRIC + "_count", s, null, Long.toString(s.getCount()));
+        }
+
+        sb.append("# HELP ").append(MAX_DURATION_METRIC).append(" Maximum duration of the query answering phases\n");
+        sb.append("# TYPE ").append(MAX_DURATION_METRIC).append(" gauge\n");
+        for (PhaseStatistics s : statistics)
+            appendSample(sb, MAX_DURATION_METRIC, s, null, toSeconds(s.getMaxNanos()));
+
+        sb.append("# HELP ").append(TEMPLATE_METRIC).append(" Normalized SPARQL query of the template labels\n");
+        sb.append("# TYPE ").append(TEMPLATE_METRIC).append(" gauge\n");
+        metrics.getTemplates().forEach((label, query) -> sb.append(TEMPLATE_METRIC)
+                .append("{template=\"").append(escape(label))
+                .append("\",query=\"").append(escape(query))
+                .append("\"} 1\n"));
+
+        return sb.toString();
+    }
+
+    private static void appendQuantile(StringBuilder sb, PhaseStatistics statistics, String quantile,
+                                       ToLongFunction<PhaseStatistics> getter) {
+        appendSample(sb, DURATION_METRIC, statistics, quantile, toSeconds(getter.applyAsLong(statistics)));
+    }
+
+    private static void appendSample(StringBuilder sb, String metric, PhaseStatistics statistics, String quantile,
+                                     String value) {
+        sb.append(metric)
+                .append("{phase=\"").append(escape(statistics.getPhase()))
+                .append("\",template=\"").append(escape(statistics.getTemplate())).append('"');
+        if (quantile != null)
+            sb.append(",quantile=\"").append(quantile).append('"');
+        sb.append("} ").append(value).append('\n');
+    }
+
+    private static String toSeconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    /**
+     * Label value escaping of the Prometheus text format
+     */
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\n", "\\n");
+    }
+}
@@ -1,7 +1,7 @@
 package it.unibz.inf.ontop.endpoint.controllers;
 
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
-import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
+import it.unibz.inf.ontop.rdf4j.repository.impl.ReloadableOntopRepository;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyStorageException;
@@ -33,7 +33,7 @@ public class OntologyFetcherController {
     //         the instantiation of the configuration object fails. Can some expert of Spring explain me
     //         what is going on here?
     @Autowired
-    public OntologyFetcherController(OntopVirtualRepository repository, OntopSQLOWLAPIConfiguration configuration) {
+    public OntologyFetcherController(ReloadableOntopRepository repository, OntopSQLOWLAPIConfiguration configuration) {
         this.configuration = configuration;
     }
 
@@ -5,7 +5,7 @@ import it.unibz.inf.ontop.endpoint.processor.SparqlQueryExecutor;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.exception.OntopReformulationException;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepositoryConnection;
-import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
+import it.unibz.inf.ontop.rdf4j.repository.impl.ReloadableOntopRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.http.HttpHeaders;
@@ -25,10 +25,10 @@ import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
 @ConditionalOnExpression("${dev:false}")
 public class ReformulateController {
 
-    private final OntopVirtualRepository repository;
+    private final ReloadableOntopRepository repository;
 
     @Autowired
-    public ReformulateController(OntopVirtualRepository repository) {
+    public ReformulateController(ReloadableOntopRepository repository) {
         this.repository = repository;
     }
 
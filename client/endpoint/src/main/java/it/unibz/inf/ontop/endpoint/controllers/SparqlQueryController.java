@@ -1,7 +1,8 @@
 package it.unibz.inf.ontop.endpoint.controllers;
 
 import it.unibz.inf.ontop.endpoint.processor.SparqlQueryExecutor;
-import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
+import it.unibz.inf.ontop.endpoint.processor.SparqlResultCache;
+import it.unibz.inf.ontop.rdf4j.repository.impl.ReloadableOntopRepository;
 import org.eclipse.rdf4j.query.*;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.slf4j.Logger;
@@ -12,6 +13,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.annotation.PreDestroy;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -23,11 +25,23 @@ public class SparqlQueryController {
 
     private static final Logger log = LoggerFactory.getLogger(SparqlQueryController.class);
     private final SparqlQueryExecutor executor;
+    private final SparqlResultCache resultCache;
 
 
     @Autowired
-    public SparqlQueryController(OntopVirtualRepository repository) {
-        this.executor = new SparqlQueryExecutor(repository);
+    public SparqlQueryController(ReloadableOntopRepository repository) {
+        this.resultCache = new SparqlResultCache(repository.getCurrentRepository().getSettings());
+        this.executor = new SparqlQueryExecutor(repository, resultCache);
+        // The cached responses may not hold for the reloaded specification
+        repository.addReloadListener((r, c) -> resultCache.clear());
+    }
+
+    /**
+     * Removes the responses spilled to disk
+     */
+    @PreDestroy
+    public void clearResultCache() {
+        resultCache.clear();
     }
 
     @RequestMapping(value = "/sparql",
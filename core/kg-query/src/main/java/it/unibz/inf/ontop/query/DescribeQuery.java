@@ -18,5 +18,14 @@ public interface DescribeQuery extends GraphSPARQLQuery {
      */
     ImmutableCollection<ConstructQuery> computeConstructQueries(ImmutableSet<IRI> resourcesToDescribe);
 
+    /**
+     * Groups the resources to describe into blocks of at most batchSize resources.
+     * Each block is described by one CONSTRUCT query (the resources are given in a VALUES clause).
+     *
+     * Restriction: description of blank nodes is not supported.
+     */
+    ImmutableCollection<ConstructQuery> computeBatchedConstructQueries(ImmutableSet<IRI> resourcesToDescribe,
+                                                                       int batchSize);
+
 
 }
@@ -3,6 +3,8 @@ package it.unibz.inf.ontop.query.impl;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Streams;
 import it.unibz.inf.ontop.query.ConstructQuery;
 import it.unibz.inf.ontop.query.ConstructTemplate;
 import it.unibz.inf.ontop.query.RDF4JDescribeQuery;
@@ -16,6 +18,7 @@ import org.apache.commons.rdf.api.IRI;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.algebra.*;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
 import org.eclipse.rdf4j.query.impl.ListBindingSet;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
 import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
@@ -95,6 +98,38 @@ class RDF4JDescribeQueryImpl implements RDF4JDescribeQuery {
                 .collect(ImmutableCollectors.toList());
     }
 
+    @Override
+    public ImmutableCollection<ConstructQuery> computeBatchedConstructQueries(ImmutableSet<IRI> resourcesToDescribe,
+                                                                              int batchSize) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("The batch size must be positive");
+
+        if (batchSize == 1)
+            return computeConstructQueries(resourcesToDescribe);
+
+        UnaryTupleOperator newProjection = createNewProjection(isFixedObjectIncludedInDescribe);
+        ConstructTemplate constructTemplate = new RDF4JConstructTemplate(newProjection, null);
+        SimpleValueFactory valueFactory = SimpleValueFactory.getInstance();
+
+        return Streams.stream(Iterables.partition(resourcesToDescribe, batchSize))
+                .map(block -> {
+                    BindingSetAssignment values = new BindingSetAssignment();
+                    values.setBindingNames(ImmutableSet.of(DESCRIBE_VARIABLE));
+                    values.setBindingSets(block.stream()
+                            .map(d -> new ListBindingSet(ImmutableList.of(DESCRIBE_VARIABLE),
+                                    valueFactory.createIRI(d.getIRIString())))
+                            .collect(ImmutableCollectors.toList()));
+
+                    ParsedTupleQuery selectQuery = new ParsedTupleQuery(
+                            new Join(values, createSPPOUnion(isFixedObjectIncludedInDescribe)));
+
+                    return new RDF4JConstructQueryImpl(new ConstructQuerySplit(constructTemplate, selectQuery),
+                            "# Construct for describing " + block.size() + " resources, starting with " + block.get(0),
+                            EmptyBindingSet.getInstance());
+                })
+                .collect(ImmutableCollectors.toList());
+    }
+
     private static ConstructQuerySplit createConstructionQuerySplit(boolean isFixedObjectIncludedInDescribe) {
         ParsedTupleQuery selectQuery = new ParsedTupleQuery(createSPPOUnion(isFixedObjectIncludedInDescribe));
 
@@ -0,0 +1,30 @@
+package it.unibz.inf.ontop.query.resultset;
+
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.model.type.RDFTermType;
+
+import java.io.IOException;
+
+/**
+ * Receives the rows of a TupleResultSet as lexical values and RDF term types, in the order of the signature.
+ *
+ * Used for serializing results without building RDF constants (see {@link TupleResultSet#forEachLexicalRow}).
+ * The arrays are reused from one row to the next: they must not be retained.
+ */
+@FunctionalInterface
+public interface LexicalRowHandler {
+
+    /**
+     * Unbound variables have null as lexical value and type.
+     *
+     * The lexical value of an IRI is the IRI string, the one of a blank node is its label.
+     */
+    void handleRow(CharSequence[] lexicalValues, RDFTermType[] types) throws IOException;
+
+    static String getLexicalValue(RDFConstant constant) {
+        return (constant instanceof IRIConstant)
+                ? ((IRIConstant) constant).getIRI().getIRIString()
+                : constant.getValue();
+    }
+}
@@ -22,7 +22,10 @@ package it.unibz.inf.ontop.query.resultset;
 
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.model.type.RDFTermType;
 
+import java.io.IOException;
 import java.util.List;
 
 public interface TupleResultSet extends IterativeOBDAResultSet<OntopBindingSet, OntopResultConversionException> {
@@ -35,4 +38,27 @@ public interface TupleResultSet extends IterativeOBDAResultSet<OntopBindingSet,
 	List<String> getSignature() throws OntopConnectionException;
 
 	boolean isConnectionAlive() throws OntopConnectionException;
+
+	/**
+	 * Consumes the remaining rows.
+	 *
+	 * Implementations are encouraged to stream the rows without building intermediate RDF constants.
+	 * This default implementation goes through the binding sets.
+	 */
+	default void forEachLexicalRow(LexicalRowHandler handler) throws OntopConnectionException,
+			OntopResultConversionException, IOException {
+		List<String> signature = getSignature();
+		CharSequence[] lexicalValues = new CharSequence[signature.size()];
+		RDFTermType[] types = new RDFTermType[signature.size()];
+
+		while (hasNext()) {
+			OntopBindingSet bindingSet = next();
+			for (int i = 0; i < lexicalValues.length; i++) {
+				RDFConstant constant = bindingSet.getConstant(signature.get(i));
+				lexicalValues[i] = constant == null ? null : LexicalRowHandler.getLexicalValue(constant);
+				types[i] = constant == null ? null : constant.getType();
+			}
+			handler.handleRow(lexicalValues, types);
+		}
+	}
 }
@@ -2,6 +2,7 @@ package it.unibz.inf.ontop.query.unfolding.impl;
 
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
@@ -39,6 +40,9 @@ public class BasicQueryUnfolder extends AbstractIntensionalQueryMerger implement
     private final UnionBasedQueryMerger queryMerger;
     private final CoreUtilsFactory coreUtilsFactory;
 
+    private final ImmutableMap<RDFAtomPredicate, StarDefinitions> starDefinitions;
+    private final ImmutableMap<RDFAtomPredicate, StarDefinitions> starClassDefinitions;
+
     /**
      * See {@link QueryUnfolder.Factory#create(Mapping)}
      */
@@ -54,6 +58,17 @@ public class BasicQueryUnfolder extends AbstractIntensionalQueryMerger implement
         this.queryMerger = queryMerger;
         this.coreUtilsFactory = coreUtilsFactory;
         this.atomFactory = atomFactory;
+
+        this.starDefinitions = mapping.getRDFAtomPredicates().stream()
+                .collect(ImmutableCollectors.toMap(
+                        p -> p,
+                        p -> new StarDefinitions(p, ImmutableList.copyOf(mapping.getQueries(p)), queryMerger)));
+        this.starClassDefinitions = mapping.getRDFAtomPredicates().stream()
+                .collect(ImmutableCollectors.toMap(
+                        p -> p,
+                        p -> new StarDefinitions(p, mapping.getRDFClasses(p).stream()
+                                .flatMap(i -> mapping.getRDFClassDefinition(p, i).stream())
+                                .collect(ImmutableCollectors.toList()), queryMerger)));
     }
 
     @Override
@@ -83,24 +98,25 @@ public class BasicQueryUnfolder extends AbstractIntensionalQueryMerger implement
                     .map(i -> i.equals(RDF.TYPE)
                             ? getRDFClassDefinition(predicate, arguments)
                             : mapping.getRDFPropertyDefinition(predicate, i))
-                    .orElseGet(() -> getStarDefinition(predicate));
+                    .orElseGet(() -> getStarDefinition(starDefinitions, predicate, arguments));
         }
 
         private Optional<IQ> getRDFClassDefinition(RDFAtomPredicate predicate,
                                                    ImmutableList<? extends VariableOrGroundTerm> arguments) {
             return predicate.getClassIRI(arguments)
                     .map(i -> mapping.getRDFClassDefinition(predicate, i))
-                    .orElseGet(() -> getStarClassDefinition(predicate));
-        }
-
-        private Optional<IQ> getStarClassDefinition(RDFAtomPredicate predicate) {
-            return queryMerger.mergeDefinitions(mapping.getRDFClasses(predicate).stream()
-                    .flatMap(i -> mapping.getRDFClassDefinition(predicate, i).stream())
-                    .collect(ImmutableCollectors.toList()));
+                    .orElseGet(() -> getStarDefinition(starClassDefinitions, predicate, arguments));
         }
 
-        private Optional<IQ> getStarDefinition(RDFAtomPredicate predicate) {
-            return queryMerger.mergeDefinitions(mapping.getQueries(predicate));
+        /**
+         * Precomputed, restricted to the definitions compatible with the IRI constants in the subject
+         * and object positions
+         */
+        private Optional<IQ> getStarDefinition(ImmutableMap<RDFAtomPredicate, StarDefinitions> definitionMap,
+                                               RDFAtomPredicate predicate,
+                                               ImmutableList<? extends VariableOrGroundTerm> arguments) {
+            return Optional.ofNullable(definitionMap.get(predicate))
+                    .flatMap(d -> d.getDefinition(predicate.getSubject(arguments), predicate.getObject(arguments)));
         }
 
         @Override
@@ -0,0 +1,189 @@
+package it.unibz.inf.ontop.query.unfolding.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Sets;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.UnaryIQTree;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.iq.tools.UnionBasedQueryMerger;
+import it.unibz.inf.ontop.model.atom.RDFAtomPredicate;
+import it.unibz.inf.ontop.model.template.Template;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.RDFTermFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.ObjectStringTemplateFunctionSymbol;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Definitions used for the triple/quad patterns whose property (or class) is not known, computed once per mapping.
+ *
+ * When the subject or the object of the pattern is an IRI constant, only the definitions whose IRI templates
+ * (for that position) start with a prefix of this IRI are merged.
+ * The merged definitions are cached for each set of selected definitions.
+ *
+ * Thread-safe
+ */
+class StarDefinitions {
+
+    private final UnionBasedQueryMerger queryMerger;
+    private final ImmutableList<IQ> definitions;
+    private final IRIPrefixIndex subjectIndex;
+    private final IRIPrefixIndex objectIndex;
+    private final ImmutableSortedSet<Integer> allDefinitions;
+
+    private final Map<ImmutableSortedSet<Integer>, Optional<IQ>> mergedDefinitions = new ConcurrentHashMap<>();
+
+    StarDefinitions(RDFAtomPredicate predicate, ImmutableList<IQ> definitions, UnionBasedQueryMerger queryMerger) {
+        this.queryMerger = queryMerger;
+        this.definitions = definitions;
+        this.subjectIndex = new IRIPrefixIndex(definitions, d -> predicate.getSubject(d.getProjectionAtom().getArguments()));
+        this.objectIndex = new IRIPrefixIndex(definitions, d -> predicate.getObject(d.getProjectionAtom().getArguments()));
+        this.allDefinitions = ImmutableSortedSet.copyOf(IntStream.range(0, definitions.size())
+                .boxed()
+                .iterator());
+        // Precomputed, as it is the most common case
+        getMergedDefinition(allDefinitions);
+    }
+
+    Optional<IQ> getDefinition(VariableOrGroundTerm subject, VariableOrGroundTerm object) {
+        ImmutableSortedSet<Integer> selection = allDefinitions;
+        if (subject instanceof IRIConstant)
+            selection = subjectIndex.getCompatibleDefinitions(((IRIConstant) subject).getIRI().getIRIString());
+        if (object instanceof IRIConstant)
+            selection = ImmutableSortedSet.copyOf(Sets.intersection(selection,
+                    objectIndex.getCompatibleDefinitions(((IRIConstant) object).getIRI().getIRIString())));
+
+        return getMergedDefinition(selection);
+    }
+
+    private Optional<IQ> getMergedDefinition(ImmutableSortedSet<Integer> selection) {
+        return mergedDefinitions.computeIfAbsent(selection,
+                s -> queryMerger.mergeDefinitions(s.stream()
+                        .map(definitions::get)
+                        .collect(ImmutableCollectors.toList())));
+    }
+
+
+    /**
+     * Indexes the definitions by the prefixes of the IRIs they can produce in a given position.
+     * The definitions for which no prefix can be determined are compatible with all the IRIs.
+     */
+    private static class IRIPrefixIndex {
+        private final ImmutableSortedMap<String, ImmutableSet<Integer>> definitionsByPrefix;
+        private final ImmutableSortedSet<Integer> unindexedDefinitions;
+
+        IRIPrefixIndex(ImmutableList<IQ> definitions, Function<IQ, Variable> positionExtractor) {
+            Map<String, Set<Integer>> prefixMap = new HashMap<>();
+            ImmutableSortedSet.Builder<Integer> unindexedBuilder = ImmutableSortedSet.naturalOrder();
+
+            for (int i = 0; i < definitions.size(); i++) {
+                IQ definition = definitions.get(i);
+                Optional<ImmutableSet<String>> prefixes = extractIRIPrefixes(positionExtractor.apply(definition),
+                        definition.getTree());
+                if (prefixes.isPresent()) {
+                    for (String prefix : prefixes.get())
+                        prefixMap.computeIfAbsent(prefix, p -> new HashSet<>()).add(i);
+                }
+                else
+                    unindexedBuilder.add(i);
+            }
+            this.definitionsByPrefix = prefixMap.entrySet().stream()
+                    .collect(ImmutableSortedMap.toImmutableSortedMap(
+                            Comparator.naturalOrder(),
+                            Map.Entry::getKey,
+                            e -> ImmutableSet.copyOf(e.getValue())));
+            this.unindexedDefinitions = unindexedBuilder.build();
+        }
+
+        ImmutableSortedSet<Integer> getCompatibleDefinitions(String iri) {
+            ImmutableSortedSet.Builder<Integer> builder = ImmutableSortedSet.naturalOrder();
+            builder.addAll(unindexedDefinitions);
+
+            // Only visits the keys that are prefixes of the IRI and, for the others, jumps to their common prefix
+            String key = definitionsByPrefix.floorKey(iri);
+            while (key != null) {
+                if (iri.startsWith(key)) {
+                    builder.addAll(definitionsByPrefix.get(key));
+                    key = definitionsByPrefix.lowerKey(key);
+                }
+                else
+                    key = definitionsByPrefix.floorKey(commonPrefix(key, iri));
+            }
+            return builder.build();
+        }
+
+        private static String commonPrefix(String s1, String s2) {
+            int length = Math.min(s1.length(), s2.length());
+            int i = 0;
+            while (i < length && s1.charAt(i) == s2.charAt(i))
+                i++;
+            return s1.substring(0, i);
+        }
+
+        /**
+         * Returns empty if the prefixes cannot be determined
+         */
+        private static Optional<ImmutableSet<String>> extractIRIPrefixes(Variable variable, IQTree tree) {
+            QueryNode rootNode = tree.getRootNode();
+            if (rootNode instanceof ConstructionNode) {
+                ConstructionNode constructionNode = (ConstructionNode) rootNode;
+                IQTree child = ((UnaryIQTree) tree).getChild();
+                return constructionNode.getSubstitution().isDefining(variable)
+                        ? extractIRIPrefixes(constructionNode.getSubstitution().get(variable), child)
+                        : extractIRIPrefixes(variable, child);
+            }
+            if ((rootNode instanceof DistinctNode) || (rootNode instanceof FilterNode))
+                return extractIRIPrefixes(variable, ((UnaryIQTree) tree).getChild());
+
+            if (rootNode instanceof UnionNode) {
+                ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+                for (IQTree child : tree.getChildren()) {
+                    Optional<ImmutableSet<String>> prefixes = extractIRIPrefixes(variable, child);
+                    if (prefixes.isEmpty())
+                        return Optional.empty();
+                    builder.addAll(prefixes.get());
+                }
+                return Optional.of(builder.build());
+            }
+            return Optional.empty();
+        }
+
+        private static Optional<ImmutableSet<String>> extractIRIPrefixes(ImmutableTerm term, IQTree child) {
+            if (term instanceof Variable)
+                return extractIRIPrefixes((Variable) term, child);
+            if (term instanceof IRIConstant)
+                return Optional.of(ImmutableSet.of(((IRIConstant) term).getIRI().getIRIString()));
+            if (term instanceof DBConstant)
+                return Optional.of(ImmutableSet.of(((DBConstant) term).getValue()));
+            if (term instanceof ImmutableFunctionalTerm) {
+                ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+                FunctionSymbol functionSymbol = functionalTerm.getFunctionSymbol();
+                if (functionSymbol instanceof RDFTermFunctionSymbol)
+                    return extractIRIPrefixes(functionalTerm.getTerm(0), child);
+                if (functionSymbol instanceof ObjectStringTemplateFunctionSymbol)
+                    return Optional.of(ImmutableSet.of(getTemplatePrefix(
+                            ((ObjectStringTemplateFunctionSymbol) functionSymbol).getTemplateComponents())));
+            }
+            return Optional.empty();
+        }
+
+        private static String getTemplatePrefix(ImmutableList<Template.Component> components) {
+            StringBuilder sb = new StringBuilder();
+            for (Template.Component component : components) {
+                if (component.isColumnNameReference())
+                    break;
+                sb.append(component.getComponent());
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package it.unibz.inf.ontop.dbschema;
+
+import java.util.OptionalLong;
+
+/**
+ * Statistics about the relations of the data source, for cost-based query planning.
+ *
+ * Values are estimates: they may be computed on a sample of the rows or have been persisted beforehand.
+ * Empty when not available (e.g. lenses, no connection to the DB, not collected in time).
+ * As they are called during query planning, implementations are expected to wait for the DB for a bounded time only.
+ */
+public interface DBStatisticsProvider {
+
+    OptionalLong getRowCount(NamedRelationDefinition relation);
+
+    OptionalLong getDistinctValueCount(NamedRelationDefinition relation, Attribute attribute);
+
+    /**
+     * The listener is called when statistics that were reported as not available have become available,
+     * so that the query plans built without them can be discarded.
+     */
+    void addUpdateListener(Runnable listener);
+}
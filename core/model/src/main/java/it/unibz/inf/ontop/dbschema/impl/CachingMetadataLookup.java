@@ -7,11 +7,16 @@ import it.unibz.inf.ontop.exception.InvalidQueryException;
 import it.unibz.inf.ontop.exception.MetadataExtractionException;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Thread-safe: the cached relations are read without locking,
+ * while the calls to the provider (which is not expected to be thread-safe) are serialized.
+ */
 public class CachingMetadataLookup implements MetadataLookup {
 
     private final MetadataProvider provider;
-    private final Map<RelationID, NamedRelationDefinition> map = new HashMap<>();
+    private final Map<RelationID, NamedRelationDefinition> map = new ConcurrentHashMap<>();
 
     public CachingMetadataLookup(MetadataProvider provider) { this.provider = provider; }
 
@@ -21,6 +26,16 @@ public class CachingMetadataLookup implements MetadataLookup {
         if (relation != null)
             return relation;
 
+        synchronized (this) {
+            return retrieveRelation(relationId);
+        }
+    }
+
+    private NamedRelationDefinition retrieveRelation(RelationID relationId) throws MetadataExtractionException {
+        NamedRelationDefinition relation = map.get(relationId);
+        if (relation != null)
+            return relation;
+
         NamedRelationDefinition retrievedRelation = provider.getRelation(relationId);
         for (RelationID retrievedId : retrievedRelation.getAllIDs()) {
             NamedRelationDefinition prev = map.put(retrievedId, retrievedRelation);
@@ -34,7 +49,7 @@ public class CachingMetadataLookup implements MetadataLookup {
      * At the moment, black-box views are not cached
      */
     @Override
-    public RelationDefinition getBlackBoxView(String query) throws MetadataExtractionException, InvalidQueryException {
+    public synchronized RelationDefinition getBlackBoxView(String query) throws MetadataExtractionException, InvalidQueryException {
         return provider.getBlackBoxView(query);
     }
 
@@ -48,7 +63,7 @@ public class CachingMetadataLookup implements MetadataLookup {
         return new ImmutableMetadataLookup(getQuotedIDFactory(), ImmutableMap.copyOf(map));
     }
 
-    public ImmutableMetadata extractImmutableMetadata() throws MetadataExtractionException {
+    public synchronized ImmutableMetadata extractImmutableMetadata() throws MetadataExtractionException {
 
         ImmutableMetadataLookup lookup = extractImmutableMetadataLookup();
         ImmutableList<NamedRelationDefinition> list = lookup.getRelations();
@@ -0,0 +1,32 @@
+package it.unibz.inf.ontop.dbschema.impl;
+
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.dbschema.Attribute;
+import it.unibz.inf.ontop.dbschema.DBStatisticsProvider;
+import it.unibz.inf.ontop.dbschema.NamedRelationDefinition;
+
+import java.util.OptionalLong;
+
+/**
+ * Default implementation: no statistics
+ */
+@Singleton
+public class EmptyDBStatisticsProvider implements DBStatisticsProvider {
+
+    @Override
+    public OptionalLong getRowCount(NamedRelationDefinition relation) {
+        return OptionalLong.empty();
+    }
+
+    @Override
+    public OptionalLong getDistinctValueCount(NamedRelationDefinition relation, Attribute attribute) {
+        return OptionalLong.empty();
+    }
+
+    /**
+     * Never updated
+     */
+    @Override
+    public void addUpdateListener(Runnable listener) {
+    }
+}
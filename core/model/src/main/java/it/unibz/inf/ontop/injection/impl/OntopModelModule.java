@@ -5,6 +5,7 @@ import com.google.inject.Module;
 import com.google.inject.*;
 import com.google.inject.name.Names;
 import it.unibz.inf.ontop.constraints.HomomorphismFactory;
+import it.unibz.inf.ontop.dbschema.DBStatisticsProvider;
 import it.unibz.inf.ontop.dbschema.DatabaseInfoSupplier;
 import it.unibz.inf.ontop.dbschema.QuotedIDFactory;
 import it.unibz.inf.ontop.dbschema.impl.SQLStandardQuotedIDFactory;
@@ -82,6 +83,7 @@ public class OntopModelModule extends OntopAbstractModule {
         bindFromSettings(TypeConstantDictionary.class);
         bindFromSettings(IQTreeCache.class);
         bindFromSettings(DatabaseInfoSupplier.class);
+        bindFromSettings(DBStatisticsProvider.class);
 
         bind(CoreSingletons.class).to(CoreSingletonsImpl.class);
 
@@ -39,6 +39,11 @@ public abstract class AbstractCompositeIQTree<N extends QueryNode> implements Co
     @Nullable
     private String string;
 
+    /*
+     * LAZY (0 when not computed yet)
+     */
+    private int hashCode;
+
     // Non final
     private boolean hasBeenSuccessfullyValidate;
 
@@ -134,12 +139,23 @@ public abstract class AbstractCompositeIQTree<N extends QueryNode> implements Co
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         AbstractCompositeIQTree<?> other = (AbstractCompositeIQTree<?>) o;
-        return rootNode.equals(other.rootNode) && children.equals(other.children);
+        // Cheap rejection, as the hash codes are cached
+        return (hashCode() == other.hashCode())
+                && rootNode.equals(other.rootNode) && children.equals(other.children);
     }
 
+    /**
+     * Structural hash code, cached (the tree is immutable).
+     * Only the hash codes of the root node and of the children are used, the latter being cached too.
+     */
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        int h = hashCode;
+        if (h == 0) {
+            h = 31 * rootNode.hashCode() + children.hashCode();
+            hashCode = h;
+        }
+        return h;
     }
 
     protected Optional<Substitution<? extends VariableOrGroundTerm>> normalizeDescendingSubstitution(
@@ -100,8 +100,11 @@ public class IQImpl implements IQ {
         return projectionAtom.equals(other.projectionAtom) && tree.equals(other.tree);
     }
 
+    /**
+     * Relies on the cached hash code of the tree
+     */
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        return 31 * projectionAtom.hashCode() + tree.hashCode();
     }
 }
@@ -43,6 +43,9 @@ public class ConstructionNodeImpl extends ExtendedProjectionNodeImpl implements
     private final Substitution<ImmutableTerm> substitution;
     private final ImmutableSet<Variable> childVariables;
 
+    // LAZY (0 when not computed yet)
+    private int hashCode;
+
     private final ConstructionSubstitutionNormalizer substitutionNormalizer;
     private final NotRequiredVariableRemover notRequiredVariableRemover;
 
@@ -460,7 +463,12 @@ public class ConstructionNodeImpl extends ExtendedProjectionNodeImpl implements
 
     @Override
     public int hashCode() {
-        return Objects.hash(projectedVariables, substitution);
+        int h = hashCode;
+        if (h == 0) {
+            h = Objects.hash(projectedVariables, substitution);
+            hashCode = h;
+        }
+        return h;
     }
 
     @Override
@@ -66,6 +66,9 @@ public class ExtensionalDataNodeImpl extends LeafIQTreeImpl implements Extension
     @Nullable
     private Boolean isDistinct;
 
+    // LAZY (0 when not computed yet)
+    private int hashCode;
+
     private final CoreUtilsFactory coreUtilsFactory;
     private final SubstitutionFactory substitutionFactory;
     private final QueryTransformerFactory queryTransformerFactory;
@@ -300,7 +303,12 @@ public class ExtensionalDataNodeImpl extends LeafIQTreeImpl implements Extension
 
     @Override
     public int hashCode() {
-        return Objects.hash(relationDefinition, argumentMap);
+        int h = hashCode;
+        if (h == 0) {
+            h = Objects.hash(relationDefinition, argumentMap);
+            hashCode = h;
+        }
+        return h;
     }
 
     @Override
@@ -5,6 +5,8 @@ import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.iq.node.OrderByNode;
 import it.unibz.inf.ontop.model.term.NonGroundTerm;
 
+import java.util.Objects;
+
 public class OrderComparatorImpl implements OrderByNode.OrderComparator {
 
     private static final String ASC_PREFIX = "ASC(";
@@ -39,6 +41,11 @@ public class OrderComparatorImpl implements OrderByNode.OrderComparator {
         return false;
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(term, isAscending);
+    }
+
     @Override
     public String toString() {
         return (isAscending ? ASC_PREFIX : DESC_PREFIX) + term + ")";
@@ -56,6 +56,8 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
     private VariableNullability variableNullability;
     // LAZY
     private Boolean isDistinct;
+    // LAZY (0 when not computed yet)
+    private int hashCode;
 
     // LAZY
     private ImmutableSet<Substitution<NonVariableTerm>> possibleVariableDefinitions;
@@ -234,7 +236,12 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
 
     @Override
     public int hashCode() {
-        return Objects.hash(projectedVariables, valueMaps);
+        int h = hashCode;
+        if (h == 0) {
+            h = Objects.hash(projectedVariables, valueMaps);
+            hashCode = h;
+        }
+        return h;
     }
 
     @Override
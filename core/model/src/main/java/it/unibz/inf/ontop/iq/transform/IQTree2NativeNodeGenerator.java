@@ -15,4 +15,10 @@ public interface IQTree2NativeNodeGenerator {
      */
     NativeNode generate(IQTree iqTree, DBParameters dbParameters, boolean tolerateUnknownTypes);
 
+    /**
+     * If parameterized, some constants are not inlined but given as parameters of the native node
+     * (see {@link NativeNode#getParameters()}).
+     */
+    NativeNode generate(IQTree iqTree, DBParameters dbParameters, boolean tolerateUnknownTypes, boolean parameterized);
+
 }
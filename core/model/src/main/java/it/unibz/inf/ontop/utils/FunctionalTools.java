@@ -5,6 +5,10 @@ import com.google.common.collect.ImmutableList;
 import java.util.AbstractMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
@@ -23,4 +27,36 @@ public class FunctionalTools {
         return listBuilder.build();
     }
 
+    /**
+     * Order-preserving. Runs on a dedicated fork-join pool when several threads are requested
+     * (at most one per element), otherwise in the calling thread.
+     *
+     * The runtime exceptions and errors thrown by the function are rethrown as such.
+     */
+    public static <T, R> ImmutableList<R> parallelMap(ImmutableList<T> list, Function<T, R> function, int threads)
+            throws InterruptedException {
+        int threadCount = Math.min(threads, list.size());
+        if (threadCount <= 1)
+            return list.stream()
+                    .map(function)
+                    .collect(ImmutableCollectors.toList());
+
+        ForkJoinPool pool = new ForkJoinPool(threadCount);
+        try {
+            // NB: the immutable collectors are unordered
+            return ImmutableList.copyOf(pool.submit(() -> list.parallelStream()
+                            .map(function)
+                            .collect(Collectors.toList()))
+                    .get());
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw (Error) cause;
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
 }
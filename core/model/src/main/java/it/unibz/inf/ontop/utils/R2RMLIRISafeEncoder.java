@@ -81,6 +81,13 @@ public class R2RMLIRISafeEncoder {
         return StringUtils.encode(s, TABLE.inverse());
     }
 
+    /*
+     * percent encoding for a String, appended to the string builder
+     */
+    public static void encode(String s, StringBuilder sb) {
+        StringUtils.encode(s, TABLE.inverse(), sb);
+    }
+
     /***
      * Given a string representing an IRI, this method will return a String
      * in which all percent encoded characters (e.g., %20) will
@@ -25,6 +25,23 @@ public class StringUtils {
         return sb.toString();
     }
 
+    /**
+     * Appends the encoded string to the string builder
+     */
+    public static void encode(String s, ImmutableMap<Character, String> map, StringBuilder sb) {
+        int length = s.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            String rep = map.get(s.charAt(i));
+            if (rep != null) {
+                sb.append(s, start, i);
+                start = i + 1;
+                sb.append(rep);
+            }
+        }
+        sb.append(s, start, length);
+    }
+
     public static String decode(String encoded, char escape, int escapeLength, ImmutableMap<String, Character> map, Consumer<String> unrecognisedCodeConsumer) {
         int escapeIndex = encoded.indexOf(escape);
         if (escapeIndex == -1)
@@ -0,0 +1,68 @@
+package it.unibz.inf.ontop.iq;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+import it.unibz.inf.ontop.dbschema.impl.OfflineMetadataProviderBuilder;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import org.junit.Test;
+
+import static it.unibz.inf.ontop.OntopModelTestingTools.*;
+import static org.junit.Assert.*;
+
+public class IQTreeHashingTest {
+
+    private final static RelationDefinition TABLE1;
+    private final static RelationDefinition TABLE2;
+    private final static Variable X = TERM_FACTORY.getVariable("x");
+    private final static Variable Y = TERM_FACTORY.getVariable("y");
+    private final static Variable Z = TERM_FACTORY.getVariable("z");
+
+    static {
+        OfflineMetadataProviderBuilder builder = createMetadataProviderBuilder();
+        DBTermType integerDBType = builder.getDBTypeFactory().getDBLargeIntegerType();
+
+        TABLE1 = builder.createDatabaseRelation("TABLE1",
+                "col1", integerDBType, false,
+                "col2", integerDBType, false);
+
+        TABLE2 = builder.createDatabaseRelation("TABLE2",
+                "col1", integerDBType, false,
+                "col2", integerDBType, false);
+    }
+
+    @Test
+    public void testEqualTreesHaveEqualHashCodes() {
+        IQTree tree1 = createJoinTree(X, Y, Z);
+        IQTree tree2 = createJoinTree(X, Y, Z);
+
+        assertNotSame(tree1, tree2);
+        assertEquals(tree1, tree2);
+        assertEquals(tree1.hashCode(), tree2.hashCode());
+
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(
+                ATOM_FACTORY.getRDFAnswerPredicate(2), X, Z);
+        assertEquals(IQ_FACTORY.createIQ(projectionAtom, tree1).hashCode(),
+                IQ_FACTORY.createIQ(projectionAtom, tree2).hashCode());
+    }
+
+    @Test
+    public void testDifferentTrees() {
+        IQTree tree1 = createJoinTree(X, Y, Z);
+        IQTree tree2 = createJoinTree(X, Z, Y);
+
+        assertNotEquals(tree1, tree2);
+    }
+
+    private static IQTree createJoinTree(Variable v1, Variable v2, Variable v3) {
+        ExtensionalDataNode dataNode1 = createExtensionalDataNode(TABLE1, ImmutableList.of(v1, v2));
+        ExtensionalDataNode dataNode2 = createExtensionalDataNode(TABLE2, ImmutableList.of(v2, v3));
+
+        return IQ_FACTORY.createUnaryIQTree(
+                IQ_FACTORY.createConstructionNode(ImmutableSet.of(v1, v3)),
+                IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createInnerJoinNode(), ImmutableList.of(dataNode1, dataNode2)));
+    }
+}
@@ -22,6 +22,24 @@ public interface OntopOBDASettings extends OntopModelSettings {
      */
     boolean exposeSystemTables();
 
+    /**
+     * If true, the columns and integrity constraints of the DB relations are extracted schema by schema,
+     * with set-based catalog queries, instead of relation by relation.
+     */
+    boolean isBulkMetadataExtractionEnabled();
+
+    /**
+     * Number of connections used in parallel, in the bulk mode, for the metadata
+     * that cannot be extracted schema by schema.
+     */
+    int getMetadataExtractionThreads();
+
+    /**
+     * Number of threads used for parsing the source queries and converting the mapping assertions.
+     * If 1, the conversion is sequential.
+     */
+    int getMappingConversionThreads();
+
     //--------------------------
     // Keys
     //--------------------------
@@ -31,4 +49,7 @@ public interface OntopOBDASettings extends OntopModelSettings {
     String IGNORE_INVALID_MAPPING_ENTRIES = "ontop.ignoreInvalidMappingEntries";
     String IGNORE_INVALID_LENS_ENTRIES = "ontop.ignoreInvalidLensEntries";
     String EXPOSE_SYSTEM_TABLES = "ontop.exposeSystemTables";
+    String BULK_METADATA_EXTRACTION = "ontop.bulkMetadataExtraction";
+    String METADATA_EXTRACTION_THREADS = "ontop.metadataExtractionThreads";
+    String MAPPING_CONVERSION_THREADS = "ontop.mappingConversionThreads";
 }
@@ -48,4 +48,19 @@ public class OntopOBDASettingsImpl extends OntopModelSettingsImpl implements Ont
     public boolean exposeSystemTables() {
         return getRequiredBoolean(EXPOSE_SYSTEM_TABLES);
     }
+
+    @Override
+    public boolean isBulkMetadataExtractionEnabled() {
+        return getRequiredBoolean(BULK_METADATA_EXTRACTION);
+    }
+
+    @Override
+    public int getMetadataExtractionThreads() {
+        return getRequiredInteger(METADATA_EXTRACTION_THREADS);
+    }
+
+    @Override
+    public int getMappingConversionThreads() {
+        return getRequiredInteger(MAPPING_CONVERSION_THREADS);
+    }
 }
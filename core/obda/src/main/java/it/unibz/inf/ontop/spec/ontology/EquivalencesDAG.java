@@ -21,7 +21,8 @@ public interface EquivalencesDAG<T> extends Iterable<Equivalences<T>> {
 	/**
 	 * Reflexive and transitive closure of the sub-description relation
 	 * @param v: an equivalence set of a description (a property or a class)
-	 * @return equivalence sets for all sub-descriptions (including v)
+	 * @return equivalence sets for all sub-descriptions (including v, which comes first;
+	 *         no order is guaranteed for the others)
 	 */
 	
 	ImmutableSet<Equivalences<T>> getSub(Equivalences<T> v);
@@ -33,9 +34,18 @@ public interface EquivalencesDAG<T> extends Iterable<Equivalences<T>> {
 	/**
 	 * Reflexive and transitive closure of the super-description relation
 	 * @param v: an equivalence set of a description (a property or a class)
-	 * @return equivalence sets for all super-descriptions (including v)
+	 * @return equivalence sets for all super-descriptions (including v, which comes first;
+	 *         no order is guaranteed for the others)
 	 */
 	ImmutableSet<Equivalences<T>> getSuper(Equivalences<T> v);
 
+	/**
+	 * Reflexive and transitive closure of the sub-description relation
+	 * @return true if sub is a sub-description of sup (in particular, if they are the same)
+	 */
+	default boolean isSubsumedBy(Equivalences<T> sub, Equivalences<T> sup) {
+		return getSuper(sub).contains(sup);
+	}
+
 	Stream<Equivalences<T>> stream();
 }
\ No newline at end of file
@@ -21,6 +21,7 @@ package it.unibz.inf.ontop.spec.ontology.impl;
  */
 
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.spec.ontology.Equivalences;
@@ -28,11 +29,11 @@ import it.unibz.inf.ontop.spec.ontology.EquivalencesDAG;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.jgrapht.graph.DefaultDirectedGraph;
 import org.jgrapht.graph.DefaultEdge;
-import org.jgrapht.graph.EdgeReversedGraph;
 import org.jgrapht.graph.SimpleDirectedGraph;
-import org.jgrapht.traverse.BreadthFirstIterator;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 
@@ -55,9 +56,18 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 	// maps all Ts (even from the non-reduced DAG) to the vertices of the possibly reduced DAG
 	private final ImmutableMap<T, Equivalences<T>> fullVertexIndex;   
 
-	// caches
-	private final Map<Equivalences<T>, ImmutableSet<T>> subRep = new HashMap<>();
-	private final Map<Equivalences<T>, ImmutableSet<Equivalences<T>>> sub = new HashMap<>();
+	// closure of the DAG, computed once:
+	//    the vertices are given dense ids in a topological order (the super-vertices come first)
+	//    and the reflexive and transitive closures are stored as sorted arrays of ids
+	private final ImmutableList<Equivalences<T>> vertices;
+	private final ImmutableMap<Equivalences<T>, Integer> ids;
+	private final int[][] superClosure;
+	private final int[][] subClosure;
+
+	// caches (benign races: the same value can be computed twice)
+	private final AtomicReferenceArray<ImmutableSet<T>> subRep;
+	private final AtomicReferenceArray<ImmutableSet<Equivalences<T>>> sub;
+	private final AtomicReferenceArray<ImmutableSet<Equivalences<T>>> sup;
 
 	private DefaultDirectedGraph<T,DefaultEdge> graph; // used in tests only
 	
@@ -66,25 +76,109 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 		this.dag = dag;
 		this.vertexIndex = vertexIndex;
 		this.fullVertexIndex = fullVertexIndex;
+
+		this.vertices = topologicalOrder(dag);
+		this.ids = IntStream.range(0, vertices.size())
+				.boxed()
+				.collect(ImmutableCollectors.toMap(vertices::get, i -> i));
+		this.superClosure = getSuperClosure();
+		this.subClosure = invert(superClosure);
+
+		this.subRep = new AtomicReferenceArray<>(vertices.size());
+		this.sub = new AtomicReferenceArray<>(vertices.size());
+		this.sup = new AtomicReferenceArray<>(vertices.size());
 	}
 
-	private static <T> ImmutableSet<T> immutableSetOf(BreadthFirstIterator<T, DefaultEdge>  iterator) {
-		ImmutableSet.Builder<T> builder = ImmutableSet.builder();
+	/**
+	 * Kahn's algorithm: each vertex comes after all its (direct) super-vertices
+	 */
+	private static <T> ImmutableList<Equivalences<T>> topologicalOrder(SimpleDirectedGraph<Equivalences<T>,DefaultEdge> dag) {
+		Map<Equivalences<T>, Integer> remainingSuper = new HashMap<>();
+		Deque<Equivalences<T>> ready = new ArrayDeque<>();
+		for (Equivalences<T> v : dag.vertexSet()) {
+			int outDegree = dag.outDegreeOf(v);
+			if (outDegree == 0)
+				ready.add(v);
+			else
+				remainingSuper.put(v, outDegree);
+		}
 
-		while (iterator.hasNext()) {
-			T child = iterator.next();
-			builder.add(child);
+		ImmutableList.Builder<Equivalences<T>> builder = ImmutableList.builder();
+		while (!ready.isEmpty()) {
+			Equivalences<T> v = ready.poll();
+			builder.add(v);
+			for (DefaultEdge edge : dag.incomingEdgesOf(v)) {
+				Equivalences<T> s = dag.getEdgeSource(edge);
+				if (remainingSuper.merge(s, -1, Integer::sum) == 0) {
+					remainingSuper.remove(s);
+					ready.add(s);
+				}
+			}
 		}
 		return builder.build();
 	}
 
-	private static <T> ImmutableSet<T> immutableSetOfRepresentatives(BreadthFirstIterator<Equivalences<T>, DefaultEdge>  iterator) {
-		ImmutableSet.Builder<T> builder = ImmutableSet.builder();
-
-		while (iterator.hasNext()) {
-			Equivalences<T> child = iterator.next();
-			builder.add(child.getRepresentative());
+	private int[][] getSuperClosure() {
+		int n = vertices.size();
+		int[][] closure = new int[n][];
+		BitSet added = new BitSet(n);
+		int[] buffer = new int[n];
+		for (int i = 0; i < n; i++) {
+			int size = 0;
+			buffer[size++] = i;
+			added.set(i);
+			for (DefaultEdge edge : dag.outgoingEdgesOf(vertices.get(i))) {
+				// already computed: the super-vertices have lower ids
+				for (int j : closure[ids.get(dag.getEdgeTarget(edge))]) {
+					if (!added.get(j)) {
+						added.set(j);
+						buffer[size++] = j;
+					}
+				}
+			}
+			closure[i] = Arrays.copyOf(buffer, size);
+			Arrays.sort(closure[i]);
+			for (int j : closure[i])
+				added.clear(j);
 		}
+		return closure;
+	}
+
+	private static int[][] invert(int[][] closure) {
+		int n = closure.length;
+		int[] sizes = new int[n];
+		for (int[] c : closure)
+			for (int j : c)
+				sizes[j]++;
+
+		int[][] inverse = new int[n][];
+		for (int i = 0; i < n; i++)
+			inverse[i] = new int[sizes[i]];
+
+		// the ids are added in increasing order, so the arrays are sorted
+		int[] positions = new int[n];
+		for (int i = 0; i < n; i++)
+			for (int j : closure[i])
+				inverse[j][positions[j]++] = i;
+		return inverse;
+	}
+
+	private int getId(Equivalences<T> v) {
+		Integer id = ids.get(v);
+		if (id == null)
+			throw new IllegalArgumentException("no such vertex in graph: " + v);
+		return id;
+	}
+
+	/**
+	 * The vertex itself comes first, then the others in the topological order
+	 * (which differs from the breadth-first order of the former implementation)
+	 */
+	private ImmutableSet<Equivalences<T>> immutableSetOf(int id, int[] closure) {
+		ImmutableSet.Builder<Equivalences<T>> builder = ImmutableSet.builderWithExpectedSize(closure.length);
+		builder.add(vertices.get(id));
+		for (int j : closure)
+			builder.add(vertices.get(j));
 		return builder.build();
 	}
 
@@ -120,8 +214,13 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 	 */
 	@Override
 	public ImmutableSet<Equivalences<T>> getSub(Equivalences<T> v) {
-		return sub.computeIfAbsent(v,
-				n -> immutableSetOf(new BreadthFirstIterator<>(new EdgeReversedGraph<>(dag), n)));
+		int id = getId(v);
+		ImmutableSet<Equivalences<T>> result = sub.get(id);
+		if (result == null) {
+			result = immutableSetOf(id, subClosure[id]);
+			sub.set(id, result);
+		}
+		return result;
 	}
 
 	/** 
@@ -133,12 +232,25 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 		if (eq == null)
 			return ImmutableSet.of(v);
 
-		return subRep.computeIfAbsent(eq,
-				n -> immutableSetOfRepresentatives(new BreadthFirstIterator<>(new EdgeReversedGraph<>(dag), n)));
+		int id = getId(eq);
+		ImmutableSet<T> result = subRep.get(id);
+		if (result == null) {
+			result = getSub(eq).stream()
+					.map(Equivalences::getRepresentative)
+					.collect(ImmutableCollectors.toSet());
+			subRep.set(id, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Binary search in the closure, without building the set of super-vertices
+	 */
+	@Override
+	public boolean isSubsumedBy(Equivalences<T> sub, Equivalences<T> sup) {
+		return Arrays.binarySearch(superClosure[getId(sub)], getId(sup)) >= 0;
 	}
-	
 
-	
 	/** 
 	 * 
 	 */
@@ -154,7 +266,13 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 	 */
 	@Override
 	public ImmutableSet<Equivalences<T>> getSuper(Equivalences<T> v) {
-		return immutableSetOf(new BreadthFirstIterator<>(dag, v));
+		int id = getId(v);
+		ImmutableSet<Equivalences<T>> result = sup.get(id);
+		if (result == null) {
+			result = immutableSetOf(id, superClosure[id]);
+			sup.set(id, result);
+		}
+		return result;
 	}
 
 	@Override
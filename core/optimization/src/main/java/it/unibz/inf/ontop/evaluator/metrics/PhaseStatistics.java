@@ -0,0 +1,74 @@
+package it.unibz.inf.ontop.evaluator.metrics;
+
+/**
+ * Snapshot of the latency histogram of one phase for one template. Durations are in nanoseconds.
+ *
+ * Percentiles are upper bounds of histogram buckets (relative error below 1/16).
+ */
+public class PhaseStatistics {
+
+    private final String phase;
+    private final String template;
+    private final long count;
+    private final long sumNanos;
+    private final long maxNanos;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+
+    public PhaseStatistics(String phase, String template, long count, long sumNanos, long maxNanos,
+                           long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos) {
+        this.phase = phase;
+        this.template = template;
+        this.count = count;
+        this.sumNanos = sumNanos;
+        this.maxNanos = maxNanos;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSumNanos() {
+        return sumNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getP999Nanos() {
+        return p999Nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s]: count=%d, p50=%dns, p99=%dns, max=%dns",
+                phase, template, count, p50Nanos, p99Nanos, maxNanos);
+    }
+}
@@ -0,0 +1,67 @@
+package it.unibz.inf.ontop.evaluator.metrics;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * Latency histograms of the query answering phases, maintained for all the queries and per query template.
+ *
+ * Durations are in nanoseconds. When the metrics are disabled, recording has no effect.
+ *
+ * See QueryPipelineMetricsMXBean for the JMX view.
+ */
+public interface QueryPipelineMetrics extends AutoCloseable {
+
+    String PARSE = "parse";
+    String TRANSLATE = "translate";
+    String REWRITE = "rewrite";
+    String UNFOLD = "unfold";
+    String OPTIMIZE = "optimize";
+    String PLAN = "plan";
+    String NATIVE_QUERY_GENERATION = "generate";
+    String TIME_TO_FIRST_ROW = "first_row";
+    String ROW_FETCH = "fetch";
+
+    /**
+     * Template label of the statistics covering all the queries
+     */
+    String ALL_TEMPLATES = "all";
+
+    /**
+     * Template label shared by the queries once the maximum number of templates has been reached
+     */
+    String OTHER_TEMPLATES = "other";
+
+    boolean isEnabled();
+
+    /**
+     * Abstracts away the literals of the SPARQL query and returns a short label for the resulting template.
+     * Registers the template if new.
+     *
+     * The label of a query string is only computed once (the same query string is given when parsing
+     * and when executing the query).
+     */
+    String getTemplateLabel(String sparqlQuery);
+
+    /**
+     * When no template label is given, only the statistics covering all the queries are updated.
+     */
+    void record(String phase, @Nullable String templateLabel, long durationNanos);
+
+    ImmutableList<PhaseStatistics> getStatistics();
+
+    /**
+     * Template label -> normalized SPARQL query
+     */
+    ImmutableMap<String, String> getTemplates();
+
+    void reset();
+
+    /**
+     * Unregisters the metrics from JMX
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,16 @@
+package it.unibz.inf.ontop.evaluator.metrics;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * For embedded use. Registered in the platform MBean server when the query metrics are enabled.
+ */
+public interface QueryPipelineMetricsMXBean {
+
+    List<PhaseStatistics> getPhaseStatistics();
+
+    Map<String, String> getTemplates();
+
+    void reset();
+}
@@ -0,0 +1,88 @@
+package it.unibz.inf.ontop.evaluator.metrics.impl;
+
+import it.unibz.inf.ontop.evaluator.metrics.PhaseStatistics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-linear histogram, in the spirit of HdrHistogram: each power of two is divided into 16 linear sub-buckets,
+ * which bounds the relative error of the percentiles to 1/16 over the whole range of long values.
+ *
+ * Lock-free: recording a value only performs atomic increments.
+ */
+class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // The highest exponent of a positive long is 62
+    static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    void record(long value) {
+        long nonNegativeValue = Math.max(0, value);
+        counts.incrementAndGet(getBucketIndex(nonNegativeValue));
+        sum.add(nonNegativeValue);
+        max.accumulate(nonNegativeValue);
+    }
+
+    static int getBucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT)
+            return (int) value;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Highest value falling into the bucket
+     */
+    static long getBucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT)
+            return index;
+
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long lowest = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Not atomic with respect to concurrent recordings: the count is computed from the copied buckets,
+     * so that the percentiles are consistent with it.
+     */
+    PhaseStatistics getStatistics(String phase, String template) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        long maxValue = max.get();
+
+        return new PhaseStatistics(phase, template, count, sum.sum(), maxValue,
+                getValueAtPercentile(snapshot, count, maxValue, 50.0),
+                getValueAtPercentile(snapshot, count, maxValue, 90.0),
+                getValueAtPercentile(snapshot, count, maxValue, 99.0),
+                getValueAtPercentile(snapshot, count, maxValue, 99.9));
+    }
+
+    private static long getValueAtPercentile(long[] snapshot, long count, long maxValue, double percentile) {
+        if (count == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long cumulativeCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulativeCount += snapshot[i];
+            if (cumulativeCount >= rank)
+                return Math.min(getBucketUpperBound(i), maxValue);
+        }
+        return maxValue;
+    }
+}
@@ -0,0 +1,294 @@
+package it.unibz.inf.ontop.evaluator.metrics.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.evaluator.metrics.PhaseStatistics;
+import it.unibz.inf.ontop.evaluator.metrics.QueryPipelineMetrics;
+import it.unibz.inf.ontop.evaluator.metrics.QueryPipelineMetricsMXBean;
+import it.unibz.inf.ontop.injection.OntopOptimizationSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+@Singleton
+public class QueryPipelineMetricsImpl implements QueryPipelineMetrics, QueryPipelineMetricsMXBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryPipelineMetricsImpl.class);
+    private static final String JMX_NAME_PREFIX = "it.unibz.inf.ontop:type=QueryPipelineMetrics,instance=";
+    private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger();
+    private static final int TEMPLATE_LABEL_LENGTH = 12;
+    private static final char PARAMETER = '?';
+    private static final int LABEL_CACHE_SIZE = 10_000;
+
+    private final boolean enabled;
+    private final int maxTemplates;
+
+    // Phase -> histogram, for all the queries
+    private final ConcurrentMap<String, LatencyHistogram> globalHistograms = new ConcurrentHashMap<>();
+    // Template label -> phase -> histogram
+    private final ConcurrentMap<String, ConcurrentMap<String, LatencyHistogram>> templateHistograms = new ConcurrentHashMap<>();
+    // Template label -> normalized SPARQL query
+    private final ConcurrentMap<String, String> templates = new ConcurrentHashMap<>();
+    // SPARQL query string -> template label, so that the label of a query is computed once
+    // (e.g. both when parsing and when executing it)
+    private final Cache<String, String> labels = CacheBuilder.newBuilder()
+            .maximumSize(LABEL_CACHE_SIZE)
+            .build();
+    private final Optional<ObjectName> jmxName;
+
+    @Inject
+    private QueryPipelineMetricsImpl(OntopOptimizationSettings settings) {
+        this(settings.isQueryMetricsEnabled(), settings.getQueryMetricsMaxTemplates(),
+                settings.isQueryMetricsEnabled() && settings.isQueryMetricsJMXEnabled());
+    }
+
+    QueryPipelineMetricsImpl(boolean enabled, int maxTemplates) {
+        this(enabled, maxTemplates, false);
+    }
+
+    QueryPipelineMetricsImpl(boolean enabled, int maxTemplates, boolean registerInJMX) {
+        this.enabled = enabled;
+        this.maxTemplates = maxTemplates;
+        this.jmxName = registerInJMX ? registerMXBean() : Optional.empty();
+    }
+
+    /**
+     * Several query engines may live in the same JVM, hence the instance number
+     */
+    private Optional<ObjectName> registerMXBean() {
+        try {
+            ObjectName name = new ObjectName(JMX_NAME_PREFIX + INSTANCE_COUNTER.incrementAndGet());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            LOGGER.debug("Query metrics registered in JMX as {}", name);
+            return Optional.of(name);
+        }
+        catch (JMException e) {
+            LOGGER.warn("Could not register the query metrics in JMX: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void close() {
+        jmxName.ifPresent(n -> {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(n);
+            }
+            catch (JMException e) {
+                LOGGER.warn("Could not unregister the query metrics from JMX: {}", e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public String getTemplateLabel(String sparqlQuery) {
+        if (!enabled)
+            return OTHER_TEMPLATES;
+
+        String label = labels.getIfPresent(sparqlQuery);
+        String normalizedQuery = null;
+        if (label == null) {
+            normalizedQuery = normalize(sparqlQuery);
+            label = Hashing.sha256()
+                    .hashString(normalizedQuery, StandardCharsets.UTF_8)
+                    .toString()
+                    .substring(0, TEMPLATE_LABEL_LENGTH);
+            labels.put(sparqlQuery, label);
+        }
+
+        if (templates.containsKey(label))
+            return label;
+        // Bounds the number of time series (may be slightly exceeded under contention)
+        if (templates.size() >= maxTemplates)
+            return OTHER_TEMPLATES;
+        // Normalized again only if the template has been removed by a reset
+        templates.putIfAbsent(label, normalizedQuery != null ? normalizedQuery : normalize(sparqlQuery));
+        return label;
+    }
+
+    @Override
+    public void record(String phase, @Nullable String templateLabel, long durationNanos) {
+        if (!enabled)
+            return;
+
+        getHistogram(globalHistograms, phase).record(durationNanos);
+
+        if (templateLabel != null) {
+            ConcurrentMap<String, LatencyHistogram> histograms = templateHistograms.get(templateLabel);
+            if (histograms == null)
+                histograms = templateHistograms.computeIfAbsent(templateLabel, t -> new ConcurrentHashMap<>());
+            getHistogram(histograms, phase).record(durationNanos);
+        }
+    }
+
+    /**
+     * Avoids locking a bin of the map in the common case (histogram already present)
+     */
+    private static LatencyHistogram getHistogram(ConcurrentMap<String, LatencyHistogram> histograms, String phase) {
+        LatencyHistogram histogram = histograms.get(phase);
+        return histogram != null
+                ? histogram
+                : histograms.computeIfAbsent(phase, p -> new LatencyHistogram());
+    }
+
+    @Override
+    public ImmutableList<PhaseStatistics> getStatistics() {
+        return Stream.concat(
+                getStatistics(globalHistograms, ALL_TEMPLATES),
+                templateHistograms.entrySet().stream()
+                        .sorted(Map.Entry.comparingByKey())
+                        .flatMap(e -> getStatistics(e.getValue(), e.getKey())))
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    private static Stream<PhaseStatistics> getStatistics(Map<String, LatencyHistogram> histograms, String template) {
+        return histograms.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.naturalOrder()))
+                .map(e -> e.getValue().getStatistics(e.getKey(), template));
+    }
+
+    @Override
+    public ImmutableList<PhaseStatistics> getPhaseStatistics() {
+        return getStatistics();
+    }
+
+    @Override
+    public ImmutableMap<String, String> getTemplates() {
+        return ImmutableMap.copyOf(templates);
+    }
+
+    @Override
+    public void reset() {
+        globalHistograms.clear();
+        templateHistograms.clear();
+        templates.clear();
+    }
+
+    /**
+     * Replaces the string and numeric literals by a parameter, removes the comments and collapses the whitespace.
+     * IRIs, prefixed names, variables and language tags are kept as such.
+     */
+    static String normalize(String sparqlQuery) {
+        StringBuilder sb = new StringBuilder(sparqlQuery.length());
+        int length = sparqlQuery.length();
+        int i = 0;
+        while (i < length) {
+            char c = sparqlQuery.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sparqlQuery.charAt(i)))
+                    i++;
+                if (sb.length() > 0)
+                    sb.append(' ');
+            }
+            else if (c == '#') {
+                while (i < length && sparqlQuery.charAt(i) != '\n')
+                    i++;
+            }
+            else if (c == '<') {
+                int end = findIriEnd(sparqlQuery, i);
+                // Otherwise, comparison operator
+                int next = end < 0 ? i + 1 : end + 1;
+                sb.append(sparqlQuery, i, next);
+                i = next;
+            }
+            else if (c == '"' || c == '\'') {
+                i = skipStringLiteral(sparqlQuery, i);
+                sb.append(PARAMETER);
+            }
+            else if (Character.isDigit(c) && !isPartOfName(sb)) {
+                i = skipNumber(sparqlQuery, i);
+                sb.append(PARAMETER);
+            }
+            else {
+                sb.append(c);
+                i++;
+            }
+        }
+        int last = sb.length() - 1;
+        if (last >= 0 && sb.charAt(last) == ' ')
+            sb.setLength(last);
+        return sb.toString();
+    }
+
+    /**
+     * Returns -1 if the angle bracket does not open an IRI
+     */
+    private static int findIriEnd(String query, int start) {
+        for (int i = start + 1; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c == '>')
+                return i;
+            if (Character.isWhitespace(c) || c == '<' || c == '"')
+                return -1;
+        }
+        return -1;
+    }
+
+    private static int skipStringLiteral(String query, int start) {
+        char quote = query.charAt(start);
+        String longQuote = String.valueOf(new char[]{quote, quote, quote});
+        boolean isLong = query.startsWith(longQuote, start);
+        int i = start + (isLong ? 3 : 1);
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (c == '\\')
+                i += 2;
+            else if (c == quote && (!isLong || query.startsWith(longQuote, i)))
+                return i + (isLong ? 3 : 1);
+            else
+                i++;
+        }
+        return query.length();
+    }
+
+    private static int skipNumber(String query, int start) {
+        int i = start;
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (Character.isDigit(c) || c == '.' && i + 1 < query.length() && Character.isDigit(query.charAt(i + 1)))
+                i++;
+            else if ((c == 'e' || c == 'E') && i + 1 < query.length()
+                    && (Character.isDigit(query.charAt(i + 1)) || query.charAt(i + 1) == '+' || query.charAt(i + 1) == '-'))
+                i += 2;
+            else
+                break;
+        }
+        return i;
+    }
+
+    /**
+     * Digits inside variables, prefixed names and keywords are not numeric literals
+     */
+    private static boolean isPartOfName(StringBuilder sb) {
+        if (sb.length() == 0)
+            return false;
+        char previous = sb.charAt(sb.length() - 1);
+        if (previous == '-')
+            // Not a negative number
+            return sb.length() > 1 && Character.isLetterOrDigit(sb.charAt(sb.length() - 2));
+        return Character.isLetterOrDigit(previous) || previous == '_' || previous == ':'
+                || previous == '?' || previous == '$';
+    }
+}
@@ -6,20 +6,52 @@ import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
 public interface OntopOptimizationSettings extends OntopModelSettings {
 
     default int getMaxNbChildrenForLiftingDBFunctionSymbol() {
-        String value = getProperty(MAX_NB_CHILDREN_LIFTING_DB_FS)
+        return parseRequiredInteger(MAX_NB_CHILDREN_LIFTING_DB_FS);
+    }
+
+    /**
+     * Latency histograms of the query answering phases
+     */
+    default boolean isQueryMetricsEnabled() {
+        return parseRequiredBoolean(QUERY_METRICS);
+    }
+
+    /**
+     * Beyond this number of distinct query templates, the latencies are recorded under a shared label
+     */
+    default int getQueryMetricsMaxTemplates() {
+        return parseRequiredInteger(QUERY_METRICS_MAX_TEMPLATES);
+    }
+
+    default boolean isQueryMetricsJMXEnabled() {
+        return parseRequiredBoolean(QUERY_METRICS_JMX);
+    }
+
+    private int parseRequiredInteger(String key) {
+        String value = getProperty(key)
                 .orElseThrow(() -> new InvalidOntopConfigurationException(
-                        "Missing value for " + MAX_NB_CHILDREN_LIFTING_DB_FS));
+                        "Missing value for " + key));
         try {
             return Integer.parseInt(value);
         } catch (NumberFormatException e) {
             throw new InvalidOntopConfigurationException(
-                    MAX_NB_CHILDREN_LIFTING_DB_FS + " was expecting a number");
+                    key + " was expecting a number");
         }
     }
 
+    private boolean parseRequiredBoolean(String key) {
+        return getProperty(key)
+                .map(Boolean::parseBoolean)
+                .orElseThrow(() -> new InvalidOntopConfigurationException(
+                        "Missing value for " + key));
+    }
+
     //-------
     // Keys
     //-------
 
     String MAX_NB_CHILDREN_LIFTING_DB_FS = "ontop.maxNbChildrenLiftingDBFS";
+    String QUERY_METRICS = "ontop.queryMetrics";
+    String QUERY_METRICS_MAX_TEMPLATES = "ontop.queryMetrics.maxTemplates";
+    String QUERY_METRICS_JMX = "ontop.queryMetrics.jmx";
 }
@@ -4,6 +4,7 @@ package it.unibz.inf.ontop.injection.impl;
 import com.google.common.collect.ImmutableList;
 import com.google.inject.Module;
 import it.unibz.inf.ontop.datalog.UnionFlattener;
+import it.unibz.inf.ontop.evaluator.metrics.QueryPipelineMetrics;
 import it.unibz.inf.ontop.injection.OntopOptimizationConfiguration;
 import it.unibz.inf.ontop.injection.OntopOptimizationSettings;
 import it.unibz.inf.ontop.injection.OptimizationSingletons;
@@ -61,6 +62,7 @@ public class OntopOptimizationModule extends OntopAbstractModule {
         bindFromSettings(DisjunctionOfEqualitiesMergingSimplifier.class);
         bindFromSettings(AuthorizationFunctionEvaluator.class);
         bindFromSettings(AllQueryContextFunctionSymbolEvaluator.class);
+        bindFromSettings(QueryPipelineMetrics.class);
 
         bind(OptimizationSingletons.class).to(OptimizationSingletonsImpl.class);
 
@@ -1,6 +1,7 @@
 package it.unibz.inf.ontop.iq.optimizer.impl;
 
 import it.unibz.inf.ontop.evaluator.QueryContext;
+import it.unibz.inf.ontop.evaluator.metrics.QueryPipelineMetrics;
 import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.iq.optimizer.*;
 import it.unibz.inf.ontop.iq.lens.LensUnfolder;
@@ -10,6 +11,7 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.function.UnaryOperator;
 
 @Singleton
 public class GeneralStructuralAndSemanticIQOptimizerImpl implements GeneralStructuralAndSemanticIQOptimizer {
@@ -27,6 +29,7 @@ public class GeneralStructuralAndSemanticIQOptimizerImpl implements GeneralStruc
     private final DisjunctionOfEqualitiesMergingSimplifier disjunctionOfEqualitiesMergingSimplifier;
     private final AuthorizationFunctionEvaluator authorizationFunctionEvaluator;
     private final AllQueryContextFunctionSymbolEvaluator allQueryContextFunctionSymbolEvaluator;
+    private final QueryPipelineMetrics metrics;
 
     @Inject
     private GeneralStructuralAndSemanticIQOptimizerImpl(UnionAndBindingLiftOptimizer bindingLiftOptimizer,
@@ -39,7 +42,8 @@ public class GeneralStructuralAndSemanticIQOptimizerImpl implements GeneralStruc
                                                         PreventDistinctOptimizer preventDistinctOptimizer,
                                                         DisjunctionOfEqualitiesMergingSimplifier disjunctionOfEqualitiesMergingSimplifier,
                                                         AuthorizationFunctionEvaluator authorizationFunctionEvaluator,
-                                                        AllQueryContextFunctionSymbolEvaluator allQueryContextFunctionSymbolEvaluator) {
+                                                        AllQueryContextFunctionSymbolEvaluator allQueryContextFunctionSymbolEvaluator,
+                                                        QueryPipelineMetrics metrics) {
         this.bindingLiftOptimizer = bindingLiftOptimizer;
         this.joinLikeOptimizer = joinLikeOptimizer;
         this.orderBySimplifier = orderBySimplifier;
@@ -51,6 +55,7 @@ public class GeneralStructuralAndSemanticIQOptimizerImpl implements GeneralStruc
         this.disjunctionOfEqualitiesMergingSimplifier = disjunctionOfEqualitiesMergingSimplifier;
         this.authorizationFunctionEvaluator = authorizationFunctionEvaluator;
         this.allQueryContextFunctionSymbolEvaluator = allQueryContextFunctionSymbolEvaluator;
+        this.metrics = metrics;
     }
 
     @Override
@@ -61,26 +66,26 @@ public class GeneralStructuralAndSemanticIQOptimizerImpl implements GeneralStruc
     @Override
     public IQ optimize(IQ query, @Nullable QueryContext queryContext) {
         //lift bindings and union when it is possible
-        IQ liftedQuery = bindingLiftOptimizer.optimize(query);
+        IQ liftedQuery = apply("bindingLift", bindingLiftOptimizer::optimize, query);
 
         LOGGER.debug("New lifted query:\n{}\n", liftedQuery);
 
         // Push expressions into a distinct below where possible if they have a data type that is not supported for distinct.
-        IQ pushedIntoDistinct = preventDistinctOptimizer.optimize(liftedQuery);
+        IQ pushedIntoDistinct = apply("preventDistinct", preventDistinctOptimizer::optimize, liftedQuery);
         LOGGER.debug("Query tree after preventing DISTINCT for non-supported data types:\n{}\n", pushedIntoDistinct);
 
         IQ current = pushedIntoDistinct;
         do {
             long beginningAuthorizationEvaluation = System.currentTimeMillis();
             if (queryContext != null) {
-                current = authorizationFunctionEvaluator.optimize(current, queryContext);
+                current = apply("authorization", q -> authorizationFunctionEvaluator.optimize(q, queryContext), current);
                 LOGGER.debug("New query after evaluation authorization functions ({} ms):\n{}\n",
                         System.currentTimeMillis() - beginningAuthorizationEvaluation,
                         current);
             }
 
             long beginningJoinLike = System.currentTimeMillis();
-            current = joinLikeOptimizer.optimize(current);
+            current = apply("joinLike", joinLikeOptimizer::optimize, current);
 
             LOGGER.debug("New query after fixed point join optimization ({} ms):\n{}\n",
                         System.currentTimeMillis() - beginningJoinLike,
@@ -88,7 +93,7 @@ public class GeneralStructuralAndSemanticIQOptimizerImpl implements GeneralStruc
 
             IQ queryBeforeUnfolding = current;
             // Unfolds Ontop views one level at a time (hence the loop)
-            current = lensUnfolder.optimize(queryBeforeUnfolding);
+            current = apply("lensUnfolding", lensUnfolder::optimize, queryBeforeUnfolding);
             LOGGER.debug("New query after view unfolding:\n{}\n",
                     current
             );
@@ -96,33 +101,49 @@ public class GeneralStructuralAndSemanticIQOptimizerImpl implements GeneralStruc
             if (queryBeforeUnfolding.equals(current))
                 break;
 
-            current = flattenLifter.optimize(current);
+            current = apply("flattenLift", flattenLifter::optimize, current);
             LOGGER.debug("New query after flatten lift:\n{}\n", current);
 
         } while (true);
 
         IQ queryAfterContextualSimplification = queryContext == null
                 ? current
-                : allQueryContextFunctionSymbolEvaluator.optimize(current, queryContext);
+                : apply("queryContextSimplification", q -> allQueryContextFunctionSymbolEvaluator.optimize(q, queryContext), current);
         if (queryContext != null)
             LOGGER.debug("New query after simplifying using the context:\n{}\n", queryAfterContextualSimplification);
 
-        IQ queryAfterAggregationSimplification = aggregationSimplifier.optimize(queryAfterContextualSimplification);
+        IQ queryAfterAggregationSimplification = apply("aggregationSimplification", aggregationSimplifier::optimize,
+                queryAfterContextualSimplification);
         LOGGER.debug("New query after simplifying the aggregation node:\n{}\n", queryAfterAggregationSimplification);
 
-        IQ queryAfterAggregationSplitting = aggregationSplitter.optimize(queryAfterAggregationSimplification);
+        IQ queryAfterAggregationSplitting = apply("aggregationSplitting", aggregationSplitter::optimize,
+                queryAfterAggregationSimplification);
         LOGGER.debug("New query after trying to split the aggregation node:\n{}\n", queryAfterAggregationSplitting);
 
-        IQ optimizedQuery = orderBySimplifier.optimize(queryAfterAggregationSplitting);
+        IQ optimizedQuery = apply("orderBySimplification", orderBySimplifier::optimize, queryAfterAggregationSplitting);
         LOGGER.debug("New query after simplifying the order by node:\n{}\n", optimizedQuery);
 
-        IQ mergedDisjunctionsQuery = disjunctionOfEqualitiesMergingSimplifier.optimize(optimizedQuery);
+        IQ mergedDisjunctionsQuery = apply("disjunctionMerging", disjunctionOfEqualitiesMergingSimplifier::optimize,
+                optimizedQuery);
         LOGGER.debug("New query after simplifying disjunctions of equalities:\n{}\n", mergedDisjunctionsQuery);
 
         // Called a second time in case the order of nodes was changed during previous optimization steps.
-        IQ resultingQuery = preventDistinctOptimizer.optimize(mergedDisjunctionsQuery);
+        IQ resultingQuery = apply("preventDistinct", preventDistinctOptimizer::optimize, mergedDisjunctionsQuery);
         LOGGER.debug("Query tree after preventing DISTINCT for non-supported data types, second pass:\n{}\n", resultingQuery);
 
         return resultingQuery;
     }
+
+    /**
+     * Records the duration of the sub-optimizer (for all the queries, not per template)
+     */
+    private IQ apply(String optimizerName, UnaryOperator<IQ> optimizer, IQ query) {
+        if (!metrics.isEnabled())
+            return optimizer.apply(query);
+
+        long beginning = System.nanoTime();
+        IQ result = optimizer.apply(query);
+        metrics.record(QueryPipelineMetrics.OPTIMIZE + "." + optimizerName, null, System.nanoTime() - beginning);
+        return result;
+    }
 }
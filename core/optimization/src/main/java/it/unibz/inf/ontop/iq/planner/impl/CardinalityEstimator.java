@@ -0,0 +1,189 @@
+package it.unibz.inf.ontop.iq.planner.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.dbschema.Attribute;
+import it.unibz.inf.ontop.dbschema.DBStatisticsProvider;
+import it.unibz.inf.ontop.dbschema.NamedRelationDefinition;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.VariableOrGroundTerm;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Textbook cardinality estimation for IQ trees, based on the statistics of the DBStatisticsProvider:
+ *   - equality with a constant: 1/V(R,a)
+ *   - natural join on a variable: 1/max(V(R,a), V(S,b))
+ *   - other filtering conditions: fixed selectivity.
+ *
+ * Falls back on default values when no statistics are available.
+ *
+ * Not thread-safe: one instance per planned query (per-relation statistics are memoized).
+ */
+class CardinalityEstimator {
+
+    static final double DEFAULT_ROW_COUNT = 1000;
+    private static final double DEFAULT_DISTINCT_RATIO = 0.1;
+    private static final double FILTER_SELECTIVITY = 0.5;
+
+    private final DBStatisticsProvider statisticsProvider;
+    private final Map<IQTree, Estimate> cache;
+
+    CardinalityEstimator(DBStatisticsProvider statisticsProvider) {
+        this.statisticsProvider = statisticsProvider;
+        this.cache = new HashMap<>();
+    }
+
+    Estimate estimate(IQTree tree) {
+        Estimate estimate = cache.get(tree);
+        if (estimate == null) {
+            estimate = computeEstimate(tree);
+            cache.put(tree, estimate);
+        }
+        return estimate;
+    }
+
+    /**
+     * Recursive
+     */
+    private Estimate computeEstimate(IQTree tree) {
+        QueryNode rootNode = tree.getRootNode();
+        ImmutableList<IQTree> children = tree.getChildren();
+
+        if (rootNode instanceof ExtensionalDataNode)
+            return estimateExtensional((ExtensionalDataNode) rootNode);
+        if (rootNode instanceof ValuesNode)
+            return new Estimate(((ValuesNode) rootNode).getValues().size(), ImmutableMap.of());
+        if (rootNode instanceof EmptyNode)
+            return new Estimate(0, ImmutableMap.of());
+        if (rootNode instanceof TrueNode)
+            return new Estimate(1, ImmutableMap.of());
+        if (rootNode instanceof InnerJoinNode) {
+            Estimate estimate = estimate(children.get(0));
+            for (IQTree child : children.subList(1, children.size()))
+                estimate = estimate.join(estimate(child));
+            return ((InnerJoinNode) rootNode).getOptionalFilterCondition().isPresent()
+                    ? estimate.scale(FILTER_SELECTIVITY)
+                    : estimate;
+        }
+        if (rootNode instanceof LeftJoinNode) {
+            Estimate left = estimate(children.get(0));
+            Estimate join = left.join(estimate(children.get(1)));
+            return join.cardinality > left.cardinality ? join : left;
+        }
+        if (rootNode instanceof UnionNode)
+            return children.stream()
+                    .map(this::estimate)
+                    .reduce(Estimate::union)
+                    .orElseGet(() -> new Estimate(0, ImmutableMap.of()));
+        if (rootNode instanceof FilterNode)
+            return estimate(children.get(0)).scale(FILTER_SELECTIVITY);
+        if (rootNode instanceof SliceNode) {
+            Estimate estimate = estimate(children.get(0));
+            return ((SliceNode) rootNode).getLimit()
+                    .filter(l -> l < estimate.cardinality)
+                    .map(l -> estimate.scale(l / estimate.cardinality))
+                    .orElse(estimate);
+        }
+        if (rootNode instanceof AggregationNode) {
+            Estimate estimate = estimate(children.get(0));
+            double groupCount = ((AggregationNode) rootNode).getGroupingVariables().stream()
+                    .mapToDouble(estimate::getDistinctValueCount)
+                    .reduce(1, (a, b) -> a * b);
+            return new Estimate(Math.min(groupCount, estimate.cardinality), ImmutableMap.of());
+        }
+        // Construction, distinct, order by, etc.
+        if (children.size() == 1)
+            return estimate(children.get(0));
+
+        return new Estimate(DEFAULT_ROW_COUNT, ImmutableMap.of());
+    }
+
+    private Estimate estimateExtensional(ExtensionalDataNode dataNode) {
+        RelationDefinition relation = dataNode.getRelationDefinition();
+        double rowCount = getRowCount(relation);
+
+        double cardinality = rowCount;
+        Map<Variable, Double> distinctValueCounts = new HashMap<>();
+        for (Map.Entry<Integer, ? extends VariableOrGroundTerm> e : dataNode.getArgumentMap().entrySet()) {
+            double distinctValueCount = getDistinctValueCount(relation, relation.getAttributes().get(e.getKey()), rowCount);
+            VariableOrGroundTerm argument = e.getValue();
+            if (argument instanceof Variable) {
+                Double previousCount = distinctValueCounts.get(argument);
+                if (previousCount != null)
+                    // Same variable for two attributes: implicit equality
+                    cardinality /= Math.max(previousCount, distinctValueCount);
+                distinctValueCounts.merge((Variable) argument, distinctValueCount, Math::min);
+            }
+            else
+                cardinality /= distinctValueCount;
+        }
+        return new Estimate(Math.max(cardinality, 1), ImmutableMap.copyOf(distinctValueCounts));
+    }
+
+    private double getRowCount(RelationDefinition relation) {
+        if (!(relation instanceof NamedRelationDefinition))
+            return DEFAULT_ROW_COUNT;
+        OptionalLong rowCount = statisticsProvider.getRowCount((NamedRelationDefinition) relation);
+        return rowCount.isPresent() ? Math.max(rowCount.getAsLong(), 1) : DEFAULT_ROW_COUNT;
+    }
+
+    private double getDistinctValueCount(RelationDefinition relation, Attribute attribute, double rowCount) {
+        boolean isUnique = relation.getUniqueConstraints().stream()
+                .anyMatch(uc -> uc.getAttributes().size() == 1 && uc.getAttributes().get(0).equals(attribute));
+        if (isUnique)
+            return rowCount;
+
+        if (relation instanceof NamedRelationDefinition) {
+            OptionalLong count = statisticsProvider.getDistinctValueCount((NamedRelationDefinition) relation, attribute);
+            if (count.isPresent())
+                return Math.max(count.getAsLong(), 1);
+        }
+        return Math.max(rowCount * DEFAULT_DISTINCT_RATIO, 1);
+    }
+
+
+    static class Estimate {
+        final double cardinality;
+        private final ImmutableMap<Variable, Double> distinctValueCounts;
+
+        Estimate(double cardinality, ImmutableMap<Variable, Double> distinctValueCounts) {
+            this.cardinality = cardinality;
+            this.distinctValueCounts = distinctValueCounts;
+        }
+
+        double getDistinctValueCount(Variable variable) {
+            return Math.min(distinctValueCounts.getOrDefault(variable, cardinality), cardinality);
+        }
+
+        Estimate join(Estimate other) {
+            double cardinality = this.cardinality * other.cardinality;
+            Map<Variable, Double> counts = new HashMap<>(distinctValueCounts);
+            for (Map.Entry<Variable, Double> e : other.distinctValueCounts.entrySet()) {
+                Double count = counts.get(e.getKey());
+                if (count != null) {
+                    cardinality /= Math.max(Math.max(count, e.getValue()), 1);
+                    counts.put(e.getKey(), Math.min(count, e.getValue()));
+                }
+                else
+                    counts.put(e.getKey(), e.getValue());
+            }
+            return new Estimate(cardinality, ImmutableMap.copyOf(counts));
+        }
+
+        Estimate union(Estimate other) {
+            Map<Variable, Double> counts = new HashMap<>(distinctValueCounts);
+            other.distinctValueCounts.forEach((v, c) -> counts.merge(v, c, Double::sum));
+            return new Estimate(cardinality + other.cardinality, ImmutableMap.copyOf(counts));
+        }
+
+        Estimate scale(double selectivity) {
+            return new Estimate(cardinality * selectivity, distinctValueCounts);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package it.unibz.inf.ontop.iq.planner.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import it.unibz.inf.ontop.dbschema.DBStatisticsProvider;
+import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.LeafIQTree;
+import it.unibz.inf.ontop.iq.NaryIQTree;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.iq.node.InnerJoinNode;
+import it.unibz.inf.ontop.iq.node.UnionNode;
+import it.unibz.inf.ontop.iq.optimizer.GeneralStructuralAndSemanticIQOptimizer;
+import it.unibz.inf.ontop.iq.planner.QueryPlanner;
+import it.unibz.inf.ontop.iq.transform.impl.DefaultRecursiveIQTreeVisitingTransformer;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Cost-based alternative to the AvoidJoinAboveUnionPlanner, relying on the cardinalities estimated
+ * from the statistics of the DBStatisticsProvider.
+ *
+ * For each inner join (bottom-up):
+ *   1. A leaf sibling of a union child is pushed under the union only if it shares a variable with it and either
+ *      - it refers to the same relation as a leaf of a union branch (the resulting self-join may be eliminated), or
+ *      - scanning it once per branch is estimated to cost less than the union itself.
+ *   2. The children are ordered greedily: first the smallest one, then, at each step,
+ *      the child sharing a variable with the previous ones that minimizes the estimated size of the join.
+ *
+ * If the tree has changed, the structural and semantic optimizations are re-applied.
+ *
+ * Not enabled by default.
+ * Selected by setting it.unibz.inf.ontop.iq.planner.QueryPlanner to this class.
+ */
+@Singleton
+public class CostBasedQueryPlanner implements QueryPlanner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CostBasedQueryPlanner.class);
+
+    private final GeneralStructuralAndSemanticIQOptimizer generalOptimizer;
+    private final IntermediateQueryFactory iqFactory;
+    private final DBStatisticsProvider statisticsProvider;
+
+    @Inject
+    protected CostBasedQueryPlanner(GeneralStructuralAndSemanticIQOptimizer generalOptimizer,
+                                    IntermediateQueryFactory iqFactory,
+                                    DBStatisticsProvider statisticsProvider) {
+        this.generalOptimizer = generalOptimizer;
+        this.iqFactory = iqFactory;
+        this.statisticsProvider = statisticsProvider;
+    }
+
+    @Override
+    public IQ optimize(IQ query) {
+        IQTree tree = query.getTree();
+        IQTree newTree = new CostBasedTransformer(new CardinalityEstimator(statisticsProvider)).transform(tree);
+
+        if (newTree.equals(tree))
+            return query;
+
+        IQ newIQ = iqFactory.createIQ(query.getProjectionAtom(), newTree);
+        LOGGER.debug("Planned IQ:\n{}\n", newIQ);
+        // Re-applies the structural and semantic optimizations
+        return generalOptimizer.optimize(newIQ, null);
+    }
+
+
+    /**
+     * One instance per query (the estimator is not thread-safe)
+     */
+    private class CostBasedTransformer extends DefaultRecursiveIQTreeVisitingTransformer {
+
+        private final CardinalityEstimator estimator;
+
+        private CostBasedTransformer(CardinalityEstimator estimator) {
+            super(CostBasedQueryPlanner.this.iqFactory);
+            this.estimator = estimator;
+        }
+
+        @Override
+        public IQTree transformInnerJoin(IQTree tree, InnerJoinNode rootNode, ImmutableList<IQTree> initialChildren) {
+            ImmutableList<IQTree> transformedChildren = initialChildren.stream()
+                    .map(this::transform)
+                    .collect(ImmutableCollectors.toList());
+
+            List<IQTree> children = new ArrayList<>(transformedChildren);
+            for (IQTree child : transformedChildren) {
+                if (child.getRootNode() instanceof UnionNode)
+                    pushSiblings((NaryIQTree) child, children);
+            }
+
+            ImmutableList<IQTree> newChildren = order(children);
+            if (newChildren.equals(initialChildren))
+                return tree;
+
+            switch (newChildren.size()) {
+                case 0:
+                    throw new MinorOntopInternalBugException("At least one child should remain");
+                case 1:
+                    return rootNode.getOptionalFilterCondition()
+                            .map(iqFactory::createFilterNode)
+                            .map(n -> (IQTree) iqFactory.createUnaryIQTree(n, newChildren.get(0)))
+                            .orElseGet(() -> newChildren.get(0));
+                default:
+                    return iqFactory.createNaryIQTree(rootNode, newChildren);
+            }
+        }
+
+        /**
+         * Updates the list of children
+         */
+        private void pushSiblings(NaryIQTree unionTree, List<IQTree> children) {
+            ImmutableSet<Variable> unionVariables = unionTree.getVariables();
+            ImmutableList<IQTree> branches = unionTree.getChildren();
+            double unionCardinality = estimator.estimate(unionTree).cardinality;
+
+            // By position, as several siblings may be equal
+            ImmutableList<Integer> pushedSiblingIndexes = IntStream.range(0, children.size())
+                    .filter(i -> isPushable(children.get(i), unionVariables, branches, unionCardinality))
+                    .boxed()
+                    .collect(ImmutableCollectors.toList());
+
+            if (pushedSiblingIndexes.isEmpty())
+                return;
+
+            ImmutableList<IQTree> pushedSiblings = pushedSiblingIndexes.stream()
+                    .map(children::get)
+                    .collect(ImmutableCollectors.toList());
+
+            ImmutableList<IQTree> newBranches = branches.stream()
+                    .map(b -> order(Stream.concat(Stream.of(b), pushedSiblings.stream())
+                            .collect(ImmutableCollectors.toList())))
+                    .map(cs -> iqFactory.createNaryIQTree(iqFactory.createInnerJoinNode(), cs))
+                    .collect(ImmutableCollectors.toList());
+
+            ImmutableSet<Variable> newUnionVariables = Sets.union(
+                    unionVariables,
+                    pushedSiblings.stream()
+                            .flatMap(s -> s.getVariables().stream())
+                            .collect(ImmutableCollectors.toSet()))
+                    .immutableCopy();
+
+            NaryIQTree newUnionTree = iqFactory.createNaryIQTree(
+                    iqFactory.createUnionNode(newUnionVariables),
+                    newBranches);
+
+            // From the last one, so that the remaining indexes stay valid
+            pushedSiblingIndexes.reverse()
+                    .forEach(i -> children.remove((int) i));
+            children.replaceAll(c -> (c == unionTree) ? newUnionTree : c);
+        }
+
+        private boolean isPushable(IQTree sibling, ImmutableSet<Variable> unionVariables, ImmutableList<IQTree> branches,
+                                   double unionCardinality) {
+            return (sibling instanceof LeafIQTree)
+                    && !Sets.intersection(unionVariables, sibling.getVariables()).isEmpty()
+                    && (isJoiningWithSameRelation(sibling, branches)
+                        || (branches.size() - 1) * estimator.estimate(sibling).cardinality <= unionCardinality);
+        }
+
+        private boolean isJoiningWithSameRelation(IQTree sibling, ImmutableList<IQTree> branches) {
+            if (!(sibling.getRootNode() instanceof ExtensionalDataNode))
+                return false;
+
+            ExtensionalDataNode siblingNode = (ExtensionalDataNode) sibling.getRootNode();
+            return branches.stream()
+                    .flatMap(b -> (b.getRootNode() instanceof InnerJoinNode)
+                            ? b.getChildren().stream()
+                            : Stream.of(b))
+                    .map(IQTree::getRootNode)
+                    .filter(n -> n instanceof ExtensionalDataNode)
+                    .anyMatch(n -> ((ExtensionalDataNode) n).getRelationDefinition()
+                            .equals(siblingNode.getRelationDefinition()));
+        }
+
+        /**
+         * Greedy ordering. Children not sharing any variable with the previous ones (cross products) come last.
+         */
+        private ImmutableList<IQTree> order(List<IQTree> children) {
+            if (children.size() < 2)
+                return ImmutableList.copyOf(children);
+
+            List<IQTree> remaining = new ArrayList<>(children);
+            IQTree first = remaining.stream()
+                    .min(Comparator.comparingDouble(c -> estimator.estimate(c).cardinality))
+                    .get();
+            remaining.remove(first);
+
+            ImmutableList.Builder<IQTree> orderedChildrenBuilder = ImmutableList.builder();
+            orderedChildrenBuilder.add(first);
+            CardinalityEstimator.Estimate current = estimator.estimate(first);
+            Set<Variable> variables = new HashSet<>(first.getVariables());
+
+            while (!remaining.isEmpty()) {
+                CardinalityEstimator.Estimate currentEstimate = current;
+                IQTree next = remaining.stream()
+                        .filter(c -> !Sets.intersection(variables, c.getVariables()).isEmpty())
+                        .min(Comparator.comparingDouble(c -> currentEstimate.join(estimator.estimate(c)).cardinality))
+                        .orElseGet(() -> remaining.get(0));
+                remaining.remove(next);
+                orderedChildrenBuilder.add(next);
+                current = current.join(estimator.estimate(next));
+                variables.addAll(next.getVariables());
+            }
+            return orderedChildrenBuilder.build();
+        }
+    }
+}
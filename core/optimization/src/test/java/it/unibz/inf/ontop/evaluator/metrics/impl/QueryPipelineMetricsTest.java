@@ -0,0 +1,119 @@
+package it.unibz.inf.ontop.evaluator.metrics.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.evaluator.metrics.PhaseStatistics;
+import it.unibz.inf.ontop.evaluator.metrics.QueryPipelineMetrics;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+public class QueryPipelineMetricsTest {
+
+    @Test
+    public void testBucketBounds() {
+        for (long value : new long[]{0, 1, 15, 16, 17, 31, 32, 1000, 123_456_789, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.getBucketIndex(value);
+            assertTrue(index < LatencyHistogram.BUCKET_COUNT);
+            long upperBound = LatencyHistogram.getBucketUpperBound(index);
+            assertTrue(value <= upperBound);
+            // Relative error below 1/16
+            assertTrue(upperBound - value <= value / 16);
+            if (index > 0)
+                assertTrue(LatencyHistogram.getBucketUpperBound(index - 1) < value);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 1000; i++)
+            histogram.record(i * 1000);
+
+        PhaseStatistics statistics = histogram.getStatistics("phase", "template");
+        assertEquals(1000, statistics.getCount());
+        assertEquals(500_500_000, statistics.getSumNanos());
+        assertEquals(1_000_000, statistics.getMaxNanos());
+        assertWithinRelativeError(500_000, statistics.getP50Nanos());
+        assertWithinRelativeError(990_000, statistics.getP99Nanos());
+        assertTrue(statistics.getP999Nanos() <= statistics.getMaxNanos());
+    }
+
+    @Test
+    public void testTemplates() {
+        QueryPipelineMetricsImpl metrics = new QueryPipelineMetricsImpl(true, 2);
+
+        String label1 = metrics.getTemplateLabel("SELECT * WHERE { ?s <http://ex.org/age> 42 . ?s ?p \"Alice\" }");
+        String label2 = metrics.getTemplateLabel("SELECT *\n WHERE { ?s <http://ex.org/age> 7 .  ?s ?p 'Bob' } # comment");
+        assertEquals(label1, label2);
+
+        String label3 = metrics.getTemplateLabel("SELECT ?s WHERE { ?s <http://ex.org/name> ?n }");
+        assertNotEquals(label1, label3);
+
+        // Maximum number of templates reached
+        assertEquals(QueryPipelineMetrics.OTHER_TEMPLATES,
+                metrics.getTemplateLabel("ASK { ?s a <http://ex.org/Person> }"));
+        assertEquals(2, metrics.getTemplates().size());
+
+        metrics.record(QueryPipelineMetrics.REWRITE, label1, 1000);
+        metrics.record(QueryPipelineMetrics.REWRITE, label3, 3000);
+        metrics.record(QueryPipelineMetrics.OPTIMIZE + ".joinLike", null, 2000);
+
+        ImmutableList<PhaseStatistics> statistics = metrics.getStatistics();
+        assertEquals(4, statistics.size());
+        assertEquals(2, getStatistics(statistics, QueryPipelineMetrics.REWRITE, QueryPipelineMetrics.ALL_TEMPLATES).getCount());
+        assertEquals(1, getStatistics(statistics, QueryPipelineMetrics.REWRITE, label3).getCount());
+
+        metrics.reset();
+        assertTrue(metrics.getStatistics().isEmpty());
+
+        // Registered again after the reset
+        assertEquals(label1, metrics.getTemplateLabel("SELECT * WHERE { ?s <http://ex.org/age> 3 . ?s ?p \"Carl\" }"));
+        assertEquals(ImmutableSet.of(label1), metrics.getTemplates().keySet());
+    }
+
+    @Test
+    public void testJMXUnregistrationOnClose() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName pattern = new ObjectName("it.unibz.inf.ontop:type=QueryPipelineMetrics,*");
+        int initialCount = server.queryNames(pattern, null).size();
+
+        QueryPipelineMetricsImpl metrics = new QueryPipelineMetricsImpl(true, 10, true);
+        assertEquals(initialCount + 1, server.queryNames(pattern, null).size());
+
+        metrics.close();
+        assertEquals(initialCount, server.queryNames(pattern, null).size());
+    }
+
+    @Test
+    public void testNormalization() {
+        assertEquals("SELECT ?x1 WHERE { ?x1 ex:p2 ? FILTER(?x1 < -?) } LIMIT ?",
+                QueryPipelineMetricsImpl.normalize("SELECT ?x1 WHERE { ?x1 ex:p2 \"\"\"a \"quoted\" text\"\"\" FILTER(?x1 < -3.5e2) } LIMIT 10"));
+        assertEquals("SELECT * WHERE { ?s <http://ex.org/a#b> ?@en }",
+                QueryPipelineMetricsImpl.normalize("SELECT * WHERE { ?s <http://ex.org/a#b> \"x\\\"y\"@en }"));
+    }
+
+    @Test
+    public void testDisabled() {
+        QueryPipelineMetricsImpl metrics = new QueryPipelineMetricsImpl(false, 10);
+        metrics.record(QueryPipelineMetrics.PARSE, metrics.getTemplateLabel("ASK {}"), 1000);
+        assertTrue(metrics.getStatistics().isEmpty());
+        assertTrue(metrics.getTemplates().isEmpty());
+    }
+
+    private static PhaseStatistics getStatistics(ImmutableList<PhaseStatistics> statistics, String phase, String template) {
+        return statistics.stream()
+                .filter(s -> s.getPhase().equals(phase) && s.getTemplate().equals(template))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static void assertWithinRelativeError(long expected, long actual) {
+        assertTrue("Expected about " + expected + " but was " + actual,
+                Math.abs(actual - expected) <= expected / 16);
+    }
+}
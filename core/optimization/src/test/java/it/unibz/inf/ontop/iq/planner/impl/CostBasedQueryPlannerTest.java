@@ -0,0 +1,175 @@
+package it.unibz.inf.ontop.iq.planner.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.dbschema.Attribute;
+import it.unibz.inf.ontop.dbschema.DBStatisticsProvider;
+import it.unibz.inf.ontop.dbschema.NamedRelationDefinition;
+import it.unibz.inf.ontop.evaluator.QueryContext;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.iq.node.InnerJoinNode;
+import it.unibz.inf.ontop.iq.node.UnionNode;
+import it.unibz.inf.ontop.iq.optimizer.GeneralStructuralAndSemanticIQOptimizer;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+import java.util.OptionalLong;
+
+import static it.unibz.inf.ontop.OptimizationTestingTools.*;
+import static org.junit.Assert.*;
+
+/**
+ * Join orders chosen for given statistics
+ */
+public class CostBasedQueryPlannerTest {
+
+    private static final NamedRelationDefinition TABLE1;
+    private static final NamedRelationDefinition TABLE2;
+    private static final NamedRelationDefinition TABLE3;
+    private static final NamedRelationDefinition TABLE4;
+
+    // Keeps the planned tree as it is
+    private static final GeneralStructuralAndSemanticIQOptimizer NO_OPTIMIZER = new GeneralStructuralAndSemanticIQOptimizer() {
+        @Override
+        public IQ optimize(IQ query, @Nullable QueryContext queryContext) {
+            return query;
+        }
+
+        @Override
+        public IQ optimize(IQ query) {
+            return query;
+        }
+    };
+
+    static {
+        OfflineMetadataProviderBuilder3 builder = createMetadataProviderBuilder();
+        DBTermType stringType = builder.getDBTypeFactory().getDBStringType();
+        TABLE1 = builder.createRelation(1, 2, stringType, "STAT_", true);
+        TABLE2 = builder.createRelation(2, 2, stringType, "STAT_", true);
+        TABLE3 = builder.createRelation(3, 2, stringType, "STAT_", true);
+        TABLE4 = builder.createRelation(4, 2, stringType, "STAT_", true);
+    }
+
+    private static final ExtensionalDataNode DATA_NODE_1 = createExtensionalDataNode(TABLE1, ImmutableList.of(X, Y));
+    private static final ExtensionalDataNode DATA_NODE_2 = createExtensionalDataNode(TABLE2, ImmutableList.of(Y, Z));
+    private static final ExtensionalDataNode DATA_NODE_3 = createExtensionalDataNode(TABLE3, ImmutableList.of(Z, W));
+
+    @Test
+    public void testSmallestFirst() {
+        DBStatisticsProvider statistics = new FixedStatisticsProvider(
+                ImmutableMap.of(TABLE1, 10000L, TABLE2, 10L, TABLE3, 1000L),
+                ImmutableMap.of(TABLE1.getAttribute(2), 100L, TABLE3.getAttribute(1), 1000L));
+
+        // T2 then T3 (10 * 1000 / 1000 = 10 rows), rather than T1 (10 * 10000 / 100 = 1000 rows)
+        assertEquals(ImmutableList.of(DATA_NODE_2, DATA_NODE_3, DATA_NODE_1), planJoin(statistics));
+    }
+
+    @Test
+    public void testOtherCardinalities() {
+        DBStatisticsProvider statistics = new FixedStatisticsProvider(
+                ImmutableMap.of(TABLE1, 100000L, TABLE2, 100L, TABLE3, 5L),
+                ImmutableMap.of());
+
+        assertEquals(ImmutableList.of(DATA_NODE_3, DATA_NODE_2, DATA_NODE_1), planJoin(statistics));
+    }
+
+    @Test
+    public void testCrossProductLast() {
+        ExtensionalDataNode unrelatedDataNode = createExtensionalDataNode(TABLE4, ImmutableList.of(A, B));
+        DBStatisticsProvider statistics = new FixedStatisticsProvider(
+                ImmutableMap.of(TABLE1, 10L, TABLE2, 1000L, TABLE4, 20L),
+                ImmutableMap.of(TABLE2.getAttribute(1), 10L));
+
+        IQ query = createJoinQuery(ImmutableList.of(unrelatedDataNode, DATA_NODE_2, DATA_NODE_1));
+        IQTree joinTree = getJoinTree(createPlanner(statistics).optimize(query));
+
+        // The cross product with T4 (10 * 20 = 200 rows) would be smaller than the join with T2 (10 * 1000 / 10 = 1000 rows)
+        assertEquals(ImmutableList.of(DATA_NODE_1, DATA_NODE_2, unrelatedDataNode), joinTree.getChildren());
+    }
+
+    @Test
+    public void testNoStatistics() {
+        IQ query = createJoinQuery(ImmutableList.of(DATA_NODE_1, DATA_NODE_2, DATA_NODE_3));
+        DBStatisticsProvider statistics = new FixedStatisticsProvider(ImmutableMap.of(), ImmutableMap.of());
+
+        assertEquals(query, createPlanner(statistics).optimize(query));
+    }
+
+    @Test
+    public void testEqualSiblingsPushedUnderUnion() {
+        ExtensionalDataNode branch1 = createExtensionalDataNode(TABLE1, ImmutableList.of(X, Y));
+        ExtensionalDataNode branch2 = createExtensionalDataNode(TABLE2, ImmutableList.of(X, Y));
+        ExtensionalDataNode sibling = createExtensionalDataNode(TABLE1, ImmutableList.of(X, Z));
+
+        IQTree unionTree = IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createUnionNode(ImmutableSet.of(X, Y)),
+                ImmutableList.of(branch1, branch2));
+        IQ query = createJoinQuery(ImmutableList.of(unionTree, sibling, sibling));
+
+        DBStatisticsProvider statistics = new FixedStatisticsProvider(ImmutableMap.of(), ImmutableMap.of());
+        IQTree newTree = createPlanner(statistics).optimize(query).getTree().getChildren().get(0);
+
+        // Both occurrences of the sibling are pushed into each branch
+        assertTrue(newTree.getRootNode() instanceof UnionNode);
+        for (IQTree branch : newTree.getChildren()) {
+            assertTrue(branch.getRootNode() instanceof InnerJoinNode);
+            assertEquals(3, branch.getChildren().size());
+            assertEquals(2, branch.getChildren().stream().filter(sibling::equals).count());
+        }
+    }
+
+    private static ImmutableList<IQTree> planJoin(DBStatisticsProvider statistics) {
+        IQ query = createJoinQuery(ImmutableList.of(DATA_NODE_1, DATA_NODE_2, DATA_NODE_3));
+        return getJoinTree(createPlanner(statistics).optimize(query)).getChildren();
+    }
+
+    private static IQ createJoinQuery(ImmutableList<IQTree> children) {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(
+                ANS1_AR1_PREDICATE, ImmutableList.of(X));
+        return IQ_FACTORY.createIQ(projectionAtom,
+                IQ_FACTORY.createUnaryIQTree(IQ_FACTORY.createConstructionNode(ImmutableSet.of(X)),
+                        IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createInnerJoinNode(), children)));
+    }
+
+    private static IQTree getJoinTree(IQ query) {
+        IQTree joinTree = query.getTree().getChildren().get(0);
+        assertTrue(joinTree.getRootNode() instanceof InnerJoinNode);
+        return joinTree;
+    }
+
+    private static CostBasedQueryPlanner createPlanner(DBStatisticsProvider statistics) {
+        return new CostBasedQueryPlanner(NO_OPTIMIZER, IQ_FACTORY, statistics);
+    }
+
+
+    private static class FixedStatisticsProvider implements DBStatisticsProvider {
+        private final ImmutableMap<NamedRelationDefinition, Long> rowCounts;
+        private final ImmutableMap<Attribute, Long> distinctValueCounts;
+
+        FixedStatisticsProvider(ImmutableMap<NamedRelationDefinition, Long> rowCounts,
+                                ImmutableMap<Attribute, Long> distinctValueCounts) {
+            this.rowCounts = rowCounts;
+            this.distinctValueCounts = distinctValueCounts;
+        }
+
+        @Override
+        public OptionalLong getRowCount(NamedRelationDefinition relation) {
+            Long rowCount = rowCounts.get(relation);
+            return rowCount == null ? OptionalLong.empty() : OptionalLong.of(rowCount);
+        }
+
+        @Override
+        public OptionalLong getDistinctValueCount(NamedRelationDefinition relation, Attribute attribute) {
+            Long count = distinctValueCounts.get(attribute);
+            return count == null ? OptionalLong.empty() : OptionalLong.of(count);
+        }
+
+        @Override
+        public void addUpdateListener(Runnable listener) {
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package it.unibz.inf.ontop.dbschema;
 
 import it.unibz.inf.ontop.dbschema.impl.JDBCMetadataProviderFactory;
+import it.unibz.inf.ontop.exception.MetadataExtractionException;
 
 /**
  * Extracts DB metadata directly from the DB through a connection
@@ -9,4 +10,19 @@ import it.unibz.inf.ontop.dbschema.impl.JDBCMetadataProviderFactory;
  *
  */
 public interface DBMetadataProvider extends MetadataProvider {
+
+    /**
+     * Number of rows of the relation (statistics for query planning)
+     */
+    long getRowCount(RelationID id) throws MetadataExtractionException;
+
+    /**
+     * Number of distinct non-null values of the attribute (statistics for query planning).
+     *
+     * If sampleSize is positive and the dialect supports random row sampling, only about sampleSize rows
+     * are considered and the number is extrapolated to the given row count.
+     * Otherwise, the distinct values are counted on all the rows.
+     */
+    long getDistinctValueCount(RelationID id, QuotedID attributeId, int sampleSize, long rowCount)
+            throws MetadataExtractionException;
 }
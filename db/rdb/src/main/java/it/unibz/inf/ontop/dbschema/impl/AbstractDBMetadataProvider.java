@@ -3,6 +3,8 @@ package it.unibz.inf.ontop.dbschema.impl;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import it.unibz.inf.ontop.dbschema.*;
 import it.unibz.inf.ontop.exception.InvalidQueryException;
 import it.unibz.inf.ontop.exception.MetadataExtractionException;
@@ -11,6 +13,7 @@ import it.unibz.inf.ontop.exception.RelationNotFoundInMetadataException;
 import it.unibz.inf.ontop.injection.CoreSingletons;
 import it.unibz.inf.ontop.injection.OntopModelSettings;
 import it.unibz.inf.ontop.injection.OntopOBDASettings;
+import it.unibz.inf.ontop.injection.OntopSQLCredentialSettings;
 import it.unibz.inf.ontop.model.term.ImmutableTerm;
 import it.unibz.inf.ontop.model.type.DBTermType;
 import it.unibz.inf.ontop.model.type.DBTypeFactory;
@@ -19,6 +22,7 @@ import it.unibz.inf.ontop.spec.sqlparser.DefaultSelectQueryAttributeExtractor;
 import it.unibz.inf.ontop.spec.sqlparser.JSqlParserTools;
 import it.unibz.inf.ontop.spec.sqlparser.ParserViewDefinition;
 import it.unibz.inf.ontop.spec.sqlparser.exception.UnsupportedSelectQueryException;
+import it.unibz.inf.ontop.utils.LocalJDBCConnectionUtils;
 import net.sf.jsqlparser.JSQLParserException;
 import net.sf.jsqlparser.parser.TokenMgrException;
 import net.sf.jsqlparser.statement.select.Select;
@@ -27,17 +31,22 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import java.sql.*;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
 
     protected static final Logger LOGGER = LoggerFactory.getLogger(AbstractDBMetadataProvider.class);
 
+    private static final ImmutableList<String> PRIMARY_KEY_COLUMNS = ImmutableList.of("PK_NAME", "COLUMN_NAME", "KEY_SEQ");
+    private static final ImmutableList<String> INDEX_COLUMNS = ImmutableList.of("TYPE", "ORDINAL_POSITION", "NON_UNIQUE",
+            "INDEX_NAME", "COLUMN_NAME");
+    private static final ImmutableList<String> FOREIGN_KEY_COLUMNS = ImmutableList.of("KEY_SEQ", "FK_NAME", "FKCOLUMN_NAME",
+            "PKCOLUMN_NAME");
+
     protected final Connection connection;
     protected final DBParameters dbParameters;
     protected final DatabaseMetaData metadata;
@@ -48,6 +57,11 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
     private final DBTypeFactory dbTypeFactory;
     private final OntopOBDASettings settings;
 
+    // Bulk mode only. Keys: catalog and schema names
+    private final Map<List<String>, Map<RelationID, RelationDefinition.AttributeListBuilder>> schemaColumns = new HashMap<>();
+    private final Map<List<String>, Set<RelationID>> extractedRelationIds = new HashMap<>();
+    private final Map<List<String>, Map<RelationID, ConstraintRows>> schemaConstraintRows = new HashMap<>();
+
     @FunctionalInterface
     protected interface QuotedIDFactoryFactory {
         QuotedIDFactory create(DatabaseMetaData m) throws SQLException;
@@ -148,8 +162,18 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
 
     @Override
     public NamedRelationDefinition getRelation(RelationID id0) throws MetadataExtractionException {
-        DBTypeFactory dbTypeFactory = dbParameters.getDBTypeFactory();
         RelationID id = getCanonicalRelationId(id0);
+        if (settings.isBulkMetadataExtractionEnabled()) {
+            Optional<List<String>> schemaKey = getSchemaKey(id);
+            if (schemaKey.isPresent()) {
+                RelationDefinition.AttributeListBuilder builder = getSchemaColumns(schemaKey.get()).get(id);
+                if (builder != null) {
+                    extractedRelationIds.computeIfAbsent(schemaKey.get(), k -> new LinkedHashSet<>()).add(id);
+                    return new DatabaseTableDefinition(getAllIDs(id), builder);
+                }
+            }
+        }
+
         try (ResultSet rs = metadata.getColumns(
                 getRelationCatalog(id), // catalog is not escaped
                 escapeRelationIdComponentPattern(getRelationSchema(id)),
@@ -163,17 +187,7 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
 
                 RelationDefinition.AttributeListBuilder builder = relations.computeIfAbsent(extractedId,
                         i -> DatabaseTableDefinition.attributeListBuilder());
-
-                QuotedID attributeId = rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME"));
-                // columnNoNulls, columnNullable, columnNullableUnknown
-                boolean isNullable = rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls;
-                String typeName = rs.getString("TYPE_NAME");
-                int columnSize = rs.getInt("COLUMN_SIZE");
-                DBTermType termType = dbTypeFactory.getDBTermType(typeName, columnSize);
-
-                String sqlTypeName = extractSQLTypeName(typeName, rs.getInt("DATA_TYPE"), columnSize,
-                        () -> rs.getInt("DECIMAL_DIGITS"));
-                builder.addAttribute(attributeId, termType, sqlTypeName, isNullable);
+                addAttribute(rs, builder);
             }
 
             if (relations.entrySet().size() == 1) {
@@ -189,6 +203,57 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
         }
     }
 
+    private void addAttribute(ResultSet rs, RelationDefinition.AttributeListBuilder builder) throws SQLException {
+        QuotedID attributeId = rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME"));
+        // columnNoNulls, columnNullable, columnNullableUnknown
+        boolean isNullable = rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls;
+        String typeName = rs.getString("TYPE_NAME");
+        int columnSize = rs.getInt("COLUMN_SIZE");
+        DBTermType termType = dbParameters.getDBTypeFactory().getDBTermType(typeName, columnSize);
+
+        String sqlTypeName = extractSQLTypeName(typeName, rs.getInt("DATA_TYPE"), columnSize,
+                () -> rs.getInt("DECIMAL_DIGITS"));
+        builder.addAttribute(attributeId, termType, sqlTypeName, isNullable);
+    }
+
+    /**
+     * Bulk mode: only for relations with a schema (so as to never read the columns of the whole DB)
+     */
+    private Optional<List<String>> getSchemaKey(RelationID id) {
+        String schema = getRelationSchema(id);
+        return schema == null
+                ? Optional.empty()
+                : Optional.of(Arrays.asList(getRelationCatalog(id), schema));
+    }
+
+    /**
+     * Bulk mode: the columns of all the relations of the schema are retrieved at once
+     */
+    private Map<RelationID, RelationDefinition.AttributeListBuilder> getSchemaColumns(List<String> schemaKey)
+            throws MetadataExtractionException {
+        Map<RelationID, RelationDefinition.AttributeListBuilder> relations = schemaColumns.get(schemaKey);
+        if (relations != null)
+            return relations;
+
+        try (ResultSet rs = metadata.getColumns(
+                schemaKey.get(0), // catalog is not escaped
+                escapeRelationIdComponentPattern(schemaKey.get(1)),
+                null,
+                null)) {
+            relations = new HashMap<>();
+            while (rs.next()) {
+                RelationID extractedId = getRelationID(rs, "TABLE_CAT", "TABLE_SCHEM","TABLE_NAME");
+                addAttribute(rs, relations.computeIfAbsent(extractedId, i -> DatabaseTableDefinition.attributeListBuilder()));
+            }
+        }
+        catch (SQLException e) {
+            throw new MetadataExtractionException(e);
+        }
+        LOGGER.debug("Columns of {} relations extracted for the schema {}", relations.size(), schemaKey);
+        schemaColumns.put(schemaKey, relations);
+        return relations;
+    }
+
     protected String extractSQLTypeName(String typeName, int jdbcType, int columnSize,
                                         PrecisionSupplier precisionSupplier) throws SQLException {
         switch (jdbcType) {
@@ -213,10 +278,23 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
 
     @Override
     public void insertIntegrityConstraints(NamedRelationDefinition relation, MetadataLookup metadataLookup) throws MetadataExtractionException {
+        RelationID id = getCanonicalRelationId(relation.getID());
+        Optional<ConstraintRows> prefetchedRows = settings.isBulkMetadataExtractionEnabled()
+                ? getSchemaKey(id).flatMap(k -> Optional.ofNullable(getSchemaConstraintRows(k).get(id)))
+                : Optional.empty();
         try {
-            insertPrimaryKey(relation);
-            insertUniqueAttributes(relation);
-            insertForeignKeys(relation, metadataLookup);
+            // NB: not orElse(), which would always run the per-relation lookups
+            if (prefetchedRows.isPresent()) {
+                ConstraintRows rows = prefetchedRows.get();
+                insertPrimaryKey(relation, id, rows.primaryKeyRows);
+                insertUniqueAttributes(relation, id, rows.indexRows);
+                insertForeignKeys(relation, id, rows.foreignKeyRows, metadataLookup);
+            }
+            else {
+                insertPrimaryKey(relation, id, getPrimaryKeyRows(metadata, id));
+                insertUniqueAttributes(relation, id, getIndexRows(metadata, id));
+                insertForeignKeys(relation, id, getForeignKeyRows(metadata, id), metadataLookup);
+            }
         }
         catch (SQLException e) {
             throw new MetadataExtractionException(e);
@@ -235,6 +313,7 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
      *     KEY_SEQ
      *
      *
+     * @param metadata
      * @param catalog
      * @param schema
      * @param name
@@ -242,45 +321,61 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
      * @throws SQLException
      */
 
-    protected ResultSet getPrimaryKeysResultSet(String catalog, String schema, String name) throws SQLException {
+    protected ResultSet getPrimaryKeysResultSet(DatabaseMetaData metadata, String catalog, String schema, String name) throws SQLException {
         return metadata.getPrimaryKeys(catalog, schema, name);
     }
 
-    private void insertPrimaryKey(NamedRelationDefinition relation) throws MetadataExtractionException, SQLException {
-        RelationID id = getCanonicalRelationId(relation.getID());
+    /**
+     * Bulk mode: same as getPrimaryKeysResultSet, but for all the relations of the schema.
+     *
+     * Returns null if not supported: the primary keys are then extracted relation by relation.
+     */
+    @Nullable
+    protected ResultSet getSchemaPrimaryKeysResultSet(@Nullable String catalog, String schema) throws SQLException {
+        return null;
+    }
+
+    private ImmutableList<MetadataRow> getPrimaryKeyRows(DatabaseMetaData metadata, RelationID id) throws MetadataExtractionException, SQLException {
         // Retrieves a description of the given table's primary key columns. They are ordered by COLUMN_NAME (sic!)
-        try (ResultSet rs = getPrimaryKeysResultSet(getRelationCatalog(id), getRelationSchema(id), getRelationName(id))) {
-            Map<Integer, QuotedID> primaryKeyAttributes = new HashMap<>();
-            String currentPkName = null;
+        try (ResultSet rs = getPrimaryKeysResultSet(metadata, getRelationCatalog(id), getRelationSchema(id), getRelationName(id))) {
+            ImmutableList.Builder<MetadataRow> builder = ImmutableList.builder();
             while (rs.next()) {
                 RelationID extractedId = getRelationID(rs, "TABLE_CAT", "TABLE_SCHEM","TABLE_NAME");
                 checkSameRelationID(extractedId, id, "getPrimaryKeys");
-
-                String pkName = rs.getString("PK_NAME"); // may be null
-                if (currentPkName != null && pkName != null && !currentPkName.equals(pkName))
-                    throw new MetadataExtractionException("Two primary keys for the same table " + id + ": " + currentPkName + " and " + pkName);
-                currentPkName = pkName;
-                QuotedID attrId = rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME"));
-                int seq = rs.getShort("KEY_SEQ");
-                QuotedID previous = primaryKeyAttributes.put(seq, attrId);
-                if (previous != null)
-                    throw new MetadataExtractionException("Duplicate attribute " + previous + " in the primary key " + currentPkName + " for " + id);
-            }
-            if (!primaryKeyAttributes.isEmpty()) {
-                if (currentPkName != null && isPrimaryKeyDisabled(id, currentPkName))
-                    LOGGER.error("WARNING: primary key {} in table {} is disabled and will not be used in optimizations.", currentPkName, id);
-                else
-                    try {
-                        // use the KEY_SEQ values to restore the correct order of attributes in the PK
-                        UniqueConstraint.Builder builder = UniqueConstraint.primaryKeyBuilder(relation, currentPkName);
-                        for (int i = 1; i <= primaryKeyAttributes.size(); i++)
-                            builder.addDeterminant(primaryKeyAttributes.get(i));
-                        builder.build();
-                    }
-                    catch (AttributeNotFoundException e) {
-                        throw new MetadataExtractionException(e);
-                    }
+                builder.add(new MetadataRow(rs, PRIMARY_KEY_COLUMNS, null));
             }
+            return builder.build();
+        }
+    }
+
+    private void insertPrimaryKey(NamedRelationDefinition relation, RelationID id, ImmutableList<MetadataRow> rows) throws MetadataExtractionException {
+        Map<Integer, QuotedID> primaryKeyAttributes = new HashMap<>();
+        String currentPkName = null;
+        for (MetadataRow row : rows) {
+            String pkName = row.getString("PK_NAME"); // may be null
+            if (currentPkName != null && pkName != null && !currentPkName.equals(pkName))
+                throw new MetadataExtractionException("Two primary keys for the same table " + id + ": " + currentPkName + " and " + pkName);
+            currentPkName = pkName;
+            QuotedID attrId = rawIdFactory.createAttributeID(row.getString("COLUMN_NAME"));
+            int seq = row.getShort("KEY_SEQ");
+            QuotedID previous = primaryKeyAttributes.put(seq, attrId);
+            if (previous != null)
+                throw new MetadataExtractionException("Duplicate attribute " + previous + " in the primary key " + currentPkName + " for " + id);
+        }
+        if (!primaryKeyAttributes.isEmpty()) {
+            if (currentPkName != null && isPrimaryKeyDisabled(id, currentPkName))
+                LOGGER.error("WARNING: primary key {} in table {} is disabled and will not be used in optimizations.", currentPkName, id);
+            else
+                try {
+                    // use the KEY_SEQ values to restore the correct order of attributes in the PK
+                    UniqueConstraint.Builder builder = UniqueConstraint.primaryKeyBuilder(relation, currentPkName);
+                    for (int i = 1; i <= primaryKeyAttributes.size(); i++)
+                        builder.addDeterminant(primaryKeyAttributes.get(i));
+                    builder.build();
+                }
+                catch (AttributeNotFoundException e) {
+                    throw new MetadataExtractionException(e);
+                }
         }
     }
 
@@ -296,6 +391,7 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
      *      COLUMN_NAME
      *      ORDINAL_POSITION
      *
+     * @param metadata
      * @param catalog
      * @param schema
      * @param name
@@ -303,68 +399,85 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
      * @throws SQLException
      */
 
-    protected ResultSet getIndexInfo(String catalog, String schema, String name) throws SQLException {
+    protected ResultSet getIndexInfo(DatabaseMetaData metadata, String catalog, String schema, String name) throws SQLException {
         return metadata.getIndexInfo(catalog, schema, name, true, true);
     }
 
-    private void insertUniqueAttributes(NamedRelationDefinition relation) throws MetadataExtractionException, SQLException {
-        RelationID id = getCanonicalRelationId(relation.getID());
-        // extracting unique
-        try (ResultSet rs = getIndexInfo(getRelationCatalog(id), getRelationSchema(id), getRelationName(id))) {
-            UniqueConstraint.Builder builder = null;
-            List<String> columnsNotFound = new ArrayList<>();
-            String constraintId = null;
+    /**
+     * Bulk mode: same as getIndexInfo, but for all the relations of the schema.
+     * The rows of an index must be consecutive and ordered by ORDINAL_POSITION.
+     *
+     * Returns null if not supported: the unique indexes are then extracted relation by relation.
+     */
+    @Nullable
+    protected ResultSet getSchemaIndexInfo(@Nullable String catalog, String schema) throws SQLException {
+        return null;
+    }
+
+    private ImmutableList<MetadataRow> getIndexRows(DatabaseMetaData metadata, RelationID id) throws MetadataExtractionException, SQLException {
+        try (ResultSet rs = getIndexInfo(metadata, getRelationCatalog(id), getRelationSchema(id), getRelationName(id))) {
+            ImmutableList.Builder<MetadataRow> builder = ImmutableList.builder();
             while (rs.next()) {
                 RelationID extractedId = getRelationID(rs, "TABLE_CAT", "TABLE_SCHEM","TABLE_NAME");
                 checkSameRelationID(extractedId, id, "getIndexInfo");
+                builder.add(new MetadataRow(rs, INDEX_COLUMNS, null));
+            }
+            return builder.build();
+        }
+    }
 
-                // TYPE: tableIndexStatistic - this identifies table statistics that are returned in conjunction with a table's index descriptions
-                //       tableIndexClustered - this is a clustered index
-                //       tableIndexHashed - this is a hashed index
-                //       tableIndexOther (all are static final int in DatabaseMetaData)
-                if (rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
-                    createUniqueConstraint(id, builder, constraintId, columnsNotFound);
-                    builder = null;
-                    continue;
-                }
-                if (rs.getShort("ORDINAL_POSITION") == 1) {
-                    createUniqueConstraint(id, builder, constraintId, columnsNotFound);
+    private void insertUniqueAttributes(NamedRelationDefinition relation, RelationID id, ImmutableList<MetadataRow> rows) {
+        // extracting unique
+        UniqueConstraint.Builder builder = null;
+        List<String> columnsNotFound = new ArrayList<>();
+        String constraintId = null;
+        for (MetadataRow row : rows) {
+            // TYPE: tableIndexStatistic - this identifies table statistics that are returned in conjunction with a table's index descriptions
+            //       tableIndexClustered - this is a clustered index
+            //       tableIndexHashed - this is a hashed index
+            //       tableIndexOther (all are static final int in DatabaseMetaData)
+            if (row.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+                createUniqueConstraint(id, builder, constraintId, columnsNotFound);
+                builder = null;
+                continue;
+            }
+            if (row.getShort("ORDINAL_POSITION") == 1) {
+                createUniqueConstraint(id, builder, constraintId, columnsNotFound);
 
-                    if (!rs.getBoolean("NON_UNIQUE")) {
-                        constraintId = rs.getString("INDEX_NAME");
-                        builder = UniqueConstraint.builder(relation, constraintId);
-                        columnsNotFound.clear();
-                    }
-                    else
-                        builder = null;
+                if (!row.getBoolean("NON_UNIQUE")) {
+                    constraintId = row.getString("INDEX_NAME");
+                    builder = UniqueConstraint.builder(relation, constraintId);
+                    columnsNotFound.clear();
                 }
+                else
+                    builder = null;
+            }
 
-                if (builder != null) {
-                    QuotedID attrId = rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME"));
-                    // ASC_OR_DESC String => column sort sequence, "A" => ascending, "D" => descending,
-                    //        may be null if sort sequence is not supported; null when TYPE is tableIndexStatistic
-                    // CARDINALITY int => When TYPE is tableIndexStatistic, then this is the number of rows in the table;
-                    //                      otherwise, it is the number of unique values in the index.
-                    // PAGES int => When TYPE is tableIndexStatisic then this is the number of pages used for the table,
-                    //                    otherwise it is the number of pages used for the current index.
-                    // FILTER_CONDITION String => Filter condition, if any. (may be null)
+            if (builder != null) {
+                QuotedID attrId = rawIdFactory.createAttributeID(row.getString("COLUMN_NAME"));
+                // ASC_OR_DESC String => column sort sequence, "A" => ascending, "D" => descending,
+                //        may be null if sort sequence is not supported; null when TYPE is tableIndexStatistic
+                // CARDINALITY int => When TYPE is tableIndexStatistic, then this is the number of rows in the table;
+                //                      otherwise, it is the number of unique values in the index.
+                // PAGES int => When TYPE is tableIndexStatisic then this is the number of pages used for the table,
+                //                    otherwise it is the number of pages used for the current index.
+                // FILTER_CONDITION String => Filter condition, if any. (may be null)
+                try {
+                    builder.addDeterminant(attrId);
+                }
+                catch (AttributeNotFoundException e) {
                     try {
+                        // bug in PostgreSQL JBDC driver: it strips off the quotation marks
+                        attrId = rawIdFactory.createAttributeID("\"" + row.getString("COLUMN_NAME") + "\"");
                         builder.addDeterminant(attrId);
                     }
-                    catch (AttributeNotFoundException e) {
-                        try {
-                            // bug in PostgreSQL JBDC driver: it strips off the quotation marks
-                            attrId = rawIdFactory.createAttributeID("\"" + rs.getString("COLUMN_NAME") + "\"");
-                            builder.addDeterminant(attrId);
-                        }
-                        catch (AttributeNotFoundException ex) {
-                            columnsNotFound.add(rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME")).getName());
-                        }
+                    catch (AttributeNotFoundException ex) {
+                        columnsNotFound.add(rawIdFactory.createAttributeID(row.getString("COLUMN_NAME")).getName());
                     }
                 }
             }
-            createUniqueConstraint(id, builder, constraintId, columnsNotFound);
         }
+        createUniqueConstraint(id, builder, constraintId, columnsNotFound);
     }
 
     private void createUniqueConstraint(RelationID id, UniqueConstraint.Builder builder, String constraintId, List<String> columnsNotFound) {
@@ -393,6 +506,7 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
      *      FKCOLUMN_NAME
      *      PKCOLUMN_NAME
      *
+     * @param metadata
      * @param catalog
      * @param schema
      * @param name
@@ -400,49 +514,68 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
      * @throws SQLException
      */
 
-    protected ResultSet getImportedKeys(String catalog, String schema, String name) throws SQLException {
+    protected ResultSet getImportedKeys(DatabaseMetaData metadata, String catalog, String schema, String name) throws SQLException {
         return metadata.getImportedKeys(catalog, schema, name);
     }
 
-    private void insertForeignKeys(NamedRelationDefinition relation, MetadataLookup dbMetadata) throws MetadataExtractionException, SQLException {
-        RelationID id = getCanonicalRelationId(relation.getID());
-        try (ResultSet rs = getImportedKeys(getRelationCatalog(id), getRelationSchema(id), getRelationName(id))) {
-            ForeignKeyConstraint.Builder builder = null;
-            String constraintId = null;
+    /**
+     * Bulk mode: same as getImportedKeys, but for all the relations of the schema.
+     * The rows of a foreign key must be consecutive and ordered by KEY_SEQ.
+     *
+     * Returns null if not supported: the foreign keys are then extracted relation by relation.
+     */
+    @Nullable
+    protected ResultSet getSchemaImportedKeys(@Nullable String catalog, String schema) throws SQLException {
+        return null;
+    }
+
+    private ImmutableList<MetadataRow> getForeignKeyRows(DatabaseMetaData metadata, RelationID id) throws MetadataExtractionException, SQLException {
+        try (ResultSet rs = getImportedKeys(metadata, getRelationCatalog(id), getRelationSchema(id), getRelationName(id))) {
+            ImmutableList.Builder<MetadataRow> builder = ImmutableList.builder();
             while (rs.next()) {
                 RelationID extractedId = getRelationID(rs, "FKTABLE_CAT", "FKTABLE_SCHEM","FKTABLE_NAME");
                 checkSameRelationID(extractedId, id, "getImportedKeys");
                 RelationID pkId = getRelationID(rs, "PKTABLE_CAT", "PKTABLE_SCHEM","PKTABLE_NAME");
+                builder.add(new MetadataRow(rs, FOREIGN_KEY_COLUMNS, pkId));
+            }
+            return builder.build();
+        }
+    }
 
-                try {
-                    int seq = rs.getShort("KEY_SEQ");
-                    if (seq == 1) {
-                        createForeignKeyConstraint(id, builder, constraintId);
+    private void insertForeignKeys(NamedRelationDefinition relation, RelationID id, ImmutableList<MetadataRow> rows,
+                                   MetadataLookup dbMetadata) {
+        ForeignKeyConstraint.Builder builder = null;
+        String constraintId = null;
+        for (MetadataRow row : rows) {
+            RelationID pkId = row.getReferencedRelationId();
+            try {
+                int seq = row.getShort("KEY_SEQ");
+                if (seq == 1) {
+                    createForeignKeyConstraint(id, builder, constraintId);
 
-                        constraintId = rs.getString("FK_NAME"); // String => foreign key name (may be null)
+                    constraintId = row.getString("FK_NAME"); // String => foreign key name (may be null)
 
-                        NamedRelationDefinition ref = dbMetadata.getRelation(pkId);
+                    NamedRelationDefinition ref = dbMetadata.getRelation(pkId);
 
-                        builder = ForeignKeyConstraint.builder(constraintId, relation, ref);
+                    builder = ForeignKeyConstraint.builder(constraintId, relation, ref);
+                }
+                if (builder != null) {
+                    try {
+                        QuotedID attrId = rawIdFactory.createAttributeID(row.getString("FKCOLUMN_NAME"));
+                        QuotedID refAttrId = rawIdFactory.createAttributeID(row.getString("PKCOLUMN_NAME"));
+                        builder.add(attrId, refAttrId);
                     }
-                    if (builder != null) {
-                        try {
-                            QuotedID attrId = rawIdFactory.createAttributeID(rs.getString("FKCOLUMN_NAME"));
-                            QuotedID refAttrId = rawIdFactory.createAttributeID(rs.getString("PKCOLUMN_NAME"));
-                            builder.add(attrId, refAttrId);
-                        }
-                        catch (AttributeNotFoundException e) {
-                            throw new MetadataExtractionException(e);
-                        }
+                    catch (AttributeNotFoundException e) {
+                        throw new MetadataExtractionException(e);
                     }
                 }
-                catch (MetadataExtractionException e) {
-                    LOGGER.warn("Cannot find table {} for foreign key {}", pkId, constraintId);
-                    builder = null; // do not add this foreign key because there is no table it refers to
-                }
             }
-            createForeignKeyConstraint(id, builder, constraintId);
+            catch (MetadataExtractionException e) {
+                LOGGER.warn("Cannot find table {} for foreign key {}", pkId, constraintId);
+                builder = null; // do not add this foreign key because there is no table it refers to
+            }
         }
+        createForeignKeyConstraint(id, builder, constraintId);
     }
 
     private void createForeignKeyConstraint(RelationID id, ForeignKeyConstraint.Builder builder, String constraintId) {
@@ -454,6 +587,150 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
         }
     }
 
+    /**
+     * Bulk mode: the integrity constraints of the relations of the schema extracted so far are retrieved at once.
+     *
+     * The schema-wide result sets are used when supported by the dialect.
+     * Otherwise, the extraction is done relation by relation over several connections.
+     * A relation for which the extraction fails is extracted again later, in the regular way.
+     */
+    private Map<RelationID, ConstraintRows> getSchemaConstraintRows(List<String> schemaKey) {
+        Map<RelationID, ConstraintRows> constraintRows = schemaConstraintRows.get(schemaKey);
+        if (constraintRows != null)
+            return constraintRows;
+
+        ImmutableList<RelationID> relationIds = ImmutableList.copyOf(
+                extractedRelationIds.getOrDefault(schemaKey, ImmutableSet.of()));
+
+        Map<RelationID, ImmutableList<MetadataRow>> primaryKeyRows = getSchemaRows(schemaKey, relationIds,
+                this::getSchemaPrimaryKeysResultSet, "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", PRIMARY_KEY_COLUMNS, false);
+        Map<RelationID, ImmutableList<MetadataRow>> indexRows = getSchemaRows(schemaKey, relationIds,
+                this::getSchemaIndexInfo, "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", INDEX_COLUMNS, false);
+        Map<RelationID, ImmutableList<MetadataRow>> foreignKeyRows = getSchemaRows(schemaKey, relationIds,
+                this::getSchemaImportedKeys, "FKTABLE_CAT", "FKTABLE_SCHEM", "FKTABLE_NAME", FOREIGN_KEY_COLUMNS, true);
+
+        List<RelationID> remainingIds = relationIds.stream()
+                .filter(i -> !(primaryKeyRows.containsKey(i) && indexRows.containsKey(i) && foreignKeyRows.containsKey(i)))
+                .collect(Collectors.toList());
+        if (!remainingIds.isEmpty())
+            extractInParallel(remainingIds, primaryKeyRows, indexRows, foreignKeyRows);
+
+        constraintRows = new HashMap<>();
+        for (RelationID id : relationIds) {
+            if (primaryKeyRows.containsKey(id) && indexRows.containsKey(id) && foreignKeyRows.containsKey(id))
+                constraintRows.put(id, new ConstraintRows(primaryKeyRows.get(id), indexRows.get(id), foreignKeyRows.get(id)));
+        }
+        LOGGER.debug("Integrity constraints of {} relations extracted for the schema {}", constraintRows.size(), schemaKey);
+        schemaConstraintRows.put(schemaKey, constraintRows);
+        return constraintRows;
+    }
+
+    @FunctionalInterface
+    private interface SchemaResultSetProvider {
+        @Nullable
+        ResultSet get(@Nullable String catalog, String schema) throws SQLException;
+    }
+
+    /**
+     * Returns an empty map if the schema-wide result set is not supported or cannot be read
+     */
+    private Map<RelationID, ImmutableList<MetadataRow>> getSchemaRows(List<String> schemaKey, ImmutableList<RelationID> relationIds,
+                                                                      SchemaResultSetProvider resultSetProvider,
+                                                                      String catalogNameColumn, String schemaNameColumn,
+                                                                      String tableNameColumn, ImmutableList<String> columns,
+                                                                      boolean isForeignKey) {
+        try (ResultSet rs = resultSetProvider.get(schemaKey.get(0), schemaKey.get(1))) {
+            if (rs == null)
+                return new ConcurrentHashMap<>();
+
+            Map<RelationID, ImmutableList.Builder<MetadataRow>> builders = new HashMap<>();
+            for (RelationID id : relationIds)
+                builders.put(id, ImmutableList.builder());
+
+            while (rs.next()) {
+                RelationID extractedId = getRelationID(rs, catalogNameColumn, schemaNameColumn, tableNameColumn);
+                ImmutableList.Builder<MetadataRow> builder = builders.get(extractedId);
+                if (builder != null)
+                    builder.add(new MetadataRow(rs, columns, isForeignKey
+                            ? getRelationID(rs, "PKTABLE_CAT", "PKTABLE_SCHEM","PKTABLE_NAME")
+                            : null));
+            }
+            Map<RelationID, ImmutableList<MetadataRow>> rows = new ConcurrentHashMap<>();
+            builders.forEach((k, v) -> rows.put(k, v.build()));
+            return rows;
+        }
+        catch (SQLException e) {
+            LOGGER.warn("Cannot extract the metadata of the schema {} at once: {}", schemaKey, e.getMessage());
+            return new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Extracts the missing rows relation by relation, with one connection per thread.
+     * Only possible when the JDBC credentials are available.
+     */
+    private void extractInParallel(List<RelationID> relationIds, Map<RelationID, ImmutableList<MetadataRow>> primaryKeyRows,
+                                   Map<RelationID, ImmutableList<MetadataRow>> indexRows,
+                                   Map<RelationID, ImmutableList<MetadataRow>> foreignKeyRows) {
+        int threadCount = Math.min(settings.getMetadataExtractionThreads(), relationIds.size());
+        if (threadCount < 2 || !(settings instanceof OntopSQLCredentialSettings))
+            return;
+
+        OntopSQLCredentialSettings credentialSettings = (OntopSQLCredentialSettings) settings;
+        Queue<RelationID> queue = new ConcurrentLinkedQueue<>(relationIds);
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount, new ThreadFactoryBuilder()
+                .setNameFormat("ontop-metadata-%d")
+                .setDaemon(true)
+                .build());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++)
+                futures.add(executorService.submit(() -> {
+                    try (Connection workerConnection = LocalJDBCConnectionUtils.createConnection(credentialSettings)) {
+                        DatabaseMetaData workerMetadata = workerConnection.getMetaData();
+                        RelationID id;
+                        while ((id = queue.poll()) != null) {
+                            try {
+                                if (!primaryKeyRows.containsKey(id))
+                                    primaryKeyRows.put(id, getPrimaryKeyRows(workerMetadata, id));
+                                if (!indexRows.containsKey(id))
+                                    indexRows.put(id, getIndexRows(workerMetadata, id));
+                                if (!foreignKeyRows.containsKey(id))
+                                    foreignKeyRows.put(id, getForeignKeyRows(workerMetadata, id));
+                            }
+                            catch (MetadataExtractionException | SQLException e) {
+                                LOGGER.debug("Cannot extract the integrity constraints of {} in parallel: {}", id, e.getMessage());
+                            }
+                        }
+                    }
+                    catch (SQLException e) {
+                        LOGGER.warn("Cannot open a connection for extracting the metadata in parallel: {}", e.getMessage());
+                    }
+                }));
+            for (Future<?> future : futures)
+                future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e) {
+            LOGGER.warn("Parallel metadata extraction failed: {}", e.getCause().getMessage());
+        }
+        finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Executes a query with the schema name as unique parameter. The statement is closed with the result set.
+     */
+    protected ResultSet executeSchemaQuery(String query, String schema) throws SQLException {
+        PreparedStatement stmt = connection.prepareStatement(query);
+        stmt.closeOnCompletion();
+        stmt.setString(1, schema);
+        return stmt.executeQuery();
+    }
+
     @Override
     public RelationDefinition getBlackBoxView(String query) throws MetadataExtractionException, InvalidQueryException {
         return settings.allowRetrievingBlackBoxViewMetadataFromDB()
@@ -491,6 +768,71 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
         }
     }
 
+    @Override
+    public long getRowCount(RelationID id) throws MetadataExtractionException {
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM " + id.getSQLRendering())) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+        catch (SQLException e) {
+            throw new MetadataExtractionException("Cannot count the rows of " + id, e);
+        }
+    }
+
+    @Override
+    public long getDistinctValueCount(RelationID id, QuotedID attributeId, int sampleSize, long rowCount)
+            throws MetadataExtractionException {
+        Optional<String> sampleQuery = (sampleSize > 0 && sampleSize < rowCount)
+                ? makeSampleQuery(id, attributeId, 100.0 * sampleSize / rowCount)
+                : Optional.empty();
+
+        try (Statement st = connection.createStatement()) {
+            if (sampleQuery.isEmpty()) {
+                try (ResultSet rs = st.executeQuery(String.format("SELECT COUNT(DISTINCT %s) FROM %s",
+                        attributeId.getSQLRendering(), id.getSQLRendering()))) {
+                    return rs.next() ? rs.getLong(1) : 0;
+                }
+            }
+            Map<String, Integer> valueCounts = new HashMap<>();
+            int sampledRowCount = 0;
+            try (ResultSet rs = st.executeQuery(sampleQuery.get())) {
+                while (rs.next()) {
+                    sampledRowCount++;
+                    String value = rs.getString(1);
+                    if (value != null)
+                        valueCounts.merge(value, 1, Integer::sum);
+                }
+            }
+            long distinctCount = valueCounts.size();
+            if (sampledRowCount == 0 || sampledRowCount >= rowCount)
+                return distinctCount;
+
+            // Guaranteed-error estimator (GEE): the values seen once are scaled up by sqrt(rowCount/sampleSize)
+            long singletonCount = valueCounts.values().stream()
+                    .filter(c -> c == 1)
+                    .count();
+            long estimate = Math.round(Math.sqrt((double) rowCount / sampledRowCount) * singletonCount)
+                    + distinctCount - singletonCount;
+            return Math.max(distinctCount, Math.min(estimate, rowCount));
+        }
+        catch (SQLException e) {
+            throw new MetadataExtractionException("Cannot count the distinct values of " + attributeId + " in " + id, e);
+        }
+    }
+
+    /**
+     * Query returning the values of the attribute in a random sample of the rows (row-level sampling,
+     * as the estimation of the number of distinct values assumes independent rows).
+     *
+     * Empty when the dialect has no such sampling clause: the distinct values are then counted on all the rows,
+     * as the first rows returned by the DB are not a random sample.
+     *
+     * Can be overridden
+     */
+    protected Optional<String> makeSampleQuery(RelationID id, QuotedID attributeId, double percentage) {
+        return Optional.empty();
+    }
+
     /**
      * Can be overridden
      */
@@ -562,4 +904,71 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
     interface PrecisionSupplier {
         int getPrecision() throws SQLException;
     }
+
+
+    /**
+     * Copy of the relevant columns of a row of a metadata result set
+     */
+    private static final class MetadataRow {
+        private final Map<String, Object> values;
+        @Nullable
+        private final RelationID referencedRelationId;
+
+        private MetadataRow(ResultSet rs, ImmutableList<String> columns, @Nullable RelationID referencedRelationId) throws SQLException {
+            this.values = new HashMap<>();
+            for (String column : columns)
+                values.put(column, rs.getObject(column));
+            this.referencedRelationId = referencedRelationId;
+        }
+
+        @Nullable
+        String getString(String column) {
+            Object value = values.get(column);
+            return value == null ? null : value.toString();
+        }
+
+        /**
+         * 0 if null, like ResultSet.getShort()
+         */
+        short getShort(String column) {
+            Object value = values.get(column);
+            if (value == null)
+                return 0;
+            return (value instanceof Number)
+                    ? ((Number) value).shortValue()
+                    : Short.parseShort(value.toString().trim());
+        }
+
+        /**
+         * false if null, like ResultSet.getBoolean()
+         */
+        boolean getBoolean(String column) {
+            Object value = values.get(column);
+            if (value == null)
+                return false;
+            if (value instanceof Boolean)
+                return (Boolean) value;
+            if (value instanceof Number)
+                return ((Number) value).intValue() != 0;
+            String str = value.toString().trim();
+            return str.equalsIgnoreCase("true") || str.equals("1");
+        }
+
+        RelationID getReferencedRelationId() {
+            return referencedRelationId;
+        }
+    }
+
+    private static final class ConstraintRows {
+        private final ImmutableList<MetadataRow> primaryKeyRows;
+        private final ImmutableList<MetadataRow> indexRows;
+        private final ImmutableList<MetadataRow> foreignKeyRows;
+
+        private ConstraintRows(ImmutableList<MetadataRow> primaryKeyRows, ImmutableList<MetadataRow> indexRows,
+                               ImmutableList<MetadataRow> foreignKeyRows) {
+            this.primaryKeyRows = primaryKeyRows;
+            this.indexRows = indexRows;
+            this.foreignKeyRows = foreignKeyRows;
+        }
+    }
 }
@@ -3,11 +3,14 @@ package it.unibz.inf.ontop.dbschema.impl;
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.dbschema.QuotedID;
 import it.unibz.inf.ontop.dbschema.RelationID;
 import it.unibz.inf.ontop.exception.MetadataExtractionException;
 import it.unibz.inf.ontop.injection.CoreSingletons;
 
 import java.sql.Connection;
+import java.util.Locale;
+import java.util.Optional;
 
 public class DB2DBMetadataProvider extends DefaultSchemaDBMetadataProvider {
 
@@ -23,6 +26,12 @@ public class DB2DBMetadataProvider extends DefaultSchemaDBMetadataProvider {
         return IGNORED_SCHEMAS.contains(getRelationSchema(id));
     }
 
+    @Override
+    protected Optional<String> makeSampleQuery(RelationID id, QuotedID attributeId, double percentage) {
+        return Optional.of(String.format(Locale.ROOT, "SELECT %s FROM %s TABLESAMPLE BERNOULLI (%f)",
+                attributeId.getSQLRendering(), id.getSQLRendering(), percentage));
+    }
+
     /*
       Alternative solution for retrieving the schema
                 "select CURRENT SCHEMA AS TABLE_SCHEM from SYSIBM.SYSDUMMY1");
@@ -5,7 +5,10 @@ import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.exception.MetadataExtractionException;
 import it.unibz.inf.ontop.injection.CoreSingletons;
 
+import javax.annotation.Nullable;
 import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 
 public class H2DBMetadataProvider extends DefaultSchemaCatalogDBMetadataProvider {
 
@@ -16,4 +19,47 @@ public class H2DBMetadataProvider extends DefaultSchemaCatalogDBMetadataProvider
         // http://www.h2database.com/html/functions.html#current_schema
         // the .getSchema() does work for OntopExtractDBMetadataTest
     }
+
+    /*
+        The H2 JDBC driver requires a table name for getPrimaryKeys, getIndexInfo and getImportedKeys:
+        in bulk mode, the INFORMATION_SCHEMA is queried instead.
+     */
+
+    @Override
+    protected ResultSet getSchemaPrimaryKeysResultSet(@Nullable String catalog, String schema) throws SQLException {
+        return executeSchemaQuery("SELECT tc.TABLE_CATALOG AS TABLE_CAT, tc.TABLE_SCHEMA AS TABLE_SCHEM, " +
+                "tc.TABLE_NAME AS TABLE_NAME, tc.CONSTRAINT_NAME AS PK_NAME, " +
+                "kcu.COLUMN_NAME AS COLUMN_NAME, kcu.ORDINAL_POSITION AS KEY_SEQ " +
+                "FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc " +
+                "JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE kcu ON kcu.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA " +
+                "AND kcu.CONSTRAINT_NAME = tc.CONSTRAINT_NAME " +
+                "WHERE tc.CONSTRAINT_TYPE = 'PRIMARY KEY' AND tc.TABLE_SCHEMA = ?", schema);
+    }
+
+    @Override
+    protected ResultSet getSchemaIndexInfo(@Nullable String catalog, String schema) throws SQLException {
+        return executeSchemaQuery("SELECT tc.TABLE_CATALOG AS TABLE_CAT, tc.TABLE_SCHEMA AS TABLE_SCHEM, " +
+                "tc.TABLE_NAME AS TABLE_NAME, tc.CONSTRAINT_NAME AS INDEX_NAME, FALSE AS NON_UNIQUE, " +
+                "3 AS TYPE, kcu.ORDINAL_POSITION AS ORDINAL_POSITION, kcu.COLUMN_NAME AS COLUMN_NAME " +
+                "FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc " +
+                "JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE kcu ON kcu.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA " +
+                "AND kcu.CONSTRAINT_NAME = tc.CONSTRAINT_NAME " +
+                "WHERE tc.CONSTRAINT_TYPE IN ('PRIMARY KEY', 'UNIQUE') AND tc.TABLE_SCHEMA = ? " +
+                "ORDER BY tc.TABLE_NAME, tc.CONSTRAINT_NAME, kcu.ORDINAL_POSITION", schema);
+    }
+
+    @Override
+    protected ResultSet getSchemaImportedKeys(@Nullable String catalog, String schema) throws SQLException {
+        return executeSchemaQuery("SELECT fk.TABLE_CATALOG AS FKTABLE_CAT, fk.TABLE_SCHEMA AS FKTABLE_SCHEM, " +
+                "fk.TABLE_NAME AS FKTABLE_NAME, pk.TABLE_CATALOG AS PKTABLE_CAT, pk.TABLE_SCHEMA AS PKTABLE_SCHEM, " +
+                "pk.TABLE_NAME AS PKTABLE_NAME, rc.CONSTRAINT_NAME AS FK_NAME, fk.ORDINAL_POSITION AS KEY_SEQ, " +
+                "fk.COLUMN_NAME AS FKCOLUMN_NAME, pk.COLUMN_NAME AS PKCOLUMN_NAME " +
+                "FROM INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS rc " +
+                "JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE fk ON fk.CONSTRAINT_SCHEMA = rc.CONSTRAINT_SCHEMA " +
+                "AND fk.CONSTRAINT_NAME = rc.CONSTRAINT_NAME " +
+                "JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE pk ON pk.CONSTRAINT_SCHEMA = rc.UNIQUE_CONSTRAINT_SCHEMA " +
+                "AND pk.CONSTRAINT_NAME = rc.UNIQUE_CONSTRAINT_NAME AND pk.ORDINAL_POSITION = fk.POSITION_IN_UNIQUE_CONSTRAINT " +
+                "WHERE fk.TABLE_SCHEMA = ? " +
+                "ORDER BY fk.TABLE_NAME, rc.CONSTRAINT_NAME, fk.ORDINAL_POSITION", schema);
+    }
 }
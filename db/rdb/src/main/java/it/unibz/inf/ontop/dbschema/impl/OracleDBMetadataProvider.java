@@ -4,12 +4,16 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.dbschema.QuotedID;
 import it.unibz.inf.ontop.dbschema.RelationID;
 import it.unibz.inf.ontop.exception.MetadataExtractionException;
 import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
 import it.unibz.inf.ontop.injection.CoreSingletons;
 
+import javax.annotation.Nullable;
 import java.sql.*;
+import java.util.Locale;
+import java.util.Optional;
 
 import static it.unibz.inf.ontop.dbschema.RelationID.TABLE_INDEX;
 
@@ -52,6 +56,15 @@ public class OracleDBMetadataProvider extends DefaultSchemaDBMetadataProvider {
         return String.format("SELECT * FROM (%s) subQ FETCH NEXT 1 ROWS ONLY", query);
     }
 
+    /**
+     * Row sampling (SAMPLE BLOCK would sample the blocks)
+     */
+    @Override
+    protected Optional<String> makeSampleQuery(RelationID id, QuotedID attributeId, double percentage) {
+        return Optional.of(String.format(Locale.ROOT, "SELECT %s FROM %s SAMPLE (%f)",
+                attributeId.getSQLRendering(), id.getSQLRendering(), percentage));
+    }
+
     @Override
     protected ImmutableList<RelationID> getAllIDs(RelationID id) {
         if (isDual(id))
@@ -163,6 +176,47 @@ public class OracleDBMetadataProvider extends DefaultSchemaDBMetadataProvider {
                 "FROM all_views");
     }
 
+    /*
+        Bulk mode: the Oracle JDBC driver requires a table name for getPrimaryKeys, getIndexInfo and getImportedKeys.
+        The dictionary views are queried instead.
+     */
+
+    @Override
+    protected ResultSet getSchemaPrimaryKeysResultSet(@Nullable String catalog, String schema) throws SQLException {
+        return executeSchemaQuery("SELECT NULL AS TABLE_CAT, c.owner AS TABLE_SCHEM, c.table_name AS TABLE_NAME, " +
+                "c.constraint_name AS PK_NAME, cc.column_name AS COLUMN_NAME, cc.position AS KEY_SEQ " +
+                "FROM all_constraints c " +
+                "JOIN all_cons_columns cc ON cc.owner = c.owner AND cc.constraint_name = c.constraint_name " +
+                "AND cc.table_name = c.table_name " +
+                "WHERE c.constraint_type = 'P' AND c.owner = ?", schema);
+    }
+
+    @Override
+    protected ResultSet getSchemaIndexInfo(@Nullable String catalog, String schema) throws SQLException {
+        return executeSchemaQuery("SELECT NULL AS TABLE_CAT, i.table_owner AS TABLE_SCHEM, i.table_name AS TABLE_NAME, " +
+                "0 AS NON_UNIQUE, i.index_name AS INDEX_NAME, 3 AS TYPE, ic.column_position AS ORDINAL_POSITION, " +
+                "ic.column_name AS COLUMN_NAME " +
+                "FROM all_indexes i " +
+                "JOIN all_ind_columns ic ON ic.index_owner = i.owner AND ic.index_name = i.index_name " +
+                "WHERE i.uniqueness = 'UNIQUE' AND i.table_owner = ? " +
+                "ORDER BY i.table_name, i.index_name, ic.column_position", schema);
+    }
+
+    @Override
+    protected ResultSet getSchemaImportedKeys(@Nullable String catalog, String schema) throws SQLException {
+        return executeSchemaQuery("SELECT NULL AS FKTABLE_CAT, c.owner AS FKTABLE_SCHEM, c.table_name AS FKTABLE_NAME, " +
+                "NULL AS PKTABLE_CAT, r.owner AS PKTABLE_SCHEM, r.table_name AS PKTABLE_NAME, " +
+                "c.constraint_name AS FK_NAME, fc.position AS KEY_SEQ, " +
+                "fc.column_name AS FKCOLUMN_NAME, pc.column_name AS PKCOLUMN_NAME " +
+                "FROM all_constraints c " +
+                "JOIN all_constraints r ON r.owner = c.r_owner AND r.constraint_name = c.r_constraint_name " +
+                "JOIN all_cons_columns fc ON fc.owner = c.owner AND fc.constraint_name = c.constraint_name " +
+                "JOIN all_cons_columns pc ON pc.owner = r.owner AND pc.constraint_name = r.constraint_name " +
+                "AND pc.position = fc.position " +
+                "WHERE c.constraint_type = 'R' AND c.owner = ? " +
+                "ORDER BY c.table_name, c.constraint_name, fc.position", schema);
+    }
+
     @Override
     protected boolean isPrimaryKeyDisabled(RelationID id, String primaryKeyId) {
         return isConstraintDisabled(id, primaryKeyId);
@@ -3,13 +3,17 @@ package it.unibz.inf.ontop.dbschema.impl;
 import com.google.common.collect.ImmutableList;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.dbschema.QuotedID;
 import it.unibz.inf.ontop.dbschema.RelationID;
 import it.unibz.inf.ontop.exception.MetadataExtractionException;
 import it.unibz.inf.ontop.injection.CoreSingletons;
 
+import javax.annotation.Nullable;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Optional;
 
 public class PostgreSQLDBMetadataProvider extends DefaultSchemaDBMetadataProvider {
 
@@ -39,4 +43,43 @@ public class PostgreSQLDBMetadataProvider extends DefaultSchemaDBMetadataProvide
     protected boolean isRelationExcluded(RelationID id) {
         return IGNORED_SCHEMAS.contains(getRelationSchema(id));
     }
+
+    /*
+        Bulk mode: the PostgreSQL JDBC driver accepts a null table name for getPrimaryKeys and getImportedKeys,
+        but not for getIndexInfo.
+     */
+
+    @Override
+    protected ResultSet getSchemaPrimaryKeysResultSet(@Nullable String catalog, String schema) throws SQLException {
+        return metadata.getPrimaryKeys(catalog, schema, null);
+    }
+
+    @Override
+    protected ResultSet getSchemaImportedKeys(@Nullable String catalog, String schema) throws SQLException {
+        return metadata.getImportedKeys(catalog, schema, null);
+    }
+
+    /**
+     * Unique indexes only, without the expression and partial ones
+     */
+    @Override
+    protected ResultSet getSchemaIndexInfo(@Nullable String catalog, String schema) throws SQLException {
+        return executeSchemaQuery("SELECT NULL AS TABLE_CAT, n.nspname AS TABLE_SCHEM, ct.relname AS TABLE_NAME, " +
+                "FALSE AS NON_UNIQUE, ci.relname AS INDEX_NAME, 3 AS TYPE, k.pos AS ORDINAL_POSITION, " +
+                "a.attname AS COLUMN_NAME " +
+                "FROM pg_catalog.pg_class ct " +
+                "JOIN pg_catalog.pg_namespace n ON ct.relnamespace = n.oid " +
+                "JOIN pg_catalog.pg_index i ON ct.oid = i.indrelid " +
+                "JOIN pg_catalog.pg_class ci ON ci.oid = i.indexrelid " +
+                "CROSS JOIN LATERAL unnest(i.indkey::int2[]) WITH ORDINALITY AS k(attnum, pos) " +
+                "JOIN pg_catalog.pg_attribute a ON a.attrelid = ct.oid AND a.attnum = k.attnum " +
+                "WHERE n.nspname = ? AND i.indisunique AND i.indpred IS NULL AND 0 <> ALL (i.indkey::int2[]) " +
+                "ORDER BY ct.relname, ci.relname, k.pos", schema);
+    }
+
+    @Override
+    protected Optional<String> makeSampleQuery(RelationID id, QuotedID attributeId, double percentage) {
+        return Optional.of(String.format(Locale.ROOT, "SELECT %s FROM %s TABLESAMPLE BERNOULLI (%f)",
+                attributeId.getSQLRendering(), id.getSQLRendering(), percentage));
+    }
 }
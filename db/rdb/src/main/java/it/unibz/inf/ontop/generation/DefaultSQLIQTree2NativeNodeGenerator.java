@@ -7,6 +7,7 @@ import it.unibz.inf.ontop.iq.transform.IQTree2NativeNodeGenerator;
 import it.unibz.inf.ontop.generation.algebra.IQTree2SelectFromWhereConverter;
 import it.unibz.inf.ontop.generation.algebra.SelectFromWhereWithModifiers;
 import it.unibz.inf.ontop.generation.serializer.SelectFromWhereSerializer;
+import it.unibz.inf.ontop.generation.serializer.impl.SQLParameterCollector;
 import it.unibz.inf.ontop.dbschema.DBParameters;
 import it.unibz.inf.ontop.dbschema.QuotedID;
 import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
@@ -46,10 +47,24 @@ public class DefaultSQLIQTree2NativeNodeGenerator implements IQTree2NativeNodeGe
 
     @Override
     public NativeNode generate(IQTree iqTree, DBParameters dbParameters, boolean tolerateUnknownTypes) {
+        return generate(iqTree, dbParameters, tolerateUnknownTypes, false);
+    }
+
+    @Override
+    public NativeNode generate(IQTree iqTree, DBParameters dbParameters, boolean tolerateUnknownTypes,
+                               boolean parameterized) {
         ImmutableSortedSet<Variable> signature = ImmutableSortedSet.copyOf(iqTree.getVariables());
 
         SelectFromWhereWithModifiers selectFromWhere = converter.convert(iqTree, signature);
-        SelectFromWhereSerializer.QuerySerialization serializedQuery = serializer.serialize(selectFromWhere, dbParameters);
+
+        SQLParameterCollector parameterCollector = new SQLParameterCollector();
+        // Falls back to the inlined values if the dialect does not support parameters
+        SelectFromWhereSerializer.QuerySerialization serializedQuery = (parameterized
+                ? serializer.serializeWithParameters(selectFromWhere, dbParameters, parameterCollector)
+                : Optional.<SelectFromWhereSerializer.QuerySerialization>empty())
+                .orElseGet(() -> serializer.serialize(selectFromWhere, dbParameters));
+        SQLParameterCollector.ParameterizedQuery parameterizedQuery = parameterCollector.resolve(
+                serializedQuery.getString());
 
         ImmutableMap<Variable, DBTermType> variableTypeMap = extractVariableTypeMap(iqTree, tolerateUnknownTypes);
 
@@ -59,7 +74,7 @@ public class DefaultSQLIQTree2NativeNodeGenerator implements IQTree2NativeNodeGe
                         e -> e.getValue().getAttribute()));
 
         return iqFactory.createNativeNode(signature, variableTypeMap, columnNames,
-                serializedQuery.getString(), iqTree.getVariableNullability());
+                parameterizedQuery.getString(), parameterizedQuery.getParameters(), iqTree.getVariableNullability());
     }
 
     private ImmutableMap<Variable, DBTermType> extractVariableTypeMap(IQTree tree, boolean tolerateUnknownTypes) {
@@ -4,13 +4,28 @@ import com.google.common.collect.ImmutableMap;
 import it.unibz.inf.ontop.generation.algebra.SelectFromWhereWithModifiers;
 import it.unibz.inf.ontop.dbschema.DBParameters;
 import it.unibz.inf.ontop.dbschema.QualifiedAttributeID;
+import it.unibz.inf.ontop.generation.serializer.impl.SQLParameterCollector;
 import it.unibz.inf.ontop.generation.serializer.impl.SQLTermSerializer;
 import it.unibz.inf.ontop.model.term.Variable;
 
+import java.util.Optional;
+
 public interface SelectFromWhereSerializer {
 
     QuerySerialization serialize(SelectFromWhereWithModifiers selectFromWhere, DBParameters dbParameters);
 
+    /**
+     * Same as serialize(), but the literal values compared in the conditions are collected as parameters.
+     *
+     * Empty if not supported by the dialect (default): the values of the query are then to be inlined.
+     * Only to be supported by the dialects for which the DB infers the types of these parameters.
+     */
+    default Optional<QuerySerialization> serializeWithParameters(SelectFromWhereWithModifiers selectFromWhere,
+                                                                 DBParameters dbParameters,
+                                                                 SQLParameterCollector parameterCollector) {
+        return Optional.empty();
+    }
+
     /**
      * Needed by third-party applications. See the ConstantSerializer tool.
      */
@@ -56,9 +56,20 @@ public class DefaultSelectFromWhereSerializer implements SelectFromWhereSerializ
 
         protected final AtomicInteger viewCounter;
 
+        private final Optional<SQLParameterCollector> parameterCollector;
+
         protected DefaultRelationVisitingSerializer(QuotedIDFactory idFactory) {
+            this(idFactory, Optional.empty());
+        }
+
+        /**
+         * If a parameter collector is given, the literal values compared in the conditions are collected
+         */
+        protected DefaultRelationVisitingSerializer(QuotedIDFactory idFactory,
+                                                    Optional<SQLParameterCollector> parameterCollector) {
             this.idFactory = idFactory;
             this.viewCounter = new AtomicInteger(0);
+            this.parameterCollector = parameterCollector;
         }
 
         @Override
@@ -78,7 +89,7 @@ public class DefaultSelectFromWhereSerializer implements SelectFromWhereSerializ
 
             // TODO: if selectFromWhere.getLimit is 0, then replace it with an additional filter 0 = 1
             String whereString = selectFromWhere.getWhereExpression()
-                    .map(e -> sqlTermSerializer.serialize(e, columnIDs))
+                    .map(e -> serializeCondition(e, columnIDs))
                     .map(s -> String.format("WHERE %s\n", s))
                     .orElse("");
 
@@ -97,6 +108,16 @@ public class DefaultSelectFromWhereSerializer implements SelectFromWhereSerializ
             return new QuerySerializationImpl(sql, attachRelationAlias(alias, variableAliases));
         }
 
+        /**
+         * The literal values compared in the conditions may be turned into parameters (see SQLParameterCollector)
+         */
+        protected String serializeCondition(ImmutableExpression condition,
+                                            ImmutableMap<Variable, QualifiedAttributeID> columnIDs) {
+            return parameterCollector
+                    .map(c -> sqlTermSerializer.serialize(condition, columnIDs, c))
+                    .orElseGet(() -> sqlTermSerializer.serialize(condition, columnIDs));
+        }
+
         protected RelationID generateFreshViewAlias() {
             return idFactory.createRelationID(VIEW_PREFIX + viewCounter.incrementAndGet());
         }
@@ -308,7 +329,7 @@ public class DefaultSelectFromWhereSerializer implements SelectFromWhereSerializ
                             .collect(ImmutableCollectors.toMap());
 
             String onString = binaryJoinExpression.getFilterCondition()
-                    .map(e -> sqlTermSerializer.serialize(e, columnIDs))
+                    .map(e -> serializeCondition(e, columnIDs))
                     .map(s -> String.format("ON %s ", s))
                     .orElse("ON 1 = 1 ");
 
@@ -475,6 +496,17 @@ public class DefaultSelectFromWhereSerializer implements SelectFromWhereSerializ
         @Override
         public String serialize(ImmutableTerm term, ImmutableMap<Variable, QualifiedAttributeID> columnIDs)
                 throws SQLSerializationException {
+            return serializeTerm(term, columnIDs, Optional.empty());
+        }
+
+        @Override
+        public String serialize(ImmutableTerm term, ImmutableMap<Variable, QualifiedAttributeID> columnIDs,
+                                SQLParameterCollector parameterCollector) throws SQLSerializationException {
+            return serializeTerm(term, columnIDs, Optional.of(parameterCollector));
+        }
+
+        private String serializeTerm(ImmutableTerm term, ImmutableMap<Variable, QualifiedAttributeID> columnIDs,
+                                     Optional<SQLParameterCollector> parameterCollector) {
             if (term instanceof Constant) {
                 return serializeConstant((Constant)term);
             }
@@ -494,13 +526,29 @@ public class DefaultSelectFromWhereSerializer implements SelectFromWhereSerializ
                         .filter(t -> t.getFunctionSymbol() instanceof DBFunctionSymbol)
                         .map(t -> ((DBFunctionSymbol) t.getFunctionSymbol()).getNativeDBString(
                                 t.getTerms(),
-                                t2 -> serialize(t2, columnIDs),
+                                t2 -> serializeArgument(t, t2, columnIDs, parameterCollector),
                                 termFactory))
                         .orElseThrow(() -> new SQLSerializationException("Only DBFunctionSymbols must be provided " +
                                 "to a SQLTermSerializer"));
             }
         }
 
+        private String serializeArgument(ImmutableFunctionalTerm parentTerm, ImmutableTerm argument,
+                                         ImmutableMap<Variable, QualifiedAttributeID> columnIDs,
+                                         Optional<SQLParameterCollector> parameterCollector) {
+            // Goes through the public methods, which may be overridden by the dialects
+            if (parameterCollector.isEmpty())
+                return serialize(argument, columnIDs);
+
+            if (SQLParameterCollector.isComparisonValue(parentTerm, argument)) {
+                DBConstant constant = (DBConstant) argument;
+                String rendering = serializeConstant(constant);
+                return parameterCollector.get().collect(constant, rendering)
+                        .orElse(rendering);
+            }
+            return serialize(argument, columnIDs, parameterCollector.get());
+        }
+
         private String serializeConstant(Constant constant) {
             if (constant.isNull())
                 return constant.getValue();
@@ -12,6 +12,7 @@ import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Singleton
@@ -24,8 +25,24 @@ public class H2SelectFromWhereSerializer extends DefaultSelectFromWhereSerialize
 
     @Override
     public SelectFromWhereSerializer.QuerySerialization serialize(SelectFromWhereWithModifiers selectFromWhere, DBParameters dbParameters) {
+        return serialize(selectFromWhere, dbParameters, Optional.empty());
+    }
+
+    /**
+     * H2 infers the types of the parameters compared to columns
+     */
+    @Override
+    public Optional<SelectFromWhereSerializer.QuerySerialization> serializeWithParameters(
+            SelectFromWhereWithModifiers selectFromWhere, DBParameters dbParameters,
+            SQLParameterCollector parameterCollector) {
+        return Optional.of(serialize(selectFromWhere, dbParameters, Optional.of(parameterCollector)));
+    }
+
+    private SelectFromWhereSerializer.QuerySerialization serialize(SelectFromWhereWithModifiers selectFromWhere,
+                                                                   DBParameters dbParameters,
+                                                                   Optional<SQLParameterCollector> parameterCollector) {
         return selectFromWhere.acceptVisitor(
-                new DefaultRelationVisitingSerializer(dbParameters.getQuotedIDFactory()) {
+                new DefaultRelationVisitingSerializer(dbParameters.getQuotedIDFactory(), parameterCollector) {
                     /**
                      * Number of rows in output can be limited either with standard OFFSET / FETCH,
                      * with non-standard LIMIT / OFFSET, or with non-standard TOP clauses.
@@ -60,8 +60,24 @@ public class PostgresSelectFromWhereSerializer extends DefaultSelectFromWhereSer
 
     @Override
     public SelectFromWhereSerializer.QuerySerialization serialize(SelectFromWhereWithModifiers selectFromWhere, DBParameters dbParameters) {
+        return serialize(selectFromWhere, dbParameters, Optional.empty());
+    }
+
+    /**
+     * PostgreSQL infers the types of the parameters compared to columns
+     */
+    @Override
+    public Optional<SelectFromWhereSerializer.QuerySerialization> serializeWithParameters(
+            SelectFromWhereWithModifiers selectFromWhere, DBParameters dbParameters,
+            SQLParameterCollector parameterCollector) {
+        return Optional.of(serialize(selectFromWhere, dbParameters, Optional.of(parameterCollector)));
+    }
+
+    private SelectFromWhereSerializer.QuerySerialization serialize(SelectFromWhereWithModifiers selectFromWhere,
+                                                                   DBParameters dbParameters,
+                                                                   Optional<SQLParameterCollector> parameterCollector) {
         return selectFromWhere.acceptVisitor(
-                new DefaultSelectFromWhereSerializer.DefaultRelationVisitingSerializer(dbParameters.getQuotedIDFactory()) {
+                new DefaultSelectFromWhereSerializer.DefaultRelationVisitingSerializer(dbParameters.getQuotedIDFactory(), parameterCollector) {
                     /**
                      * https://www.postgresql.org/docs/8.1/queries-limit.html
                      * <p>
@@ -75,4 +75,14 @@ public class RedshiftSelectFromWhereSerializer extends PostgresSelectFromWhereSe
                     }
                 });
     }
+
+    /**
+     * Not inherited from PostgreSQL: the values stay inlined
+     */
+    @Override
+    public Optional<SelectFromWhereSerializer.QuerySerialization> serializeWithParameters(
+            SelectFromWhereWithModifiers selectFromWhere, DBParameters dbParameters,
+            SQLParameterCollector parameterCollector) {
+        return Optional.empty();
+    }
 }
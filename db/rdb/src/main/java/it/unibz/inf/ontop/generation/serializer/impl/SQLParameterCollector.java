@@ -0,0 +1,152 @@
+package it.unibz.inf.ontop.generation.serializer.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.model.term.DBConstant;
+import it.unibz.inf.ontop.model.term.ImmutableFunctionalTerm;
+import it.unibz.inf.ontop.model.term.ImmutableTerm;
+import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.impl.AbstractDBInequalityOperator;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.impl.AbstractDBNonStrictEqOperator;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.impl.AbstractDBStrictEqNeqFunctionSymbol;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+/**
+ * Collects the literal values compared to other terms in the WHERE and ON conditions while a SQL query
+ * is being serialized, so that they can be sent to the DB as parameters of a prepared statement.
+ *
+ * Only the constants that are direct arguments of an (in)equality are collected: their type is then inferred
+ * by the DB from the other argument. The constants appearing elsewhere (e.g. in function arguments)
+ * stay inlined, as the type of an untyped parameter cannot always be inferred by the DB (e.g. PostgreSQL).
+ *
+ * During the serialization, the collected constants are rendered as markers. As serializers may compose
+ * the SQL fragments in any order (and even duplicate them), the markers are only resolved
+ * at the end, in their order of appearance in the final query string. Since the inlined literals may contain
+ * any character, each marker includes a random token specific to the collector, which the literals of the query
+ * cannot anticipate.
+ *
+ * Mutable: one instance per SQL query to generate
+ */
+public class SQLParameterCollector {
+
+    private static final char MARKER = '\u0001';
+    private static final String PARAMETER_MARKER = "?";
+
+    private final String markerPrefix = MARKER + UUID.randomUUID().toString() + ":";
+    private final List<DBConstant> constants = new ArrayList<>();
+    private final List<String> inlineRenderings = new ArrayList<>();
+
+    /**
+     * Returns true if the argument is a literal value compared to a non-ground term
+     */
+    static boolean isComparisonValue(ImmutableFunctionalTerm parentTerm, ImmutableTerm argument) {
+        if (!(argument instanceof DBConstant))
+            return false;
+
+        FunctionSymbol functionSymbol = parentTerm.getFunctionSymbol();
+        return (functionSymbol instanceof AbstractDBStrictEqNeqFunctionSymbol
+                || functionSymbol instanceof AbstractDBNonStrictEqOperator
+                || functionSymbol instanceof AbstractDBInequalityOperator)
+                && parentTerm.getTerms().stream().anyMatch(t -> !t.isGround());
+    }
+
+    /**
+     * Returns the marker to use instead of the inline rendering, if the constant can be sent as a parameter
+     */
+    Optional<String> collect(DBConstant constant, String inlineRendering) {
+        if (!isParameterizable(constant))
+            return Optional.empty();
+
+        constants.add(constant);
+        inlineRenderings.add(inlineRendering);
+        return Optional.of(markerPrefix + (constants.size() - 1) + MARKER);
+    }
+
+    /**
+     * Only the values having a typed JDBC setter (see SQLQuestStatement). The datetime constants stay inlined,
+     * as their lexical values are dialect-specific.
+     */
+    private static boolean isParameterizable(DBConstant constant) {
+        String value = constant.getValue();
+        try {
+            switch (constant.getType().getCategory()) {
+                case STRING:
+                    return true;
+                case INTEGER:
+                    Long.parseLong(value);
+                    return true;
+                case DECIMAL:
+                    new BigDecimal(value);
+                    return true;
+                case FLOAT_DOUBLE:
+                    // E.g. NaN or INF
+                    return Double.isFinite(Double.parseDouble(value));
+                default:
+                    return false;
+            }
+        }
+        catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Replaces the markers by parameter markers and lists their values
+     */
+    public ParameterizedQuery resolve(String queryString) {
+        ImmutableList.Builder<DBConstant> parameters = ImmutableList.builder();
+        String newString = resolve(queryString, i -> {
+            parameters.add(constants.get(i));
+            return PARAMETER_MARKER;
+        });
+        return new ParameterizedQuery(newString, parameters.build());
+    }
+
+    /**
+     * Replaces the markers by the inline renderings of the constants
+     */
+    public String inline(String queryString) {
+        return resolve(queryString, inlineRenderings::get);
+    }
+
+    private String resolve(String queryString, IntFunction<String> markerReplacement) {
+        if (constants.isEmpty())
+            return queryString;
+
+        StringBuilder sb = new StringBuilder(queryString.length());
+        int start = 0;
+        int markerStart;
+        while ((markerStart = queryString.indexOf(markerPrefix, start)) >= 0) {
+            sb.append(queryString, start, markerStart);
+            int indexStart = markerStart + markerPrefix.length();
+            int end = queryString.indexOf(MARKER, indexStart);
+            sb.append(markerReplacement.apply(Integer.parseInt(queryString.substring(indexStart, end))));
+            start = end + 1;
+        }
+        sb.append(queryString, start, queryString.length());
+        return sb.toString();
+    }
+
+    public static class ParameterizedQuery {
+        private final String string;
+        private final ImmutableList<DBConstant> parameters;
+
+        private ParameterizedQuery(String string, ImmutableList<DBConstant> parameters) {
+            this.string = string;
+            this.parameters = parameters;
+        }
+
+        public String getString() {
+            return string;
+        }
+
+        public ImmutableList<DBConstant> getParameters() {
+            return parameters;
+        }
+    }
+}
@@ -11,4 +11,13 @@ public interface SQLTermSerializer {
 
     String serialize(ImmutableTerm term, ImmutableMap<Variable, QualifiedAttributeID> columnIDs)
             throws SQLSerializationException;
+
+    /**
+     * The literal values compared to other terms may be collected as parameters instead of being inlined.
+     * By default, they are all inlined.
+     */
+    default String serialize(ImmutableTerm term, ImmutableMap<Variable, QualifiedAttributeID> columnIDs,
+                             SQLParameterCollector parameterCollector) throws SQLSerializationException {
+        return serialize(term, columnIDs);
+    }
 }
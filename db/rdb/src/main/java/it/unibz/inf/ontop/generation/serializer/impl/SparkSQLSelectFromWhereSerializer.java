@@ -68,7 +68,7 @@ public class SparkSQLSelectFromWhereSerializer extends DefaultSelectFromWhereSer
 
                 // TODO: if selectFromWhere.getLimit is 0, then replace it with an additional filter 0 = 1
                 String whereString = selectFromWhere.getWhereExpression()
-                        .map(e -> sqlTermSerializer.serialize(e, columnIDs))
+                        .map(e -> serializeCondition(e, columnIDs))
                         .map(s -> String.format("WHERE %s\n", s))
                         .orElse("");
 
@@ -0,0 +1,119 @@
+package it.unibz.inf.ontop.generation.serializer.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.dbschema.QualifiedAttributeID;
+import it.unibz.inf.ontop.dbschema.QuotedIDFactory;
+import it.unibz.inf.ontop.dbschema.RelationID;
+import it.unibz.inf.ontop.dbschema.impl.PostgreSQLQuotedIDFactory;
+import it.unibz.inf.ontop.generation.serializer.SelectFromWhereSerializer;
+import it.unibz.inf.ontop.injection.OntopSQLCoreConfiguration;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.InequalityLabel;
+import it.unibz.inf.ontop.model.type.DBTypeFactory;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * With PostgreSQL, the type of a parameter must be inferable from the term it is compared to
+ */
+public class SQLParameterCollectorTest {
+
+    private static final OntopSQLCoreConfiguration CONFIGURATION = OntopSQLCoreConfiguration.defaultBuilder()
+            .jdbcDriver("org.postgresql.Driver")
+            .jdbcUrl("jdbc:fake://do.not.use/")
+            .build();
+
+    private static final TermFactory TERM_FACTORY = CONFIGURATION.getTermFactory();
+    private static final DBTypeFactory DB_TYPE_FACTORY = CONFIGURATION.getTypeFactory().getDBTypeFactory();
+    private static final SQLTermSerializer TERM_SERIALIZER = CONFIGURATION.getInjector()
+            .getInstance(SelectFromWhereSerializer.class)
+            .getTermSerializer();
+
+    private static final Variable X = TERM_FACTORY.getVariable("x");
+    private static final Variable Y = TERM_FACTORY.getVariable("y");
+
+    private static final ImmutableMap<Variable, QualifiedAttributeID> COLUMN_IDS;
+
+    static {
+        QuotedIDFactory idFactory = new PostgreSQLQuotedIDFactory();
+        RelationID table = idFactory.createRelationID("t");
+        COLUMN_IDS = ImmutableMap.of(
+                X, new QualifiedAttributeID(table, idFactory.createAttributeID("x")),
+                Y, new QualifiedAttributeID(table, idFactory.createAttributeID("y")));
+    }
+
+    @Test
+    public void testComparedValues() {
+        DBConstant name = TERM_FACTORY.getDBStringConstant("O'Brien");
+        DBConstant age = TERM_FACTORY.getDBIntegerConstant(30);
+        ImmutableExpression condition = TERM_FACTORY.getConjunction(
+                TERM_FACTORY.getStrictEquality(X, name),
+                TERM_FACTORY.getDBNumericInequality(InequalityLabel.GT, Y, age));
+
+        SQLParameterCollector.ParameterizedQuery query = serialize(condition);
+
+        assertEquals(ImmutableList.of(name, age), query.getParameters());
+        assertEquals(2, countParameterMarkers(query.getString()));
+        assertFalse(query.getString().contains("Brien"));
+        assertFalse(query.getString().contains("30"));
+    }
+
+    @Test
+    public void testFunctionArgumentInlined() {
+        ImmutableExpression condition = TERM_FACTORY.getDBStartsWith(
+                ImmutableList.of(X, TERM_FACTORY.getDBStringConstant("ab")));
+
+        SQLParameterCollector.ParameterizedQuery query = serialize(condition);
+
+        assertTrue(query.getParameters().isEmpty());
+        assertEquals(TERM_SERIALIZER.serialize(condition, COLUMN_IDS), query.getString());
+    }
+
+    @Test
+    public void testInlinedLiteralLookingLikeMarker() {
+        DBConstant name = TERM_FACTORY.getDBStringConstant("a\u00010\u0001b");
+        DBConstant prefix = TERM_FACTORY.getDBStringConstant("\u00010\u0001");
+        ImmutableExpression condition = TERM_FACTORY.getConjunction(
+                TERM_FACTORY.getStrictEquality(X, name),
+                TERM_FACTORY.getDBStartsWith(ImmutableList.of(Y, prefix)));
+
+        SQLParameterCollector.ParameterizedQuery query = serialize(condition);
+
+        assertEquals(ImmutableList.of(name), query.getParameters());
+        assertEquals(1, countParameterMarkers(query.getString()));
+        // The inlined literal is kept as is
+        assertTrue(query.getString().contains("\u00010\u0001"));
+    }
+
+    @Test
+    public void testNonFiniteValueInlined() {
+        ImmutableExpression condition = TERM_FACTORY.getDBNumericInequality(InequalityLabel.LT, Y,
+                TERM_FACTORY.getDBConstant("NaN", DB_TYPE_FACTORY.getDBDoubleType()));
+
+        SQLParameterCollector.ParameterizedQuery query = serialize(condition);
+
+        assertTrue(query.getParameters().isEmpty());
+        assertEquals(TERM_SERIALIZER.serialize(condition, COLUMN_IDS), query.getString());
+    }
+
+    @Test
+    public void testGroundComparisonInlined() {
+        ImmutableExpression condition = TERM_FACTORY.getStrictEquality(
+                TERM_FACTORY.getDBStringConstant("a"), TERM_FACTORY.getDBStringConstant("b"));
+
+        SQLParameterCollector.ParameterizedQuery query = serialize(condition);
+
+        assertTrue(query.getParameters().isEmpty());
+    }
+
+    private static SQLParameterCollector.ParameterizedQuery serialize(ImmutableExpression condition) {
+        SQLParameterCollector collector = new SQLParameterCollector();
+        return collector.resolve(TERM_SERIALIZER.serialize(condition, COLUMN_IDS, collector));
+    }
+
+    private static long countParameterMarkers(String sql) {
+        return sql.chars().filter(c -> c == '?').count();
+    }
+}
@@ -0,0 +1,22 @@
+package it.unibz.inf.ontop.answering.logging;
+
+/**
+ * Destination of the query log entries (one JSON object per entry).
+ *
+ * Shared by all the query loggers, therefore thread-safe.
+ */
+public interface QueryLogSink extends AutoCloseable {
+
+    void log(String entry);
+
+    /**
+     * Number of entries dropped because the buffer was full
+     */
+    long getDroppedEntryCount();
+
+    /**
+     * Writes the pending entries and releases the output
+     */
+    @Override
+    void close();
+}
@@ -24,6 +24,11 @@ public interface QueryLogger {
 
     void declareConversionException(InconsistentOntologyException e);
 
+    /**
+     * Duration of one phase of the query answering (see QueryPipelineMetrics for the phase names)
+     */
+    void declarePhaseDuration(String phase, long durationNanos);
+
     void setSparqlQuery(String sparqlQuery);
 
     void setSparqlIQ(IQ sparqlIQ);
@@ -0,0 +1,67 @@
+package it.unibz.inf.ontop.answering.logging.impl;
+
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.exception.OntopReformulationException;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.spec.ontology.InconsistentOntologyException;
+
+/**
+ * For the queries that are not issued by users (e.g. when warming up the query cache):
+ * neither logged nor measured.
+ */
+public class NoOpQueryLogger implements QueryLogger {
+
+    public static final QueryLogger INSTANCE = new NoOpQueryLogger();
+
+    private NoOpQueryLogger() {
+    }
+
+    @Override
+    public void declareReformulationFinishedAndSerialize(IQ reformulatedQuery, boolean wasCached) {
+    }
+
+    @Override
+    public void declareResultSetUnblockedAndSerialize() {
+    }
+
+    @Override
+    public void declareLastResultRetrievedAndSerialize(long rowCount) {
+    }
+
+    @Override
+    public void declareReformulationException(OntopReformulationException e) {
+    }
+
+    @Override
+    public void declareEvaluationException(Exception e) {
+    }
+
+    @Override
+    public void declareConnectionException(Exception e) {
+    }
+
+    @Override
+    public void declareConversionException(InconsistentOntologyException e) {
+    }
+
+    @Override
+    public void declarePhaseDuration(String phase, long durationNanos) {
+    }
+
+    @Override
+    public void setSparqlQuery(String sparqlQuery) {
+    }
+
+    @Override
+    public void setSparqlIQ(IQ sparqlIQ) {
+    }
+
+    @Override
+    public void setPlannedQuery(IQ plannedQuery) {
+    }
+
+    @Override
+    public void setPredefinedQuery(String queryId, ImmutableMap<String, String> bindings) {
+    }
+}
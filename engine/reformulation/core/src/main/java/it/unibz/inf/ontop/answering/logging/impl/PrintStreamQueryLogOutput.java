@@ -0,0 +1,30 @@
+package it.unibz.inf.ontop.answering.logging.impl;
+
+import java.io.PrintStream;
+
+/**
+ * The stream (e.g. the standard output) is not closed
+ */
+class PrintStreamQueryLogOutput implements QueryLogOutput {
+
+    private final PrintStream stream;
+
+    PrintStreamQueryLogOutput(PrintStream stream) {
+        this.stream = stream;
+    }
+
+    @Override
+    public void write(String entry) {
+        stream.println(entry);
+    }
+
+    @Override
+    public void flush() {
+        stream.flush();
+    }
+
+    @Override
+    public void close() {
+        stream.flush();
+    }
+}
@@ -0,0 +1,18 @@
+package it.unibz.inf.ontop.answering.logging.impl;
+
+import java.io.IOException;
+
+/**
+ * Not thread-safe: used by one thread at a time
+ */
+interface QueryLogOutput {
+
+    /**
+     * Writes the entry followed by a line separator
+     */
+    void write(String entry) throws IOException;
+
+    void flush() throws IOException;
+
+    void close() throws IOException;
+}
@@ -0,0 +1,223 @@
+package it.unibz.inf.ontop.answering.logging.impl;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.logging.QueryLogSink;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings.QueryLoggingOverflowPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes the query log entries on the standard output or in a (rolling) file.
+ *
+ * In the asynchronous mode, the query threads only add the entries to a lock-free bounded buffer,
+ * which is drained by a dedicated writer thread. The writer flushes the output after each batch.
+ * When the buffer is full, the entry is either dropped or the query thread waits, depending on the overflow policy.
+ *
+ * In the synchronous mode, the entry is written and flushed by the query thread.
+ */
+@Singleton
+public class QueryLogSinkImpl implements QueryLogSink {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryLogSinkImpl.class);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FULL_BUFFER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long CLOSING_TIMEOUT_MS = 5000;
+
+    // Null when the query logging is disabled
+    @Nullable
+    private final QueryLogOutput output;
+    @Nullable
+    private final BoundedRingBuffer<String> buffer;
+    @Nullable
+    private final Thread writerThread;
+    private final QueryLoggingOverflowPolicy overflowPolicy;
+    private final int batchSize;
+    // Only for the sinks created by Guice. Removed on close.
+    @Nullable
+    private Thread shutdownHook;
+
+    private final AtomicLong droppedEntryCount = new AtomicLong();
+    private volatile boolean isWriterIdle = false;
+    private volatile boolean closed = false;
+
+    @Inject
+    private QueryLogSinkImpl(OntopReformulationSettings settings) throws IOException {
+        this(settings.isQueryLoggingEnabled() ? createOutput(settings) : null,
+                settings.isQueryLoggingAsync(),
+                settings.getQueryLoggingBufferSize(),
+                settings.getQueryLoggingOverflowPolicy(),
+                settings.getQueryLoggingBatchSize());
+
+        // In case the query engine is not closed
+        if (writerThread != null) {
+            shutdownHook = new Thread(this::close, "ontop-query-log-shutdown");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }
+    }
+
+    /**
+     * Synchronous
+     */
+    QueryLogSinkImpl(QueryLogOutput output) {
+        this(output, false, 0, QueryLoggingOverflowPolicy.BLOCK, 1);
+    }
+
+    QueryLogSinkImpl(@Nullable QueryLogOutput output, boolean isAsync, int bufferSize,
+                     QueryLoggingOverflowPolicy overflowPolicy, int batchSize) {
+        this.output = output;
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = Math.max(1, batchSize);
+
+        if (output != null && isAsync) {
+            buffer = new BoundedRingBuffer<>(bufferSize);
+            writerThread = new Thread(this::drain, "ontop-query-log-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        }
+        else {
+            buffer = null;
+            writerThread = null;
+        }
+    }
+
+    private static QueryLogOutput createOutput(OntopReformulationSettings settings) throws IOException {
+        return settings.getQueryLoggingFile().isPresent()
+                ? RollingFileQueryLogOutput.acquire(Paths.get(settings.getQueryLoggingFile().get()),
+                        settings.getQueryLoggingFileMaxSize(), settings.getQueryLoggingFileMaxBackups())
+                : new PrintStreamQueryLogOutput(System.out);
+    }
+
+    @Override
+    public void log(String entry) {
+        if (output == null || closed)
+            return;
+
+        if (buffer == null) {
+            synchronized (output) {
+                write(entry);
+                flush();
+            }
+            return;
+        }
+
+        while (!buffer.offer(entry)) {
+            if (overflowPolicy == QueryLoggingOverflowPolicy.DROP || closed) {
+                long count = droppedEntryCount.incrementAndGet();
+                // Logs the 1st, 2nd, 4th, 8th... dropped entry
+                if (Long.bitCount(count) == 1)
+                    LOGGER.warn("The query log buffer is full: {} entries dropped so far", count);
+                return;
+            }
+            wakeUpWriter();
+            LockSupport.parkNanos(this, FULL_BUFFER_PARK_NANOS);
+        }
+        if (isWriterIdle)
+            wakeUpWriter();
+    }
+
+    private void wakeUpWriter() {
+        LockSupport.unpark(writerThread);
+    }
+
+    /**
+     * Loop of the writer thread
+     */
+    private void drain() {
+        while (true) {
+            int count = writeBatch();
+            if (count > 0)
+                continue;
+
+            if (closed) {
+                // Last entries
+                while (writeBatch() > 0);
+                return;
+            }
+
+            isWriterIdle = true;
+            // Re-checks after having declared itself idle, so that a new entry is not left waiting
+            if (buffer.isEmpty())
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            isWriterIdle = false;
+        }
+    }
+
+    private int writeBatch() {
+        int count = 0;
+        String entry;
+        while (count < batchSize && (entry = buffer.poll()) != null) {
+            write(entry);
+            count++;
+        }
+        if (count > 0)
+            flush();
+        return count;
+    }
+
+    private void write(String entry) {
+        try {
+            output.write(entry);
+        }
+        catch (IOException e) {
+            LOGGER.error("Could not write a query log entry: {}", e.getMessage());
+        }
+    }
+
+    private void flush() {
+        try {
+            output.flush();
+        }
+        catch (IOException e) {
+            LOGGER.error("Could not flush the query log: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public long getDroppedEntryCount() {
+        return droppedEntryCount.get();
+    }
+
+    @Override
+    public void close() {
+        if (output == null || closed)
+            return;
+        closed = true;
+
+        if (shutdownHook != null && Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            }
+            // The JVM is already shutting down
+            catch (IllegalStateException ignored) {
+            }
+        }
+
+        if (writerThread != null) {
+            wakeUpWriter();
+            try {
+                writerThread.join(CLOSING_TIMEOUT_MS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized (output) {
+            try {
+                output.close();
+            }
+            catch (IOException e) {
+                LOGGER.error("Could not close the query log: {}", e.getMessage());
+            }
+        }
+    }
+}
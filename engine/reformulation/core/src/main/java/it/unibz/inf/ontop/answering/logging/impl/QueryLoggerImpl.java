@@ -7,10 +7,12 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.hash.Hashing;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.answering.logging.QueryLogSink;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.answering.logging.impl.ClassAndPropertyExtractor.ClassesAndProperties;
 import it.unibz.inf.ontop.answering.logging.impl.QueryTemplateExtractor.QueryTemplateExtraction;
 import it.unibz.inf.ontop.evaluator.impl.QueryContextImpl;
+import it.unibz.inf.ontop.evaluator.metrics.QueryPipelineMetrics;
 import it.unibz.inf.ontop.exception.OntopReformulationException;
 import it.unibz.inf.ontop.injection.OntopReformulationSettings;
 import it.unibz.inf.ontop.iq.IQ;
@@ -26,9 +28,9 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
-import java.sql.Timestamp;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
@@ -78,13 +80,17 @@ public class QueryLoggerImpl implements QueryLogger {
     protected static final String ROLES_KEY = "roles";
 
 
-    private static final DateFormat  DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
+    // Thread-safe
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX")
+            .withZone(ZoneId.systemDefault());
     private static final Logger REGULAR_LOGGER = LoggerFactory.getLogger(QueryLoggerImpl.class);
 
 
     private final UUID queryId;
     private final long creationTime;
-    private final PrintStream outputStream;
+    private final long creationNanoTime;
+    private final QueryLogSink sink;
+    private final QueryPipelineMetrics metrics;
     private final ImmutableMap<String, String> httpHeaders;
     private final OntopReformulationSettings settings;
     private final boolean disabled;
@@ -94,6 +100,8 @@ public class QueryLoggerImpl implements QueryLogger {
     private final boolean isMergingEnabled;
     private long reformulationTime;
     private long unblockedResulSetTime;
+    private long reformulationNanoTime;
+    private long unblockedResultSetNanoTime;
     private final ClassAndPropertyExtractor classAndPropertyExtractor;
     private final RelationNameExtractor relationNameExtractor;
     private final QueryTemplateExtractor queryTemplateExtractor;
@@ -106,6 +114,10 @@ public class QueryLoggerImpl implements QueryLogger {
     @Nullable
     private String sparqlQueryString;
 
+    // For the query metrics
+    @Nullable
+    private String templateLabel;
+
     @Nullable
     private QueryTemplateExtraction queryTemplate;
 
@@ -125,15 +137,31 @@ public class QueryLoggerImpl implements QueryLogger {
                               OntopReformulationSettings settings,
                               ClassAndPropertyExtractor classAndPropertyExtractor,
                               RelationNameExtractor relationNameExtractor,
-                              QueryTemplateExtractor queryTemplateExtractor) {
-        this(System.out, httpHeaders, settings, classAndPropertyExtractor, relationNameExtractor, queryTemplateExtractor);
+                              QueryTemplateExtractor queryTemplateExtractor,
+                              QueryLogSink sink,
+                              QueryPipelineMetrics metrics) {
+        this(sink, httpHeaders, settings, classAndPropertyExtractor, relationNameExtractor, queryTemplateExtractor, metrics);
     }
 
+    /**
+     * Writes synchronously on the output stream
+     */
     protected QueryLoggerImpl(PrintStream outputStream, ImmutableMap<String, String> httpHeaders,
                               OntopReformulationSettings settings,
                               ClassAndPropertyExtractor classAndPropertyExtractor,
-                              RelationNameExtractor relationNameExtractor, QueryTemplateExtractor queryTemplateExtractor) {
-        this.outputStream = outputStream;
+                              RelationNameExtractor relationNameExtractor, QueryTemplateExtractor queryTemplateExtractor,
+                              QueryPipelineMetrics metrics) {
+        this(new QueryLogSinkImpl(new PrintStreamQueryLogOutput(outputStream)), httpHeaders, settings,
+                classAndPropertyExtractor, relationNameExtractor, queryTemplateExtractor, metrics);
+    }
+
+    protected QueryLoggerImpl(QueryLogSink sink, ImmutableMap<String, String> httpHeaders,
+                              OntopReformulationSettings settings,
+                              ClassAndPropertyExtractor classAndPropertyExtractor,
+                              RelationNameExtractor relationNameExtractor, QueryTemplateExtractor queryTemplateExtractor,
+                              QueryPipelineMetrics metrics) {
+        this.sink = sink;
+        this.metrics = metrics;
         this.httpHeaders = httpHeaders;
         this.settings = settings;
         this.classAndPropertyExtractor = classAndPropertyExtractor;
@@ -141,9 +169,12 @@ public class QueryLoggerImpl implements QueryLogger {
         this.queryTemplateExtractor = queryTemplateExtractor;
         this.queryId = UUID.randomUUID();
         creationTime = System.currentTimeMillis();
+        creationNanoTime = System.nanoTime();
         applicationName = settings.getApplicationName();
         reformulationTime = -1;
         unblockedResulSetTime = -1;
+        reformulationNanoTime = -1;
+        unblockedResultSetNanoTime = -1;
         jsonFactory = new JsonFactory();
 
         this.disabled = !settings.isQueryLoggingEnabled();
@@ -153,6 +184,9 @@ public class QueryLoggerImpl implements QueryLogger {
 
     @Override
     public void declareReformulationFinishedAndSerialize(IQ reformulatedQuery, boolean wasCached) {
+        if (metrics.isEnabled())
+            reformulationNanoTime = System.nanoTime();
+
         if (disabled)
             return;
 
@@ -173,7 +207,7 @@ public class QueryLoggerImpl implements QueryLogger {
             } catch (IOException ex) {
                 REGULAR_LOGGER.error(OUTPUT_STREAM_JSON_ERROR + ex);
             }
-            outputStream.println(stringWriter);
+            sink.log(stringWriter.toString());
         }
 
         if (isMergingEnabled) {
@@ -286,6 +320,13 @@ public class QueryLoggerImpl implements QueryLogger {
 
     @Override
     public void declareResultSetUnblockedAndSerialize() {
+        if (metrics.isEnabled()) {
+            unblockedResultSetNanoTime = System.nanoTime();
+            // For DESCRIBE, reformulation time is not provided
+            long executionStart = reformulationNanoTime != -1 ? reformulationNanoTime : creationNanoTime;
+            metrics.record(QueryPipelineMetrics.TIME_TO_FIRST_ROW, templateLabel, unblockedResultSetNanoTime - executionStart);
+        }
+
         if (disabled)
             return;
         unblockedResulSetTime = System.currentTimeMillis();
@@ -307,7 +348,7 @@ public class QueryLoggerImpl implements QueryLogger {
                 REGULAR_LOGGER.error(OUTPUT_STREAM_JSON_ERROR + e);
                 return;
             }
-            outputStream.println(stringWriter);
+            sink.log(stringWriter.toString());
         }
     }
 
@@ -319,6 +360,9 @@ public class QueryLoggerImpl implements QueryLogger {
 
     @Override
     public void declareLastResultRetrievedAndSerialize(long resultCount) {
+        if (metrics.isEnabled() && unblockedResultSetNanoTime != -1)
+            metrics.record(QueryPipelineMetrics.ROW_FETCH, templateLabel, System.nanoTime() - unblockedResultSetNanoTime);
+
         if (disabled)
             return;
 
@@ -342,7 +386,7 @@ public class QueryLoggerImpl implements QueryLogger {
             } catch (IOException e) {
                 REGULAR_LOGGER.error(OUTPUT_STREAM_JSON_ERROR + e);
             }
-            outputStream.println(stringWriter);
+            sink.log(stringWriter.toString());
         }
 
         if (isMergingEnabled) {
@@ -378,8 +422,16 @@ public class QueryLoggerImpl implements QueryLogger {
         declareException(e, CONVERSION_EXC_MSG);
     }
 
+    @Override
+    public void declarePhaseDuration(String phase, long durationNanos) {
+        metrics.record(phase, templateLabel, durationNanos);
+    }
+
     @Override
     public void setSparqlQuery(String sparqlQuery) {
+        if (metrics.isEnabled())
+            templateLabel = metrics.getTemplateLabel(sparqlQuery);
+
         if (disabled || (!settings.isSparqlQueryIncludedIntoQueryLog()))
             return;
 
@@ -446,11 +498,11 @@ public class QueryLoggerImpl implements QueryLogger {
         } catch (IOException ex) {
             REGULAR_LOGGER.error(OUTPUT_STREAM_JSON_ERROR + ex);
         }
-        outputStream.println(stringWriter);
+        sink.log(stringWriter.toString());
     }
 
     protected String serializeTimestamp(long time) {
-        return DATE_FORMAT.format(new Timestamp(time));
+        return DATE_FORMAT.format(Instant.ofEpochMilli(time));
     }
 
     /**
@@ -475,6 +527,6 @@ public class QueryLoggerImpl implements QueryLogger {
         } catch (IOException e) {
             REGULAR_LOGGER.error(OUTPUT_STREAM_JSON_ERROR + e);
         }
-        outputStream.println(stringWriter);
+        sink.log(stringWriter.toString());
     }
 }
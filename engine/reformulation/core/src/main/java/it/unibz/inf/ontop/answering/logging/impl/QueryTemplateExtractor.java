@@ -50,9 +50,18 @@ public class QueryTemplateExtractor {
         this.settings = settings;
     }
 
-    Optional<QueryTemplateExtraction> extract(IQ iq) {
+    public Optional<QueryTemplateExtraction> extract(IQ iq) {
+        return extractTemplateTree(iq.getTree())
+                .map(e -> new QueryTemplateExtraction(
+                        iqFactory.createIQ(iq.getProjectionAtom(), e.getKey()),
+                        e.getValue()));
+    }
 
-        IQTree initialIQTree = iq.getTree();
+    /**
+     * Does not build an IQ, as the template tree may project the parameter variables
+     * (which is rejected by the IQ validation in test mode).
+     */
+    public Optional<Map.Entry<IQTree, ImmutableMap<GroundTerm, Variable>>> extractTemplateTree(IQTree initialIQTree) {
         QueryTemplateTransformer transformer = new QueryTemplateTransformer(coreSingletons,
                 initialIQTree.getKnownVariables(), settings);
 
@@ -62,9 +71,7 @@ public class QueryTemplateExtractor {
         if (parameterMap.isEmpty())
             return Optional.empty();
 
-        return Optional.of(new QueryTemplateExtraction(
-                iqFactory.createIQ(iq.getProjectionAtom(), newTree),
-                parameterMap));
+        return Optional.of(Maps.immutableEntry(newTree, parameterMap));
     }
 
 
@@ -0,0 +1,126 @@
+package it.unibz.inf.ontop.answering.logging.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Appends the entries to a file. When the file exceeds its maximum size, it is renamed into file.1
+ * (file.1 into file.2 and so on, up to the maximum number of backups) and a new file is started.
+ *
+ * One output per file, shared by the sinks writing to it (e.g. by the previous and the new query engine
+ * while a repository is being reloaded), hence thread-safe. The file is closed when all of them are closed.
+ * The rolling parameters of the first sink apply.
+ */
+class RollingFileQueryLogOutput implements QueryLogOutput {
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    // Absolute path -> output
+    private static final Map<Path, RollingFileQueryLogOutput> OUTPUTS = new HashMap<>();
+
+    private final Path file;
+    private final long maxSize;
+    private final int maxBackups;
+
+    private OutputStream outputStream;
+    private long size;
+    // Guarded by OUTPUTS
+    private int references = 0;
+
+    /**
+     * Rolling is disabled if maxSize is equal to 0
+     */
+    static RollingFileQueryLogOutput acquire(Path file, long maxSize, int maxBackups) throws IOException {
+        Path absolutePath = file.toAbsolutePath().normalize();
+        synchronized (OUTPUTS) {
+            RollingFileQueryLogOutput output = OUTPUTS.get(absolutePath);
+            if (output == null) {
+                output = new RollingFileQueryLogOutput(absolutePath, maxSize, maxBackups);
+                OUTPUTS.put(absolutePath, output);
+            }
+            output.references++;
+            return output;
+        }
+    }
+
+    private RollingFileQueryLogOutput(Path file, long maxSize, int maxBackups) throws IOException {
+        this.file = file;
+        this.maxSize = maxSize;
+        this.maxBackups = maxBackups;
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        open();
+    }
+
+    private void open() throws IOException {
+        outputStream = new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+        size = Files.size(file);
+    }
+
+    @Override
+    public synchronized void write(String entry) throws IOException {
+        byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+        long entrySize = bytes.length + LINE_SEPARATOR.length;
+        if (maxSize > 0 && size > 0 && size + entrySize > maxSize)
+            roll();
+
+        outputStream.write(bytes);
+        outputStream.write(LINE_SEPARATOR);
+        size += entrySize;
+    }
+
+    private void roll() throws IOException {
+        outputStream.close();
+        if (maxBackups > 0) {
+            for (int i = maxBackups - 1; i > 0; i--) {
+                Path backup = getBackup(i);
+                if (Files.exists(backup))
+                    Files.move(backup, getBackup(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(file, getBackup(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        else
+            Files.delete(file);
+        open();
+    }
+
+    private Path getBackup(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        outputStream.flush();
+    }
+
+    /**
+     * Only closes the file once all the sinks sharing this output have closed it
+     */
+    @Override
+    public void close() throws IOException {
+        boolean isLastReference;
+        // Does not lock the output while holding OUTPUTS (the sinks may lock the output before closing it)
+        synchronized (OUTPUTS) {
+            isLastReference = (--references == 0);
+            if (isLastReference)
+                OUTPUTS.remove(file);
+        }
+        synchronized (this) {
+            if (isLastReference)
+                outputStream.close();
+            else
+                outputStream.flush();
+        }
+    }
+}
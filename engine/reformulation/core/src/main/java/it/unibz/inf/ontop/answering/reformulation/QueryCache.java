@@ -1,9 +1,13 @@
 package it.unibz.inf.ontop.answering.reformulation;
 
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.evaluator.QueryContext;
+import it.unibz.inf.ontop.exception.OntopReformulationException;
 import it.unibz.inf.ontop.query.KGQuery;
 import it.unibz.inf.ontop.iq.IQ;
 
+import java.util.Map;
+
 /**
  * Cache of queries.
  *
@@ -15,5 +19,26 @@ public interface QueryCache {
 
     void put(KGQuery<?> inputQuery, QueryContext queryContext, IQ executableQuery);
 
+    /**
+     * Returns the cached query, or reformulates it and caches the result.
+     *
+     * The reformulation of a given query is performed by only one thread at a time: the other threads
+     * requesting the same query wait for its result (or its exception). Failures are not cached.
+     */
+    IQ computeIfAbsent(KGQuery<?> inputQuery, QueryContext queryContext, Reformulation reformulation)
+            throws OntopReformulationException;
+
     void clear();
+
+    /**
+     * Input queries and query contexts of the cached queries, by decreasing number of uses.
+     *
+     * Useful for warming up the cache of another query reformulator (e.g. after reloading the specification).
+     */
+    ImmutableList<Map.Entry<KGQuery<?>, QueryContext>> getMostUsedQueries(int maxCount);
+
+    @FunctionalInterface
+    interface Reformulation {
+        IQ reformulate() throws OntopReformulationException;
+    }
 }
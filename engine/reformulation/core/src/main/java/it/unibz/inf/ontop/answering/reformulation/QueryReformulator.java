@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.answering.reformulation;
 
+import com.google.common.collect.ImmutableList;
 
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.evaluator.QueryContext;
@@ -8,6 +9,8 @@ import it.unibz.inf.ontop.query.KGQueryFactory;
 import it.unibz.inf.ontop.exception.OntopReformulationException;
 import it.unibz.inf.ontop.iq.IQ;
 
+import java.util.Map;
+
 /**
  * See ReformulationFactory for creating a new instance.
  */
@@ -25,4 +28,16 @@ public interface QueryReformulator {
     QueryLogger.Factory getQueryLoggerFactory();
 
     QueryContext.Factory getQueryContextFactory();
+
+    /**
+     * Most used queries of the query cache (see QueryCache.getMostUsedQueries())
+     */
+    ImmutableList<Map.Entry<KGQuery<?>, QueryContext>> getMostUsedCachedQueries(int maxCount);
+
+    /**
+     * Reformulates the query and caches the result, without logging it.
+     *
+     * Useful for warming up the query cache (e.g. with the most used queries of a previous reformulator).
+     */
+    void warmUp(KGQuery<?> inputQuery, QueryContext queryContext) throws OntopReformulationException;
 }
@@ -0,0 +1,46 @@
+package it.unibz.inf.ontop.answering.reformulation;
+
+import it.unibz.inf.ontop.evaluator.QueryContext;
+import it.unibz.inf.ontop.exception.OntopReformulationException;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
+
+import java.util.Optional;
+
+/**
+ * Cache of executable queries at the level of query templates, i.e. queries where
+ * the ground terms have been lifted as parameters.
+ *
+ * Queries only differing in their constants share the same template: on a hit, the cached executable query
+ * is re-bound to the constants of the new query.
+ *
+ * Mutable class.
+ *
+ */
+public interface QueryTemplateCache {
+
+    /**
+     * The SPARQL IQ is the query obtained after translating the input query (before rewriting)
+     */
+    Optional<IQ> get(IQ sparqlIQ, QueryContext queryContext);
+
+    /**
+     * The reformulator is used for verifying the template before reusing it
+     * (e.g. by reformulating it with other values).
+     */
+    void put(IQ sparqlIQ, QueryContext queryContext, IQ executableQuery, Reformulator reformulator);
+
+    long getHitCount();
+
+    long getMissCount();
+
+    void clear();
+
+    /**
+     * From the SPARQL IQ to the executable query
+     */
+    @FunctionalInterface
+    interface Reformulator {
+        IQ reformulate(IQ sparqlIQ) throws OntopReformulationException, EmptyQueryException;
+    }
+}
@@ -1,10 +1,14 @@
 package it.unibz.inf.ontop.answering.reformulation.impl;
 
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.evaluator.QueryContext;
+import it.unibz.inf.ontop.exception.OntopReformulationException;
 import it.unibz.inf.ontop.query.KGQuery;
 import it.unibz.inf.ontop.answering.reformulation.QueryCache;
 import it.unibz.inf.ontop.iq.IQ;
 
+import java.util.Map;
+
 /**
  * Does not cache anything.
  */
@@ -19,7 +23,18 @@ public class DummyQueryCache implements QueryCache {
     public void put(KGQuery<?> inputQuery, QueryContext queryContext, IQ executableQuery) {
     }
 
+    @Override
+    public IQ computeIfAbsent(KGQuery<?> inputQuery, QueryContext queryContext, Reformulation reformulation)
+            throws OntopReformulationException {
+        return reformulation.reformulate();
+    }
+
     @Override
     public void clear() {
     }
+
+    @Override
+    public ImmutableList<Map.Entry<KGQuery<?>, QueryContext>> getMostUsedQueries(int maxCount) {
+        return ImmutableList.of();
+    }
 }
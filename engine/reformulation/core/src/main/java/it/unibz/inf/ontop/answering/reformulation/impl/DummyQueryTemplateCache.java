@@ -0,0 +1,36 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import it.unibz.inf.ontop.answering.reformulation.QueryTemplateCache;
+import it.unibz.inf.ontop.evaluator.QueryContext;
+import it.unibz.inf.ontop.iq.IQ;
+
+import java.util.Optional;
+
+/**
+ * Does not cache anything.
+ */
+public class DummyQueryTemplateCache implements QueryTemplateCache {
+
+    @Override
+    public Optional<IQ> get(IQ sparqlIQ, QueryContext queryContext) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void put(IQ sparqlIQ, QueryContext queryContext, IQ executableQuery, Reformulator reformulator) {
+    }
+
+    @Override
+    public long getHitCount() {
+        return 0;
+    }
+
+    @Override
+    public long getMissCount() {
+        return 0;
+    }
+
+    @Override
+    public void clear() {
+    }
+}
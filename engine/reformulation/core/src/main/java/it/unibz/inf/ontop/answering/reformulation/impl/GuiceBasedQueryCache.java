@@ -2,16 +2,25 @@ package it.unibz.inf.ontop.answering.reformulation.impl;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.inject.Inject;
 import it.unibz.inf.ontop.evaluator.QueryContext;
+import it.unibz.inf.ontop.exception.OntopReformulationException;
 import it.unibz.inf.ontop.query.KGQuery;
 import it.unibz.inf.ontop.answering.reformulation.QueryCache;
 import it.unibz.inf.ontop.injection.OntopReformulationSettings;
 import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import javax.annotation.Nullable;
+import java.util.Comparator;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Takes into account the full query context.
@@ -19,7 +28,7 @@ import java.util.Map;
  */
 public class GuiceBasedQueryCache implements QueryCache {
 
-    private final Cache<Map.Entry<KGQuery<?>, QueryContext>, IQ> cache;
+    private final Cache<Map.Entry<KGQuery<?>, QueryContext>, CachedQuery> cache;
 
     @Inject
     private GuiceBasedQueryCache(OntopReformulationSettings settings) {
@@ -31,16 +40,70 @@ public class GuiceBasedQueryCache implements QueryCache {
     @Nullable
     @Override
     public IQ get(KGQuery<?> inputQuery, QueryContext queryContext) {
-        return cache.getIfPresent(Maps.immutableEntry(inputQuery, queryContext));
+        CachedQuery cachedQuery = cache.getIfPresent(Maps.immutableEntry(inputQuery, queryContext));
+        return cachedQuery == null ? null : cachedQuery.use();
     }
 
     @Override
     public void put(KGQuery<?> inputQuery, QueryContext queryContext, IQ executableQuery) {
-        cache.put(Maps.immutableEntry(inputQuery, queryContext), executableQuery);
+        cache.put(Maps.immutableEntry(inputQuery, queryContext), new CachedQuery(executableQuery));
+    }
+
+    @Override
+    public IQ computeIfAbsent(KGQuery<?> inputQuery, QueryContext queryContext, Reformulation reformulation)
+            throws OntopReformulationException {
+        try {
+            // Guava blocks the concurrent loads of the same key until the first one completes
+            return cache.get(Maps.immutableEntry(inputQuery, queryContext),
+                    () -> new CachedQuery(reformulation.reformulate()))
+                    .use();
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof OntopReformulationException)
+                throw (OntopReformulationException) cause;
+            throw new OntopReformulationException((Exception) cause);
+        }
+        catch (UncheckedExecutionException | ExecutionError e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        }
     }
 
     @Override
     public void clear() {
         cache.invalidateAll();
     }
+
+    @Override
+    public ImmutableList<Map.Entry<KGQuery<?>, QueryContext>> getMostUsedQueries(int maxCount) {
+        return cache.asMap().entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<Map.Entry<KGQuery<?>, QueryContext>, CachedQuery> e) -> e.getValue().getUses())
+                        .reversed())
+                .limit(maxCount)
+                .map(Map.Entry::getKey)
+                .collect(ImmutableCollectors.toList());
+    }
+
+    /**
+     * Executable query and its number of uses
+     */
+    private static class CachedQuery {
+        private final IQ executableQuery;
+        private final LongAdder uses = new LongAdder();
+
+        CachedQuery(IQ executableQuery) {
+            this.executableQuery = executableQuery;
+        }
+
+        IQ use() {
+            uses.increment();
+            return executableQuery;
+        }
+
+        long getUses() {
+            return uses.sum();
+        }
+    }
 }
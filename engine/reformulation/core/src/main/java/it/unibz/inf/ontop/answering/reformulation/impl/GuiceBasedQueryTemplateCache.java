@@ -0,0 +1,296 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Inject;
+import it.unibz.inf.ontop.answering.logging.impl.QueryTemplateExtractor;
+import it.unibz.inf.ontop.answering.reformulation.QueryTemplateCache;
+import it.unibz.inf.ontop.evaluator.QueryContext;
+import it.unibz.inf.ontop.exception.OntopReformulationException;
+import it.unibz.inf.ontop.injection.CoreSingletons;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.substitution.Substitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.CoreUtilsFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Lifts the ground terms (IRIs and literals) of the SPARQL IQ as parameters, using the QueryTemplateExtractor.
+ *
+ * For IRIs, only the local part (after the last '/' or '#') is lifted, the namespace remains part of the template.
+ * Only values made of letters, digits, '_', '-' and '.' are lifted, so that re-binding them
+ * never requires any escaping in the native query.
+ *
+ * A template is only reused once verified: it is instantiated with fresh values (not appearing in the query)
+ * and reformulated. The resulting executable query must be structurally equal to the one obtained
+ * by re-binding the executable query of the first query to these fresh values.
+ * Otherwise, the template is rejected for good and its queries are fully reformulated.
+ */
+public class GuiceBasedQueryTemplateCache implements QueryTemplateCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GuiceBasedQueryTemplateCache.class);
+    private static final Pattern LIFTABLE_VALUE = Pattern.compile("[\\p{Alnum}_\\-.]+");
+    private static final Pattern DIGITS = Pattern.compile("\\p{Digit}+");
+    private static final String FRESH_WORD_PREFIX = "ontopfreshvalue";
+    private static final String FRESH_NUMBER_PREFIX = "918273645";
+
+    private final Cache<TemplateKey, TemplateEntry> cache;
+    private final QueryTemplateExtractor templateExtractor;
+    private final ReferenceValueReplacer valueReplacer;
+    private final IntermediateQueryFactory iqFactory;
+    private final TermFactory termFactory;
+    private final SubstitutionFactory substitutionFactory;
+    private final CoreUtilsFactory coreUtilsFactory;
+    private final LongAdder hitCount;
+    private final LongAdder missCount;
+
+    @Inject
+    private GuiceBasedQueryTemplateCache(OntopReformulationSettings settings, QueryTemplateExtractor templateExtractor,
+                                         ReferenceValueReplacer valueReplacer, CoreSingletons coreSingletons) {
+        this.templateExtractor = templateExtractor;
+        this.valueReplacer = valueReplacer;
+        this.iqFactory = coreSingletons.getIQFactory();
+        this.termFactory = coreSingletons.getTermFactory();
+        this.substitutionFactory = coreSingletons.getSubstitutionFactory();
+        this.coreUtilsFactory = coreSingletons.getCoreUtilsFactory();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(settings.getQueryTemplateCacheMaxSize())
+                .build();
+        this.hitCount = new LongAdder();
+        this.missCount = new LongAdder();
+    }
+
+    @Override
+    public Optional<IQ> get(IQ sparqlIQ, QueryContext queryContext) {
+        Optional<IQ> executableQuery = parameterize(sparqlIQ, queryContext)
+                .flatMap(p -> Optional.ofNullable(cache.getIfPresent(p.key))
+                        .filter(e -> e.status == TemplateStatus.VERIFIED)
+                        .flatMap(e -> valueReplacer.replace(e.executableQuery, e.values, p.values)));
+
+        if (executableQuery.isPresent())
+            hitCount.increment();
+        else
+            missCount.increment();
+        return executableQuery;
+    }
+
+    @Override
+    public void put(IQ sparqlIQ, QueryContext queryContext, IQ executableQuery, Reformulator reformulator) {
+        if (!valueReplacer.isApplicable(executableQuery))
+            return;
+
+        Optional<Parameterization> parameterization = parameterize(sparqlIQ, queryContext);
+        if (parameterization.isEmpty() || (cache.getIfPresent(parameterization.get().key) != null))
+            return;
+
+        Parameterization p = parameterization.get();
+        // NB: concurrent verifications of the same template are harmless (deterministic results)
+        cache.asMap().putIfAbsent(p.key, isVerified(p, executableQuery, reformulator)
+                ? new TemplateEntry(TemplateStatus.VERIFIED, executableQuery, p.values)
+                : new TemplateEntry(TemplateStatus.REJECTED, null, p.values));
+    }
+
+    /**
+     * Compares the reformulation of the template instantiated with fresh values with the executable query
+     * re-bound to these fresh values.
+     *
+     * Fresh values do not match any constant of the specification, so that any dependency of
+     * the executable query on the values of the first query shows up as a structural difference.
+     */
+    private boolean isVerified(Parameterization p, IQ executableQuery, Reformulator reformulator) {
+        ImmutableList<String> freshValues = IntStream.range(0, p.values.size())
+                .mapToObj(i -> (DIGITS.matcher(p.values.get(i)).matches() ? FRESH_NUMBER_PREFIX : FRESH_WORD_PREFIX) + i)
+                .collect(ImmutableCollectors.toList());
+        if (freshValues.stream().anyMatch(p.values::contains))
+            return false;
+
+        Optional<IQ> reboundQuery = valueReplacer.replace(executableQuery, p.values, freshValues);
+        if (reboundQuery.isEmpty())
+            return false;
+
+        try {
+            IQ freshExecutableQuery = reformulator.reformulate(instantiate(p, freshValues));
+            if (freshExecutableQuery.equals(reboundQuery.get())) {
+                LOGGER.debug("Query template verified:\n{}\n", p.key.templateTree);
+                return true;
+            }
+            LOGGER.debug("Query template rejected (its values cannot be re-bound):\n{}\n", p.key.templateTree);
+        }
+        catch (OntopReformulationException | EmptyQueryException | RuntimeException e) {
+            LOGGER.debug("Query template rejected (not reformulated with fresh values):\n{}\n{}",
+                    p.key.templateTree, e.getMessage());
+        }
+        return false;
+    }
+
+    private IQ instantiate(Parameterization p, ImmutableList<String> values) {
+        Substitution<GroundTerm> substitution = IntStream.range(0, values.size())
+                .boxed()
+                .collect(substitutionFactory.toSubstitution(
+                        p.parameters::get,
+                        i -> createGroundTerm(p.groundTerms.get(i), values.get(i))));
+
+        IQTree templateTree = p.key.templateTree;
+        IQTree newTree = templateTree.applyDescendingSubstitutionWithoutOptimizing(substitution,
+                coreUtilsFactory.createVariableGenerator(templateTree.getKnownVariables()));
+        return iqFactory.createIQ(p.key.projectionAtom, newTree);
+    }
+
+    /**
+     * Same namespace (for IRIs) or datatype (for literals) as the initial ground term, but with another value
+     */
+    private GroundTerm createGroundTerm(GroundTerm initialGroundTerm, String value) {
+        if (initialGroundTerm instanceof IRIConstant) {
+            String iriString = ((IRIConstant) initialGroundTerm).getIRI().getIRIString();
+            int index = Math.max(iriString.lastIndexOf('/'), iriString.lastIndexOf('#'));
+            return termFactory.getConstantIRI(iriString.substring(0, index + 1) + value);
+        }
+        return termFactory.getRDFLiteralConstant(value, ((RDFLiteralConstant) initialGroundTerm).getType());
+    }
+
+    private Optional<Parameterization> parameterize(IQ sparqlIQ, QueryContext queryContext) {
+        Optional<Map.Entry<IQTree, ImmutableMap<GroundTerm, Variable>>> extraction =
+                templateExtractor.extractTemplateTree(sparqlIQ.getTree());
+        if (extraction.isEmpty())
+            return Optional.empty();
+
+        ImmutableMap<GroundTerm, Variable> parameterMap = extraction.get().getValue();
+        ImmutableList.Builder<String> signatureBuilder = ImmutableList.builder();
+        ImmutableList.Builder<String> valueBuilder = ImmutableList.builder();
+
+        for (GroundTerm groundTerm : parameterMap.keySet()) {
+            String value;
+            if (groundTerm instanceof IRIConstant) {
+                String iriString = ((IRIConstant) groundTerm).getIRI().getIRIString();
+                int index = Math.max(iriString.lastIndexOf('/'), iriString.lastIndexOf('#'));
+                value = iriString.substring(index + 1);
+                signatureBuilder.add("<" + iriString.substring(0, index + 1) + ">" + getLexicalClass(value));
+            }
+            else if (groundTerm instanceof RDFLiteralConstant) {
+                RDFLiteralConstant literal = (RDFLiteralConstant) groundTerm;
+                value = literal.getValue();
+                signatureBuilder.add(literal.getType() + getLexicalClass(value));
+            }
+            else
+                return Optional.empty();
+
+            if (!LIFTABLE_VALUE.matcher(value).matches())
+                return Optional.empty();
+            valueBuilder.add(value);
+        }
+
+        ImmutableList<String> values = valueBuilder.build();
+        // Ambiguous re-binding
+        if (values.stream().distinct().count() < values.size())
+            return Optional.empty();
+
+        return Optional.of(new Parameterization(
+                new TemplateKey(sparqlIQ.getProjectionAtom(), extraction.get().getKey(), queryContext,
+                        signatureBuilder.build()),
+                ImmutableList.copyOf(parameterMap.keySet()),
+                ImmutableList.copyOf(parameterMap.values()),
+                values));
+    }
+
+    private static String getLexicalClass(String value) {
+        return DIGITS.matcher(value).matches() ? "#d" : "#w";
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+
+    private enum TemplateStatus {
+        VERIFIED,
+        REJECTED
+    }
+
+    private static class TemplateEntry {
+        private final TemplateStatus status;
+        @Nullable
+        private final IQ executableQuery;
+        private final ImmutableList<String> values;
+
+        private TemplateEntry(TemplateStatus status, @Nullable IQ executableQuery, ImmutableList<String> values) {
+            this.status = status;
+            this.executableQuery = executableQuery;
+            this.values = values;
+        }
+    }
+
+    private static class Parameterization {
+        private final TemplateKey key;
+        // Same order as the values
+        private final ImmutableList<GroundTerm> groundTerms;
+        private final ImmutableList<Variable> parameters;
+        private final ImmutableList<String> values;
+
+        private Parameterization(TemplateKey key, ImmutableList<GroundTerm> groundTerms,
+                                 ImmutableList<Variable> parameters, ImmutableList<String> values) {
+            this.key = key;
+            this.groundTerms = groundTerms;
+            this.parameters = parameters;
+            this.values = values;
+        }
+    }
+
+    private static class TemplateKey {
+        private final DistinctVariableOnlyDataAtom projectionAtom;
+        private final IQTree templateTree;
+        private final QueryContext queryContext;
+        private final ImmutableList<String> signature;
+
+        private TemplateKey(DistinctVariableOnlyDataAtom projectionAtom, IQTree templateTree, QueryContext queryContext,
+                            ImmutableList<String> signature) {
+            this.projectionAtom = projectionAtom;
+            this.templateTree = templateTree;
+            this.queryContext = queryContext;
+            this.signature = signature;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            TemplateKey that = (TemplateKey) o;
+            return projectionAtom.equals(that.projectionAtom) && templateTree.equals(that.templateTree)
+                    && queryContext.equals(that.queryContext)
+                    && signature.equals(that.signature);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(projectionAtom, templateTree, queryContext, signature);
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package it.unibz.inf.ontop.answering.reformulation.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.logging.impl.NoOpQueryLogger;
 import it.unibz.inf.ontop.answering.reformulation.QueryCache;
+import it.unibz.inf.ontop.answering.reformulation.QueryTemplateCache;
 import it.unibz.inf.ontop.evaluator.QueryContext;
+import it.unibz.inf.ontop.evaluator.metrics.QueryPipelineMetrics;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.answering.reformulation.generation.NativeQueryGenerator;
 import it.unibz.inf.ontop.query.KGQuery;
 import it.unibz.inf.ontop.query.KGQueryFactory;
 import it.unibz.inf.ontop.query.translation.KGQueryTranslator;
 import it.unibz.inf.ontop.answering.reformulation.rewriting.QueryRewriter;
+import it.unibz.inf.ontop.dbschema.DBStatisticsProvider;
 import it.unibz.inf.ontop.query.unfolding.QueryUnfolder;
 import it.unibz.inf.ontop.exception.*;
 import it.unibz.inf.ontop.injection.TranslationFactory;
@@ -22,6 +27,10 @@ import it.unibz.inf.ontop.spec.OBDASpecification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * TODO: rename it QueryTranslatorImpl ?
  *
@@ -35,6 +44,7 @@ public class QuestQueryProcessor implements QueryReformulator {
 	private final QueryRewriter rewriter;
 	protected final NativeQueryGenerator datasourceQueryGenerator;
 	private final QueryCache queryCache;
+	private final QueryTemplateCache queryTemplateCache;
 
 	private final QueryUnfolder queryUnfolder;
 
@@ -48,6 +58,7 @@ public class QuestQueryProcessor implements QueryReformulator {
 	@AssistedInject
 	protected QuestQueryProcessor(@Assisted OBDASpecification obdaSpecification,
 								QueryCache queryCache,
+								QueryTemplateCache queryTemplateCache,
 								QueryUnfolder.Factory queryUnfolderFactory,
 								TranslationFactory translationFactory,
 								QueryRewriter queryRewriter,
@@ -56,7 +67,8 @@ public class QuestQueryProcessor implements QueryReformulator {
 								GeneralStructuralAndSemanticIQOptimizer generalOptimizer,
 								QueryPlanner queryPlanner,
 								QueryLogger.Factory queryLoggerFactory,
-								QueryContext.Factory queryContextFactory) {
+								QueryContext.Factory queryContextFactory,
+								DBStatisticsProvider statisticsProvider) {
 		this.kgQueryFactory = kgQueryFactory;
 		this.rewriter = queryRewriter;
 		this.generalOptimizer = generalOptimizer;
@@ -70,6 +82,13 @@ public class QuestQueryProcessor implements QueryReformulator {
 
 		this.inputQueryTranslator = inputQueryTranslator;
 		this.queryCache = queryCache;
+		this.queryTemplateCache = queryTemplateCache;
+
+		// The plans built without these statistics are discarded
+		statisticsProvider.addUpdateListener(() -> {
+			queryCache.clear();
+			queryTemplateCache.clear();
+		});
 
 		LOGGER.info("Ontop has completed the setup and it is ready for query answering!");
 	}
@@ -78,45 +97,68 @@ public class QuestQueryProcessor implements QueryReformulator {
 	public IQ reformulateIntoNativeQuery(KGQuery<?> inputQuery, QueryContext queryContext, QueryLogger queryLogger)
 			throws OntopReformulationException {
 
-		long beginning = System.currentTimeMillis();
-
-		IQ cachedQuery = queryCache.get(inputQuery, queryContext);
-		if (cachedQuery != null) {
-			queryLogger.declareReformulationFinishedAndSerialize(cachedQuery,true);
-			return cachedQuery;
+		// Concurrent requests for the same query wait for the one performing the reformulation
+		AtomicBoolean isReformulatedByThisThread = new AtomicBoolean(false);
+		try {
+			IQ executableQuery = queryCache.computeIfAbsent(inputQuery, queryContext, () -> {
+				isReformulatedByThisThread.set(true);
+				return reformulate(inputQuery, queryContext, queryLogger);
+			});
+			if (!isReformulatedByThisThread.get())
+				queryLogger.declareReformulationFinishedAndSerialize(executableQuery, true);
+			return executableQuery;
 		}
+		catch (OntopReformulationException e) {
+			// Otherwise already declared
+			if (!isReformulatedByThisThread.get())
+				queryLogger.declareReformulationException(e);
+			throw e;
+		}
+	}
+
+	@Override
+	public ImmutableList<Map.Entry<KGQuery<?>, QueryContext>> getMostUsedCachedQueries(int maxCount) {
+		return queryCache.getMostUsedQueries(maxCount);
+	}
+
+	@Override
+	public void warmUp(KGQuery<?> inputQuery, QueryContext queryContext) throws OntopReformulationException {
+		queryCache.computeIfAbsent(inputQuery, queryContext,
+				() -> reformulate(inputQuery, queryContext, NoOpQueryLogger.INSTANCE));
+	}
+
+	private IQ reformulate(KGQuery<?> inputQuery, QueryContext queryContext, QueryLogger queryLogger)
+			throws OntopReformulationException {
+
+		long beginning = System.currentTimeMillis();
 
 		try {
 			LOGGER.debug("SPARQL query:\n{}\n", inputQuery.getOriginalString());
+			long phaseBeginning = System.nanoTime();
 			IQ convertedIQ = inputQuery.translate(inputQueryTranslator);
+			declarePhaseDuration(queryLogger, QueryPipelineMetrics.TRANSLATE, phaseBeginning);
 			LOGGER.debug("Parsed query converted into IQ (after normalization):\n{}\n", convertedIQ);
 
 			queryLogger.setSparqlIQ(convertedIQ);
 
-            try {
-                LOGGER.debug("Start the rewriting process...");
-
-                IQ rewrittenIQ = rewriter.rewrite(convertedIQ);
-                LOGGER.debug("Rewritten IQ:\n{}\n", rewrittenIQ);
+			Optional<IQ> templateQuery = queryTemplateCache.get(convertedIQ, queryContext);
+			if (templateQuery.isPresent()) {
+				IQ executableQuery = templateQuery.get();
+				LOGGER.debug("Executable query obtained from the query template cache:\n{}\n", executableQuery);
+				queryLogger.declareReformulationFinishedAndSerialize(executableQuery, true);
+				return executableQuery;
+			}
 
-                LOGGER.debug("Start the unfolding...");
-                IQ unfoldedIQ = queryUnfolder.optimize(rewrittenIQ);
-                if (unfoldedIQ.getTree().isDeclaredAsEmpty()) {
-					queryLogger.declareReformulationFinishedAndSerialize(unfoldedIQ, false);
-                	LOGGER.debug("Reformulation time: {} ms\n", System.currentTimeMillis() - beginning);
-					return unfoldedIQ;
+            try {
+				IQ executableQuery = reformulateSPARQLIQ(convertedIQ, queryContext, queryLogger);
+				if (executableQuery.getTree().isDeclaredAsEmpty()) {
+					queryLogger.declareReformulationFinishedAndSerialize(executableQuery, false);
+					LOGGER.debug("Reformulation time: {} ms\n", System.currentTimeMillis() - beginning);
+					return executableQuery;
 				}
 
-				LOGGER.debug("Unfolded query:\n{}\n", unfoldedIQ);
-
-                IQ optimizedQuery = generalOptimizer.optimize(unfoldedIQ, queryContext);
-				IQ plannedQuery = queryPlanner.optimize(optimizedQuery);
-				LOGGER.debug("Planned query:\n{}\n", plannedQuery);
-
-				queryLogger.setPlannedQuery(plannedQuery);
-
-				IQ executableQuery = generateExecutableQuery(plannedQuery);
-				queryCache.put(inputQuery, queryContext, executableQuery);
+				queryTemplateCache.put(convertedIQ, queryContext, executableQuery,
+						iq -> reformulateSPARQLIQ(iq, queryContext, NoOpQueryLogger.INSTANCE));
 				queryLogger.declareReformulationFinishedAndSerialize(executableQuery, false);
 				LOGGER.debug("Reformulation time: {} ms\n", System.currentTimeMillis() - beginning);
 				return executableQuery;
@@ -148,6 +190,49 @@ public class QuestQueryProcessor implements QueryReformulator {
 		}
 	}
 
+	/**
+	 * From the SPARQL IQ to the executable query (or to an empty query)
+	 */
+	private IQ reformulateSPARQLIQ(IQ convertedIQ, QueryContext queryContext, QueryLogger queryLogger)
+			throws OntopReformulationException, EmptyQueryException {
+		LOGGER.debug("Start the rewriting process...");
+
+		long rewritingBeginning = System.nanoTime();
+		IQ rewrittenIQ = rewriter.rewrite(convertedIQ);
+		long phaseBeginning = declarePhaseDuration(queryLogger, QueryPipelineMetrics.REWRITE, rewritingBeginning);
+		LOGGER.debug("Rewritten IQ:\n{}\n", rewrittenIQ);
+
+		LOGGER.debug("Start the unfolding...");
+		IQ unfoldedIQ = queryUnfolder.optimize(rewrittenIQ);
+		phaseBeginning = declarePhaseDuration(queryLogger, QueryPipelineMetrics.UNFOLD, phaseBeginning);
+		if (unfoldedIQ.getTree().isDeclaredAsEmpty())
+			return unfoldedIQ;
+
+		LOGGER.debug("Unfolded query:\n{}\n", unfoldedIQ);
+
+		IQ optimizedQuery = generalOptimizer.optimize(unfoldedIQ, queryContext);
+		phaseBeginning = declarePhaseDuration(queryLogger, QueryPipelineMetrics.OPTIMIZE, phaseBeginning);
+		IQ plannedQuery = queryPlanner.optimize(optimizedQuery);
+		phaseBeginning = declarePhaseDuration(queryLogger, QueryPipelineMetrics.PLAN, phaseBeginning);
+		LOGGER.debug("Planned query:\n{}\n", plannedQuery);
+
+		queryLogger.setPlannedQuery(plannedQuery);
+
+		phaseBeginning = System.nanoTime();
+		IQ executableQuery = generateExecutableQuery(plannedQuery);
+		declarePhaseDuration(queryLogger, QueryPipelineMetrics.NATIVE_QUERY_GENERATION, phaseBeginning);
+		return executableQuery;
+	}
+
+	/**
+	 * Returns the end of the phase
+	 */
+	private static long declarePhaseDuration(QueryLogger queryLogger, String phase, long phaseBeginning) {
+		long phaseEnd = System.nanoTime();
+		queryLogger.declarePhaseDuration(phase, phaseEnd - phaseBeginning);
+		return phaseEnd;
+	}
+
 	protected IQ generateExecutableQuery(IQ iq) throws OntopReformulationException {
 		LOGGER.debug("Producing the native query string...");
 
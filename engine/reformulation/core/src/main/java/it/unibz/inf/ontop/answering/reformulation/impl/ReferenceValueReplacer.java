@@ -0,0 +1,261 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.UnaryIQTree;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Replaces the reference values of an executable query by new values.
+ * Used for re-binding the values of predefined queries and of query templates (see QueryTemplateCache).
+ *
+ * Only applies to executable queries composed of construction, slice, distinct, native and empty nodes.
+ *
+ * In the native query string, values are only replaced inside string literals (single quotes)
+ * and, for numeric values, inside unquoted fragments. Quoted identifiers are never modified.
+ * Values are also replaced in the parameters of the native query.
+ */
+@Singleton
+public class ReferenceValueReplacer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReferenceValueReplacer.class);
+
+    private static final String BOUNDARY_BEFORE = "(?<![\\p{Alnum}_])";
+    private static final String BOUNDARY_AFTER = "(?![\\p{Alnum}_])";
+    private static final Pattern NUMERIC_VALUE = Pattern.compile("\\p{Digit}+(\\.\\p{Digit}+)?");
+
+    private final IntermediateQueryFactory iqFactory;
+    private final TermFactory termFactory;
+
+    @Inject
+    protected ReferenceValueReplacer(IntermediateQueryFactory iqFactory, TermFactory termFactory) {
+        this.iqFactory = iqFactory;
+        this.termFactory = termFactory;
+    }
+
+    /**
+     * Returns true if the values of the executable query can be re-bound
+     */
+    public boolean isApplicable(IQ executableQuery) {
+        return isApplicable(executableQuery.getTree());
+    }
+
+    private boolean isApplicable(IQTree tree) {
+        QueryNode rootNode = tree.getRootNode();
+        if ((rootNode instanceof NativeNode) || (rootNode instanceof EmptyNode))
+            return true;
+        if ((rootNode instanceof ConstructionNode) || (rootNode instanceof SliceNode) || (rootNode instanceof DistinctNode))
+            return isApplicable(((UnaryIQTree) tree).getChild());
+        return false;
+    }
+
+    /**
+     * Values are replaced by position. Returns empty if the executable query is not supported.
+     */
+    public Optional<IQ> replace(IQ executableQuery, ImmutableList<String> referenceValues,
+                                ImmutableList<String> newValues) {
+        if (referenceValues.size() != newValues.size())
+            throw new IllegalArgumentException("The reference and new values must have the same size");
+
+        if (!isApplicable(executableQuery))
+            return Optional.empty();
+
+        return Optional.of(replace(executableQuery, IntStream.range(0, referenceValues.size())
+                .filter(i -> !referenceValues.get(i).equals(newValues.get(i)))
+                .boxed()
+                .collect(ImmutableCollectors.toMap(referenceValues::get, newValues::get))));
+    }
+
+    /**
+     * Values are replaced by binding name.
+     *
+     * ASSUMPTION: the query is only composed of construction, slice, distinct, native and empty nodes
+     */
+    public IQ replaceReferenceValues(IQ referenceIq, ImmutableMap<String, String> bindings,
+                                     ImmutableMap<String, String> bindingWithReferences) {
+
+        ImmutableMap<String, String> referenceToInputMap = bindings.entrySet().stream()
+                .filter(e -> bindingWithReferences.containsKey(e.getKey()))
+                .filter(e -> !e.getValue().equals(bindingWithReferences.get(e.getKey())))
+                .collect(ImmutableCollectors.toMap(
+                        e -> bindingWithReferences.get(e.getKey()),
+                        Map.Entry::getValue));
+
+        if (!referenceToInputMap.isEmpty())
+            LOGGER.debug("Reference values to be replaced: {}", referenceToInputMap);
+
+        return replace(referenceIq, referenceToInputMap);
+    }
+
+    private IQ replace(IQ executableQuery, ImmutableMap<String, String> referenceToNewMap) {
+        if (referenceToNewMap.isEmpty())
+            return executableQuery;
+
+        Replacement replacement = new Replacement(referenceToNewMap);
+        IQTree newTree = transform(executableQuery.getTree(), replacement);
+
+        return iqFactory.createIQ(executableQuery.getProjectionAtom(), newTree);
+    }
+
+    private IQTree transform(IQTree tree, Replacement replacement) {
+        QueryNode rootNode = tree.getRootNode();
+
+        if (rootNode instanceof ConstructionNode) {
+            ConstructionNode constructionNode = (ConstructionNode) rootNode;
+
+            ConstructionNode newConstructionNode = constructionNode.getSubstitution().isEmpty()
+                    ? constructionNode
+                    : iqFactory.createConstructionNode(
+                            constructionNode.getVariables(),
+                            constructionNode.getSubstitution().transform(t -> transformTerm(t, replacement)));
+
+            return iqFactory.createUnaryIQTree(newConstructionNode,
+                    transform(((UnaryIQTree) tree).getChild(), replacement));
+        }
+        else if ((rootNode instanceof SliceNode) || (rootNode instanceof DistinctNode)) {
+            return iqFactory.createUnaryIQTree((UnaryOperatorNode) rootNode,
+                    transform(((UnaryIQTree) tree).getChild(), replacement));
+        }
+        else if (rootNode instanceof NativeNode) {
+            NativeNode nativeNode = (NativeNode) rootNode;
+            return iqFactory.createNativeNode(nativeNode.getVariables(),
+                    nativeNode.getTypeMap(),
+                    nativeNode.getColumnNames(),
+                    replacement.replaceInNativeQuery(nativeNode.getNativeQueryString()),
+                    nativeNode.getParameters().stream()
+                            .map(p -> (DBConstant) transformTerm(p, replacement))
+                            .collect(ImmutableCollectors.toList()),
+                    nativeNode.getVariableNullability());
+        }
+        else if (rootNode instanceof EmptyNode) {
+            return tree;
+        }
+        else
+            throw new IllegalArgumentException("Was only expecting construction, slice, distinct, native and empty nodes");
+    }
+
+    private ImmutableTerm transformTerm(ImmutableTerm term, Replacement replacement) {
+        if (term instanceof RDFConstant) {
+            RDFConstant constant = (RDFConstant) term;
+            String newValue = replacement.replaceAll(constant.getValue());
+            return newValue.equals(constant.getValue())
+                    ? constant
+                    : termFactory.getRDFConstant(newValue, constant.getType());
+        }
+        else if (term instanceof DBConstant) {
+            DBConstant constant = (DBConstant) term;
+            String newValue = replacement.replaceAll(constant.getValue());
+            return newValue.equals(constant.getValue())
+                    ? constant
+                    : termFactory.getDBConstant(newValue, constant.getType());
+        }
+        else if (term instanceof ImmutableFunctionalTerm) {
+            ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+            ImmutableList<? extends ImmutableTerm> initialTerms = functionalTerm.getTerms();
+
+            ImmutableList<ImmutableTerm> newTerms = initialTerms.stream()
+                    .map(t -> transformTerm(t, replacement))
+                    .collect(ImmutableCollectors.toList());
+
+            return initialTerms.equals(newTerms)
+                    ? functionalTerm
+                    : termFactory.getImmutableFunctionalTerm(functionalTerm.getFunctionSymbol(), newTerms);
+        }
+        else
+            return term;
+    }
+
+
+    private static class Replacement {
+        private final ImmutableMap<String, String> referenceToNewMap;
+        private final Pattern pattern;
+        private final Optional<Pattern> numericPattern;
+
+        private Replacement(ImmutableMap<String, String> referenceToNewMap) {
+            this.referenceToNewMap = referenceToNewMap;
+            this.pattern = buildPattern(referenceToNewMap.keySet().stream()
+                    .collect(ImmutableCollectors.toList()));
+            ImmutableList<String> numericValues = referenceToNewMap.keySet().stream()
+                    .filter(v -> NUMERIC_VALUE.matcher(v).matches())
+                    .collect(ImmutableCollectors.toList());
+            this.numericPattern = numericValues.isEmpty()
+                    ? Optional.empty()
+                    : Optional.of(buildPattern(numericValues));
+        }
+
+        /**
+         * Longest values first, so that the alternation does not stop at a shorter overlapping value
+         */
+        private static Pattern buildPattern(ImmutableList<String> values) {
+            return Pattern.compile(values.stream()
+                    .sorted(Comparator.comparingInt(String::length).reversed())
+                    .map(Pattern::quote)
+                    .collect(Collectors.joining("|", BOUNDARY_BEFORE + "(?:", ")" + BOUNDARY_AFTER)));
+        }
+
+        String replaceAll(String str) {
+            return replace(str, pattern);
+        }
+
+        private String replace(String str, Pattern p) {
+            Matcher matcher = p.matcher(str);
+            if (!matcher.find())
+                return str;
+
+            StringBuilder sb = new StringBuilder();
+            do {
+                matcher.appendReplacement(sb, Matcher.quoteReplacement(referenceToNewMap.get(matcher.group())));
+            } while (matcher.find());
+            matcher.appendTail(sb);
+            return sb.toString();
+        }
+
+        /**
+         * Splits the query string into quoted and unquoted fragments.
+         * Escaped quotes inside string literals ('') are treated as two consecutive literals.
+         */
+        String replaceInNativeQuery(String queryString) {
+            StringBuilder sb = new StringBuilder();
+            int start = 0;
+            while (start < queryString.length()) {
+                char c = queryString.charAt(start);
+                if (c == '\'' || c == '"' || c == '`') {
+                    int end = queryString.indexOf(c, start + 1);
+                    if (end < 0)
+                        end = queryString.length() - 1;
+                    String fragment = queryString.substring(start, end + 1);
+                    sb.append(c == '\'' ? replace(fragment, pattern) : fragment);
+                    start = end + 1;
+                }
+                else {
+                    int end = start;
+                    while (end < queryString.length() && "'\"`".indexOf(queryString.charAt(end)) < 0)
+                        end++;
+                    String fragment = queryString.substring(start, end);
+                    sb.append(numericPattern
+                            .map(p -> replace(fragment, p))
+                            .orElse(fragment));
+                    start = end;
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
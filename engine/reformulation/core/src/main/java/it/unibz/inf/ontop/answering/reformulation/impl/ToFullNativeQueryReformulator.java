@@ -6,8 +6,10 @@ import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.answering.reformulation.QueryCache;
+import it.unibz.inf.ontop.answering.reformulation.QueryTemplateCache;
 import it.unibz.inf.ontop.evaluator.QueryContext;
 import it.unibz.inf.ontop.answering.reformulation.rewriting.QueryRewriter;
+import it.unibz.inf.ontop.dbschema.DBStatisticsProvider;
 import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
 import it.unibz.inf.ontop.exception.OntopReformulationException;
 import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
@@ -54,6 +56,7 @@ public class ToFullNativeQueryReformulator extends QuestQueryProcessor {
     @AssistedInject
     private ToFullNativeQueryReformulator(@Assisted OBDASpecification obdaSpecification,
                                           QueryCache queryCache,
+                                          QueryTemplateCache queryTemplateCache,
                                           QueryUnfolder.Factory queryUnfolderFactory,
                                           TranslationFactory translationFactory,
                                           QueryRewriter queryRewriter,
@@ -63,11 +66,13 @@ public class ToFullNativeQueryReformulator extends QuestQueryProcessor {
                                           QueryPlanner queryPlanner,
                                           QueryLogger.Factory queryLoggerFactory,
                                           QueryContext.Factory queryContextFactory,
+                                          DBStatisticsProvider statisticsProvider,
                                           IntermediateQueryFactory iqFactory,
                                           TermFactory termFactory,
                                           SubstitutionFactory substitutionFactory) {
-        super(obdaSpecification, queryCache, queryUnfolderFactory, translationFactory, queryRewriter, kgQueryFactory,
-                inputQueryTranslator, generalOptimizer, queryPlanner, queryLoggerFactory, queryContextFactory);
+        super(obdaSpecification, queryCache, queryTemplateCache, queryUnfolderFactory, translationFactory, queryRewriter, kgQueryFactory,
+                inputQueryTranslator, generalOptimizer, queryPlanner, queryLoggerFactory, queryContextFactory,
+                statisticsProvider);
         this.iqFactory = iqFactory;
         this.termFactory = termFactory;
         this.substitutionFactory = substitutionFactory;
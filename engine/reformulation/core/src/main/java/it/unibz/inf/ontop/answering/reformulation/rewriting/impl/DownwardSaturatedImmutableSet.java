@@ -119,4 +119,9 @@ public class DownwardSaturatedImmutableSet<T> {
 		}
 		return false;
 	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(elements);
+	}
 }
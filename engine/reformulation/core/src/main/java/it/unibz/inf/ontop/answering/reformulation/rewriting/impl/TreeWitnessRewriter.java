@@ -22,6 +22,7 @@ package it.unibz.inf.ontop.answering.reformulation.rewriting.impl;
 
 import com.google.common.collect.*;
 import com.google.inject.Inject;
+import com.google.inject.Provider;
 import it.unibz.inf.ontop.answering.reformulation.rewriting.ExistentialQueryRewriter;
 import it.unibz.inf.ontop.constraints.HomomorphismFactory;
 import it.unibz.inf.ontop.constraints.ImmutableCQ;
@@ -38,8 +39,10 @@ import it.unibz.inf.ontop.model.term.*;
 import it.unibz.inf.ontop.spec.ontology.*;
 
 import java.util.*;
+import java.util.concurrent.atomic.DoubleAdder;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import it.unibz.inf.ontop.substitution.Substitution;
@@ -88,16 +91,22 @@ public class TreeWitnessRewriter extends DummyRewriter implements ExistentialQue
 
 		double endtime = System.currentTimeMillis();
 		double tm = (endtime - startime) / 1000;
-		time += tm;
-		log.debug(String.format("setTBox time: %.3f s (total %.3f s)", tm, time));		
+		time.add(tm);
+		log.debug(String.format("setTBox time: %.3f s (total %.3f s)", tm, time.sum()));
 	}
 	
 	
-	private int freshVarIndex = 0;
-	
-	private Variable getFreshVariable() {
-		freshVarIndex++;
-		return termFactory.getVariable("twr" + freshVarIndex);
+	/**
+	 * Fresh variables of a single rewriting (the rewriter is shared by concurrent queries)
+	 */
+	private class FreshVariables implements Provider<VariableOrGroundTerm> {
+		private int freshVarIndex = 0;
+
+		@Override
+		public Variable get() {
+			freshVarIndex++;
+			return termFactory.getVariable("twr" + freshVarIndex);
+		}
 	}
 	
 	/*
@@ -105,10 +114,10 @@ public class TreeWitnessRewriter extends DummyRewriter implements ExistentialQue
 	 * the `free' variable of the generators is replaced by the term r0;
 	 */
 
-	private ImmutableSet<DataAtom<RDFAtomPredicate>> getAtomsForGenerators(Stream<TreeWitnessGenerator> gens, VariableOrGroundTerm r0)  {
+	private ImmutableSet<DataAtom<RDFAtomPredicate>> getAtomsForGenerators(Stream<TreeWitnessGenerator> gens, VariableOrGroundTerm r0, FreshVariables freshVariables)  {
 		return gens
 				.flatMap(g -> g.getMaximalGeneratorRepresentatives().stream())
-				.map(ce -> getAtom(ce, r0, this::getFreshVariable))
+				.map(ce -> getAtom(ce, r0, freshVariables))
 				.collect(ImmutableCollectors.toSet());
 	}
 
@@ -132,28 +141,68 @@ public class TreeWitnessRewriter extends DummyRewriter implements ExistentialQue
         }
 
         UCQBuilder join(Stream<ImmutableCQ<RDFAtomPredicate>> cqs) {
-            list = cqs
+            list = removeSubsumed(cqs
                     .flatMap(cq2 -> list.stream()
                             .flatMap(cq1 -> joinCQs(cq1, cq2).stream()))
-                    .collect(Collectors.toList());
+                    .collect(ImmutableCollectors.toList()));
 
-            for (int i = 0; i < list.size(); i++) {
-                ImmutableCQ<RDFAtomPredicate> cq = list.get(i);
-                for (int j = i + 1; j < list.size(); j++) {
-                    ImmutableCQ<RDFAtomPredicate> cqp = list.get(j);
-                    if (cqp.getAtoms().containsAll(cq.getAtoms())) {
-                        list.remove(j);
-                        j--;
-                    }
-                    else if (cq.getAtoms().containsAll(cqp.getAtoms())) {
-                        list.remove(i);
-                        i--;
+	        return this;
+        }
+
+        /**
+         * Removes the CQs whose atoms include all the atoms of another CQ
+         * (among the CQs with the same atoms, the first one is kept).
+         *
+         * The CQs are considered by increasing number of atoms, so that a CQ can only be subsumed
+         * by the CQs already kept, which are indexed by their atoms.
+         */
+        private List<ImmutableCQ<RDFAtomPredicate>> removeSubsumed(ImmutableList<ImmutableCQ<RDFAtomPredicate>> cqs) {
+            ImmutableList<ImmutableSet<DataAtom<RDFAtomPredicate>>> atoms = cqs.stream()
+                    .map(cq -> ImmutableSet.copyOf(cq.getAtoms()))
+                    .collect(ImmutableCollectors.toList());
+
+            Map<DataAtom<RDFAtomPredicate>, List<Integer>> index = new HashMap<>();
+            BitSet kept = new BitSet(cqs.size());
+            int[] counts = new int[cqs.size()];
+            List<Integer> counted = new ArrayList<>();
+
+            int[] order = IntStream.range(0, cqs.size())
+                    .boxed()
+                    .sorted(Comparator.comparingInt(i -> atoms.get(i).size())) // stable
+                    .mapToInt(i -> i)
+                    .toArray();
+
+            // a kept CQ without atoms subsumes all the others
+            boolean keptWithoutAtoms = false;
+            for (int i : order) {
+                boolean subsumed = keptWithoutAtoms;
+                for (DataAtom<RDFAtomPredicate> atom : atoms.get(i)) {
+                    if (subsumed)
                         break;
+                    for (int k : index.getOrDefault(atom, ImmutableList.of())) {
+                        if (counts[k]++ == 0)
+                            counted.add(k);
+                        if (counts[k] == atoms.get(k).size()) {
+                            subsumed = true;
+                            break;
+                        }
                     }
                 }
+                for (int k : counted)
+                    counts[k] = 0;
+                counted.clear();
+
+                if (!subsumed) {
+                    kept.set(i);
+                    keptWithoutAtoms = keptWithoutAtoms || atoms.get(i).isEmpty();
+                    for (DataAtom<RDFAtomPredicate> atom : atoms.get(i))
+                        index.computeIfAbsent(atom, a -> new ArrayList<>()).add(i);
+                }
             }
 
-	        return this;
+            return kept.stream()
+                    .mapToObj(cqs::get)
+                    .collect(Collectors.toList());
         }
 
         private ImmutableSet<Set<VariableOrGroundTerm>> mergeOnePairOfClasses(ImmutableSet<Set<VariableOrGroundTerm>> equivalenceClasses) {
@@ -242,7 +291,7 @@ public class TreeWitnessRewriter extends DummyRewriter implements ExistentialQue
                 .collect(substitutionFactory.toSubstitution());
     }
 
-    ImmutableList<ImmutableCQ<RDFAtomPredicate>> getTreeWitnessFormula(TreeWitness tw) {
+    ImmutableList<ImmutableCQ<RDFAtomPredicate>> getTreeWitnessFormula(TreeWitness tw, FreshVariables freshVariables) {
         Set<VariableOrGroundTerm> roots = tw.getRoots();
 
         // get canonical representative
@@ -258,7 +307,7 @@ public class TreeWitnessRewriter extends DummyRewriter implements ExistentialQue
                 .collect(ImmutableCollectors.toSet());
 
         UCQBuilder ucq = new UCQBuilder(createCQ(rootVariables, substitution, ImmutableList.copyOf(tw.getRootAtoms())));
-        return ucq.join(getAtomsForGenerators(tw.getGenerators().stream(), representative).stream()
+        return ucq.join(getAtomsForGenerators(tw.getGenerators().stream(), representative, freshVariables).stream()
                         .map(a -> createCQ(ImmutableList.of(a))))
                 .build();
     }
@@ -267,13 +316,13 @@ public class TreeWitnessRewriter extends DummyRewriter implements ExistentialQue
 	 * rewrites a given connected CQ with the rules put into output
 	 */
 	
-	private ImmutableList<ImmutableCQ<RDFAtomPredicate>> rewriteCC(QueryConnectedComponent cc) {
+	private ImmutableList<ImmutableCQ<RDFAtomPredicate>> rewriteCC(QueryConnectedComponent cc, FreshVariables freshVariables) {
 
 		TreeWitnessSet tws = TreeWitnessSet.getTreeWitnesses(cc, reasoner);
 
 		ImmutableList.Builder<ImmutableCQ<RDFAtomPredicate>> builder = ImmutableList.builder();
 		if (cc.hasNoFreeTerms() && (!cc.isDegenerate() || cc.getLoop().isPresent())) {
-            builder.addAll(getAtomsForGenerators(tws.getGeneratorsOfDetachedCC().stream(), getFreshVariable()).stream()
+            builder.addAll(getAtomsForGenerators(tws.getGeneratorsOfDetachedCC().stream(), freshVariables.get(), freshVariables).stream()
                         .map(a -> createCQ(ImmutableList.of(a)))
                         .collect(ImmutableCollectors.toList()));
 		}
@@ -292,7 +341,7 @@ public class TreeWitnessRewriter extends DummyRewriter implements ExistentialQue
 
 					builder.addAll(
 					        compatibleTWs.stream()
-                                .map(tw -> getTreeWitnessFormula(tw).stream())
+                                .map(tw -> getTreeWitnessFormula(tw, freshVariables).stream())
                                 .collect(toUCQ(edges)));
 				}
 			}
@@ -305,7 +354,7 @@ public class TreeWitnessRewriter extends DummyRewriter implements ExistentialQue
                                 Stream.of(createCQ(edge.getAtoms())),
                                 tws.getTWs().stream()
                                         .filter(edge::isCoveredBy)
-                                        .map(this::getTreeWitnessFormula)
+                                        .map(tw -> getTreeWitnessFormula(tw, freshVariables))
                                         .flatMap(Collection::stream)))
                             .collect(toUCQ()));
             }
@@ -320,7 +369,7 @@ public class TreeWitnessRewriter extends DummyRewriter implements ExistentialQue
 		return builder.build();
 	}
 	
-	private double time = 0;
+	private final DoubleAdder time = new DoubleAdder();
 
 	private IQTree getCanonicalForm(IQTree tree) {
         ClassifiedTBox tbox = reasoner.getClassifiedTBox();
@@ -395,6 +444,7 @@ public class TreeWitnessRewriter extends DummyRewriter implements ExistentialQue
 		double startime = System.currentTimeMillis();
 
 		IQTree canonicalTree = getCanonicalForm(query.getTree());
+		FreshVariables freshVariables = new FreshVariables();
 
         IQTree rewritingTree = canonicalTree.acceptTransformer(new DefaultRecursiveIQTreeVisitingTransformer(iqFactory) {
             @Override
@@ -412,7 +462,7 @@ public class TreeWitnessRewriter extends DummyRewriter implements ExistentialQue
                         List<QueryConnectedComponent> ccs = QueryConnectedComponent.getConnectedComponents(new ImmutableCQ<>(avs, substitutionFactory.getSubstitution(), bgp));
 
                         ImmutableList<ImmutableCQ<RDFAtomPredicate>> ucq = ccs.stream()
-                                .map(cc -> rewriteCC(cc).stream())
+                                .map(cc -> rewriteCC(cc, freshVariables).stream())
                                 .collect(toUCQ());
 
                         List<ImmutableCQ<RDFAtomPredicate>> ucq2 = new ArrayList<>(ucq);
@@ -428,8 +478,8 @@ public class TreeWitnessRewriter extends DummyRewriter implements ExistentialQue
 
 		double endtime = System.currentTimeMillis();
 		double tm = (endtime - startime) / 1000;
-		time += tm;
-		log.debug(String.format("Rewriting time: %.3f s (total %.3f s)", tm, time));
+		time.add(tm);
+		log.debug(String.format("Rewriting time: %.3f s (total %.3f s)", tm, time.sum()));
 		log.debug("Final rewriting:\n{}", rewritingTree);
 
         IQ result = iqFactory.createIQ(query.getProjectionAtom(), rewritingTree);
@@ -1,5 +1,7 @@
 package it.unibz.inf.ontop.answering.reformulation.rewriting.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
@@ -9,15 +11,29 @@ import it.unibz.inf.ontop.model.term.VariableOrGroundTerm;
 import it.unibz.inf.ontop.spec.ontology.*;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.Collection;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Stream;
 
 public class TreeWitnessRewriterReasoner {
 
+    private static final Logger log = LoggerFactory.getLogger(TreeWitnessRewriterReasoner.class);
+
+    private static final int GENERATOR_CACHE_MAX_SIZE = 10_000;
+
     private final ClassifiedTBox classifiedTBox;
     private final ImmutableList<TreeWitnessGenerator> treeWitnessGenerators;
 
+    // applicable tree witness generators, shared by the concurrent rewritings
+    private final Cache<FoldingShape, ImmutableList<TreeWitnessGenerator>> generatorCache = CacheBuilder.newBuilder()
+            .maximumSize(GENERATOR_CACHE_MAX_SIZE)
+            .build();
+
     TreeWitnessRewriterReasoner(ClassifiedTBox classifiedTBox) {
         this.classifiedTBox = classifiedTBox;
         this.treeWitnessGenerators = classifiedTBox.classesDAG().stream()
@@ -71,6 +87,92 @@ public class TreeWitnessRewriterReasoner {
 
     public ImmutableList<TreeWitnessGenerator> getTreeWitnessGenerators() { return treeWitnessGenerators; }
 
+    /**
+     * Tree witness generators that can generate a query folding. The result only depends on the properties
+     * and the internal root concepts of the folding, and on the generator concepts of its interior tree witnesses,
+     * so it is cached for each such shape.
+     *
+     * @param interiorGeneratorConcepts for each interior tree witness, the concepts of its generators
+     */
+    public ImmutableList<TreeWitnessGenerator> getTreeWitnessGenerators(DownwardSaturatedImmutableSet<ObjectPropertyExpression> properties,
+                                                                        DownwardSaturatedImmutableSet<ClassExpression> internalRootConcepts,
+                                                                        ImmutableSet<ImmutableSet<DownwardSaturatedImmutableSet<ClassExpression>>> interiorGeneratorConcepts) {
+        try {
+            return generatorCache.get(new FoldingShape(properties, internalRootConcepts, interiorGeneratorConcepts),
+                    () -> computeTreeWitnessGenerators(properties, internalRootConcepts, interiorGeneratorConcepts));
+        }
+        catch (ExecutionException e) {
+            throw new MinorOntopInternalBugException("Unexpected exception: " + e.getCause());
+        }
+    }
+
+    private ImmutableList<TreeWitnessGenerator> computeTreeWitnessGenerators(DownwardSaturatedImmutableSet<ObjectPropertyExpression> properties,
+                                                                             DownwardSaturatedImmutableSet<ClassExpression> internalRootConcepts,
+                                                                             ImmutableSet<ImmutableSet<DownwardSaturatedImmutableSet<ClassExpression>>> interiorGeneratorConcepts) {
+        ImmutableList.Builder<TreeWitnessGenerator> twg = ImmutableList.builder();
+        for (TreeWitnessGenerator g : treeWitnessGenerators) {
+            if (!properties.subsumes(g.getProperty())) {
+                log.debug("      NEGATIVE PROPERTY CHECK {}", g.getProperty());
+                continue;
+            }
+            else
+                log.debug("      POSITIVE PROPERTY CHECK {}", g.getProperty());
+
+            if (!g.endPointEntails(internalRootConcepts)) {
+                log.debug("        ENDTYPE TOO SPECIFIC: {} FOR {}", internalRootConcepts, g);
+                continue;
+            }
+            else
+                log.debug("        ENDTYPE IS FINE: TOP FOR {}", g);
+
+            boolean failed = false;
+            for (ImmutableSet<DownwardSaturatedImmutableSet<ClassExpression>> concepts : interiorGeneratorConcepts) {
+                if (concepts.stream().noneMatch(g::endPointEntails)) {
+                    log.debug("        ENDTYPE TOO SPECIFIC: {} FOR {}", concepts, g);
+                    failed = true;
+                    break;
+                }
+                else
+                    log.debug("        ENDTYPE IS FINE: {} FOR {}", concepts, g);
+            }
+            if (failed)
+                continue;
+
+            twg.add(g);
+            log.debug("        OK");
+        }
+        return twg.build();
+    }
+
+    private static final class FoldingShape {
+        private final DownwardSaturatedImmutableSet<ObjectPropertyExpression> properties;
+        private final DownwardSaturatedImmutableSet<ClassExpression> internalRootConcepts;
+        private final ImmutableSet<ImmutableSet<DownwardSaturatedImmutableSet<ClassExpression>>> interiorGeneratorConcepts;
+
+        FoldingShape(DownwardSaturatedImmutableSet<ObjectPropertyExpression> properties,
+                     DownwardSaturatedImmutableSet<ClassExpression> internalRootConcepts,
+                     ImmutableSet<ImmutableSet<DownwardSaturatedImmutableSet<ClassExpression>>> interiorGeneratorConcepts) {
+            this.properties = properties;
+            this.internalRootConcepts = internalRootConcepts;
+            this.interiorGeneratorConcepts = interiorGeneratorConcepts;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof FoldingShape)) return false;
+            FoldingShape other = (FoldingShape) o;
+            return properties.equals(other.properties)
+                    && internalRootConcepts.equals(other.internalRootConcepts)
+                    && interiorGeneratorConcepts.equals(other.interiorGeneratorConcepts);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(properties, internalRootConcepts, interiorGeneratorConcepts);
+        }
+    }
+
     private Stream<TreeWitnessGenerator> getTreeWitnessGenerators(Equivalences<ClassExpression> eq) {
         ImmutableList<ObjectPropertyExpression> properties = getDistinctRepresentativesForProperties(eq)
                 .collect(ImmutableCollectors.toList());
@@ -27,6 +27,7 @@ import it.unibz.inf.ontop.spec.ontology.ClassExpression;
 import it.unibz.inf.ontop.spec.ontology.ObjectPropertyExpression;
 import it.unibz.inf.ontop.answering.reformulation.rewriting.impl.QueryConnectedComponent.Edge;
 import it.unibz.inf.ontop.answering.reformulation.rewriting.impl.QueryConnectedComponent.Loop;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import java.util.*;
 
@@ -190,45 +191,16 @@ public class TreeWitnessSet implements Iterable<ImmutableCollection<TreeWitness>
 		}
 	}
 	
-	// can return null if there are no applicable generators!
-	
 	private ImmutableList<TreeWitnessGenerator> getTreeWitnessGenerators(QueryFolding qf) {
-		ImmutableList.Builder<TreeWitnessGenerator> twg = ImmutableList.builder();
 		log.debug("CHECKING WHETHER THE FOLDING {} CAN BE GENERATED: ", qf); 
-		for (TreeWitnessGenerator g : cache.reasoner.getTreeWitnessGenerators()) {
-			DownwardSaturatedImmutableSet<ObjectPropertyExpression> subp = qf.getProperties();
-			if (!subp.subsumes(g.getProperty())) {
-				log.debug("      NEGATIVE PROPERTY CHECK {}", g.getProperty());
-				continue;
-			}
-			else
-				log.debug("      POSITIVE PROPERTY CHECK {}", g.getProperty());
-
-			DownwardSaturatedImmutableSet<ClassExpression> subc = qf.getInternalRootConcepts();
-			if (!g.endPointEntails(subc)) {
-				 log.debug("        ENDTYPE TOO SPECIFIC: {} FOR {}", subc, g);
-				 continue;			
-			}
-			else
-				 log.debug("        ENDTYPE IS FINE: TOP FOR {}", g);
-
-			boolean failed = false;
-			for (TreeWitness tw : qf.getInteriorTreeWitnesses()) {
-				if (!g.endPointEntailsAny(tw.getGenerators())) {
-					log.debug("        ENDTYPE TOO SPECIFIC: {} FOR {}", tw, g);
-					failed = true;
-					break;
-				}
-				else
-					log.debug("        ENDTYPE IS FINE: {} FOR {}", tw, g);
-			}
-			if (failed)
-				continue;
-			
-			twg.add(g);
-			log.debug("        OK");
-		}
-		return twg.build();
+		return cache.reasoner.getTreeWitnessGenerators(
+				qf.getProperties(),
+				qf.getInternalRootConcepts(),
+				qf.getInteriorTreeWitnesses().stream()
+						.map(tw -> tw.getGenerators().stream()
+								.map(TreeWitnessGenerator::getGeneratorConcepts)
+								.collect(ImmutableCollectors.toSet()))
+						.collect(ImmutableCollectors.toSet()));
 	}
 	
 	@Override
@@ -3,6 +3,8 @@ package it.unibz.inf.ontop.injection;
 
 import com.google.common.collect.ImmutableSet;
 
+import java.util.Optional;
+
 public interface OntopReformulationSettings extends OntopKGQuerySettings {
 
     boolean isExistentialReasoningEnabled();
@@ -28,10 +30,65 @@ public interface OntopReformulationSettings extends OntopKGQuerySettings {
 
     ImmutableSet<String> getHttpHeaderNamesToLog();
 
+    /**
+     * If true, the query log entries are written by a dedicated thread instead of the query thread.
+     */
+    boolean isQueryLoggingAsync();
+
+    /**
+     * Number of entries waiting for being written (asynchronous query logging)
+     */
+    int getQueryLoggingBufferSize();
+
+    /**
+     * What to do when the buffer is full (asynchronous query logging)
+     */
+    QueryLoggingOverflowPolicy getQueryLoggingOverflowPolicy();
+
+    /**
+     * Maximum number of entries written before flushing (asynchronous query logging)
+     */
+    int getQueryLoggingBatchSize();
+
+    /**
+     * File where the query log is written. If absent, the query log is written on the standard output.
+     */
+    Optional<String> getQueryLoggingFile();
+
+    /**
+     * Size (in bytes) after which the query log file is rolled. Not rolled if equal to 0.
+     */
+    long getQueryLoggingFileMaxSize();
+
+    /**
+     * Number of rolled query log files that are kept
+     */
+    int getQueryLoggingFileMaxBackups();
+
     long getQueryCacheMaxSize();
 
+    /**
+     * If true, the executable query is also cached at the level of the query template
+     * (i.e. the query where ground terms are lifted as parameters), so that queries only differing
+     * in their constants can reuse the same reformulation.
+     */
+    boolean isQueryTemplateCacheEnabled();
+
+    long getQueryTemplateCacheMaxSize();
+
     String getApplicationName();
 
+    enum QueryLoggingOverflowPolicy {
+        /**
+         * The new entry is dropped (and counted)
+         */
+        DROP,
+        /**
+         * The query thread waits until the entry can be added
+         */
+        BLOCK
+    }
+
 
     //--------------------------
     // Keys
@@ -44,6 +101,8 @@ public interface OntopReformulationSettings extends OntopKGQuerySettings {
 
     String EXCLUDE_INVALID_TRIPLES_FROM_RESULT_SET = "ontop.excludeInvalidTriplesFromResultSet";
     String QUERY_CACHE_MAX_SIZE = "ontop.cache.query.size";
+    String QUERY_TEMPLATE_CACHE = "ontop.cache.queryTemplate";
+    String QUERY_TEMPLATE_CACHE_MAX_SIZE = "ontop.cache.queryTemplate.size";
     String QUERY_LOGGING = "ontop.queryLogging";
     // Needed for logging
     String APPLICATION_NAME = "ontop.applicationName";
@@ -60,4 +119,11 @@ public interface OntopReformulationSettings extends OntopKGQuerySettings {
     String QUERY_TEMPLATE_EXTRACTION = "ontop.queryLogging.extractQueryTemplate";
     String QUERY_LOGGING_DECOMPOSITION = "ontop.queryLogging.decomposition";
     String QUERY_LOGGING_DECOMPOSITION_AND_MERGING_EXCLUSIVE = "ontop.queryLogging.decompositionAndMergingMutuallyExclusive";
+    String QUERY_LOGGING_ASYNC = "ontop.queryLogging.async";
+    String QUERY_LOGGING_BUFFER_SIZE = "ontop.queryLogging.bufferSize";
+    String QUERY_LOGGING_OVERFLOW_POLICY = "ontop.queryLogging.overflowPolicy";
+    String QUERY_LOGGING_BATCH_SIZE = "ontop.queryLogging.batchSize";
+    String QUERY_LOGGING_FILE = "ontop.queryLogging.file";
+    String QUERY_LOGGING_FILE_MAX_SIZE = "ontop.queryLogging.file.maxSize";
+    String QUERY_LOGGING_FILE_MAX_BACKUPS = "ontop.queryLogging.file.maxBackups";
 }
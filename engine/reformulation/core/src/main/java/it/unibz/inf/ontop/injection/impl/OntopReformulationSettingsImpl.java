@@ -2,6 +2,8 @@ package it.unibz.inf.ontop.injection.impl;
 
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
+import it.unibz.inf.ontop.answering.reformulation.QueryTemplateCache;
+import it.unibz.inf.ontop.answering.reformulation.impl.GuiceBasedQueryTemplateCache;
 import it.unibz.inf.ontop.answering.reformulation.impl.ToFullNativeQueryReformulator;
 import it.unibz.inf.ontop.injection.OntopOBDASettings;
 import it.unibz.inf.ontop.injection.OntopReformulationSettings;
@@ -9,6 +11,7 @@ import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import javax.annotation.Nullable;
 import java.util.Collections;
+import java.util.Optional;
 import java.util.Properties;
 
 public class OntopReformulationSettingsImpl extends OntopKGQuerySettingsImpl implements OntopReformulationSettings {
@@ -31,6 +34,10 @@ public class OntopReformulationSettingsImpl extends OntopKGQuerySettingsImpl imp
             && (!userProperties.contains(QueryReformulator.class.getCanonicalName())))
             properties.put(QueryReformulator.class.getCanonicalName(), ToFullNativeQueryReformulator.class.getCanonicalName());
 
+        if (Boolean.parseBoolean(userProperties.getProperty(QUERY_TEMPLATE_CACHE, "false"))
+                && (!userProperties.containsKey(QueryTemplateCache.class.getCanonicalName())))
+            properties.put(QueryTemplateCache.class.getCanonicalName(), GuiceBasedQueryTemplateCache.class.getCanonicalName());
+
         return properties;
     }
 
@@ -104,11 +111,56 @@ public class OntopReformulationSettingsImpl extends OntopKGQuerySettingsImpl imp
         return getRequiredLong(QUERY_CACHE_MAX_SIZE);
     }
 
+    @Override
+    public boolean isQueryTemplateCacheEnabled() {
+        return getRequiredBoolean(QUERY_TEMPLATE_CACHE);
+    }
+
+    @Override
+    public long getQueryTemplateCacheMaxSize() {
+        return getRequiredLong(QUERY_TEMPLATE_CACHE_MAX_SIZE);
+    }
+
     @Override
     public String getApplicationName() {
         return getRequiredProperty(APPLICATION_NAME);
     }
 
+    @Override
+    public boolean isQueryLoggingAsync() {
+        return getRequiredBoolean(QUERY_LOGGING_ASYNC);
+    }
+
+    @Override
+    public int getQueryLoggingBufferSize() {
+        return getRequiredInteger(QUERY_LOGGING_BUFFER_SIZE);
+    }
+
+    @Override
+    public QueryLoggingOverflowPolicy getQueryLoggingOverflowPolicy() {
+        return QueryLoggingOverflowPolicy.valueOf(getRequiredProperty(QUERY_LOGGING_OVERFLOW_POLICY));
+    }
+
+    @Override
+    public int getQueryLoggingBatchSize() {
+        return getRequiredInteger(QUERY_LOGGING_BATCH_SIZE);
+    }
+
+    @Override
+    public Optional<String> getQueryLoggingFile() {
+        return getProperty(QUERY_LOGGING_FILE);
+    }
+
+    @Override
+    public long getQueryLoggingFileMaxSize() {
+        return getRequiredLong(QUERY_LOGGING_FILE_MAX_SIZE);
+    }
+
+    @Override
+    public int getQueryLoggingFileMaxBackups() {
+        return getRequiredInteger(QUERY_LOGGING_FILE_MAX_BACKUPS);
+    }
+
     @Override
     public synchronized ImmutableSet<String> getHttpHeaderNamesToLog() {
         if (httpHeaderNamesToLog == null) {
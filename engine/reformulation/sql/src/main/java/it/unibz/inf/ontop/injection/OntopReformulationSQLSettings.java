@@ -3,4 +3,18 @@ package it.unibz.inf.ontop.injection;
 
 public interface OntopReformulationSQLSettings extends OntopReformulationSettings, OntopSQLCoreSettings {
 
+    /**
+     * If true, the literal values compared in the WHERE and ON conditions are not inlined in the SQL query
+     * but sent as parameters of a prepared statement, so that the DB can reuse its query plans.
+     *
+     * Only supported by some dialects (currently H2 and PostgreSQL), ignored by the others.
+     * The prepared statements are only cached by the Tomcat connection pool.
+     */
+    boolean isSQLParameterizationEnabled();
+
+    //--------------------------
+    // Keys
+    //--------------------------
+
+    String SQL_PARAMETERIZATION = "ontop.sqlParameterization";
 }
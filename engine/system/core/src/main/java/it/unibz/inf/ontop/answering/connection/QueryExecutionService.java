@@ -0,0 +1,48 @@
+package it.unibz.inf.ontop.answering.connection;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs the evaluation of the KG queries on behalf of the statements.
+ *
+ * Bounds the number of queries evaluated concurrently. Queries beyond this bound wait in a queue,
+ * which is bounded too.
+ *
+ * Shared by all the statements of a query engine.
+ */
+public interface QueryExecutionService extends AutoCloseable {
+
+    /**
+     * Cancellation is cooperative: cancelling the future with interruption interrupts the evaluating thread.
+     *
+     * @throws RejectedExecutionException if the queue is full or if the service is closed
+     */
+    <T> Future<T> submit(Callable<T> task) throws RejectedExecutionException;
+
+    /**
+     * Number of submitted queries waiting for being evaluated
+     */
+    int getQueueDepth();
+
+    /**
+     * Number of queries currently being evaluated
+     */
+    int getActiveQueryCount();
+
+    int getMaxConcurrentQueries();
+
+    int getMaxQueuedQueries();
+
+    /**
+     * Number of queries rejected because the queue was full
+     */
+    long getRejectedQueryCount();
+
+    /**
+     * No new query is accepted. The queries being evaluated are interrupted.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,22 @@
+package it.unibz.inf.ontop.answering.connection;
+
+/**
+ * JMX view of the load of a QueryExecutionService.
+ *
+ * Registered when the JMX query metrics are enabled (see OntopOptimizationSettings.isQueryMetricsJMXEnabled()).
+ */
+public interface QueryExecutionServiceMXBean {
+
+    int getQueueDepth();
+
+    int getActiveQueryCount();
+
+    int getMaxConcurrentQueries();
+
+    int getMaxQueuedQueries();
+
+    /**
+     * Cumulative since the creation of the service
+     */
+    long getRejectedQueryCount();
+}
@@ -0,0 +1,211 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionService;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionServiceMXBean;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Either evaluates the queries on a bounded pool of platform threads, or, if requested and supported by the JVM
+ * (Java 21+), on virtual threads. In the latter case, a new virtual thread is created per query and the bound
+ * on the number of concurrent queries is enforced by a semaphore.
+ *
+ * Idle platform threads are released after a keep-alive time. All the threads are daemon threads.
+ *
+ * In both cases, the number of waiting queries is bounded: the queries submitted when the queue is full are rejected
+ * right away instead of piling up.
+ */
+@Singleton
+public class DefaultQueryExecutionService implements QueryExecutionService, QueryExecutionServiceMXBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultQueryExecutionService.class);
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    private static final String JMX_NAME_PREFIX = "it.unibz.inf.ontop:type=QueryExecutionService,instance=";
+    private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger();
+
+    private final ExecutorService executor;
+    private final int maxConcurrentQueries;
+    private final int maxQueuedQueries;
+    // Only used with virtual threads
+    private final Optional<Semaphore> semaphore;
+
+    private final AtomicInteger queueDepth;
+    private final AtomicInteger activeQueryCount;
+    private final LongAdder rejectedQueryCount;
+
+    private final Optional<ObjectName> jmxName;
+
+    @Inject
+    private DefaultQueryExecutionService(OntopSystemSettings settings) {
+        this(settings.getMaxConcurrentQueries(), settings.getMaxQueuedQueries(),
+                settings.areVirtualThreadsEnabledForQueries(),
+                settings.isQueryMetricsEnabled() && settings.isQueryMetricsJMXEnabled());
+    }
+
+    DefaultQueryExecutionService(int maxConcurrentQueries, int maxQueuedQueries, boolean useVirtualThreads,
+                                 boolean registerInJMX) {
+        this.maxConcurrentQueries = maxConcurrentQueries;
+        this.maxQueuedQueries = maxQueuedQueries;
+        this.queueDepth = new AtomicInteger(0);
+        this.activeQueryCount = new AtomicInteger(0);
+        this.rejectedQueryCount = new LongAdder();
+
+        Optional<ExecutorService> virtualThreadExecutor = useVirtualThreads
+                ? createVirtualThreadExecutor()
+                : Optional.empty();
+
+        if (virtualThreadExecutor.isPresent()) {
+            this.executor = virtualThreadExecutor.get();
+            this.semaphore = Optional.of(new Semaphore(maxConcurrentQueries, true));
+        }
+        else {
+            ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(maxConcurrentQueries, maxConcurrentQueries,
+                    // Bounded by the queue depth check of submit() (the cancelled tasks, which may stay in
+                    // this queue until a thread discards them, are not counted)
+                    KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("ontop-query-%d")
+                            .setDaemon(true)
+                            .build());
+            threadPoolExecutor.allowCoreThreadTimeOut(true);
+            this.executor = threadPoolExecutor;
+            this.semaphore = Optional.empty();
+        }
+
+        this.jmxName = registerInJMX ? registerMXBean() : Optional.empty();
+    }
+
+    /**
+     * Several query engines may live in the same JVM, hence the instance number
+     */
+    private Optional<ObjectName> registerMXBean() {
+        try {
+            ObjectName name = new ObjectName(JMX_NAME_PREFIX + INSTANCE_COUNTER.incrementAndGet());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            LOGGER.debug("Query execution service registered in JMX as {}", name);
+            return Optional.of(name);
+        }
+        catch (JMException e) {
+            LOGGER.warn("Could not register the query execution service in JMX: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reflection is used as virtual threads are not available in Java 11
+     */
+    private static Optional<ExecutorService> createVirtualThreadExecutor() {
+        try {
+            return Optional.of((ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null));
+        } catch (ReflectiveOperationException e) {
+            LOGGER.warn("Virtual threads are not supported by this JVM (requires Java 21+). " +
+                    "Falling back to a pool of platform threads.");
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) throws RejectedExecutionException {
+        if (queueDepth.incrementAndGet() > maxQueuedQueries) {
+            queueDepth.decrementAndGet();
+            rejectedQueryCount.increment();
+            throw new RejectedExecutionException(String.format(
+                    "Too many queries waiting for being evaluated (%d queued, %d running)",
+                    maxQueuedQueries, activeQueryCount.get()));
+        }
+        // Leaves the queue either when starting or when cancelled before starting
+        AtomicBoolean isDequeued = new AtomicBoolean(false);
+        Runnable dequeue = () -> {
+            if (isDequeued.compareAndSet(false, true))
+                queueDepth.decrementAndGet();
+        };
+
+        FutureTask<T> futureTask = new FutureTask<>(() -> {
+            boolean isAcquired = false;
+            try {
+                if (semaphore.isPresent()) {
+                    semaphore.get().acquire();
+                    isAcquired = true;
+                }
+            } finally {
+                dequeue.run();
+            }
+
+            activeQueryCount.incrementAndGet();
+            try {
+                return task.call();
+            } finally {
+                activeQueryCount.decrementAndGet();
+                if (isAcquired)
+                    semaphore.get().release();
+            }
+        }) {
+            @Override
+            protected void done() {
+                dequeue.run();
+            }
+        };
+
+        try {
+            executor.execute(futureTask);
+        }
+        // Closed
+        catch (RejectedExecutionException e) {
+            dequeue.run();
+            throw e;
+        }
+        return futureTask;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    @Override
+    public int getActiveQueryCount() {
+        return activeQueryCount.get();
+    }
+
+    @Override
+    public int getMaxConcurrentQueries() {
+        return maxConcurrentQueries;
+    }
+
+    @Override
+    public int getMaxQueuedQueries() {
+        return maxQueuedQueries;
+    }
+
+    @Override
+    public long getRejectedQueryCount() {
+        return rejectedQueryCount.sum();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        jmxName.ifPresent(n -> {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(n);
+            }
+            catch (JMException e) {
+                LOGGER.warn("Could not unregister the query execution service from JMX: {}", e.getMessage());
+            }
+        });
+    }
+}
@@ -3,8 +3,10 @@ package it.unibz.inf.ontop.answering.connection.impl;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionService;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.evaluator.QueryContext;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.query.*;
 import it.unibz.inf.ontop.query.resultset.impl.DefaultDescribeGraphResultSet;
@@ -18,7 +20,12 @@ import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.CountDownLatch;
+import javax.annotation.Nullable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 
 /**
@@ -31,94 +38,26 @@ public abstract class QuestStatement implements OntopStatement {
 	private final QueryLogger.Factory queryLoggerFactory;
 	private final QueryContext.Factory queryContextFactory;
 
-	private QueryExecutionThread<?,?> executionThread;
-	private boolean canceled = false;
+	private final QueryExecutionService executionService;
+	private final OntopSystemSettings settings;
+
+	@Nullable
+	private volatile Future<?> executionFuture;
+	private volatile boolean canceled = false;
 
 
 	private static final Logger log = LoggerFactory.getLogger(QuestStatement.class);
 
 
-	public QuestStatement(QueryReformulator queryProcessor) {
+	public QuestStatement(QueryReformulator queryProcessor, QueryExecutionService executionService,
+						  OntopSystemSettings settings) {
 		this.engine = queryProcessor;
+		this.executionService = executionService;
+		this.settings = settings;
 		this.queryLoggerFactory = queryProcessor.getQueryLoggerFactory();
 		this.queryContextFactory = queryProcessor.getQueryContextFactory();
 	}
 
-	/**
-	 * Execution thread
-	 */
-	private class QueryExecutionThread<R extends OBDAResultSet, Q extends KGQuery<R>> extends Thread {
-
-		private final Q inputQuery;
-		private final QueryLogger queryLogger;
-		private final QueryContext queryContext;
-		private final Evaluator<R, Q> evaluator;
-		private final CountDownLatch monitor;
-
-		private R resultSet;	  // only for SELECT and ASK queries
-		private Exception exception;
-		private boolean executingTargetQuery;
-
-		QueryExecutionThread(Q inputQuery, QueryLogger queryLogger, QueryContext queryContext, Evaluator<R,Q> evaluator,
-						CountDownLatch monitor) {
-			this.inputQuery = inputQuery;
-			this.queryLogger = queryLogger;
-			this.queryContext = queryContext;
-			this.evaluator = evaluator;
-			this.monitor = monitor;
-			this.exception = null;
-			this.executingTargetQuery = false;
-		}
-
-		public boolean errorStatus() {
-			return exception != null;
-		}
-
-		public Exception getException() {
-			return exception;
-		}
-
-		public R getResultSet() {
-			return resultSet;
-		}
-
-		public void cancel() throws OntopQueryEvaluationException {
-			canceled = true;
-			if (!executingTargetQuery) {
-				this.stop();
-			} else {
-				cancelExecution();
-			}
-		}
-
-		@Override
-		public void run() {
-			//                        FOR debugging H2 in-memory database
-//			try {
-//				org.h2.tools.Server.startWebServer(((QuestConnection)conn).getSQLConnection());
-//			} catch (SQLException e) {
-//				e.printStackTrace();
-//			}
-			try {
-				/*
-				 * Executes the target query.
-				 */
-				executingTargetQuery = true;
-				resultSet = evaluator.evaluate(inputQuery, queryContext, queryLogger);
-				// NB: finished if the result set is blocking!
-				log.debug("Result set unblocked.\n");
-				/*
-				 * TODO: re-handle the timeout exception.
-				 */
-			} catch (Exception e) {
-				exception = e;
-				log.error(e.getMessage(), e);
-			} finally {
-				monitor.countDown();
-			}
-		}
-	}
-
 	private TupleResultSet executeSelectQuery(SelectQuery inputQuery, QueryContext queryContext, QueryLogger queryLogger)
 			throws OntopQueryEvaluationException, OntopReformulationException {
 		return executeSelectQuery(inputQuery, queryContext, queryLogger, true);
@@ -128,6 +67,7 @@ public abstract class QuestStatement implements OntopStatement {
 											  boolean shouldAlsoCloseStatement)
 			throws OntopQueryEvaluationException, OntopReformulationException {
 		IQ executableQuery = engine.reformulateIntoNativeQuery(inputQuery, queryContext, queryLogger);
+		checkCancellation();
 		logExecutionStartingMessage();
 		return executeSelectQuery(executableQuery, queryLogger, shouldAlsoCloseStatement);
 	}
@@ -145,6 +85,7 @@ public abstract class QuestStatement implements OntopStatement {
 	private BooleanResultSet executeBooleanQuery(AskQuery inputQuery, QueryContext queryContext, QueryLogger queryLogger)
 			throws OntopQueryEvaluationException, OntopReformulationException {
 		IQ executableQuery = engine.reformulateIntoNativeQuery(inputQuery, queryContext, queryLogger);
+		checkCancellation();
 		logExecutionStartingMessage();
 		return executeBooleanQuery(executableQuery, queryLogger);
 	}
@@ -158,6 +99,7 @@ public abstract class QuestStatement implements OntopStatement {
 												 boolean shouldAlsoCloseStatement)
 			throws OntopQueryEvaluationException, OntopResultConversionException, OntopConnectionException, OntopReformulationException {
 		IQ executableQuery = engine.reformulateIntoNativeQuery(constructQuery, queryContext, queryLogger);
+		checkCancellation();
 		logExecutionStartingMessage();
 		return executeConstructQuery(constructQuery.getConstructTemplate(), executableQuery, queryLogger, shouldAlsoCloseStatement);
 	}
@@ -177,7 +119,27 @@ public abstract class QuestStatement implements OntopStatement {
 		return new DefaultDescribeGraphResultSet(describeQuery, queryLogger, queryLoggerFactory, queryContext,
 				(selectQuery, qContext, logger) -> executeSelectQuery(selectQuery, qContext, logger, false),
 				(constructQuery, qContext, logger) -> executeConstructQuery(constructQuery, qContext, logger, false),
-				this::close);
+				settings.getDescribeBatchSize(), settings.getDescribeParallelism(),
+				// Each block gets its own statement (and connection), closed with its result set
+				(constructQuery, qContext, logger) -> createDetachedStatement()
+						.executeConstructQuery(constructQuery, qContext, logger, true),
+				executionService, this::close);
+	}
+
+	/**
+	 * Creates a statement on a new connection, which is released when the statement is closed.
+	 *
+	 * Used for evaluating the blocks of a DESCRIBE query in parallel.
+	 */
+	protected abstract QuestStatement createDetachedStatement() throws OntopConnectionException;
+
+	/**
+	 * Cooperative cancellation: the reformulation is not interrupted, but the native query is not sent
+	 * to the DB if the statement has been cancelled in the meantime.
+	 */
+	private void checkCancellation() throws OntopQueryEvaluationException {
+		if (canceled || Thread.currentThread().isInterrupted())
+			throw new OntopQueryEvaluationException("Query execution was cancelled");
 	}
 
 	private void logExecutionStartingMessage() {
@@ -204,16 +166,16 @@ public abstract class QuestStatement implements OntopStatement {
 			throws OntopConnectionException, OntopReformulationException, OntopQueryEvaluationException, OntopResultConversionException {
 
 		if (inputQuery instanceof SelectQuery) {
-			return (R) executeInThread((SelectQuery) inputQuery, httpHeaders, (inputQuery1, queryContext, queryLogger) -> executeSelectQuery(inputQuery1, queryContext, queryLogger));
+			return (R) executeInExecutionService((SelectQuery) inputQuery, httpHeaders, (inputQuery1, queryContext, queryLogger) -> executeSelectQuery(inputQuery1, queryContext, queryLogger));
 		}
 		else if (inputQuery instanceof AskQuery) {
-			return (R) executeInThread((AskQuery) inputQuery, httpHeaders, (inputQuery1, queryContext, queryLogger) -> executeBooleanQuery(inputQuery1, queryContext, queryLogger));
+			return (R) executeInExecutionService((AskQuery) inputQuery, httpHeaders, (inputQuery1, queryContext, queryLogger) -> executeBooleanQuery(inputQuery1, queryContext, queryLogger));
 		}
 		else if (inputQuery instanceof DescribeQuery) {
-			return (R) executeInThread((DescribeQuery) inputQuery, httpHeaders, (describeQuery, queryContext, queryLogger) -> executeDescribeQuery(describeQuery, queryContext, queryLogger));
+			return (R) executeInExecutionService((DescribeQuery) inputQuery, httpHeaders, (describeQuery, queryContext, queryLogger) -> executeDescribeQuery(describeQuery, queryContext, queryLogger));
 		}
 		else if (inputQuery instanceof ConstructQuery) {
-			return (R) executeInThread((ConstructQuery) inputQuery, httpHeaders, (constructQuery, queryContext, queryLogger) -> executeConstructQuery(constructQuery, queryContext, queryLogger));
+			return (R) executeInExecutionService((ConstructQuery) inputQuery, httpHeaders, (constructQuery, queryContext, queryLogger) -> executeConstructQuery(constructQuery, queryContext, queryLogger));
 		}
 		else {
 			throw new OntopUnsupportedInputQueryException("Unsupported query type: " + inputQuery);
@@ -221,10 +183,13 @@ public abstract class QuestStatement implements OntopStatement {
 	}
 
 	/**
-	 * Internal method to start a new query execution thread type defines the
-	 * query type SELECT, ASK, CONSTRUCT, or DESCRIBE
+	 * Internal method submitting the query to the execution service and waiting for its result set.
+	 * The evaluator defines the query type SELECT, ASK, CONSTRUCT, or DESCRIBE
+	 *
+	 * A result set produced for a cancelled query is closed (either here or by the evaluating thread,
+	 * whichever comes last), so as to release its JDBC statement and connection.
 	 */
-	private <R extends OBDAResultSet, Q extends KGQuery<R>> R executeInThread(Q inputQuery, ImmutableMultimap<String, String> httpHeaders,
+	private <R extends OBDAResultSet, Q extends KGQuery<R>> R executeInExecutionService(Q inputQuery, ImmutableMultimap<String, String> httpHeaders,
 																			  Evaluator<R, Q> evaluator)
 			throws OntopReformulationException, OntopQueryEvaluationException {
 
@@ -235,38 +200,91 @@ public abstract class QuestStatement implements OntopStatement {
 
 		QueryContext queryContext = queryContextFactory.create(normalizedHttpHeaders);
 
-		CountDownLatch monitor = new CountDownLatch(1);
-
-		QueryExecutionThread<R, Q> executionthread = new QueryExecutionThread<>(inputQuery, queryLogger, queryContext, evaluator,
-				monitor);
+		AtomicReference<Future<R>> futureReference = new AtomicReference<>();
+		AtomicReference<R> pendingResultSet = new AtomicReference<>();
+		Future<R> future;
+		try {
+			future = executionService.submit(() -> {
+				R resultSet = evaluator.evaluate(inputQuery, queryContext, queryLogger);
+				pendingResultSet.set(resultSet);
+				// Cancelled while evaluating: nobody will get this result set
+				Future<R> f = futureReference.get();
+				if (f != null && f.isCancelled())
+					closePendingResultSet(pendingResultSet);
+				return resultSet;
+			});
+		}
+		catch (RejectedExecutionException e) {
+			queryLogger.declareEvaluationException(e);
+			throw new OntopQueryEvaluationException("Query rejected: " + e.getMessage());
+		}
+		futureReference.set(future);
+		this.executionFuture = future;
+		log.debug("Query submitted (queue depth: {}, active queries: {})", executionService.getQueueDepth(),
+				executionService.getActiveQueryCount());
 
-		this.executionThread = executionthread;
-		executionthread.start();
 		try {
-			monitor.await();
-		} catch (InterruptedException e) {
-			e.printStackTrace();
+			R resultSet = future.get();
+			// NB: finished if the result set is blocking!
+			log.debug("Result set unblocked.\n");
+
+			if (canceled) {
+				canceled = false;
+				closePendingResultSet(pendingResultSet);
+				throw new OntopQueryEvaluationException("Query execution was cancelled");
+			}
+			return resultSet;
+		}
+		catch (CancellationException e) {
+			canceled = false;
+			closePendingResultSet(pendingResultSet);
+			throw new OntopQueryEvaluationException("Query execution was cancelled");
+		}
+		catch (InterruptedException e) {
+			future.cancel(true);
+			closePendingResultSet(pendingResultSet);
+			Thread.currentThread().interrupt();
+			throw new OntopQueryEvaluationException("Interrupted while waiting for the query evaluation");
 		}
-		if (executionthread.errorStatus()) {
-			Exception ex = executionthread.getException();
-			if (ex instanceof OntopReformulationException) {
+		catch (ExecutionException e) {
+			Throwable ex = e.getCause();
+			log.error(ex.getMessage(), ex);
+
+			if (canceled) {
+				canceled = false;
+				throw new OntopQueryEvaluationException("Query execution was cancelled");
+			}
+			else if (ex instanceof OntopReformulationException) {
 				throw (OntopReformulationException) ex;
 			}
 			else if (ex instanceof OntopQueryEvaluationException) {
-				queryLogger.declareEvaluationException(ex);
+				queryLogger.declareEvaluationException((OntopQueryEvaluationException) ex);
 				throw (OntopQueryEvaluationException) ex;
 			}
 			else {
-				queryLogger.declareEvaluationException(ex);
-				throw new OntopQueryEvaluationException(ex);
+				Exception wrappedException = (ex instanceof Exception) ? (Exception) ex : new ExecutionException(ex);
+				queryLogger.declareEvaluationException(wrappedException);
+				throw new OntopQueryEvaluationException(wrappedException);
 			}
 		}
+		finally {
+			executionFuture = null;
+		}
+	}
 
-		if (canceled) {
-			canceled = false;
-			throw new OntopQueryEvaluationException("Query execution was cancelled");
+	/**
+	 * Closes the result set at most once
+	 */
+	private static void closePendingResultSet(AtomicReference<? extends OBDAResultSet> pendingResultSet) {
+		OBDAResultSet resultSet = pendingResultSet.getAndSet(null);
+		if (resultSet == null)
+			return;
+		try {
+			resultSet.close();
+		}
+		catch (Exception e) {
+			log.warn("Could not close the result set of a cancelled query: {}", e.getMessage());
 		}
-		return executionthread.getResultSet();
 	}
 
 	/**
@@ -283,13 +301,20 @@ public abstract class QuestStatement implements OntopStatement {
 	}
 
 
+	/**
+	 * Cancels the native query if already sent to the DB and interrupts the evaluating thread.
+	 */
 	@Override
 	public void cancel() throws OntopConnectionException {
 		canceled = true;
+		Future<?> future = executionFuture;
 		try {
-			executionThread.cancel();
+			cancelExecution();
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
+		} finally {
+			if (future != null)
+				future.cancel(true);
 		}
 	}
 
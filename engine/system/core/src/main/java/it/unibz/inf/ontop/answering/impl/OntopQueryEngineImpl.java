@@ -4,11 +4,14 @@ package it.unibz.inf.ontop.answering.impl;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.logging.QueryLogSink;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
+import it.unibz.inf.ontop.evaluator.metrics.QueryPipelineMetrics;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.injection.OntopSystemFactory;
 import it.unibz.inf.ontop.injection.ReformulationFactory;
 import it.unibz.inf.ontop.answering.connection.DBConnector;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionService;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
 import it.unibz.inf.ontop.spec.OBDASpecification;
 
@@ -16,13 +19,22 @@ public class OntopQueryEngineImpl implements OntopQueryEngine {
 
     private final DBConnector dbConnector;
     private final QueryReformulator queryReformulator;
+    private final QueryLogSink queryLogSink;
+    private final QueryPipelineMetrics metrics;
+    private final QueryExecutionService executionService;
 
     @AssistedInject
     private OntopQueryEngineImpl(@Assisted OBDASpecification obdaSpecification,
                                  ReformulationFactory translationFactory,
-                                 OntopSystemFactory systemFactory) {
+                                 OntopSystemFactory systemFactory,
+                                 QueryLogSink queryLogSink,
+                                 QueryPipelineMetrics metrics,
+                                 QueryExecutionService executionService) {
         queryReformulator = translationFactory.create(obdaSpecification);
         dbConnector = systemFactory.create(queryReformulator);
+        this.queryLogSink = queryLogSink;
+        this.metrics = metrics;
+        this.executionService = executionService;
     }
 
     @Override
@@ -30,9 +42,19 @@ public class OntopQueryEngineImpl implements OntopQueryEngine {
         return dbConnector.connect();
     }
 
+    /**
+     * Also releases the components shared by the connections (threads, JMX registrations, log files)
+     */
     @Override
     public void close() throws OntopConnectionException {
-        dbConnector.close();
+        try {
+            executionService.close();
+            dbConnector.close();
+        }
+        finally {
+            queryLogSink.close();
+            metrics.close();
+        }
     }
 
     @Override
@@ -18,18 +18,113 @@ public interface OntopSystemSettings extends OntopReformulationSettings {
      */
     boolean isPermanentDBConnectionEnabled();
 
+    /**
+     * Maximum number of KG queries evaluated concurrently. Other queries wait in a queue.
+     */
+    int getMaxConcurrentQueries();
+
+    /**
+     * Maximum number of KG queries waiting for being evaluated. Queries beyond this bound are rejected.
+     */
+    int getMaxQueuedQueries();
+
+    /**
+     * If true and supported by the JVM (Java 21+), queries are evaluated on virtual threads.
+     */
+    boolean areVirtualThreadsEnabledForQueries();
+
+    /**
+     * Number of resources described by the same CONSTRUCT query (VALUES block) when answering a DESCRIBE query.
+     *
+     * 1 means one CONSTRUCT query per described resource.
+     */
+    int getDescribeBatchSize();
+
+    /**
+     * Maximum number of DESCRIBE blocks evaluated in parallel, each on its own connection of the pool.
+     *
+     * 1 means that the blocks are evaluated sequentially on the connection of the statement.
+     */
+    int getDescribeParallelism();
+
     // HTTP Caching
     Optional<String> getHttpCacheControl();
 
+    /**
+     * Maximum number of responses kept in the result cache of the SPARQL endpoint.
+     *
+     * The result cache is disabled if equal to 0.
+     */
+    int getHttpResultCacheMaxEntries();
+
+    /**
+     * Number of bytes of responses that the result cache keeps in memory
+     */
+    long getHttpResultCacheMaxBytes();
+
+    /**
+     * Responses larger than this number of bytes are not cached
+     */
+    long getHttpResultCacheMaxEntrySize();
+
+    /**
+     * Time to live of the cached responses (in ms)
+     */
+    long getHttpResultCacheTTL();
+
+    /**
+     * Directory where the responses not fitting in memory are spilled.
+     *
+     * If absent, these responses are evicted.
+     */
+    Optional<String> getHttpResultCacheDirectory();
+
+    /**
+     * Number of bytes of responses that can be spilled on disk
+     */
+    long getHttpResultCacheMaxDiskBytes();
+
+    /**
+     * Maximum number of parsed SPARQL queries kept for being reused by the repository connections.
+     * 0 disables this cache.
+     */
+    long getParsedQueryCacheMaxSize();
+
+    /**
+     * Number of most used queries of the previous specification that are reformulated
+     * before a reloaded specification starts answering queries
+     */
+    int getReloadWarmUpQueries();
+
+    /**
+     * Maximum time (in ms) given to the in-flight queries of the previous specification
+     * to complete before it is shut down after a reload
+     */
+    long getReloadDrainTimeout();
+
     //--------------------------
     // Keys
     //--------------------------
 
     String DEFAULT_QUERY_TIMEOUT = "ontop.query.defaultTimeout";
     String PERMANENT_DB_CONNECTION = "ontop.permanentConnection";
+    String MAX_CONCURRENT_QUERIES = "ontop.query.maxConcurrentQueries";
+    String MAX_QUEUED_QUERIES = "ontop.query.maxQueuedQueries";
+    String QUERY_VIRTUAL_THREADS = "ontop.query.virtualThreads";
+    String DESCRIBE_BATCH_SIZE = "ontop.describe.batchSize";
+    String DESCRIBE_PARALLELISM = "ontop.describe.parallelism";
+    String PARSED_QUERY_CACHE_MAX_SIZE = "ontop.cache.parsedQuery.size";
+    String RELOAD_WARM_UP_QUERIES = "ontop.reload.warmUpQueries";
+    String RELOAD_DRAIN_TIMEOUT = "ontop.reload.drainTimeout";
 
     // HTTP caching
     String HTTP_CACHE_CONTROL = "ontop.http.cacheControl";
+    String HTTP_RESULT_CACHE_MAX_ENTRIES = "ontop.http.resultCache.maxEntries";
+    String HTTP_RESULT_CACHE_MAX_BYTES = "ontop.http.resultCache.maxBytes";
+    String HTTP_RESULT_CACHE_MAX_ENTRY_SIZE = "ontop.http.resultCache.maxEntrySize";
+    String HTTP_RESULT_CACHE_TTL = "ontop.http.resultCache.ttl";
+    String HTTP_RESULT_CACHE_DIRECTORY = "ontop.http.resultCache.directory";
+    String HTTP_RESULT_CACHE_MAX_DISK_BYTES = "ontop.http.resultCache.maxDiskBytes";
     @Deprecated
     String HTTP_CACHE_MAX_AGE = "ontop.http.cache.maxAge";
     @Deprecated
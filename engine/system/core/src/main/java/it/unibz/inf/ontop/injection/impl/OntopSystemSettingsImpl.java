@@ -36,6 +36,31 @@ public class OntopSystemSettingsImpl extends OntopReformulationSettingsImpl impl
         return getRequiredBoolean(PERMANENT_DB_CONNECTION);
     }
 
+    @Override
+    public int getMaxConcurrentQueries() {
+        return getRequiredInteger(MAX_CONCURRENT_QUERIES);
+    }
+
+    @Override
+    public int getMaxQueuedQueries() {
+        return getRequiredInteger(MAX_QUEUED_QUERIES);
+    }
+
+    @Override
+    public boolean areVirtualThreadsEnabledForQueries() {
+        return getRequiredBoolean(QUERY_VIRTUAL_THREADS);
+    }
+
+    @Override
+    public int getDescribeBatchSize() {
+        return getRequiredInteger(DESCRIBE_BATCH_SIZE);
+    }
+
+    @Override
+    public int getDescribeParallelism() {
+        return getRequiredInteger(DESCRIBE_PARALLELISM);
+    }
+
     @Override
     public Optional<String> getHttpCacheControl() {
         String cacheControl = getProperty(HTTP_CACHE_CONTROL)
@@ -52,4 +77,49 @@ public class OntopSystemSettingsImpl extends OntopReformulationSettingsImpl impl
         return Optional.of(cacheControl)
                 .filter(s -> !s.isEmpty());
     }
+
+    @Override
+    public int getHttpResultCacheMaxEntries() {
+        return getRequiredInteger(HTTP_RESULT_CACHE_MAX_ENTRIES);
+    }
+
+    @Override
+    public long getHttpResultCacheMaxBytes() {
+        return getRequiredLong(HTTP_RESULT_CACHE_MAX_BYTES);
+    }
+
+    @Override
+    public long getHttpResultCacheMaxEntrySize() {
+        return getRequiredLong(HTTP_RESULT_CACHE_MAX_ENTRY_SIZE);
+    }
+
+    @Override
+    public long getHttpResultCacheTTL() {
+        return getRequiredLong(HTTP_RESULT_CACHE_TTL);
+    }
+
+    @Override
+    public Optional<String> getHttpResultCacheDirectory() {
+        return getProperty(HTTP_RESULT_CACHE_DIRECTORY);
+    }
+
+    @Override
+    public long getHttpResultCacheMaxDiskBytes() {
+        return getRequiredLong(HTTP_RESULT_CACHE_MAX_DISK_BYTES);
+    }
+
+    @Override
+    public long getParsedQueryCacheMaxSize() {
+        return getRequiredLong(PARSED_QUERY_CACHE_MAX_SIZE);
+    }
+
+    @Override
+    public int getReloadWarmUpQueries() {
+        return getRequiredInteger(RELOAD_WARM_UP_QUERIES);
+    }
+
+    @Override
+    public long getReloadDrainTimeout() {
+        return getRequiredLong(RELOAD_DRAIN_TIMEOUT);
+    }
 }
@@ -16,6 +16,22 @@ public interface MaterializationParams {
      */
     boolean canMaterializationBeIncomplete();
 
+    /**
+     * Number of classes/properties materialized in parallel, each on its own connection.
+     * Their facts are merged into the same result set (no ordering guarantee between classes/properties).
+     *
+     * 1 by default (sequential materialization).
+     */
+    int getWorkerCount();
+
+    /**
+     * If true, the facts of each class/property are retrieved by directly generating native queries
+     * from its definitions in the saturated mapping, instead of going through SPARQL queries.
+     *
+     * False by default.
+     */
+    boolean isDirectMaterializationEnabled();
+
 
     static Builder<?> defaultBuilder() {
         return new MaterializationParamsImpl.DefaultBuilder();
@@ -25,6 +41,10 @@ public interface MaterializationParams {
 
         B enableIncompleteMaterialization(boolean enable);
 
+        B workerCount(int workerCount);
+
+        B enableDirectMaterialization(boolean enable);
+
         MaterializationParams build();
     }
 }
@@ -1,14 +1,11 @@
 package it.unibz.inf.ontop.materialization.impl;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.UnmodifiableIterator;
 import it.unibz.inf.ontop.answering.OntopQueryEngine;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
-import it.unibz.inf.ontop.query.KGQueryFactory;
-import it.unibz.inf.ontop.query.SelectQuery;
 import it.unibz.inf.ontop.answering.resultset.MaterializedGraphResultSet;
 import it.unibz.inf.ontop.query.resultset.OntopBindingSet;
 import it.unibz.inf.ontop.query.resultset.OntopCloseableIterator;
@@ -16,8 +13,6 @@ import it.unibz.inf.ontop.query.resultset.TupleResultSet;
 import it.unibz.inf.ontop.exception.*;
 import it.unibz.inf.ontop.materialization.MaterializationParams;
 import it.unibz.inf.ontop.model.term.IRIConstant;
-import it.unibz.inf.ontop.model.term.ObjectConstant;
-import it.unibz.inf.ontop.model.term.RDFConstant;
 import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.model.vocabulary.RDF;
 import it.unibz.inf.ontop.spec.ontology.RDFFact;
@@ -32,12 +27,11 @@ import java.util.List;
 class DefaultMaterializedGraphResultSet implements MaterializedGraphResultSet {
 
     private final TermFactory termFactory;
-    private final ImmutableMap<IRI, VocabularyEntry> vocabulary;
-    private final KGQueryFactory kgQueryFactory;
+    private final ImmutableSet<IRI> selectedVocabulary;
     private final boolean canBeIncomplete;
 
     private final OntopQueryEngine queryEngine;
-    private final UnmodifiableIterator<VocabularyEntry> vocabularyIterator;
+    private final UnmodifiableIterator<FactQuery> queryIterator;
 
     private int counter;
     @Nullable
@@ -49,25 +43,23 @@ class DefaultMaterializedGraphResultSet implements MaterializedGraphResultSet {
 
     private final Logger LOGGER = LoggerFactory.getLogger(DefaultMaterializedGraphResultSet.class);
     private final List<IRI> possiblyIncompleteClassesAndProperties;
-    private VocabularyEntry lastSeenPredicate;
+    private FactQuery lastSeenQuery;
     private IRIConstant lastSeenPredicateIRI;
 
     private final IRIConstant rdfTypeIRI;
 
 
-    DefaultMaterializedGraphResultSet(ImmutableMap<IRI, VocabularyEntry> vocabulary, MaterializationParams params,
+    DefaultMaterializedGraphResultSet(ImmutableSet<IRI> selectedVocabulary, ImmutableList<FactQuery> queries,
+                                      MaterializationParams params,
                                       OntopQueryEngine queryEngine,
-                                      KGQueryFactory kgQueryFactory,
-                                      TermFactory termFactory,
-                                      org.apache.commons.rdf.api.RDF rdfFactory) {
+                                      TermFactory termFactory) {
 
         this.termFactory = termFactory;
-        this.vocabulary = vocabulary;
-        this.vocabularyIterator = vocabulary.values().iterator();
+        this.selectedVocabulary = selectedVocabulary;
+        this.queryIterator = queries.iterator();
 
         this.queryEngine = queryEngine;
         this.canBeIncomplete = params.canMaterializationBeIncomplete();
-        this.kgQueryFactory = kgQueryFactory;
         this.possiblyIncompleteClassesAndProperties = new ArrayList<>();
 
         counter = 0;
@@ -82,7 +74,7 @@ class DefaultMaterializedGraphResultSet implements MaterializedGraphResultSet {
 
     @Override
     public ImmutableSet<IRI> getSelectedVocabulary() {
-        return vocabulary.keySet();
+        return selectedVocabulary;
     }
 
     @Override
@@ -97,7 +89,7 @@ class DefaultMaterializedGraphResultSet implements MaterializedGraphResultSet {
 
         // Davide> If there is no next, we need to go to the next vocabulary predicate
 
-        while (vocabularyIterator.hasNext()) {
+        while (queryIterator.hasNext()) {
             /*
              * Closes the previous result set and statement (if open)
              */
@@ -121,17 +113,16 @@ class DefaultMaterializedGraphResultSet implements MaterializedGraphResultSet {
             /*
              * New query for the next RDF property/class
              */
-            VocabularyEntry predicate = vocabularyIterator.next();
+            FactQuery query = queryIterator.next();
+            VocabularyEntry predicate = query.predicate;
 
             try {
-                SelectQuery query = kgQueryFactory.createSelectQuery(predicate.getSelectQuery());
-
                 tmpStatement = ontopConnection.createStatement();
-                tmpContextResultSet = tmpStatement.execute(query);
+                tmpContextResultSet = query.evaluate(tmpStatement);
 
                 if (tmpContextResultSet.hasNext()) {
-                    lastSeenPredicate = predicate;
-                    lastSeenPredicateIRI = termFactory.getConstantIRI(lastSeenPredicate.getIRIString());
+                    lastSeenQuery = query;
+                    lastSeenPredicateIRI = termFactory.getConstantIRI(predicate.getIRIString());
 
                     return true;
                 }
@@ -139,7 +130,8 @@ class DefaultMaterializedGraphResultSet implements MaterializedGraphResultSet {
                 if (canBeIncomplete) {
                     LOGGER.warn("Possibly incomplete class/property " + predicate + " (materialization problem).\n"
                             + "Details: " + e);
-                    possiblyIncompleteClassesAndProperties.add(predicate.name);
+                    if (!possiblyIncompleteClassesAndProperties.contains(predicate.name))
+                        possiblyIncompleteClassesAndProperties.add(predicate.name);
                 } else {
                     LOGGER.error("Problem materializing the class/property " + predicate);
                     throw e;
@@ -152,20 +144,6 @@ class DefaultMaterializedGraphResultSet implements MaterializedGraphResultSet {
         return false;
     }
 
-    /**
-     * Builds (named) assertions out of (quad) results
-     */
-    private RDFFact toAssertion(OntopBindingSet tuple) throws OntopResultConversionException {
-        ObjectConstant s = (ObjectConstant) tuple.getConstant("s");
-        IRIConstant p = lastSeenPredicate.isClass() ? rdfTypeIRI : lastSeenPredicateIRI;
-        RDFConstant o = lastSeenPredicate.isClass() ? lastSeenPredicateIRI : tuple.getConstant("o");
-        ObjectConstant g = (ObjectConstant)tuple.getConstant("g");
-
-        return (g == null)
-                ? RDFFact.createTripleFact(s, p, o)
-                : RDFFact.createQuadFact(s, p, o, g);
-    }
-
     @Override
     public RDFFact next() throws OntopQueryAnsweringException {
         counter++;
@@ -173,7 +151,7 @@ class DefaultMaterializedGraphResultSet implements MaterializedGraphResultSet {
         OntopBindingSet resultTuple;
         try {
             resultTuple = tmpContextResultSet.next();
-            return toAssertion(resultTuple);
+            return lastSeenQuery.createFact(resultTuple, lastSeenPredicateIRI, rdfTypeIRI);
         } catch (OntopConnectionException e) {
             try {
                 tmpContextResultSet.close();
@@ -1,9 +1,12 @@
 package it.unibz.inf.ontop.materialization.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.Injector;
 import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.query.KGQueryFactory;
 import it.unibz.inf.ontop.answering.resultset.MaterializedGraphResultSet;
 import it.unibz.inf.ontop.exception.*;
@@ -15,13 +18,14 @@ import it.unibz.inf.ontop.model.atom.QuadPredicate;
 import it.unibz.inf.ontop.model.atom.RDFAtomPredicate;
 import it.unibz.inf.ontop.model.atom.TriplePredicate;
 import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.spec.OBDASpecification;
 import it.unibz.inf.ontop.spec.mapping.Mapping;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.apache.commons.rdf.api.IRI;
-import org.apache.commons.rdf.api.RDF;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.*;
 import java.util.stream.Stream;
 
@@ -38,8 +42,11 @@ public class DefaultOntopRDFMaterializer implements OntopRDFMaterializer {
     private final OntopQueryEngine queryEngine;
 
     private final ImmutableMap<IRI, VocabularyEntry> vocabulary;
+    private final Mapping saturatedMapping;
     private final TermFactory termFactory;
-    private final RDF rdfFactory;
+    @Nullable
+    private final MappingQueryCompiler mappingQueryCompiler;
+    private final QueryLogger.Factory queryLoggerFactory;
 
     public DefaultOntopRDFMaterializer(OntopSystemConfiguration configuration, MaterializationParams materializationParams) throws OBDASpecificationException {
         Injector injector = configuration.getInjector();
@@ -49,20 +56,66 @@ public class DefaultOntopRDFMaterializer implements OntopRDFMaterializer {
         this.queryEngine = engineFactory.create(specification);
         this.kgQueryFactory = injector.getInstance(KGQueryFactory.class);
         this.termFactory = injector.getInstance(TermFactory.class);
-        this.rdfFactory = injector.getInstance(RDF.class);
-        this.vocabulary = extractVocabulary(specification.getSaturatedMapping());
+        this.queryLoggerFactory = injector.getInstance(QueryLogger.Factory.class);
+        this.saturatedMapping = specification.getSaturatedMapping();
+        this.vocabulary = extractVocabulary(saturatedMapping);
 
         this.params = materializationParams;
+        this.mappingQueryCompiler = materializationParams.isDirectMaterializationEnabled()
+                ? new MappingQueryCompiler(injector, specification)
+                : null;
     }
 
     @Override
     public MaterializedGraphResultSet materialize() {
-        return new DefaultMaterializedGraphResultSet(vocabulary, params, queryEngine, kgQueryFactory, termFactory, rdfFactory);
+        return createResultSet(vocabulary);
     }
 
     @Override
     public MaterializedGraphResultSet materialize(@Nonnull ImmutableSet<IRI> selectedVocabulary) {
-        return new DefaultMaterializedGraphResultSet(filterVocabularyEntries(selectedVocabulary), params, queryEngine, kgQueryFactory, termFactory, rdfFactory);
+        return createResultSet(filterVocabularyEntries(selectedVocabulary));
+    }
+
+    private MaterializedGraphResultSet createResultSet(ImmutableMap<IRI, VocabularyEntry> selectedVocabulary) {
+        ImmutableList<FactQuery> queries = selectedVocabulary.values().stream()
+                .flatMap(this::createFactQueries)
+                .collect(ImmutableCollectors.toList());
+
+        return (params.getWorkerCount() > 1 && queries.size() > 1)
+                ? new ParallelMaterializedGraphResultSet(selectedVocabulary.keySet(), queries, params, queryEngine, termFactory)
+                : new DefaultMaterializedGraphResultSet(selectedVocabulary.keySet(), queries, params, queryEngine, termFactory);
+    }
+
+    private Stream<FactQuery> createFactQueries(VocabularyEntry predicate) {
+        if (mappingQueryCompiler == null)
+            return Stream.of(new SPARQLFactQuery(predicate, kgQueryFactory));
+
+        // One query per RDF atom predicate (triple and quad)
+        return saturatedMapping.getRDFAtomPredicates().stream()
+                .filter(p -> p instanceof TriplePredicate || p instanceof QuadPredicate)
+                .flatMap(p -> (predicate.isClass()
+                        ? saturatedMapping.getRDFClassDefinition(p, predicate.name)
+                        : saturatedMapping.getRDFPropertyDefinition(p, predicate.name)).stream())
+                .map(d -> createMappingFactQuery(predicate, d));
+    }
+
+    /**
+     * The arguments of the projection atom of the definition are the subject, the property, the object
+     * and, for quads, the graph.
+     */
+    private FactQuery createMappingFactQuery(VocabularyEntry predicate, IQ definition) {
+        ImmutableList<Variable> arguments = definition.getProjectionAtom().getArguments();
+        Variable subjectVariable = arguments.get(0);
+        @Nullable Variable objectVariable = predicate.isClass() ? null : arguments.get(2);
+        @Nullable Variable graphVariable = arguments.size() > 3 ? arguments.get(3) : null;
+
+        ImmutableList<Variable> projectedVariables = Stream.of(subjectVariable, objectVariable, graphVariable)
+                .filter(Objects::nonNull)
+                .collect(ImmutableCollectors.toList());
+
+        return new MappingFactQuery(predicate,
+                mappingQueryCompiler.createProjectedQuery(definition, projectedVariables),
+                subjectVariable, objectVariable, graphVariable, mappingQueryCompiler, queryLoggerFactory);
     }
 
     private ImmutableMap<IRI, VocabularyEntry> filterVocabularyEntries(ImmutableSet<IRI> selectedVocabulary) {
@@ -0,0 +1,34 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.exception.OntopInvalidKGQueryException;
+import it.unibz.inf.ontop.exception.OntopQueryAnsweringException;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.query.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.query.resultset.TupleResultSet;
+import it.unibz.inf.ontop.spec.ontology.RDFFact;
+
+/**
+ * Query retrieving (some of) the facts of a class/property
+ */
+abstract class FactQuery {
+
+    final VocabularyEntry predicate;
+
+    FactQuery(VocabularyEntry predicate) {
+        this.predicate = predicate;
+    }
+
+    abstract TupleResultSet evaluate(OntopStatement statement)
+            throws OntopQueryAnsweringException, OntopConnectionException, OntopInvalidKGQueryException;
+
+    abstract RDFFact createFact(OntopBindingSet tuple, IRIConstant predicateIRI, IRIConstant rdfTypeIRI)
+            throws OntopResultConversionException;
+
+    @Override
+    public String toString() {
+        return predicate.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.exception.OntopQueryEvaluationException;
+import it.unibz.inf.ontop.exception.OntopReformulationException;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.query.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.query.resultset.TupleResultSet;
+import it.unibz.inf.ontop.spec.ontology.RDFFact;
+
+import javax.annotation.Nullable;
+
+/**
+ * Retrieves the facts of a class/property defined for one RDF atom predicate (triple or quad)
+ * directly from its definition in the saturated mapping, without going through a SPARQL query.
+ *
+ * The native query is generated when the query is evaluated.
+ */
+class MappingFactQuery extends FactQuery {
+
+    private final IQ definitionQuery;
+    private final Variable subjectVariable;
+    @Nullable
+    private final Variable objectVariable;
+    @Nullable
+    private final Variable graphVariable;
+    private final MappingQueryCompiler compiler;
+    private final QueryLogger.Factory queryLoggerFactory;
+
+    MappingFactQuery(VocabularyEntry predicate, IQ definitionQuery, Variable subjectVariable,
+                     @Nullable Variable objectVariable, @Nullable Variable graphVariable,
+                     MappingQueryCompiler compiler, QueryLogger.Factory queryLoggerFactory) {
+        super(predicate);
+        this.definitionQuery = definitionQuery;
+        this.subjectVariable = subjectVariable;
+        this.objectVariable = objectVariable;
+        this.graphVariable = graphVariable;
+        this.compiler = compiler;
+        this.queryLoggerFactory = queryLoggerFactory;
+    }
+
+    @Override
+    TupleResultSet evaluate(OntopStatement statement)
+            throws OntopQueryEvaluationException, OntopReformulationException {
+        IQ executableQuery = compiler.compile(definitionQuery);
+        return statement.executeSelectQuery(executableQuery, queryLoggerFactory.create(ImmutableMap.of()));
+    }
+
+    @Override
+    RDFFact createFact(OntopBindingSet tuple, IRIConstant predicateIRI, IRIConstant rdfTypeIRI)
+            throws OntopResultConversionException {
+        return predicate.createFact(tuple, subjectVariable.getName(),
+                objectVariable == null ? null : objectVariable.getName(),
+                graphVariable == null ? null : graphVariable.getName(),
+                predicateIRI, rdfTypeIRI);
+    }
+}
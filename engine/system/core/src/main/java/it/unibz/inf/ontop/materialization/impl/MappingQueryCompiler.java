@@ -0,0 +1,80 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.answering.reformulation.generation.NativeQueryGenerator;
+import it.unibz.inf.ontop.evaluator.QueryContext;
+import it.unibz.inf.ontop.exception.OntopReformulationException;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.injection.TranslationFactory;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.optimizer.GeneralStructuralAndSemanticIQOptimizer;
+import it.unibz.inf.ontop.iq.planner.QueryPlanner;
+import it.unibz.inf.ontop.model.atom.AtomFactory;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.spec.OBDASpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Produces executable queries out of the mapping definitions of classes and properties.
+ *
+ * Skips the translation, rewriting and unfolding steps of the SPARQL query reformulation:
+ * the definition is directly optimized and translated into a native query.
+ */
+class MappingQueryCompiler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MappingQueryCompiler.class);
+
+    private final GeneralStructuralAndSemanticIQOptimizer generalOptimizer;
+    private final QueryPlanner queryPlanner;
+    private final NativeQueryGenerator nativeQueryGenerator;
+    private final IntermediateQueryFactory iqFactory;
+    private final AtomFactory atomFactory;
+    private final QueryContext queryContext;
+
+    MappingQueryCompiler(Injector injector, OBDASpecification specification) {
+        this.generalOptimizer = injector.getInstance(GeneralStructuralAndSemanticIQOptimizer.class);
+        this.queryPlanner = injector.getInstance(QueryPlanner.class);
+        this.nativeQueryGenerator = injector.getInstance(TranslationFactory.class)
+                .create(specification.getDBParameters());
+        this.iqFactory = injector.getInstance(IntermediateQueryFactory.class);
+        this.atomFactory = injector.getInstance(AtomFactory.class);
+        this.queryContext = injector.getInstance(QueryContext.Factory.class).create(ImmutableMap.of());
+    }
+
+    /**
+     * Projects away the other variables of the definition and eliminates the duplicates
+     */
+    IQ createProjectedQuery(IQ definition, ImmutableList<Variable> projectedVariables) {
+        DistinctVariableOnlyDataAtom projectionAtom = atomFactory.getDistinctVariableOnlyDataAtom(
+                atomFactory.getRDFAnswerPredicate(projectedVariables.size()), projectedVariables);
+
+        IQTree tree = iqFactory.createUnaryIQTree(
+                iqFactory.createDistinctNode(),
+                iqFactory.createUnaryIQTree(
+                        iqFactory.createConstructionNode(ImmutableSet.copyOf(projectedVariables)),
+                        definition.getTree()));
+
+        return iqFactory.createIQ(projectionAtom, tree);
+    }
+
+    IQ compile(IQ query) throws OntopReformulationException {
+        try {
+            IQ optimizedQuery = generalOptimizer.optimize(query, queryContext);
+            if (optimizedQuery.getTree().isDeclaredAsEmpty())
+                return optimizedQuery;
+
+            IQ plannedQuery = queryPlanner.optimize(optimizedQuery);
+            IQ executableQuery = nativeQueryGenerator.generateSourceQuery(plannedQuery);
+            LOGGER.debug("Executable query for materialization:\n{}\n", executableQuery);
+            return executableQuery;
+        } catch (RuntimeException e) {
+            throw new OntopReformulationException(e);
+        }
+    }
+}
@@ -5,9 +5,14 @@ import it.unibz.inf.ontop.materialization.MaterializationParams;
 public class MaterializationParamsImpl implements MaterializationParams {
 
     private final boolean enableIncompleteMaterialization;
+    private final int workerCount;
+    private final boolean enableDirectMaterialization;
 
-    private MaterializationParamsImpl(boolean enableIncompleteMaterialization) {
+    private MaterializationParamsImpl(boolean enableIncompleteMaterialization, int workerCount,
+                                      boolean enableDirectMaterialization) {
         this.enableIncompleteMaterialization = enableIncompleteMaterialization;
+        this.workerCount = workerCount;
+        this.enableDirectMaterialization = enableDirectMaterialization;
     }
 
 
@@ -16,13 +21,27 @@ public class MaterializationParamsImpl implements MaterializationParams {
         return enableIncompleteMaterialization;
     }
 
+    @Override
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    @Override
+    public boolean isDirectMaterializationEnabled() {
+        return enableDirectMaterialization;
+    }
+
 
     public static class DefaultBuilder implements Builder<DefaultBuilder> {
 
         private boolean canMaterializationBeIncomplete;
+        private int workerCount;
+        private boolean enableDirectMaterialization;
 
         public DefaultBuilder() {
             this.canMaterializationBeIncomplete = false;
+            this.workerCount = 1;
+            this.enableDirectMaterialization = false;
         }
 
         @Override
@@ -31,9 +50,24 @@ public class MaterializationParamsImpl implements MaterializationParams {
             return this;
         }
 
+        @Override
+        public DefaultBuilder workerCount(int workerCount) {
+            if (workerCount < 1)
+                throw new IllegalArgumentException("The worker count must be positive");
+            this.workerCount = workerCount;
+            return this;
+        }
+
+        @Override
+        public DefaultBuilder enableDirectMaterialization(boolean enable) {
+            this.enableDirectMaterialization = enable;
+            return this;
+        }
+
         @Override
         public MaterializationParams build() {
-            return new MaterializationParamsImpl(canMaterializationBeIncomplete);
+            return new MaterializationParamsImpl(canMaterializationBeIncomplete, workerCount,
+                    enableDirectMaterialization);
         }
     }
 
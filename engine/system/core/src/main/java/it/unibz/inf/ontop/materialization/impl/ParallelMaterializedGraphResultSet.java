@@ -0,0 +1,265 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.resultset.MaterializedGraphResultSet;
+import it.unibz.inf.ontop.exception.*;
+import it.unibz.inf.ontop.materialization.MaterializationParams;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.vocabulary.RDF;
+import it.unibz.inf.ontop.query.resultset.OntopCloseableIterator;
+import it.unibz.inf.ontop.query.resultset.TupleResultSet;
+import it.unibz.inf.ontop.query.resultset.impl.RDFFactCloseableIterator;
+import it.unibz.inf.ontop.spec.ontology.RDFFact;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.apache.commons.rdf.api.IRI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Materializes several classes/properties in parallel.
+ *
+ * Each worker evaluates one query (of one class/property) at a time on its own connection,
+ * and pushes its facts by batches into a bounded queue, from which they are consumed.
+ * Facts of different classes/properties may therefore be interleaved.
+ */
+class ParallelMaterializedGraphResultSet implements MaterializedGraphResultSet {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelMaterializedGraphResultSet.class);
+    private static final int FACT_BATCH_SIZE = 1000;
+    private static final int QUEUED_BATCHES_PER_WORKER = 4;
+    // Empty batch: no more facts will be produced
+    private static final ImmutableList<RDFFact> END_OF_MATERIALIZATION = ImmutableList.of();
+
+    private final ImmutableSet<IRI> selectedVocabulary;
+    private final ImmutableList<FactQuery> queries;
+    private final OntopQueryEngine queryEngine;
+    private final TermFactory termFactory;
+    private final boolean canBeIncomplete;
+    private final int workerCount;
+    private final IRIConstant rdfTypeIRI;
+
+    private final BlockingQueue<ImmutableList<RDFFact>> queue;
+    private final AtomicInteger remainingQueries;
+    private final AtomicReference<Exception> failure;
+    private final List<IRI> possiblyIncompleteClassesAndProperties;
+    private final AtomicLong counter;
+
+    // Lately initiated
+    @Nullable
+    private ExecutorService executorService;
+    private Iterator<RDFFact> currentBatchIterator;
+    private boolean isFinished;
+    // Set by close(): the workers are then interrupted on purpose
+    private volatile boolean isClosed;
+
+    ParallelMaterializedGraphResultSet(ImmutableSet<IRI> selectedVocabulary, ImmutableList<FactQuery> queries,
+                                       MaterializationParams params, OntopQueryEngine queryEngine,
+                                       TermFactory termFactory) {
+        this.selectedVocabulary = selectedVocabulary;
+        this.queries = queries;
+        this.queryEngine = queryEngine;
+        this.termFactory = termFactory;
+        this.canBeIncomplete = params.canMaterializationBeIncomplete();
+        this.workerCount = params.getWorkerCount();
+        this.rdfTypeIRI = termFactory.getConstantIRI(RDF.TYPE.getIRIString());
+
+        this.queue = new ArrayBlockingQueue<>(workerCount * QUEUED_BATCHES_PER_WORKER);
+        this.remainingQueries = new AtomicInteger(queries.size());
+        this.failure = new AtomicReference<>();
+        this.possiblyIncompleteClassesAndProperties = new CopyOnWriteArrayList<>();
+        this.counter = new AtomicLong();
+
+        this.executorService = null;
+        this.currentBatchIterator = Collections.emptyIterator();
+        this.isFinished = false;
+        this.isClosed = false;
+    }
+
+    @Override
+    public ImmutableSet<IRI> getSelectedVocabulary() {
+        return selectedVocabulary;
+    }
+
+    private void start() {
+        executorService = Executors.newFixedThreadPool(workerCount, new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("ontop-materialization-%d")
+                .build());
+        if (queries.isEmpty())
+            queue.add(END_OF_MATERIALIZATION);
+        queries.forEach(q -> executorService.submit(() -> materialize(q)));
+    }
+
+    private void materialize(FactQuery query) {
+        VocabularyEntry predicate = query.predicate;
+        try {
+            if (failure.get() != null)
+                return;
+
+            IRIConstant predicateIRI = termFactory.getConstantIRI(predicate.getIRIString());
+            try (OntopConnection connection = queryEngine.getConnection();
+                 OntopStatement statement = connection.createStatement();
+                 TupleResultSet resultSet = query.evaluate(statement)) {
+
+                List<RDFFact> batch = new ArrayList<>(FACT_BATCH_SIZE);
+                while (resultSet.hasNext()) {
+                    batch.add(query.createFact(resultSet.next(), predicateIRI, rdfTypeIRI));
+                    if (batch.size() == FACT_BATCH_SIZE) {
+                        queue.put(ImmutableList.copyOf(batch));
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty())
+                    queue.put(ImmutableList.copyOf(batch));
+            }
+        } catch (InterruptedException e) {
+            // Closed by the consumer
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            // The interruption may also surface as a DB or connection error
+            if (isClosed || Thread.currentThread().isInterrupted()) {
+                LOGGER.debug("Materialization of {} stopped by the closing of the result set", predicate);
+                return;
+            }
+            if (canBeIncomplete) {
+                LOGGER.warn("Possibly incomplete class/property " + predicate + " (materialization problem).\n"
+                        + "Details: " + e);
+                possiblyIncompleteClassesAndProperties.add(predicate.name);
+            }
+            else {
+                LOGGER.error("Problem materializing the class/property " + predicate);
+                if (failure.compareAndSet(null, e))
+                    signalEnd();
+                return;
+            }
+        }
+
+        if (remainingQueries.decrementAndGet() == 0)
+            signalEnd();
+    }
+
+    private void signalEnd() {
+        try {
+            queue.put(END_OF_MATERIALIZATION);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean hasNext() throws OntopQueryAnsweringException, OntopConnectionException {
+        if (executorService == null)
+            start();
+
+        while (!currentBatchIterator.hasNext()) {
+            if (isFinished)
+                return false;
+
+            ImmutableList<RDFFact> batch;
+            try {
+                batch = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OntopConnectionException("Interrupted while waiting for the materialized facts");
+            }
+
+            if (batch.isEmpty()) {
+                isFinished = true;
+                executorService.shutdownNow();
+                rethrowFailure();
+                return false;
+            }
+            currentBatchIterator = batch.iterator();
+        }
+        return true;
+    }
+
+    private void rethrowFailure() throws OntopQueryAnsweringException, OntopConnectionException {
+        Exception e = failure.get();
+        if (e == null)
+            return;
+        if (e instanceof OntopQueryAnsweringException)
+            throw (OntopQueryAnsweringException) e;
+        if (e instanceof OntopConnectionException)
+            throw (OntopConnectionException) e;
+        if (e instanceof OntopInvalidKGQueryException)
+            throw new OntopInvalidInputQueryException(e.getMessage());
+        throw new OntopConnectionException(e);
+    }
+
+    @Override
+    public RDFFact next() {
+        counter.incrementAndGet();
+        return currentBatchIterator.next();
+    }
+
+    /**
+     * Consumes the same merged queue as hasNext() and next(): only one of them is to be used
+     */
+    @Override
+    public OntopCloseableIterator<RDFFact, OntopConnectionException> iterator() {
+        return new MergedQueueIterator();
+    }
+
+    /**
+     * Interrupts the workers, which release their connections
+     */
+    @Override
+    public void close() {
+        isFinished = true;
+        isClosed = true;
+        if (executorService != null)
+            executorService.shutdownNow();
+        queue.clear();
+    }
+
+    @Override
+    public long getTripleCountSoFar() {
+        return counter.get();
+    }
+
+    @Override
+    public ImmutableList<IRI> getPossiblyIncompleteRDFPropertiesAndClassesSoFar() {
+        return possiblyIncompleteClassesAndProperties.stream()
+                .distinct()
+                .collect(ImmutableCollectors.toList());
+    }
+
+    private class MergedQueueIterator extends RDFFactCloseableIterator {
+
+        @Override
+        public boolean hasNext() throws OntopConnectionException, OntopResultConversionException {
+            try {
+                return ParallelMaterializedGraphResultSet.this.hasNext();
+            } catch (OntopResultConversionException e) {
+                throw e;
+            } catch (OntopQueryAnsweringException e) {
+                throw new OntopConnectionException(e);
+            }
+        }
+
+        @Override
+        public RDFFact next() {
+            return ParallelMaterializedGraphResultSet.this.next();
+        }
+
+        @Override
+        protected void handleClose() {
+            ParallelMaterializedGraphResultSet.this.close();
+        }
+    }
+}
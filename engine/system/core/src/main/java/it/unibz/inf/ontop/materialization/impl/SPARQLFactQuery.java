@@ -0,0 +1,37 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.exception.OntopInvalidKGQueryException;
+import it.unibz.inf.ontop.exception.OntopQueryAnsweringException;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.query.KGQueryFactory;
+import it.unibz.inf.ontop.query.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.query.resultset.TupleResultSet;
+import it.unibz.inf.ontop.spec.ontology.RDFFact;
+
+/**
+ * Retrieves all the facts of a class/property (default graph and named graphs) with a SPARQL query.
+ */
+class SPARQLFactQuery extends FactQuery {
+
+    private final KGQueryFactory kgQueryFactory;
+
+    SPARQLFactQuery(VocabularyEntry predicate, KGQueryFactory kgQueryFactory) {
+        super(predicate);
+        this.kgQueryFactory = kgQueryFactory;
+    }
+
+    @Override
+    TupleResultSet evaluate(OntopStatement statement)
+            throws OntopQueryAnsweringException, OntopConnectionException, OntopInvalidKGQueryException {
+        return statement.execute(kgQueryFactory.createSelectQuery(predicate.getSelectQuery()));
+    }
+
+    @Override
+    RDFFact createFact(OntopBindingSet tuple, IRIConstant predicateIRI, IRIConstant rdfTypeIRI)
+            throws OntopResultConversionException {
+        return predicate.createFact(tuple, "s", "o", "g", predicateIRI, rdfTypeIRI);
+    }
+}
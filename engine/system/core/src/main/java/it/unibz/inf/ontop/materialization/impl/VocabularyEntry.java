@@ -1,7 +1,15 @@
 package it.unibz.inf.ontop.materialization.impl;
 
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.ObjectConstant;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.query.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.spec.ontology.RDFFact;
 import org.apache.commons.rdf.api.IRI;
 
+import javax.annotation.Nullable;
+
 final class VocabularyEntry {
     final IRI name;
     final int arity;
@@ -35,4 +43,22 @@ final class VocabularyEntry {
                 arity == 1 ? SELECT_CLASS_QUERY_CONTEXT_TEMPLATE : SELECT_PROPERTY_QUERY_CONTEXT_TEMPLATE,
                 name.getIRIString());
     }
+
+    /**
+     * Builds a (named) assertion out of a (quad) result.
+     *
+     * The object variable is ignored for classes (may be null). The graph variable may be null.
+     */
+    RDFFact createFact(OntopBindingSet tuple, String subjectVariable, @Nullable String objectVariable,
+                       @Nullable String graphVariable, IRIConstant predicateIRI, IRIConstant rdfTypeIRI)
+            throws OntopResultConversionException {
+        ObjectConstant s = (ObjectConstant) tuple.getConstant(subjectVariable);
+        IRIConstant p = isClass() ? rdfTypeIRI : predicateIRI;
+        RDFConstant o = isClass() ? predicateIRI : tuple.getConstant(objectVariable);
+        ObjectConstant g = (graphVariable == null) ? null : (ObjectConstant) tuple.getConstant(graphVariable);
+
+        return (g == null)
+                ? RDFFact.createTripleFact(s, p, o)
+                : RDFFact.createQuadFact(s, p, o, g);
+    }
 }
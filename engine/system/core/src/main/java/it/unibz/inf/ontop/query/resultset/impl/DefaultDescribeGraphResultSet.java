@@ -1,6 +1,7 @@
 package it.unibz.inf.ontop.query.resultset.impl;
 
 import com.google.common.collect.*;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionService;
 import it.unibz.inf.ontop.answering.connection.impl.Evaluator;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.evaluator.QueryContext;
@@ -15,9 +16,12 @@ import it.unibz.inf.ontop.spec.ontology.RDFFact;
 import org.apache.commons.rdf.api.IRI;
 
 import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.*;
 
 public class DefaultDescribeGraphResultSet implements GraphResultSet {
-    private final ResultSetIterator iterator;
+    private final RDFFactCloseableIterator iterator;
 
     public DefaultDescribeGraphResultSet(DescribeQuery describeQuery, QueryLogger queryLogger,
                                          QueryLogger.Factory queryLoggerFactory,
@@ -27,13 +31,42 @@ public class DefaultDescribeGraphResultSet implements GraphResultSet {
                                          OntopConnectionCloseable statementClosingCB)
             throws OntopQueryEvaluationException, OntopConnectionException, OntopReformulationException,
             OntopResultConversionException {
+        this(describeQuery, queryLogger, queryLoggerFactory, queryContext, selectQueryEvaluator, constructQueryEvaluator,
+                1, 1, null, null, statementClosingCB);
+    }
+
+    /**
+     * The resources are described by blocks of batchSize resources (one CONSTRUCT query per block).
+     *
+     * If parallelism is greater than 1, up to parallelism blocks are evaluated concurrently on the execution service
+     * with the detached evaluator (which is expected to use its own connection for each block).
+     * The facts are streamed in the order of the blocks: each block only buffers a bounded number of facts
+     * ahead of the consumer.
+     */
+    public DefaultDescribeGraphResultSet(DescribeQuery describeQuery, QueryLogger queryLogger,
+                                         QueryLogger.Factory queryLoggerFactory,
+                                         QueryContext queryContext,
+                                         Evaluator<TupleResultSet, SelectQuery> selectQueryEvaluator,
+                                         Evaluator<GraphResultSet, ConstructQuery> constructQueryEvaluator,
+                                         int batchSize, int parallelism,
+                                         @Nullable Evaluator<GraphResultSet, ConstructQuery> detachedConstructQueryEvaluator,
+                                         @Nullable QueryExecutionService executionService,
+                                         OntopConnectionCloseable statementClosingCB)
+            throws OntopQueryEvaluationException, OntopConnectionException, OntopReformulationException,
+            OntopResultConversionException {
 
         ImmutableSet<IRI> resourcesToDescribe = extractDescribeResources(describeQuery, queryLogger, queryLoggerFactory,
                 queryContext, selectQueryEvaluator);
 
-        this.iterator = new ResultSetIterator(describeQuery.computeConstructQueries(resourcesToDescribe),
-                queryLogger, queryLoggerFactory, queryContext, constructQueryEvaluator, statementClosingCB);
+        ImmutableCollection<ConstructQuery> constructQueries = describeQuery.computeBatchedConstructQueries(
+                resourcesToDescribe, Math.max(batchSize, 1));
 
+        this.iterator = (parallelism > 1 && detachedConstructQueryEvaluator != null && executionService != null
+                && constructQueries.size() > 1)
+                ? new ParallelResultSetIterator(constructQueries, queryLogger, queryLoggerFactory, queryContext,
+                        detachedConstructQueryEvaluator, executionService, parallelism, statementClosingCB)
+                : new ResultSetIterator(constructQueries, queryLogger, queryLoggerFactory, queryContext,
+                        constructQueryEvaluator, statementClosingCB);
     }
 
     private static ImmutableSet<IRI> extractDescribeResources(DescribeQuery inputQuery,
@@ -181,4 +214,202 @@ public class DefaultDescribeGraphResultSet implements GraphResultSet {
         }
     }
 
+    /**
+     * Evaluates up to parallelism blocks concurrently, while returning the facts in the order of the blocks.
+     *
+     * Each block streams its facts through a bounded buffer: a block ahead of the consumer stops reading its
+     * result set (and waits on its connection) once its buffer is full.
+     * The head block has always been submitted before the other ones, so it never waits for them.
+     */
+    protected static class ParallelResultSetIterator extends RDFFactCloseableIterator {
+
+        private static final int BLOCK_BUFFER_SIZE = 1000;
+        private static final long POLLING_INTERVAL_MS = 100;
+
+        private final UnmodifiableIterator<ConstructQuery> constructQueryIterator;
+        private final OntopConnectionCloseable statementClosingCB;
+        private final QueryLogger queryLogger;
+        private final QueryLogger.Factory queryLoggerFactory;
+        private final QueryContext queryContext;
+        private final Evaluator<GraphResultSet, ConstructQuery> constructQueryEvaluator;
+        private final QueryExecutionService executionService;
+        private final Deque<Block> pendingBlocks;
+        @Nullable
+        private Block currentBlock;
+        @Nullable
+        private RDFFact nextFact;
+        private long rowCount;
+
+        public ParallelResultSetIterator(ImmutableCollection<ConstructQuery> constructQueries,
+                                         QueryLogger queryLogger, QueryLogger.Factory queryLoggerFactory,
+                                         QueryContext queryContext,
+                                         Evaluator<GraphResultSet, ConstructQuery> constructQueryEvaluator,
+                                         QueryExecutionService executionService,
+                                         int parallelism,
+                                         OntopConnectionCloseable statementClosingCB) throws OntopConnectionException {
+            this.constructQueryIterator = constructQueries.iterator();
+            this.queryContext = queryContext;
+            this.statementClosingCB = statementClosingCB;
+            this.queryLogger = queryLogger;
+            this.queryLoggerFactory = queryLoggerFactory;
+            this.constructQueryEvaluator = constructQueryEvaluator;
+            this.executionService = executionService;
+            this.pendingBlocks = new ArrayDeque<>();
+            this.rowCount = 0;
+
+            try {
+                for (int i = 0; i < parallelism; i++)
+                    submitNextBlock();
+            }
+            catch (OntopConnectionException e) {
+                close();
+                throw e;
+            }
+        }
+
+        private void submitNextBlock() throws OntopConnectionException {
+            if (constructQueryIterator.hasNext()) {
+                Block block = new Block(constructQueryIterator.next());
+                try {
+                    block.future = executionService.submit(() -> evaluateBlock(block));
+                }
+                catch (RejectedExecutionException e) {
+                    throw new OntopConnectionException(e);
+                }
+                pendingBlocks.add(block);
+            }
+        }
+
+        /**
+         * Run by the execution service. The outcome (facts, end or failure) goes through the buffer of the block.
+         */
+        private Void evaluateBlock(Block block) throws InterruptedException {
+            QueryLogger constructQueryLogger = queryLoggerFactory.create(ImmutableMap.of());
+            Object end = END_OF_BLOCK;
+            try (GraphResultSet graphResultSet = constructQueryEvaluator.evaluate(block.constructQuery, queryContext,
+                    constructQueryLogger)) {
+                while (graphResultSet.hasNext())
+                    block.buffer.put(graphResultSet.next());
+            }
+            catch (InterruptedException e) {
+                // Closed
+                throw e;
+            }
+            catch (Exception e) {
+                end = new BlockFailure(e);
+            }
+            block.buffer.put(end);
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() throws OntopConnectionException, OntopResultConversionException {
+            if (nextFact != null)
+                return true;
+
+            while (true) {
+                if (currentBlock == null) {
+                    currentBlock = pendingBlocks.poll();
+                    if (currentBlock == null) {
+                        queryLogger.declareLastResultRetrievedAndSerialize(rowCount);
+                        close();
+                        return false;
+                    }
+                }
+                Object element = take(currentBlock);
+                if (element == END_OF_BLOCK) {
+                    currentBlock = null;
+                    submitNextBlock();
+                }
+                else if (element instanceof BlockFailure) {
+                    Exception e = ((BlockFailure) element).exception;
+                    if (e instanceof OntopResultConversionException)
+                        throw (OntopResultConversionException) e;
+                    throw toConnectionException(e);
+                }
+                else {
+                    nextFact = (RDFFact) element;
+                    rowCount++;
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Also detects the blocks that will never produce anything (e.g. not run because the service was closed)
+         */
+        private static Object take(Block block) throws OntopConnectionException {
+            try {
+                while (true) {
+                    Object element = block.buffer.poll(POLLING_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    if (element != null)
+                        return element;
+                    if (block.future.isDone()) {
+                        element = block.buffer.poll();
+                        if (element != null)
+                            return element;
+                        throw new OntopConnectionException("The evaluation of a block of the DESCRIBE query was aborted");
+                    }
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OntopConnectionException("Interrupted while describing resources");
+            }
+        }
+
+        private static OntopConnectionException toConnectionException(Exception exception) {
+            if (exception instanceof OntopQueryEvaluationException)
+                return new ResultSetIterator.LateQueryEvaluationExceptionWhenDescribing(
+                        (OntopQueryEvaluationException) exception);
+            if (exception instanceof OntopReformulationException)
+                return new ResultSetIterator.LateQueryReformulationExceptionWhenDescribing(
+                        (OntopReformulationException) exception);
+            if (exception instanceof OntopConnectionException)
+                return (OntopConnectionException) exception;
+            return new OntopConnectionException(exception);
+        }
+
+        @Override
+        public RDFFact next() {
+            if (nextFact == null)
+                throw new IllegalStateException("Make sure to call hasNext() before calling next()");
+            RDFFact fact = nextFact;
+            nextFact = null;
+            return fact;
+        }
+
+        /**
+         * Interrupts the blocks still being evaluated (which then close their result set)
+         */
+        @Override
+        protected void handleClose() throws OntopConnectionException {
+            if (currentBlock != null)
+                currentBlock.future.cancel(true);
+            pendingBlocks.forEach(b -> b.future.cancel(true));
+            pendingBlocks.clear();
+            statementClosingCB.close();
+        }
+
+        private static final Object END_OF_BLOCK = new Object();
+
+        private static class Block {
+            private final ConstructQuery constructQuery;
+            private final BlockingQueue<Object> buffer = new ArrayBlockingQueue<>(BLOCK_BUFFER_SIZE);
+            private volatile Future<Void> future;
+
+            private Block(ConstructQuery constructQuery) {
+                this.constructQuery = constructQuery;
+            }
+        }
+
+        private static class BlockFailure {
+            private final Exception exception;
+
+            private BlockFailure(Exception exception) {
+                this.exception = exception;
+            }
+        }
+    }
+
 }
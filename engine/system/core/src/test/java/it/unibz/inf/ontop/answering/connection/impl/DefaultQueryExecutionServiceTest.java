@@ -0,0 +1,135 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class DefaultQueryExecutionServiceTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private DefaultQueryExecutionService service;
+    // Released at the end of the test, so that no blocked task survives it
+    private CountDownLatch release;
+
+    @Before
+    public void setUp() {
+        service = new DefaultQueryExecutionService(2, 3, false, false);
+        release = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        service.close();
+    }
+
+    @Test
+    public void testSaturation() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        for (int i = 0; i < 2; i++)
+            service.submit(blockingTask(started));
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(2, service.getActiveQueryCount());
+
+        for (int i = 0; i < 3; i++)
+            service.submit(blockingTask(new CountDownLatch(1)));
+        assertEquals(3, service.getQueueDepth());
+
+        try {
+            service.submit(() -> 0);
+            fail("A RejectedExecutionException was expected");
+        }
+        catch (RejectedExecutionException e) {
+            // Expected
+        }
+        assertEquals(1, service.getRejectedQueryCount());
+        assertEquals(3, service.getQueueDepth());
+
+        // Room again once the queries complete
+        release.countDown();
+        assertEquals(Integer.valueOf(42), service.submit(() -> 42).get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(1, service.getRejectedQueryCount());
+    }
+
+    @Test
+    public void testCancelRunningQuery() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Future<Integer> future = service.submit(() -> {
+            started.countDown();
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return 0;
+        });
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        assertTrue(future.cancel(true));
+        assertTrue(interrupted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        try {
+            future.get();
+            fail("A CancellationException was expected");
+        }
+        catch (CancellationException e) {
+            // Expected
+        }
+        waitUntilIdle();
+        assertEquals(0, service.getQueueDepth());
+    }
+
+    @Test
+    public void testCancelQueuedQuery() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        for (int i = 0; i < 2; i++)
+            service.submit(blockingTask(started));
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        Future<Integer> queued = service.submit(() -> 0);
+        assertEquals(1, service.getQueueDepth());
+
+        assertTrue(queued.cancel(true));
+        // Leaves the queue right away, without waiting for a thread
+        assertEquals(0, service.getQueueDepth());
+
+        release.countDown();
+        waitUntilIdle();
+        assertEquals(0, service.getQueueDepth());
+    }
+
+    @Test
+    public void testClose() {
+        service.close();
+        try {
+            service.submit(() -> 0);
+            fail("A RejectedExecutionException was expected");
+        }
+        catch (RejectedExecutionException e) {
+            // Expected
+        }
+        assertEquals(0, service.getQueueDepth());
+    }
+
+    private Callable<Integer> blockingTask(CountDownLatch started) {
+        return () -> {
+            started.countDown();
+            release.await();
+            return 0;
+        };
+    }
+
+    private void waitUntilIdle() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+        while (service.getActiveQueryCount() > 0 && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        assertEquals(0, service.getActiveQueryCount());
+    }
+}
@@ -1,6 +1,7 @@
 package it.unibz.inf.ontop.answering.connection;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -8,4 +9,15 @@ public interface JDBCStatementInitializer extends JDBCStatementFinalizer {
 
     Statement createAndInitStatement(Connection connection) throws SQLException;
 
+    /**
+     * To be closed with closePreparedStatement() (not with closeStatement()), so that it can return
+     * to the statement cache
+     */
+    PreparedStatement prepareAndInitStatement(Connection connection, String sql) throws SQLException;
+
+    /**
+     * Counterpart of closeStatement() for the statements created by prepareAndInitStatement()
+     */
+    void closePreparedStatement(PreparedStatement statement) throws SQLException;
+
 }
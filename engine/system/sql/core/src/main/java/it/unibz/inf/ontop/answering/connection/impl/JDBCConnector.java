@@ -5,10 +5,12 @@ import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.connection.DBConnector;
 import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionService;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPoolMetrics;
 
 import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
@@ -38,6 +40,7 @@ public class JDBCConnector implements DBConnector {
     private final TermFactory termFactory;
     private final RDF rdfFactory;
     private final JDBCStatementInitializer statementInitializer;
+    private final QueryExecutionService executionService;
 
     @AssistedInject
     private JDBCConnector(@Assisted QueryReformulator queryReformulator,
@@ -46,6 +49,7 @@ public class JDBCConnector implements DBConnector {
                           SubstitutionFactory substitutionFactory,
                           RDF rdfFactory,
                           JDBCStatementInitializer statementInitializer,
+                          QueryExecutionService executionService,
                           OntopSystemSQLSettings settings) {
         this.queryReformulator = queryReformulator;
         this.termFactory = termFactory;
@@ -54,6 +58,7 @@ public class JDBCConnector implements DBConnector {
         this.connectionPool = connectionPool;
         this.rdfFactory = rdfFactory;
         this.statementInitializer = statementInitializer;
+        this.executionService = executionService;
     }
 
     /**
@@ -89,14 +94,22 @@ public class JDBCConnector implements DBConnector {
         connectionPool.close();
     }
 
-    public synchronized Connection getSQLPoolConnection() throws OntopConnectionException {
+    /**
+     * Not synchronized: concurrent checkouts are handled (and queued, if needed) by the connection pool.
+     */
+    public Connection getSQLPoolConnection() throws OntopConnectionException {
         try {
             return connectionPool.getConnection();
         } catch (SQLException e) {
+            log.warn("Could not obtain a connection from the pool ({})", connectionPool.getMetrics());
             throw new OntopConnectionException(e);
         }
     }
 
+    public JDBCConnectionPoolMetrics getConnectionPoolMetrics() {
+        return connectionPool.getMetrics();
+    }
+
     /***
      * Returns an OntopConnection, the main object that a client should use to
      * access the query answering services of Quest. With the QuestConnection
@@ -115,7 +128,7 @@ public class JDBCConnector implements DBConnector {
     public OntopConnection getConnection() throws OntopConnectionException {
 
         return new SQLConnection(this, queryReformulator, getSQLPoolConnection(),
-                termFactory, rdfFactory, substitutionFactory, statementInitializer, settings);
+                termFactory, rdfFactory, substitutionFactory, statementInitializer, executionService, settings);
     }
 
 
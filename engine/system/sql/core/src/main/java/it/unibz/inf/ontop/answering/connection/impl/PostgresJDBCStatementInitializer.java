@@ -4,6 +4,8 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -33,4 +35,17 @@ public class PostgresJDBCStatementInitializer extends DefaultJDBCStatementInitia
             statement.close();
         }
     }
+
+    /**
+     * A query string cannot be executed on a prepared statement: commits through the connection instead
+     */
+    @Override
+    public void closePreparedStatement(PreparedStatement statement) throws SQLException {
+        if (!statement.isClosed()) {
+            Connection connection = statement.getConnection();
+            statement.close();
+            if (settings.getFetchSize() > 0 && !connection.getAutoCommit())
+                connection.commit();
+        }
+    }
 }
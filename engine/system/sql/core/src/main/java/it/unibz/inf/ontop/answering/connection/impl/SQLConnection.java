@@ -5,6 +5,7 @@ import java.sql.Connection;
 import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionService;
 import it.unibz.inf.ontop.query.KGQueryFactory;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
@@ -37,11 +38,13 @@ public class SQLConnection implements OntopConnection {
 	private boolean isClosed;
 	private final RDF rdfFactory;
 	private final JDBCStatementInitializer statementInitializer;
+	private final QueryExecutionService executionService;
 
 
 	public SQLConnection(JDBCConnector jdbcConnector, QueryReformulator queryProcessor, Connection connection,
 						 TermFactory termFactory, RDF rdfFactory, SubstitutionFactory substitutionFactory,
 						 JDBCStatementInitializer statementInitializer,
+						 QueryExecutionService executionService,
 						 OntopSystemSQLSettings settings) {
 		this.jdbcConnector = jdbcConnector;
 		this.queryProcessor = queryProcessor;
@@ -49,6 +52,7 @@ public class SQLConnection implements OntopConnection {
 		this.termFactory = termFactory;
 		this.substitutionFactory = substitutionFactory;
 		this.statementInitializer = statementInitializer;
+		this.executionService = executionService;
 		this.settings = settings;
 		this.rdfFactory = rdfFactory;
 		this.isClosed = false;
@@ -72,8 +76,11 @@ public class SQLConnection implements OntopConnection {
 			}
 			return new SQLQuestStatement(
 					this.queryProcessor,
+					executionService,
+					jdbcConnector,
 					statementInitializer.createAndInitStatement(conn),
 					statementInitializer,
+					statementInitializer,
 					termFactory, rdfFactory, substitutionFactory, settings);
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
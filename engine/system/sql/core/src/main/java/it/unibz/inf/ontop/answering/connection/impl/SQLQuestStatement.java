@@ -2,10 +2,13 @@ package it.unibz.inf.ontop.answering.connection.impl;
 
 import java.util.Optional;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSortedSet;
 import it.unibz.inf.ontop.answering.connection.JDBCStatementFinalizer;
+import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
+import it.unibz.inf.ontop.answering.connection.QueryExecutionService;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.query.*;
 import it.unibz.inf.ontop.query.resultset.GraphResultSet;
@@ -23,12 +26,14 @@ import it.unibz.inf.ontop.iq.UnaryIQTree;
 import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
 import it.unibz.inf.ontop.iq.node.ConstructionNode;
 import it.unibz.inf.ontop.iq.node.NativeNode;
+import it.unibz.inf.ontop.model.term.DBConstant;
 import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.model.type.DBTermType;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
 import org.apache.commons.rdf.api.RDF;
 
+import java.math.BigDecimal;
 import java.sql.*;
 
 /**
@@ -39,17 +44,29 @@ public class SQLQuestStatement extends QuestStatement {
 
     private final Statement sqlStatement;
     private final JDBCStatementFinalizer statementFinalizer;
+    private final QueryReformulator queryProcessor;
+    private final QueryExecutionService executionService;
+    private final JDBCConnector jdbcConnector;
+    private final JDBCStatementInitializer statementInitializer;
     private final TermFactory termFactory;
     private final RDF rdfFactory;
     private final SubstitutionFactory substitutionFactory;
     private final OntopSystemSQLSettings settings;
 
-    public SQLQuestStatement(QueryReformulator queryProcessor, Statement sqlStatement,
-                             JDBCStatementFinalizer statementFinalizer, TermFactory termFactory,
-                             RDF rdfFactory, SubstitutionFactory substitutionFactory,
+    /* Prepared statement of the last query having parameters (needed for cancelling it) */
+    private volatile PreparedStatement preparedStatement;
+
+    public SQLQuestStatement(QueryReformulator queryProcessor, QueryExecutionService executionService,
+                             JDBCConnector jdbcConnector, Statement sqlStatement,
+                             JDBCStatementInitializer statementInitializer, JDBCStatementFinalizer statementFinalizer,
+                             TermFactory termFactory, RDF rdfFactory, SubstitutionFactory substitutionFactory,
                              OntopSystemSQLSettings settings) {
-        super(queryProcessor);
+        super(queryProcessor, executionService, settings);
+        this.queryProcessor = queryProcessor;
+        this.executionService = executionService;
+        this.jdbcConnector = jdbcConnector;
         this.sqlStatement = sqlStatement;
+        this.statementInitializer = statementInitializer;
         this.statementFinalizer = statementFinalizer;
         this.termFactory = termFactory;
         this.rdfFactory = rdfFactory;
@@ -126,12 +143,17 @@ public class SQLQuestStatement extends QuestStatement {
             if (!isCanceled()) {
                 try {
 
-                    java.sql.ResultSet set = sqlStatement.executeQuery(newsql);
-                    if (set.next()) {
-                        return set.getInt(1);
-                    } else {
-                        //throw new OBDAException("Tuple count failed due to empty result set.");
-                        return 0;
+                    NativeNode nativeNode = extractNativeNode(targetQuery);
+                    try (java.sql.ResultSet set = executeNativeQuery(newsql, nativeNode.getParameters())) {
+                        if (set.next()) {
+                            return set.getInt(1);
+                        } else {
+                            //throw new OBDAException("Tuple count failed due to empty result set.");
+                            return 0;
+                        }
+                    }
+                    finally {
+                        closePreparedStatement();
                     }
                 } catch (SQLException e) {
                     throw new OntopQueryEvaluationException(e);
@@ -147,6 +169,7 @@ public class SQLQuestStatement extends QuestStatement {
     @Override
     public void close() throws OntopConnectionException {
         try {
+            closePreparedStatement();
             if (sqlStatement != null)
                 statementFinalizer.closeStatement(sqlStatement);
         } catch (SQLException e) {
@@ -154,8 +177,117 @@ public class SQLQuestStatement extends QuestStatement {
         }
     }
 
+    /**
+     * Queries without parameters are executed with the (plain) statement.
+     *
+     * Queries with parameters are executed with a prepared statement, which is cached by the connection pool
+     * (by SQL string), so that the DB can reuse its query plan. Only one result set is open at a time per
+     * statement, so one prepared statement at a time is enough.
+     */
+    private ResultSet executeNativeQuery(String sqlQuery, ImmutableList<DBConstant> parameters) throws SQLException {
+        if (parameters.isEmpty())
+            return sqlStatement.executeQuery(sqlQuery);
+
+        closePreparedStatement();
+        PreparedStatement statement = statementInitializer.prepareAndInitStatement(sqlStatement.getConnection(), sqlQuery);
+        preparedStatement = statement;
+        int queryTimeout = sqlStatement.getQueryTimeout();
+        if (queryTimeout > 0)
+            statement.setQueryTimeout(queryTimeout);
+        int maxRows = sqlStatement.getMaxRows();
+        if (maxRows > 0)
+            statement.setMaxRows(maxRows);
+
+        for (int i = 0; i < parameters.size(); i++)
+            setParameter(statement, i + 1, parameters.get(i));
+
+        return statement.executeQuery();
+    }
+
+    /**
+     * Uses the setter matching the DB type, so that the DB does not have to cast the value.
+     * Only these categories are turned into parameters (see SQLParameterCollector).
+     */
+    private static void setParameter(PreparedStatement statement, int index, DBConstant parameter) throws SQLException {
+        String value = parameter.getValue();
+        switch (parameter.getType().getCategory()) {
+            case INTEGER:
+                statement.setLong(index, Long.parseLong(value));
+                break;
+            case DECIMAL:
+                statement.setBigDecimal(index, new BigDecimal(value));
+                break;
+            case FLOAT_DOUBLE:
+                statement.setDouble(index, Double.parseDouble(value));
+                break;
+            default:
+                statement.setString(index, value);
+        }
+    }
+
+    /**
+     * Closing a cached prepared statement returns it to the cache.
+     * Goes through the initializer so that what it set up at the creation (e.g. the transaction) is ended.
+     */
+    private void closePreparedStatement() throws SQLException {
+        PreparedStatement statement = preparedStatement;
+        if (statement != null) {
+            preparedStatement = null;
+            statementInitializer.closePreparedStatement(statement);
+        }
+    }
+
+    /**
+     * When the result set is closed, the prepared statement (if any) is released
+     */
+    private OntopConnectionCloseable getStatementClosingCB(boolean shouldAlsoCloseStatement) {
+        if (shouldAlsoCloseStatement)
+            return this::close;
+        if (preparedStatement == null)
+            return null;
+        return () -> {
+            try {
+                closePreparedStatement();
+            } catch (SQLException e) {
+                throw new OntopConnectionException(e);
+            }
+        };
+    }
+
+    /**
+     * The pooled connection is released when the statement is closed.
+     */
+    @Override
+    protected QuestStatement createDetachedStatement() throws OntopConnectionException {
+        Connection connection = jdbcConnector.getSQLPoolConnection();
+        try {
+            return new SQLQuestStatement(queryProcessor, executionService, jdbcConnector,
+                    statementInitializer.createAndInitStatement(connection),
+                    statementInitializer,
+                    s -> {
+                        try {
+                            statementInitializer.closeStatement(s);
+                        }
+                        finally {
+                            connection.close();
+                        }
+                    },
+                    termFactory, rdfFactory, substitutionFactory, settings);
+        } catch (SQLException e) {
+            try {
+                connection.close();
+            } catch (SQLException e1) {
+                e.addSuppressed(e1);
+            }
+            throw new OntopConnectionException(e);
+        }
+    }
+
     protected void cancelExecution() throws OntopQueryEvaluationException {
         try {
+            PreparedStatement statement = preparedStatement;
+            if (statement != null)
+                statement.cancel();
             sqlStatement.cancel();
         } catch (SQLException e) {
             throw new OntopQueryEvaluationException(e);
@@ -167,8 +299,9 @@ public class SQLQuestStatement extends QuestStatement {
             throws OntopQueryEvaluationException {
         try {
             String sqlQuery = extractSQLQuery(executableQuery);
+            NativeNode nativeNode = extractNativeNode(executableQuery);
             try {
-                java.sql.ResultSet set = sqlStatement.executeQuery(sqlQuery);
+                java.sql.ResultSet set = executeNativeQuery(sqlQuery, nativeNode.getParameters());
                 queryLogger.declareResultSetUnblockedAndSerialize();
                 return new SQLBooleanResultSet(set, queryLogger, this::close);
             } catch (SQLException e) {
@@ -191,10 +324,9 @@ public class SQLQuestStatement extends QuestStatement {
             ImmutableSortedSet<Variable> signature = nativeNode.getVariables();
             ImmutableMap<Variable, DBTermType> typeMap = nativeNode.getTypeMap();
 
-            OntopConnectionCloseable statementClosingCB = shouldAlsoCloseStatement ? this::close : null;
-
             try {
-                java.sql.ResultSet set = sqlStatement.executeQuery(sqlQuery);
+                java.sql.ResultSet set = executeNativeQuery(sqlQuery, nativeNode.getParameters());
+                OntopConnectionCloseable statementClosingCB = getStatementClosingCB(shouldAlsoCloseStatement);
                 queryLogger.declareResultSetUnblockedAndSerialize();
                 return new JDBCTupleResultSet(set, signature, typeMap, constructionNode, executableQuery.getProjectionAtom(),
                             queryLogger, statementClosingCB, termFactory, substitutionFactory);
@@ -222,10 +354,9 @@ public class SQLQuestStatement extends QuestStatement {
             ImmutableSortedSet<Variable> SQLSignature = nativeNode.getVariables();
             ImmutableMap<Variable, DBTermType> SQLTypeMap = nativeNode.getTypeMap();
 
-            OntopConnectionCloseable statementClosingCB = shouldAlsoCloseStatement ? this::close : null;
-
             try {
-                ResultSet rs = sqlStatement.executeQuery(sqlQuery);
+                ResultSet rs = executeNativeQuery(sqlQuery, nativeNode.getParameters());
+                OntopConnectionCloseable statementClosingCB = getStatementClosingCB(shouldAlsoCloseStatement);
                 queryLogger.declareResultSetUnblockedAndSerialize();
                 tuples = new JDBCTupleResultSet(rs, SQLSignature, SQLTypeMap, constructionNode,
                         executableQuery.getProjectionAtom(), queryLogger, statementClosingCB, termFactory, substitutionFactory);
@@ -9,5 +9,15 @@ public interface JDBCConnectionPool extends AutoCloseable {
     @Override
     void close();
 
+    /**
+     * Thread-safe: callers do not need to serialize the checkouts.
+     * When the pool is exhausted, the pool itself takes care of queueing the requesting threads.
+     */
     Connection getConnection() throws SQLException;
+
+    /**
+     * Snapshot of the current usage of the pool.
+     * Obtaining it does not block the checkouts.
+     */
+    JDBCConnectionPoolMetrics getMetrics();
 }
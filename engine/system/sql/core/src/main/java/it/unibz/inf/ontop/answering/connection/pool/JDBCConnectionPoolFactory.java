@@ -0,0 +1,13 @@
+package it.unibz.inf.ontop.answering.connection.pool;
+
+import it.unibz.inf.ontop.injection.OntopSQLCredentialSettings;
+
+/**
+ * Creates connection pools for other data sources than the primary one (e.g. read replicas).
+ *
+ * The pool options (size, timeout, etc.) remain the ones of the system settings.
+ */
+public interface JDBCConnectionPoolFactory {
+
+    JDBCConnectionPool create(OntopSQLCredentialSettings dataSourceSettings);
+}
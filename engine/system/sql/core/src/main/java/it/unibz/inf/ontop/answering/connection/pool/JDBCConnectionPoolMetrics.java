@@ -0,0 +1,50 @@
+package it.unibz.inf.ontop.answering.connection.pool;
+
+/**
+ * Point-in-time snapshot of the usage of a JDBCConnectionPool.
+ *
+ * Connection counts are 0 for implementations that do not keep track of their connections.
+ * Checkout statistics are cumulative since the creation of the pool.
+ */
+public interface JDBCConnectionPoolMetrics {
+
+    /**
+     * Connections currently checked out
+     */
+    int getActiveConnections();
+
+    /**
+     * Connections currently available in the pool
+     */
+    int getIdleConnections();
+
+    /**
+     * Threads currently waiting for a connection to become available
+     */
+    int getThreadsAwaitingConnection();
+
+    /**
+     * Number of successful checkouts
+     */
+    long getCheckoutCount();
+
+    /**
+     * Number of checkouts that failed (e.g. because of a timeout)
+     */
+    long getFailedCheckoutCount();
+
+    /**
+     * Total time spent in checkouts (successful or not), in nanoseconds
+     */
+    long getTotalCheckoutTimeNanos();
+
+    /**
+     * Longest checkout observed, in nanoseconds
+     */
+    long getMaxCheckoutTimeNanos();
+
+    default long getAverageCheckoutTimeNanos() {
+        long count = getCheckoutCount() + getFailedCheckoutCount();
+        return count == 0 ? 0 : getTotalCheckoutTimeNanos() / count;
+    }
+}
@@ -0,0 +1,52 @@
+package it.unibz.inf.ontop.answering.connection.pool.impl;
+
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPoolMetrics;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the latency of the connection checkouts of a pool.
+ *
+ * Lock-free: relies on striped counters so that concurrent checkouts do not contend on recording.
+ */
+public class ConnectionCheckoutRecorder {
+
+    @FunctionalInterface
+    public interface Checkout {
+        Connection get() throws SQLException;
+    }
+
+    private final LongAdder checkoutCount = new LongAdder();
+    private final LongAdder failedCheckoutCount = new LongAdder();
+    private final LongAdder totalCheckoutTimeNanos = new LongAdder();
+    private final LongAccumulator maxCheckoutTimeNanos = new LongAccumulator(Long::max, 0);
+
+    public Connection record(Checkout checkout) throws SQLException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            Connection connection = checkout.get();
+            succeeded = true;
+            return connection;
+        }
+        finally {
+            long duration = System.nanoTime() - start;
+            totalCheckoutTimeNanos.add(duration);
+            maxCheckoutTimeNanos.accumulate(duration);
+            if (succeeded)
+                checkoutCount.increment();
+            else
+                failedCheckoutCount.increment();
+        }
+    }
+
+    public JDBCConnectionPoolMetrics getMetrics(int activeConnections, int idleConnections,
+                                                int threadsAwaitingConnection) {
+        return new JDBCConnectionPoolMetricsImpl(activeConnections, idleConnections, threadsAwaitingConnection,
+                checkoutCount.sum(), failedCheckoutCount.sum(), totalCheckoutTimeNanos.sum(),
+                maxCheckoutTimeNanos.get());
+    }
+}
@@ -1,8 +1,11 @@
 package it.unibz.inf.ontop.answering.connection.pool.impl;
 
 import com.google.inject.Inject;
-import com.google.inject.Singleton;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPoolMetrics;
+import it.unibz.inf.ontop.injection.OntopSQLCredentialSettings;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.utils.LocalJDBCConnectionUtils;
 
@@ -13,23 +16,41 @@ import java.sql.SQLException;
  * Does not pool any connection, but creates new ones on demand without keeping track of them.
  *
  * It is therefore essential that caller takes care of closing the connection after using it.
+ *
+ * Not a SINGLETON: also created for the other data sources (assisted injection).
  */
-@Singleton
 public class DummyJDBCConnectionPool implements JDBCConnectionPool {
 
-    private final OntopSystemSQLSettings settings;
+    private final OntopSQLCredentialSettings settings;
+    private final ConnectionCheckoutRecorder checkoutRecorder = new ConnectionCheckoutRecorder();
 
     @Inject
     private DummyJDBCConnectionPool(OntopSystemSQLSettings settings) {
         this.settings = settings;
     }
 
+    /**
+     * For another data source than the primary one
+     */
+    @AssistedInject
+    private DummyJDBCConnectionPool(@Assisted OntopSQLCredentialSettings dataSourceSettings) {
+        this.settings = dataSourceSettings;
+    }
+
     @Override
     public void close() {
     }
 
     @Override
     public Connection getConnection() throws SQLException {
-        return LocalJDBCConnectionUtils.createConnection(settings);
+        return checkoutRecorder.record(() -> LocalJDBCConnectionUtils.createConnection(settings));
+    }
+
+    /**
+     * Connections are not tracked: only the checkout statistics are reported
+     */
+    @Override
+    public JDBCConnectionPoolMetrics getMetrics() {
+        return checkoutRecorder.getMetrics(0, 0, 0);
     }
 }
@@ -1,10 +1,15 @@
 package it.unibz.inf.ontop.answering.connection.pool.impl;
 
 import com.google.inject.Inject;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import it.unibz.inf.ontop.injection.OntopSQLCredentialSettings;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPoolMetrics;
 
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -16,17 +21,27 @@ public class HikariConnectionPool implements JDBCConnectionPool {
 
 
     private final HikariDataSource ds;
+    private final ConnectionCheckoutRecorder checkoutRecorder = new ConnectionCheckoutRecorder();
 
     @Inject
     private HikariConnectionPool(OntopSystemSQLSettings settings) {
+        this(settings, settings);
+    }
+
+    /**
+     * For another data source than the primary one
+     */
+    @AssistedInject
+    private HikariConnectionPool(@Assisted OntopSQLCredentialSettings dataSourceSettings,
+                                 OntopSystemSQLSettings settings) {
         HikariConfig config = new HikariConfig();
-        config.setDataSourceProperties(settings.getAdditionalJDBCProperties());
-        config.setJdbcUrl(settings.getJdbcUrl());
-        settings.getJdbcUser()
+        config.setDataSourceProperties(dataSourceSettings.getAdditionalJDBCProperties());
+        config.setJdbcUrl(dataSourceSettings.getJdbcUrl());
+        dataSourceSettings.getJdbcUser()
                 .ifPresent(config::setUsername);
-        settings.getJdbcPassword()
+        dataSourceSettings.getJdbcPassword()
                 .ifPresent(config::setPassword);
-        config.setDriverClassName(settings.getJdbcDriver());
+        config.setDriverClassName(dataSourceSettings.getJdbcDriver());
 
         config.setMinimumIdle(settings.getConnectionPoolInitialSize());
         config.setMaximumPoolSize(settings.getConnectionPoolMaxSize());
@@ -44,6 +59,15 @@ public class HikariConnectionPool implements JDBCConnectionPool {
 
     @Override
     public Connection getConnection() throws SQLException {
-        return ds.getConnection();
+        return checkoutRecorder.record(ds::getConnection);
+    }
+
+    @Override
+    public JDBCConnectionPoolMetrics getMetrics() {
+        HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+        return pool == null
+                ? checkoutRecorder.getMetrics(0, 0, 0)
+                : checkoutRecorder.getMetrics(pool.getActiveConnections(), pool.getIdleConnections(),
+                    pool.getThreadsAwaitingConnection());
     }
 }
@@ -0,0 +1,71 @@
+package it.unibz.inf.ontop.answering.connection.pool.impl;
+
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPoolMetrics;
+
+import java.util.concurrent.TimeUnit;
+
+public class JDBCConnectionPoolMetricsImpl implements JDBCConnectionPoolMetrics {
+
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int threadsAwaitingConnection;
+    private final long checkoutCount;
+    private final long failedCheckoutCount;
+    private final long totalCheckoutTimeNanos;
+    private final long maxCheckoutTimeNanos;
+
+    JDBCConnectionPoolMetricsImpl(int activeConnections, int idleConnections, int threadsAwaitingConnection,
+                                  long checkoutCount, long failedCheckoutCount, long totalCheckoutTimeNanos,
+                                  long maxCheckoutTimeNanos) {
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.threadsAwaitingConnection = threadsAwaitingConnection;
+        this.checkoutCount = checkoutCount;
+        this.failedCheckoutCount = failedCheckoutCount;
+        this.totalCheckoutTimeNanos = totalCheckoutTimeNanos;
+        this.maxCheckoutTimeNanos = maxCheckoutTimeNanos;
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    @Override
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    @Override
+    public int getThreadsAwaitingConnection() {
+        return threadsAwaitingConnection;
+    }
+
+    @Override
+    public long getCheckoutCount() {
+        return checkoutCount;
+    }
+
+    @Override
+    public long getFailedCheckoutCount() {
+        return failedCheckoutCount;
+    }
+
+    @Override
+    public long getTotalCheckoutTimeNanos() {
+        return totalCheckoutTimeNanos;
+    }
+
+    @Override
+    public long getMaxCheckoutTimeNanos() {
+        return maxCheckoutTimeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("active=%d, idle=%d, waiting=%d, checkouts=%d, failed=%d, avg=%dms, max=%dms",
+                activeConnections, idleConnections, threadsAwaitingConnection, checkoutCount, failedCheckoutCount,
+                TimeUnit.NANOSECONDS.toMillis(getAverageCheckoutTimeNanos()),
+                TimeUnit.NANOSECONDS.toMillis(maxCheckoutTimeNanos));
+    }
+}
@@ -0,0 +1,282 @@
+package it.unibz.inf.ontop.answering.connection.pool.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPoolFactory;
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPoolMetrics;
+import it.unibz.inf.ontop.injection.OntopSQLCredentialSettings;
+import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
+import it.unibz.inf.ontop.injection.OntopSystemSQLSettings.ReplicaBalancing;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import it.unibz.inf.ontop.utils.LocalJDBCConnectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Comparator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Routes the connection checkouts between the primary data source and its read replicas,
+ * each of them having its own pool (created by the JDBCConnectionPoolFactory).
+ *
+ * Since an OntopConnection keeps its JDBC connection for its whole life, the balancing happens
+ * when the connection is checked out.
+ *
+ * When a data source fails to provide a connection, the next one is tried.
+ * If the failure is at the connection level (SQLState class 08), the data source is also marked as unavailable.
+ * It becomes available again once it passes the periodic health check, which opens its own connection
+ * so as not to wait for a saturated pool.
+ * When no replica is available, the primary is used.
+ *
+ * Not a SINGLETON!
+ */
+public class ReplicaRoutingConnectionPool implements JDBCConnectionPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaRoutingConnectionPool.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final String CONNECTION_EXCEPTION_SQL_STATE_CLASS = "08";
+
+    private final DataSourcePool primary;
+    private final ImmutableList<DataSourcePool> candidates;
+    private final ImmutableList<DataSourcePool> dataSources;
+    private final ReplicaBalancing balancing;
+    private final boolean healthCheckEnabled;
+    private final AtomicInteger roundRobinCounter = new AtomicInteger();
+    private final ConnectionCheckoutRecorder checkoutRecorder = new ConnectionCheckoutRecorder();
+    private final ScheduledExecutorService healthCheckExecutor;
+
+    @Inject
+    private ReplicaRoutingConnectionPool(OntopSystemSQLSettings settings, JDBCConnectionPoolFactory poolFactory) {
+        this.balancing = settings.getReplicaBalancing();
+
+        this.primary = new DataSourcePool(settings, poolFactory);
+        ImmutableList<DataSourcePool> replicas = settings.getReplicaSettings().stream()
+                .map(s -> new DataSourcePool(s, poolFactory))
+                .collect(ImmutableCollectors.toList());
+
+        this.dataSources = ImmutableList.<DataSourcePool>builder()
+                .add(primary)
+                .addAll(replicas)
+                .build();
+        this.candidates = settings.isPrimaryUsedWithReplicas() ? dataSources : replicas;
+
+        int healthCheckInterval = settings.getReplicaHealthCheckInterval();
+        this.healthCheckEnabled = healthCheckInterval > 0;
+        if (healthCheckEnabled) {
+            healthCheckExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "ontop-replica-health-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            healthCheckExecutor.scheduleWithFixedDelay(this::checkHealth, healthCheckInterval, healthCheckInterval,
+                    TimeUnit.MILLISECONDS);
+        }
+        else
+            healthCheckExecutor = null;
+
+        LOGGER.debug("Routing between {} data sources ({})", dataSources.size(), balancing);
+    }
+
+    @Override
+    public void close() {
+        if (healthCheckExecutor != null)
+            healthCheckExecutor.shutdownNow();
+        dataSources.forEach(d -> d.pool.close());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return checkoutRecorder.record(this::route);
+    }
+
+    private Connection route() throws SQLException {
+        ImmutableList<DataSourcePool> available = candidates.stream()
+                .filter(d -> d.available)
+                .collect(ImmutableCollectors.toList());
+
+        SQLException lastException = null;
+        for (DataSourcePool dataSource : order(available)) {
+            try {
+                return dataSource.getConnection();
+            }
+            catch (SQLException e) {
+                if (isConnectionFailure(e))
+                    dataSource.markAsUnavailable(e);
+                else
+                    LOGGER.debug("Could not obtain a connection from {}: {}", dataSource.url, e.getMessage());
+                lastException = chain(lastException, e);
+            }
+        }
+
+        // Fallback
+        if (!available.contains(primary)) {
+            try {
+                return primary.getConnection();
+            }
+            catch (SQLException e) {
+                lastException = chain(lastException, e);
+            }
+        }
+        throw lastException;
+    }
+
+    /**
+     * Starts at a rotating position, so that ties are broken in a round-robin fashion
+     */
+    private ImmutableList<DataSourcePool> order(ImmutableList<DataSourcePool> available) {
+        int size = available.size();
+        if (size == 0)
+            return available;
+
+        int start = Math.floorMod(roundRobinCounter.getAndIncrement(), size);
+        ImmutableList<DataSourcePool> rotated = IntStream.range(0, size)
+                .mapToObj(i -> available.get((start + i) % size))
+                .collect(ImmutableCollectors.toList());
+
+        switch (balancing) {
+            case LEAST_OUTSTANDING:
+                // Stable sort
+                return rotated.stream()
+                        .sorted(Comparator.comparingInt(d -> d.outstanding.get()))
+                        .collect(ImmutableCollectors.toList());
+            case ROUND_ROBIN:
+            default:
+                return rotated;
+        }
+    }
+
+    private static SQLException chain(SQLException previous, SQLException e) {
+        if (previous != null)
+            e.addSuppressed(previous);
+        return e;
+    }
+
+    /**
+     * Other failures (e.g. a saturated pool or a rejected authentication) do not say that the data source is down
+     */
+    private static boolean isConnectionFailure(SQLException exception) {
+        for (Throwable t = exception; t != null; t = t.getCause()) {
+            if (t instanceof SQLTransientConnectionException || t instanceof SQLNonTransientConnectionException)
+                return true;
+            if (t instanceof SQLException) {
+                String sqlState = ((SQLException) t).getSQLState();
+                if (sqlState != null && sqlState.startsWith(CONNECTION_EXCEPTION_SQL_STATE_CLASS))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkHealth() {
+        for (DataSourcePool dataSource : dataSources) {
+            boolean healthy;
+            try (Connection connection = LocalJDBCConnectionUtils.createConnection(dataSource.settings)) {
+                healthy = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            }
+            catch (SQLException e) {
+                healthy = false;
+            }
+            catch (RuntimeException e) {
+                LOGGER.warn("Unexpected error while checking the health of {}", dataSource.url, e);
+                healthy = false;
+            }
+
+            if (healthy && !dataSource.available) {
+                LOGGER.info("Data source {} is available again", dataSource.url);
+                dataSource.available = true;
+            }
+            else if (!healthy && dataSource.available) {
+                LOGGER.warn("Data source {} failed its health check", dataSource.url);
+                dataSource.available = false;
+            }
+        }
+    }
+
+    @Override
+    public JDBCConnectionPoolMetrics getMetrics() {
+        int active = 0, idle = 0, waiting = 0;
+        for (DataSourcePool dataSource : dataSources) {
+            JDBCConnectionPoolMetrics metrics = dataSource.pool.getMetrics();
+            active += metrics.getActiveConnections();
+            idle += metrics.getIdleConnections();
+            waiting += metrics.getThreadsAwaitingConnection();
+        }
+        return checkoutRecorder.getMetrics(active, idle, waiting);
+    }
+
+    /**
+     * Per data source: number of connections checked out and not closed yet
+     */
+    public ImmutableList<Integer> getOutstandingConnections() {
+        return dataSources.stream()
+                .map(d -> d.outstanding.get())
+                .collect(ImmutableCollectors.toList());
+    }
+
+    /**
+     * Per data source: whether it is currently considered for the routing
+     */
+    public ImmutableList<Boolean> getAvailability() {
+        return dataSources.stream()
+                .map(d -> d.available)
+                .collect(ImmutableCollectors.toList());
+    }
+
+
+    private class DataSourcePool {
+        private final String url;
+        private final OntopSQLCredentialSettings settings;
+        private final JDBCConnectionPool pool;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private volatile boolean available = true;
+
+        DataSourcePool(OntopSQLCredentialSettings dataSourceSettings, JDBCConnectionPoolFactory poolFactory) {
+            this.url = dataSourceSettings.getJdbcUrl();
+            this.settings = dataSourceSettings;
+            this.pool = poolFactory.create(dataSourceSettings);
+        }
+
+        Connection getConnection() throws SQLException {
+            Connection connection = pool.getConnection();
+            outstanding.incrementAndGet();
+            return trackClosing(connection);
+        }
+
+        /**
+         * Without health check, the data source would never be considered again
+         */
+        void markAsUnavailable(SQLException e) {
+            LOGGER.warn("Could not obtain a connection from {}: {}", url, e.getMessage());
+            if (healthCheckEnabled)
+                available = false;
+        }
+
+        private Connection trackClosing(Connection connection) {
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("close") && released.compareAndSet(false, true))
+                            outstanding.decrementAndGet();
+                        try {
+                            return method.invoke(connection, args);
+                        }
+                        catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package it.unibz.inf.ontop.answering.connection.pool.impl;
 
 import com.google.inject.Inject;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.injection.OntopSQLCredentialSettings;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPoolMetrics;
 import org.apache.tomcat.jdbc.pool.DataSource;
 import org.apache.tomcat.jdbc.pool.PoolProperties;
 import org.slf4j.Logger;
@@ -19,16 +23,27 @@ public class TomcatConnectionPool implements JDBCConnectionPool {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TomcatConnectionPool.class);
     private final DataSource tomcatPool;
+    private final ConnectionCheckoutRecorder checkoutRecorder = new ConnectionCheckoutRecorder();
+    private volatile boolean poolCreated = false;
 
     @Inject
     private TomcatConnectionPool(OntopSystemSQLSettings settings) {
+        this(settings, settings);
+    }
+
+    /**
+     * For another data source than the primary one
+     */
+    @AssistedInject
+    private TomcatConnectionPool(@Assisted OntopSQLCredentialSettings dataSourceSettings,
+                                 OntopSystemSQLSettings settings) {
         PoolProperties poolProperties = new PoolProperties();
-        poolProperties.setDbProperties(settings.getAdditionalJDBCProperties());
-        poolProperties.setUrl(settings.getJdbcUrl());
-        poolProperties.setDriverClassName(settings.getJdbcDriver());
-        settings.getJdbcUser()
+        poolProperties.setDbProperties(dataSourceSettings.getAdditionalJDBCProperties());
+        poolProperties.setUrl(dataSourceSettings.getJdbcUrl());
+        poolProperties.setDriverClassName(dataSourceSettings.getJdbcDriver());
+        dataSourceSettings.getJdbcUser()
                 .ifPresent(poolProperties::setUsername);
-        settings.getJdbcPassword()
+        dataSourceSettings.getJdbcPassword()
                 .ifPresent(poolProperties::setPassword);
         poolProperties.setJmxEnabled(true);
 
@@ -61,8 +76,15 @@ public class TomcatConnectionPool implements JDBCConnectionPool {
         poolProperties.setMinEvictableIdleTimeMillis(timeout);
         poolProperties.setLogAbandoned(false);
         poolProperties.setRemoveAbandoned(removeAbandoned);
+        int statementCacheSize = settings.getStatementCacheSize();
+        // Prepared statements are cached per connection, by SQL string
+        String statementCache = statementCacheSize > 0
+                ? ";org.apache.tomcat.jdbc.pool.interceptor.StatementCache(prepared=true,callable=false,max="
+                    + statementCacheSize + ")"
+                : "";
         poolProperties.setJdbcInterceptors("org.apache.tomcat.jdbc.pool.interceptor.ConnectionState;"
-                + "org.apache.tomcat.jdbc.pool.interceptor.StatementFinalizer");
+                + "org.apache.tomcat.jdbc.pool.interceptor.StatementFinalizer"
+                + statementCache);
         tomcatPool = new DataSource();
         tomcatPool.setPoolProperties(poolProperties);
 
@@ -70,6 +92,7 @@ public class TomcatConnectionPool implements JDBCConnectionPool {
         LOGGER.debug("Start size: " + startPoolSize);
         LOGGER.debug("Max size: " + maxPoolSize);
         LOGGER.debug("Remove abandoned connections: " + removeAbandoned);
+        LOGGER.debug("Statement cache size: " + statementCacheSize);
     }
 
     @Override
@@ -79,6 +102,20 @@ public class TomcatConnectionPool implements JDBCConnectionPool {
 
     @Override
     public Connection getConnection() throws SQLException {
-        return tomcatPool.getConnection();
+        Connection connection = checkoutRecorder.record(tomcatPool::getConnection);
+        poolCreated = true;
+        return connection;
+    }
+
+    /**
+     * The wait count is the length of the (fair) queue of threads waiting for a connection.
+     *
+     * The Tomcat pool is created lazily: querying its counts before would trigger its creation.
+     */
+    @Override
+    public JDBCConnectionPoolMetrics getMetrics() {
+        return poolCreated
+                ? checkoutRecorder.getMetrics(tomcatPool.getActive(), tomcatPool.getIdle(), tomcatPool.getWaitCount())
+                : checkoutRecorder.getMetrics(0, 0, 0);
     }
 }
@@ -0,0 +1,280 @@
+package it.unibz.inf.ontop.dbschema.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.exception.MetadataExtractionException;
+import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Collects the statistics through the DBMetadataProvider, using a connection of the pool.
+ *
+ * Statistics are collected once per relation (row count) and per attribute (number of distinct values),
+ * and kept for the lifetime of the engine. Failures are logged and not retried.
+ *
+ * A missing statistic is requested to a background thread, which the query planning waits for at most
+ * ontop.statistics.maxWait ms. If it is not collected in time, it is reported as not available
+ * (the planner then falls back to its default choices) and the update listeners are notified once it is,
+ * so that the plans built without it can be discarded.
+ *
+ * If a statistics file is configured, the statistics it contains are used instead of querying the DB,
+ * and the newly collected ones are written back to it in batches (at most once per UPDATE_DELAY_MS).
+ * The update listeners are notified with the same batches.
+ * Format: {"relations": {"<relation>": {"rowCount": n, "distinctValueCounts": {"<attribute>": n}}}}
+ * where relations and attributes are given by their SQL rendering.
+ */
+@Singleton
+public class JDBCDBStatisticsProvider implements DBStatisticsProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JDBCDBStatisticsProvider.class);
+    private static final String RELATIONS_KEY = "relations";
+    private static final String ROW_COUNT_KEY = "rowCount";
+    private static final String DISTINCT_VALUE_COUNTS_KEY = "distinctValueCounts";
+    // Marks statistics that could not be collected
+    private static final long UNKNOWN = -1;
+    private static final long UPDATE_DELAY_MS = 5000;
+
+    private final JDBCConnectionPool connectionPool;
+    private final JDBCMetadataProviderFactory metadataProviderFactory;
+    private final int sampleSize;
+    private final int maxWait;
+    private final Optional<File> statisticsFile;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Long> rowCounts;
+    private final Map<String, Map<String, Long>> distinctValueCounts;
+    // Statistics requested to the collecting thread and not collected yet
+    private final Map<String, Future<?>> pendingCollections;
+    // Statistics reported as not available while being collected
+    private final AtomicBoolean hasMissedStatistics;
+    private final AtomicBoolean isUpdateScheduled;
+    private final List<Runnable> updateListeners;
+    private final ScheduledThreadPoolExecutor collectingExecutor;
+    // LAZY
+    private boolean isLoaded;
+
+    @Inject
+    private JDBCDBStatisticsProvider(JDBCConnectionPool connectionPool,
+                                     JDBCMetadataProviderFactory metadataProviderFactory,
+                                     OntopSystemSQLSettings settings) {
+        this.connectionPool = connectionPool;
+        this.metadataProviderFactory = metadataProviderFactory;
+        this.sampleSize = settings.getStatisticsSampleSize();
+        this.maxWait = settings.getStatisticsMaxWait();
+        this.statisticsFile = settings.getStatisticsFile().map(File::new);
+        this.objectMapper = new ObjectMapper();
+        this.rowCounts = new ConcurrentHashMap<>();
+        this.distinctValueCounts = new ConcurrentHashMap<>();
+        this.pendingCollections = new ConcurrentHashMap<>();
+        this.hasMissedStatistics = new AtomicBoolean(false);
+        this.isUpdateScheduled = new AtomicBoolean(false);
+        this.updateListeners = new CopyOnWriteArrayList<>();
+        this.collectingExecutor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "ontop-statistics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // No idle thread once all the statistics have been collected
+        collectingExecutor.setKeepAliveTime(1, TimeUnit.MINUTES);
+        collectingExecutor.allowCoreThreadTimeOut(true);
+        this.isLoaded = false;
+    }
+
+    @Override
+    public OptionalLong getRowCount(NamedRelationDefinition relation) {
+        if (relation instanceof Lens)
+            return OptionalLong.empty();
+
+        load();
+        RelationID id = relation.getID();
+        return getOrRequest(rowCounts, id.getSQLRendering(),
+                p -> p.getRowCount(id),
+                "row count of " + id);
+    }
+
+    @Override
+    public OptionalLong getDistinctValueCount(NamedRelationDefinition relation, Attribute attribute) {
+        OptionalLong rowCount = getRowCount(relation);
+        if (rowCount.isEmpty())
+            return OptionalLong.empty();
+
+        RelationID id = relation.getID();
+        QuotedID attributeId = attribute.getID();
+        return getOrRequest(
+                distinctValueCounts.computeIfAbsent(id.getSQLRendering(), k -> new ConcurrentHashMap<>()),
+                attributeId.getSQLRendering(),
+                p -> p.getDistinctValueCount(id, attributeId, sampleSize, rowCount.getAsLong()),
+                "number of distinct values of " + attributeId + " in " + id);
+    }
+
+    @Override
+    public void addUpdateListener(Runnable listener) {
+        updateListeners.add(listener);
+    }
+
+    /**
+     * Waits for the collection for at most maxWait ms: empty if the statistic has not been collected in time
+     */
+    private OptionalLong getOrRequest(Map<String, Long> map, String key, StatisticsCollector collector,
+                                      String description) {
+        Long value = map.get(key);
+        if (value == null) {
+            Future<?> collection = pendingCollections.computeIfAbsent(description,
+                    d -> collectingExecutor.submit(() -> {
+                        // May have been collected just before the request
+                        if (!map.containsKey(key)) {
+                            long newValue = collect(collector, description);
+                            map.putIfAbsent(key, newValue);
+                            if (newValue != UNKNOWN)
+                                scheduleUpdate();
+                        }
+                        pendingCollections.remove(description);
+                    }));
+            value = waitFor(collection, map, key, description);
+        }
+        return (value == null || value == UNKNOWN) ? OptionalLong.empty() : OptionalLong.of(value);
+    }
+
+    @Nullable
+    private Long waitFor(Future<?> collection, Map<String, Long> map, String key, String description) {
+        try {
+            if (maxWait > 0)
+                collection.get(maxWait, TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException e) {
+            LOGGER.debug("The {} has not been collected in time", description);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e) {
+            LOGGER.warn("Cannot collect the {}: {}", description, e.getMessage());
+        }
+        Long value = map.get(key);
+        if (value == null)
+            hasMissedStatistics.set(true);
+        return value;
+    }
+
+    private long collect(StatisticsCollector collector, String description) {
+        try (Connection connection = connectionPool.getConnection()) {
+            long value = collector.collect(metadataProviderFactory.getMetadataProvider(connection));
+            LOGGER.debug("Statistics: {} = {}", description, value);
+            return value;
+        }
+        catch (SQLException | MetadataExtractionException e) {
+            LOGGER.warn("Cannot collect the {}: {}", description, e.getMessage());
+            return UNKNOWN;
+        }
+    }
+
+    private synchronized void load() {
+        if (isLoaded)
+            return;
+        isLoaded = true;
+
+        if (statisticsFile.isEmpty() || !statisticsFile.get().exists())
+            return;
+
+        try {
+            JsonNode relations = objectMapper.readTree(statisticsFile.get()).path(RELATIONS_KEY);
+            Iterator<Map.Entry<String, JsonNode>> it = relations.fields();
+            while (it.hasNext()) {
+                Map.Entry<String, JsonNode> relation = it.next();
+                JsonNode rowCount = relation.getValue().get(ROW_COUNT_KEY);
+                if (rowCount != null && rowCount.canConvertToLong())
+                    rowCounts.put(relation.getKey(), rowCount.asLong());
+
+                Map<String, Long> counts = distinctValueCounts.computeIfAbsent(relation.getKey(), k -> new ConcurrentHashMap<>());
+                relation.getValue().path(DISTINCT_VALUE_COUNTS_KEY).fields()
+                        .forEachRemaining(e -> counts.put(e.getKey(), e.getValue().asLong()));
+            }
+            LOGGER.debug("Statistics loaded from {}", statisticsFile.get());
+        }
+        catch (IOException e) {
+            LOGGER.warn("Cannot read the statistics file {}: {}", statisticsFile.get(), e.getMessage());
+        }
+    }
+
+    /**
+     * The statistics collected in the meantime are written and notified together
+     */
+    private void scheduleUpdate() {
+        if (isUpdateScheduled.compareAndSet(false, true))
+            collectingExecutor.schedule(() -> {
+                isUpdateScheduled.set(false);
+                save();
+                if (hasMissedStatistics.getAndSet(false))
+                    notifyUpdateListeners();
+            }, UPDATE_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void notifyUpdateListeners() {
+        LOGGER.debug("New statistics available: notifying {} listener(s)", updateListeners.size());
+        for (Runnable listener : updateListeners) {
+            try {
+                listener.run();
+            }
+            catch (RuntimeException e) {
+                LOGGER.warn("Statistics update listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Only the collected statistics are written (not the failures)
+     */
+    private synchronized void save() {
+        if (statisticsFile.isEmpty())
+            return;
+
+        ObjectNode root = objectMapper.createObjectNode();
+        ObjectNode relations = root.putObject(RELATIONS_KEY);
+        rowCounts.forEach((relation, rowCount) -> {
+            if (rowCount != UNKNOWN)
+                relations.putObject(relation).put(ROW_COUNT_KEY, rowCount);
+        });
+        distinctValueCounts.forEach((relation, counts) -> {
+            ObjectNode relationNode = relations.has(relation)
+                    ? (ObjectNode) relations.get(relation)
+                    : relations.putObject(relation);
+            ObjectNode countNode = relationNode.putObject(DISTINCT_VALUE_COUNTS_KEY);
+            counts.forEach((attribute, count) -> {
+                if (count != UNKNOWN)
+                    countNode.put(attribute, count);
+            });
+        });
+
+        try {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(statisticsFile.get(), root);
+        }
+        catch (IOException e) {
+            LOGGER.warn("Cannot write the statistics file {}: {}", statisticsFile.get(), e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface StatisticsCollector {
+        long collect(DBMetadataProvider metadataProvider) throws MetadataExtractionException;
+    }
+}
@@ -1,5 +1,8 @@
 package it.unibz.inf.ontop.injection;
 
+import com.google.common.collect.ImmutableList;
+
+import java.util.Optional;
 
 public interface OntopSystemSQLSettings extends OntopSystemSettings, OntopReformulationSQLSettings,
         OntopSQLCredentialSettings {
@@ -16,6 +19,63 @@ public interface OntopSystemSQLSettings extends OntopSystemSettings, OntopReform
 
     int getFetchSize();
 
+    /**
+     * Maximum number of prepared statements cached by the connection pool (0: no cache)
+     */
+    int getStatementCacheSize();
+
+    //--------------------------
+    // Statistics (cost-based query planning)
+    //--------------------------
+
+    /**
+     * If <= 0 or if the DB does not support random row sampling, the statistics are computed on all the rows
+     */
+    int getStatisticsSampleSize();
+
+    /**
+     * JSON file where the collected statistics are persisted (typically next to the serialized DB metadata)
+     */
+    Optional<String> getStatisticsFile();
+
+    /**
+     * Maximum time (in ms) the query planning waits for a statistic being collected (0: does not wait).
+     * The statistics collected later on are used by the next plans.
+     */
+    int getStatisticsMaxWait();
+
+    //--------------------------
+    // Read replicas
+    //--------------------------
+
+    /**
+     * Data sources of the read replicas, declared with jdbc.replica.N.url (and optionally jdbc.replica.N.user and
+     * jdbc.replica.N.password), ordered by N. The other JDBC settings are the ones of the primary data source.
+     *
+     * Empty if no replica is declared.
+     */
+    ImmutableList<OntopSQLCredentialSettings> getReplicaSettings();
+
+    ReplicaBalancing getReplicaBalancing();
+
+    /**
+     * If false, the primary data source only receives queries when no replica is available
+     */
+    boolean isPrimaryUsedWithReplicas();
+
+    /**
+     * In ms. If <= 0, the replicas are not health-checked
+     */
+    int getReplicaHealthCheckInterval();
+
+    enum ReplicaBalancing {
+        ROUND_ROBIN,
+        /**
+         * Data source with the least connections currently checked out through Ontop
+         */
+        LEAST_OUTSTANDING
+    }
+
     //--------------------------
     // Keys
     //--------------------------
@@ -31,4 +91,14 @@ public interface OntopSystemSQLSettings extends OntopSystemSettings, OntopReform
      * If <= 0, the fetch size is ignored
      */
     String FETCH_SIZE = "jdbc.fetchSize";
+    String STATEMENT_CACHE_SIZE = "jdbc.pool.statementCacheSize";
+
+    String STATISTICS_SAMPLE_SIZE = "ontop.statistics.sampleSize";
+    String STATISTICS_FILE = "ontop.statistics.file";
+    String STATISTICS_MAX_WAIT = "ontop.statistics.maxWait";
+
+    String REPLICA_PREFIX = "jdbc.replica.";
+    String REPLICA_BALANCING = "jdbc.replica.balancing";
+    String REPLICA_INCLUDE_PRIMARY = "jdbc.replica.includePrimary";
+    String REPLICA_HEALTH_CHECK_INTERVAL = "jdbc.replica.healthCheckInterval";
 }
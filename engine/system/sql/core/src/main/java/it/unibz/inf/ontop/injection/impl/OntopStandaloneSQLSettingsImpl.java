@@ -1,6 +1,8 @@
 package it.unibz.inf.ontop.injection.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.injection.OntopSQLCredentialSettings;
 import it.unibz.inf.ontop.injection.OntopStandaloneSQLSettings;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 
@@ -98,6 +100,16 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return getRequiredLong(QUERY_CACHE_MAX_SIZE);
     }
 
+    @Override
+    public boolean isQueryTemplateCacheEnabled() {
+        return getRequiredBoolean(QUERY_TEMPLATE_CACHE);
+    }
+
+    @Override
+    public long getQueryTemplateCacheMaxSize() {
+        return getRequiredLong(QUERY_TEMPLATE_CACHE_MAX_SIZE);
+    }
+
     @Override
     public String getApplicationName() {
         return getRequiredProperty(APPLICATION_NAME);
@@ -108,6 +120,41 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return systemSettings.getHttpHeaderNamesToLog();
     }
 
+    @Override
+    public boolean isQueryLoggingAsync() {
+        return systemSettings.isQueryLoggingAsync();
+    }
+
+    @Override
+    public int getQueryLoggingBufferSize() {
+        return systemSettings.getQueryLoggingBufferSize();
+    }
+
+    @Override
+    public QueryLoggingOverflowPolicy getQueryLoggingOverflowPolicy() {
+        return systemSettings.getQueryLoggingOverflowPolicy();
+    }
+
+    @Override
+    public int getQueryLoggingBatchSize() {
+        return systemSettings.getQueryLoggingBatchSize();
+    }
+
+    @Override
+    public Optional<String> getQueryLoggingFile() {
+        return systemSettings.getQueryLoggingFile();
+    }
+
+    @Override
+    public long getQueryLoggingFileMaxSize() {
+        return systemSettings.getQueryLoggingFileMaxSize();
+    }
+
+    @Override
+    public int getQueryLoggingFileMaxBackups() {
+        return systemSettings.getQueryLoggingFileMaxBackups();
+    }
+
     @Override
     public boolean isAuthorizationEnabled() {
         return systemSettings.isAuthorizationEnabled();
@@ -143,6 +190,51 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return systemSettings.getFetchSize();
     }
 
+    @Override
+    public int getStatementCacheSize() {
+        return systemSettings.getStatementCacheSize();
+    }
+
+    @Override
+    public ImmutableList<OntopSQLCredentialSettings> getReplicaSettings() {
+        return systemSettings.getReplicaSettings();
+    }
+
+    @Override
+    public ReplicaBalancing getReplicaBalancing() {
+        return systemSettings.getReplicaBalancing();
+    }
+
+    @Override
+    public boolean isPrimaryUsedWithReplicas() {
+        return systemSettings.isPrimaryUsedWithReplicas();
+    }
+
+    @Override
+    public int getReplicaHealthCheckInterval() {
+        return systemSettings.getReplicaHealthCheckInterval();
+    }
+
+    @Override
+    public boolean isSQLParameterizationEnabled() {
+        return systemSettings.isSQLParameterizationEnabled();
+    }
+
+    @Override
+    public int getStatisticsSampleSize() {
+        return systemSettings.getStatisticsSampleSize();
+    }
+
+    @Override
+    public Optional<String> getStatisticsFile() {
+        return systemSettings.getStatisticsFile();
+    }
+
+    @Override
+    public int getStatisticsMaxWait() {
+        return systemSettings.getStatisticsMaxWait();
+    }
+
     @Override
     public Optional<Integer> getDefaultQueryTimeout() {
         return getInteger(DEFAULT_QUERY_TIMEOUT);
@@ -153,8 +245,78 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return systemSettings.isPermanentDBConnectionEnabled();
     }
 
+    @Override
+    public int getMaxConcurrentQueries() {
+        return systemSettings.getMaxConcurrentQueries();
+    }
+
+    @Override
+    public int getMaxQueuedQueries() {
+        return systemSettings.getMaxQueuedQueries();
+    }
+
+    @Override
+    public boolean areVirtualThreadsEnabledForQueries() {
+        return systemSettings.areVirtualThreadsEnabledForQueries();
+    }
+
+    @Override
+    public int getDescribeBatchSize() {
+        return systemSettings.getDescribeBatchSize();
+    }
+
+    @Override
+    public int getDescribeParallelism() {
+        return systemSettings.getDescribeParallelism();
+    }
+
     @Override
     public Optional<String> getHttpCacheControl() {
         return systemSettings.getHttpCacheControl();
     }
+
+    @Override
+    public int getHttpResultCacheMaxEntries() {
+        return systemSettings.getHttpResultCacheMaxEntries();
+    }
+
+    @Override
+    public long getHttpResultCacheMaxBytes() {
+        return systemSettings.getHttpResultCacheMaxBytes();
+    }
+
+    @Override
+    public long getHttpResultCacheMaxEntrySize() {
+        return systemSettings.getHttpResultCacheMaxEntrySize();
+    }
+
+    @Override
+    public long getHttpResultCacheTTL() {
+        return systemSettings.getHttpResultCacheTTL();
+    }
+
+    @Override
+    public Optional<String> getHttpResultCacheDirectory() {
+        return systemSettings.getHttpResultCacheDirectory();
+    }
+
+    @Override
+    public long getHttpResultCacheMaxDiskBytes() {
+        return systemSettings.getHttpResultCacheMaxDiskBytes();
+    }
+
+    @Override
+    public long getParsedQueryCacheMaxSize() {
+        return systemSettings.getParsedQueryCacheMaxSize();
+    }
+
+    @Override
+    public int getReloadWarmUpQueries() {
+        return systemSettings.getReloadWarmUpQueries();
+    }
+
+    @Override
+    public long getReloadDrainTimeout() {
+        return systemSettings.getReloadDrainTimeout();
+    }
 }
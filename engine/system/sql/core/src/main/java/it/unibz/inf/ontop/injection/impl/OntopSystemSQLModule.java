@@ -3,6 +3,8 @@ package it.unibz.inf.ontop.injection.impl;
 import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPoolFactory;
+import it.unibz.inf.ontop.answering.connection.pool.impl.ReplicaRoutingConnectionPool;
 
 
 public class OntopSystemSQLModule extends OntopAbstractModule {
@@ -17,7 +19,13 @@ public class OntopSystemSQLModule extends OntopAbstractModule {
     @Override
     protected void configure() {
         bind(OntopSystemSQLSettings.class).toInstance(settings);
-        bindFromSettings(JDBCConnectionPool.class);
+        if (settings.getReplicaSettings().isEmpty())
+            bindFromSettings(JDBCConnectionPool.class);
+        else {
+            // The configured pool implementation is used for each data source
+            bind(JDBCConnectionPool.class).to(ReplicaRoutingConnectionPool.class);
+            install(buildFactory(JDBCConnectionPoolFactory.class, JDBCConnectionPool.class));
+        }
         bindFromSettings(JDBCStatementInitializer.class);
     }
 }
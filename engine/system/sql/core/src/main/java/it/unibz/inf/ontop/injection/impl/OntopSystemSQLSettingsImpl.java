@@ -1,27 +1,63 @@
 package it.unibz.inf.ontop.injection.impl;
 
+import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
 import it.unibz.inf.ontop.injection.OntopSQLCredentialSettings;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.injection.OntopSystemSettings;
 
+import java.util.Comparator;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static it.unibz.inf.ontop.injection.impl.OntopSQLCoreSettingsImpl.extractJdbcDriver;
+import static it.unibz.inf.ontop.utils.ImmutableCollectors.toList;
 
 
 public class OntopSystemSQLSettingsImpl extends OntopReformulationSQLSettingsImpl implements OntopSystemSQLSettings {
 
     private static final String DEFAULT_FILE = "system-sql-default.properties";
     private static final String STATEMENT_INITIALIZER_SUFFIX = "-statementInitializer";
+    private static final Pattern REPLICA_URL_PATTERN = Pattern.compile(Pattern.quote(REPLICA_PREFIX) + "(\\d+)\\.url");
     private final OntopSystemSettings systemSettings;
     private final OntopSQLCredentialSettings sqlCredentialSettings;
+    private final ImmutableList<OntopSQLCredentialSettings> replicaSettings;
 
     OntopSystemSQLSettingsImpl(Properties userProperties) {
         super(loadProperties(userProperties));
         systemSettings = new OntopSystemSettingsImpl(copyProperties());
         sqlCredentialSettings = new OntopSQLCredentialSettingsImpl(copyProperties());
+        replicaSettings = extractReplicaSettings();
+    }
+
+    /**
+     * Each replica inherits the settings of the primary data source, apart from the URL and the credentials
+     */
+    private ImmutableList<OntopSQLCredentialSettings> extractReplicaSettings() {
+        Properties primaryProperties = copyProperties();
+        primaryProperties.stringPropertyNames().stream()
+                .filter(k -> k.startsWith(REPLICA_PREFIX))
+                .forEach(primaryProperties::remove);
+
+        return copyProperties().stringPropertyNames().stream()
+                .map(REPLICA_URL_PATTERN::matcher)
+                .filter(Matcher::matches)
+                .map(m -> m.group(1))
+                .sorted(Comparator.comparingInt(Integer::parseInt))
+                .map(n -> {
+                    String prefix = REPLICA_PREFIX + n + ".";
+                    Properties properties = new Properties();
+                    properties.putAll(primaryProperties);
+                    properties.setProperty(JDBC_URL, getRequiredProperty(prefix + "url"));
+                    getProperty(prefix + "user")
+                            .ifPresent(u -> properties.setProperty(OntopSQLCredentialSettings.JDBC_USER, u));
+                    getProperty(prefix + "password")
+                            .ifPresent(p -> properties.setProperty(OntopSQLCredentialSettings.JDBC_PASSWORD, p));
+                    return (OntopSQLCredentialSettings) new OntopSQLCredentialSettingsImpl(properties);
+                })
+                .collect(toList());
     }
 
     private static Properties loadProperties(Properties userProperties) {
@@ -79,6 +115,46 @@ public class OntopSystemSQLSettingsImpl extends OntopReformulationSQLSettingsImp
         return getRequiredInteger(FETCH_SIZE);
     }
 
+    @Override
+    public int getStatementCacheSize() {
+        return getRequiredInteger(STATEMENT_CACHE_SIZE);
+    }
+
+    @Override
+    public int getStatisticsSampleSize() {
+        return getRequiredInteger(STATISTICS_SAMPLE_SIZE);
+    }
+
+    @Override
+    public Optional<String> getStatisticsFile() {
+        return getProperty(STATISTICS_FILE);
+    }
+
+    @Override
+    public int getStatisticsMaxWait() {
+        return getRequiredInteger(STATISTICS_MAX_WAIT);
+    }
+
+    @Override
+    public ImmutableList<OntopSQLCredentialSettings> getReplicaSettings() {
+        return replicaSettings;
+    }
+
+    @Override
+    public ReplicaBalancing getReplicaBalancing() {
+        return ReplicaBalancing.valueOf(getRequiredProperty(REPLICA_BALANCING));
+    }
+
+    @Override
+    public boolean isPrimaryUsedWithReplicas() {
+        return getRequiredBoolean(REPLICA_INCLUDE_PRIMARY);
+    }
+
+    @Override
+    public int getReplicaHealthCheckInterval() {
+        return getRequiredInteger(REPLICA_HEALTH_CHECK_INTERVAL);
+    }
+
     @Override
     public Optional<Integer> getDefaultQueryTimeout() {
         return getInteger(DEFAULT_QUERY_TIMEOUT);
@@ -89,11 +165,81 @@ public class OntopSystemSQLSettingsImpl extends OntopReformulationSQLSettingsImp
         return systemSettings.isPermanentDBConnectionEnabled();
     }
 
+    @Override
+    public int getMaxConcurrentQueries() {
+        return systemSettings.getMaxConcurrentQueries();
+    }
+
+    @Override
+    public int getMaxQueuedQueries() {
+        return systemSettings.getMaxQueuedQueries();
+    }
+
+    @Override
+    public boolean areVirtualThreadsEnabledForQueries() {
+        return systemSettings.areVirtualThreadsEnabledForQueries();
+    }
+
+    @Override
+    public int getDescribeBatchSize() {
+        return systemSettings.getDescribeBatchSize();
+    }
+
+    @Override
+    public int getDescribeParallelism() {
+        return systemSettings.getDescribeParallelism();
+    }
+
     @Override
     public Optional<String> getHttpCacheControl() {
         return systemSettings.getHttpCacheControl();
     }
 
+    @Override
+    public int getHttpResultCacheMaxEntries() {
+        return systemSettings.getHttpResultCacheMaxEntries();
+    }
+
+    @Override
+    public long getHttpResultCacheMaxBytes() {
+        return systemSettings.getHttpResultCacheMaxBytes();
+    }
+
+    @Override
+    public long getHttpResultCacheMaxEntrySize() {
+        return systemSettings.getHttpResultCacheMaxEntrySize();
+    }
+
+    @Override
+    public long getHttpResultCacheTTL() {
+        return systemSettings.getHttpResultCacheTTL();
+    }
+
+    @Override
+    public Optional<String> getHttpResultCacheDirectory() {
+        return systemSettings.getHttpResultCacheDirectory();
+    }
+
+    @Override
+    public long getHttpResultCacheMaxDiskBytes() {
+        return systemSettings.getHttpResultCacheMaxDiskBytes();
+    }
+
+    @Override
+    public long getParsedQueryCacheMaxSize() {
+        return systemSettings.getParsedQueryCacheMaxSize();
+    }
+
+    @Override
+    public int getReloadWarmUpQueries() {
+        return systemSettings.getReloadWarmUpQueries();
+    }
+
+    @Override
+    public long getReloadDrainTimeout() {
+        return systemSettings.getReloadDrainTimeout();
+    }
+
     @Override
     public Optional<String> getJdbcUser() {
         return sqlCredentialSettings.getJdbcUser();
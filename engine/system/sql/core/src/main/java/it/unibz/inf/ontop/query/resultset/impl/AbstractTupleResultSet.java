@@ -2,14 +2,18 @@ package it.unibz.inf.ontop.query.resultset.impl;
 
 import com.google.common.collect.ImmutableList;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.query.resultset.LexicalRowHandler;
 import it.unibz.inf.ontop.query.resultset.OntopBindingSet;
 import it.unibz.inf.ontop.query.resultset.TupleResultSet;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.model.term.RDFConstant;
 import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.type.RDFTermType;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.NoSuchElementException;
@@ -99,6 +103,20 @@ public abstract class AbstractTupleResultSet implements TupleResultSet {
         return foundNextElement;
     }
 
+    @Override
+    public void forEachLexicalRow(LexicalRowHandler handler) throws OntopConnectionException,
+            OntopResultConversionException, IOException {
+        CharSequence[] lexicalValues = new CharSequence[signature.size()];
+        RDFTermType[] types = new RDFTermType[signature.size()];
+
+        while (hasNext()) {
+            // The row is consumed
+            lastCalledIsHasNext = false;
+            readCurrentRowLexically(lexicalValues, types);
+            handler.handleRow(lexicalValues, types);
+        }
+    }
+
     /* This method can be overwritten to ensure distinct rows */
     protected boolean moveCursor() throws SQLException, OntopConnectionException {
         return rs.next();
@@ -125,6 +143,19 @@ public abstract class AbstractTupleResultSet implements TupleResultSet {
 
     protected abstract OntopBindingSet readCurrentRow() throws OntopConnectionException, OntopResultConversionException;
 
+    /**
+     * Can be overwritten to avoid building the binding set
+     */
+    protected void readCurrentRowLexically(CharSequence[] lexicalValues, RDFTermType[] types)
+            throws OntopConnectionException, OntopResultConversionException {
+        OntopBindingSet bindingSet = readCurrentRow();
+        for (int i = 0; i < lexicalValues.length; i++) {
+            RDFConstant constant = bindingSet.getConstant(signature.get(i).getName());
+            lexicalValues[i] = constant == null ? null : LexicalRowHandler.getLexicalValue(constant);
+            types[i] = constant == null ? null : constant.getType();
+        }
+    }
+
     protected OntopConnectionException buildConnectionException(Exception e) {
         queryLogger.declareConnectionException(e);
         return new OntopConnectionException(e);
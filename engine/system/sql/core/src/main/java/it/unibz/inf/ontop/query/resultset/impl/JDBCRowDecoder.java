@@ -0,0 +1,321 @@
+package it.unibz.inf.ontop.query.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.model.template.Template;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.RDFTermFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.IRIStringTemplateFunctionSymbol;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.type.RDFTermType;
+import it.unibz.inf.ontop.query.resultset.LexicalRowHandler;
+import it.unibz.inf.ontop.query.resultset.OntopBinding;
+import it.unibz.inf.ontop.substitution.Substitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import it.unibz.inf.ontop.utils.R2RMLIRISafeEncoder;
+
+import javax.annotation.Nullable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Decodes the rows of a JDBC result set into bindings.
+ *
+ * Compiled once for the signature of the native query and the substitution of its construction node.
+ * For each projected variable, the most common shapes of terms are evaluated directly on the column values:
+ *   - RDF constants,
+ *   - RDF terms whose lexical value is a column,
+ *   - IRIs built from an IRI template over columns.
+ * The other terms fall back to the generic evaluation (substitution and simplification).
+ *
+ * Integer columns are read with getLong(), the other ones with getString().
+ *
+ * Rows can also be decoded "lexically" (lexical values and RDF term types), which avoids building RDF constants
+ * for these common shapes. Not thread-safe: buffers are reused from one row to the next.
+ */
+class JDBCRowDecoder {
+
+    private final ImmutableList<Variable> sqlSignature;
+    private final ImmutableList<DBTermType> sqlTypes;
+    private final boolean[] isReadAsLong;
+    private final ImmutableList<Variable> signature;
+    private final ImmutableList<VariableEvaluator> evaluators;
+    private final TermFactory termFactory;
+    private final SubstitutionFactory substitutionFactory;
+    // Reused for decoding lexically
+    private final Row reusableRow = new Row();
+
+    JDBCRowDecoder(ImmutableList<Variable> sqlSignature, ImmutableMap<Variable, DBTermType> sqlTypeMap,
+                   Substitution<ImmutableTerm> sparqlVar2Term, ImmutableList<Variable> signature,
+                   TermFactory termFactory, SubstitutionFactory substitutionFactory) {
+        this.sqlSignature = sqlSignature;
+        this.sqlTypes = sqlSignature.stream()
+                .map(sqlTypeMap::get)
+                .collect(ImmutableCollectors.toList());
+        this.isReadAsLong = new boolean[sqlSignature.size()];
+        for (int i = 0; i < isReadAsLong.length; i++) {
+            DBTermType type = sqlTypes.get(i);
+            isReadAsLong[i] = type != null && type.getCategory() == DBTermType.Category.INTEGER;
+        }
+        this.signature = signature;
+        this.termFactory = termFactory;
+        this.substitutionFactory = substitutionFactory;
+        this.evaluators = signature.stream()
+                .map(sparqlVar2Term::apply)
+                .map(this::compile)
+                .collect(ImmutableCollectors.toList());
+    }
+
+    private VariableEvaluator compile(ImmutableTerm term) {
+        if (term instanceof RDFConstant) {
+            RDFConstant constant = (RDFConstant) term;
+            return row -> constant;
+        }
+        if (term.isNull())
+            return row -> null;
+
+        if (term instanceof ImmutableFunctionalTerm
+                && ((ImmutableFunctionalTerm) term).getFunctionSymbol() instanceof RDFTermFunctionSymbol) {
+            ImmutableFunctionalTerm rdfTerm = (ImmutableFunctionalTerm) term;
+            ImmutableTerm lexicalTerm = rdfTerm.getTerm(0);
+            ImmutableTerm typeTerm = rdfTerm.getTerm(1);
+
+            if ((typeTerm instanceof RDFTermTypeConstant)
+                    && !((RDFTermTypeConstant) typeTerm).getRDFTermType().isAbstract()) {
+                RDFTermType rdfType = ((RDFTermTypeConstant) typeTerm).getRDFTermType();
+
+                if (lexicalTerm instanceof Variable) {
+                    int index = sqlSignature.indexOf(lexicalTerm);
+                    if (index >= 0)
+                        return new ColumnEvaluator(term, index, rdfType);
+                }
+                else if (isIRITemplateOverColumns(lexicalTerm)) {
+                    ImmutableFunctionalTerm templateTerm = (ImmutableFunctionalTerm) lexicalTerm;
+                    ImmutableList<Template.Component> components =
+                            ((IRIStringTemplateFunctionSymbol) templateTerm.getFunctionSymbol()).getTemplateComponents();
+                    int[] argumentIndexes = templateTerm.getTerms().stream()
+                            .mapToInt(sqlSignature::indexOf)
+                            .toArray();
+                    return new TemplateEvaluator(term, components, argumentIndexes, rdfType);
+                }
+            }
+        }
+        return row -> row.evaluateGenerically(term);
+    }
+
+    private boolean isIRITemplateOverColumns(ImmutableTerm term) {
+        return (term instanceof ImmutableFunctionalTerm)
+                && (((ImmutableFunctionalTerm) term).getFunctionSymbol() instanceof IRIStringTemplateFunctionSymbol)
+                && ((ImmutableFunctionalTerm) term).getTerms().stream()
+                        .allMatch(t -> (t instanceof Variable) && sqlSignature.contains(t));
+    }
+
+    /**
+     * Returns false if one of the arguments is null
+     */
+    private static boolean fillTemplate(ImmutableList<Template.Component> components, int[] argumentIndexes,
+                                        String[] values, StringBuilder sb) {
+        for (Template.Component component : components) {
+            if (component.isColumnNameReference()) {
+                String value = values[argumentIndexes[component.getIndex()]];
+                if (value == null)
+                    return false;
+                R2RMLIRISafeEncoder.encode(value, sb);
+            }
+            else
+                sb.append(component.getComponent());
+        }
+        return true;
+    }
+
+    /**
+     * Reads the current row of the result set
+     */
+    String[] readValues(ResultSet rs) throws SQLException {
+        return readValues(rs, new String[isReadAsLong.length]);
+    }
+
+    /**
+     * Reads the current row of the result set into the given array
+     */
+    String[] readValues(ResultSet rs, String[] values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            if (isReadAsLong[i]) {
+                try {
+                    long value = rs.getLong(i + 1);
+                    values[i] = rs.wasNull() ? null : Long.toString(value);
+                    continue;
+                }
+                catch (SQLException e) {
+                    // E.g. out of range: from now on, the column is read as a string
+                    isReadAsLong[i] = false;
+                }
+            }
+            values[i] = rs.getString(i + 1);
+        }
+        return values;
+    }
+
+    int getValueCount() {
+        return isReadAsLong.length;
+    }
+
+    OntopBinding[] decode(String[] values) {
+        Row row = new Row();
+        row.reset(values);
+        List<OntopBinding> bindings = new ArrayList<>(signature.size());
+        for (int i = 0; i < evaluators.size(); i++) {
+            RDFConstant constant = evaluators.get(i).evaluate(row);
+            if (constant != null)
+                bindings.add(new OntopBindingImpl(signature.get(i), constant));
+        }
+        return bindings.toArray(new OntopBinding[0]);
+    }
+
+
+    /**
+     * Fills the arrays with the lexical values and the types of the projected variables (nulls when unbound).
+     *
+     * The lexical values may be reused buffers, only valid until the next call.
+     */
+    void decodeLexically(String[] values, CharSequence[] lexicalValues, RDFTermType[] types) {
+        reusableRow.reset(values);
+        for (int i = 0; i < evaluators.size(); i++)
+            evaluators.get(i).evaluateLexically(reusableRow, i, lexicalValues, types);
+    }
+
+
+    @FunctionalInterface
+    private interface VariableEvaluator {
+        /**
+         * Returns null when the variable is not bound
+         */
+        @Nullable
+        RDFConstant evaluate(Row row);
+
+        default void evaluateLexically(Row row, int position, CharSequence[] lexicalValues, RDFTermType[] types) {
+            RDFConstant constant = evaluate(row);
+            lexicalValues[position] = constant == null ? null : LexicalRowHandler.getLexicalValue(constant);
+            types[position] = constant == null ? null : constant.getType();
+        }
+    }
+
+    /**
+     * RDF term whose lexical value is a column
+     */
+    private class ColumnEvaluator implements VariableEvaluator {
+        private final ImmutableTerm term;
+        private final int index;
+        private final RDFTermType rdfType;
+
+        ColumnEvaluator(ImmutableTerm term, int index, RDFTermType rdfType) {
+            this.term = term;
+            this.index = index;
+            this.rdfType = rdfType;
+        }
+
+        @Nullable
+        @Override
+        public RDFConstant evaluate(Row row) {
+            String value = row.values[index];
+            return value == null
+                    ? row.evaluateGenerically(term)
+                    : termFactory.getRDFConstant(value, rdfType);
+        }
+
+        @Override
+        public void evaluateLexically(Row row, int position, CharSequence[] lexicalValues, RDFTermType[] types) {
+            String value = row.values[index];
+            if (value == null)
+                VariableEvaluator.super.evaluateLexically(row, position, lexicalValues, types);
+            else {
+                lexicalValues[position] = value;
+                types[position] = rdfType;
+            }
+        }
+    }
+
+    /**
+     * IRI built from an IRI template over columns
+     */
+    private class TemplateEvaluator implements VariableEvaluator {
+        private final ImmutableTerm term;
+        private final ImmutableList<Template.Component> components;
+        private final int[] argumentIndexes;
+        private final RDFTermType rdfType;
+        // Reused when decoding lexically
+        private final StringBuilder buffer = new StringBuilder();
+
+        TemplateEvaluator(ImmutableTerm term, ImmutableList<Template.Component> components, int[] argumentIndexes,
+                          RDFTermType rdfType) {
+            this.term = term;
+            this.components = components;
+            this.argumentIndexes = argumentIndexes;
+            this.rdfType = rdfType;
+        }
+
+        @Nullable
+        @Override
+        public RDFConstant evaluate(Row row) {
+            StringBuilder sb = new StringBuilder();
+            return fillTemplate(components, argumentIndexes, row.values, sb)
+                    ? termFactory.getRDFConstant(sb.toString(), rdfType)
+                    : row.evaluateGenerically(term);
+        }
+
+        @Override
+        public void evaluateLexically(Row row, int position, CharSequence[] lexicalValues, RDFTermType[] types) {
+            buffer.setLength(0);
+            if (fillTemplate(components, argumentIndexes, row.values, buffer)) {
+                lexicalValues[position] = buffer;
+                types[position] = rdfType;
+            }
+            else
+                VariableEvaluator.super.evaluateLexically(row, position, lexicalValues, types);
+        }
+    }
+
+    private class Row {
+        private String[] values;
+        // Lately initiated
+        @Nullable
+        private Substitution<Constant> sqlVar2Constant;
+
+        private void reset(String[] values) {
+            this.values = values;
+            this.sqlVar2Constant = null;
+        }
+
+        @Nullable
+        RDFConstant evaluateGenerically(ImmutableTerm term) {
+            if (sqlVar2Constant == null)
+                sqlVar2Constant = IntStream.range(0, values.length)
+                        .boxed()
+                        .collect(substitutionFactory.toSubstitution(
+                                sqlSignature::get,
+                                i -> values[i] == null
+                                        ? termFactory.getNullConstant()
+                                        : termFactory.getDBConstant(values[i], sqlTypes.get(i))));
+
+            ImmutableTerm simplifiedTerm = sqlVar2Constant.applyToTerm(term).simplify();
+            if (simplifiedTerm instanceof RDFConstant) {
+                return (RDFConstant) simplifiedTerm;
+            }
+            else if (simplifiedTerm.isNull()) {
+                return null;
+            }
+            else if (simplifiedTerm instanceof DBConstant) {
+                throw new SQLOntopBindingSet.InvalidConstantTypeInResultException(
+                        simplifiedTerm + " is a DB constant. But a binding cannot have a DB constant as value");
+            }
+            else if (simplifiedTerm instanceof Constant) {
+                throw new SQLOntopBindingSet.InvalidConstantTypeInResultException("Unexpected constant type for " + simplifiedTerm);
+            }
+            throw new SQLOntopBindingSet.InvalidTermAsResultException(simplifiedTerm);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package it.unibz.inf.ontop.answering.connection.pool;
+
+import it.unibz.inf.ontop.answering.connection.pool.impl.HikariConnectionPool;
+import it.unibz.inf.ontop.answering.connection.pool.impl.TomcatConnectionPool;
+import it.unibz.inf.ontop.injection.OntopStandaloneSQLConfiguration;
+import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JDBCConnectionPoolMetricsTest {
+
+    @Test
+    public void testTomcatPoolMetrics() throws SQLException {
+        checkMetrics(TomcatConnectionPool.class);
+    }
+
+    @Test
+    public void testHikariPoolMetrics() throws SQLException {
+        checkMetrics(HikariConnectionPool.class);
+    }
+
+    private static void checkMetrics(Class<? extends JDBCConnectionPool> poolClass) throws SQLException {
+        try (JDBCConnectionPool pool = createPool(poolClass)) {
+            try (Connection c1 = pool.getConnection();
+                 Connection c2 = pool.getConnection()) {
+                JDBCConnectionPoolMetrics metrics = pool.getMetrics();
+                assertEquals(2, metrics.getActiveConnections());
+                assertEquals(0, metrics.getIdleConnections());
+                assertEquals(2, metrics.getCheckoutCount());
+
+                try {
+                    pool.getConnection();
+                    fail("The pool should be exhausted");
+                }
+                catch (SQLException e) {
+                    // expected
+                }
+            }
+            JDBCConnectionPoolMetrics metrics = pool.getMetrics();
+            assertEquals(0, metrics.getActiveConnections());
+            assertEquals(2, metrics.getIdleConnections());
+            assertEquals(0, metrics.getThreadsAwaitingConnection());
+            assertEquals(2, metrics.getCheckoutCount());
+            assertEquals(1, metrics.getFailedCheckoutCount());
+            assertTrue(metrics.getMaxCheckoutTimeNanos() > 0);
+            assertTrue(metrics.getTotalCheckoutTimeNanos() >= metrics.getMaxCheckoutTimeNanos());
+        }
+    }
+
+    private static JDBCConnectionPool createPool(Class<? extends JDBCConnectionPool> poolClass) {
+        Properties properties = new Properties();
+        properties.setProperty(JDBCConnectionPool.class.getCanonicalName(), poolClass.getCanonicalName());
+        properties.setProperty(OntopSystemSQLSettings.INIT_POOL_SIZE, "1");
+        properties.setProperty(OntopSystemSQLSettings.MAX_POOL_SIZE, "2");
+        properties.setProperty(OntopSystemSQLSettings.CONNECTION_TIMEOUT, "300");
+
+        OntopStandaloneSQLConfiguration configuration = OntopStandaloneSQLConfiguration.defaultBuilder()
+                .jdbcUrl("jdbc:h2:mem:pool-metrics")
+                .jdbcUser("sa")
+                .jdbcPassword("")
+                .jdbcDriver("org.h2.Driver")
+                .properties(properties)
+                .build();
+        return configuration.getInjector().getInstance(JDBCConnectionPool.class);
+    }
+}
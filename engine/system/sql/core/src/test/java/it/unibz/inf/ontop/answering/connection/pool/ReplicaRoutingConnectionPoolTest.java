@@ -0,0 +1,138 @@
+package it.unibz.inf.ontop.answering.connection.pool;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.connection.pool.impl.ReplicaRoutingConnectionPool;
+import it.unibz.inf.ontop.injection.OntopStandaloneSQLConfiguration;
+import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReplicaRoutingConnectionPoolTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary";
+    private static final String REPLICA_1_URL = "jdbc:h2:mem:routing-replica1";
+    private static final String REPLICA_2_URL = "jdbc:h2:mem:routing-replica2";
+    // Nothing listens on this port
+    private static final String UNREACHABLE_URL = "jdbc:h2:tcp://localhost:1/unreachable";
+
+    @Test
+    public void testNoReplica() {
+        try (JDBCConnectionPool pool = createPool(new Properties())) {
+            assertFalse(pool instanceof ReplicaRoutingConnectionPool);
+        }
+    }
+
+    @Test
+    public void testRoundRobin() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("jdbc.replica.1.url", REPLICA_1_URL);
+        properties.setProperty("jdbc.replica.2.url", REPLICA_2_URL);
+        properties.setProperty(OntopSystemSQLSettings.REPLICA_BALANCING, "ROUND_ROBIN");
+
+        try (ReplicaRoutingConnectionPool pool = (ReplicaRoutingConnectionPool) createPool(properties);
+             Connection c1 = pool.getConnection();
+             Connection c2 = pool.getConnection();
+             Connection c3 = pool.getConnection()) {
+            assertEquals(ImmutableList.of(1, 1, 1), pool.getOutstandingConnections());
+        }
+    }
+
+    @Test
+    public void testLeastOutstanding() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("jdbc.replica.1.url", REPLICA_1_URL);
+        properties.setProperty("jdbc.replica.2.url", REPLICA_2_URL);
+        properties.setProperty(OntopSystemSQLSettings.REPLICA_INCLUDE_PRIMARY, "false");
+
+        try (ReplicaRoutingConnectionPool pool = (ReplicaRoutingConnectionPool) createPool(properties)) {
+            Connection c1 = pool.getConnection();
+            try (Connection c2 = pool.getConnection()) {
+                assertEquals(ImmutableList.of(0, 1, 1), pool.getOutstandingConnections());
+                c1.close();
+                // Closing twice must not be counted twice
+                c1.close();
+                assertEquals(1, pool.getOutstandingConnections().stream().mapToInt(i -> i).sum());
+
+                try (Connection c3 = pool.getConnection()) {
+                    // Goes to the replica that has no outstanding connection
+                    assertEquals(ImmutableList.of(0, 1, 1), pool.getOutstandingConnections());
+                }
+            }
+            assertEquals(ImmutableList.of(0, 0, 0), pool.getOutstandingConnections());
+        }
+    }
+
+    @Test
+    public void testFailover() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("jdbc.replica.1.url", UNREACHABLE_URL);
+        properties.setProperty("jdbc.replica.2.url", REPLICA_2_URL);
+        properties.setProperty(OntopSystemSQLSettings.REPLICA_INCLUDE_PRIMARY, "false");
+        properties.setProperty(OntopSystemSQLSettings.REPLICA_BALANCING, "ROUND_ROBIN");
+
+        try (ReplicaRoutingConnectionPool pool = (ReplicaRoutingConnectionPool) createPool(properties);
+             Connection c1 = pool.getConnection();
+             Connection c2 = pool.getConnection();
+             Connection c3 = pool.getConnection()) {
+            assertEquals(ImmutableList.of(0, 0, 3), pool.getOutstandingConnections());
+            assertEquals(3, pool.getMetrics().getCheckoutCount());
+            assertEquals(0, pool.getMetrics().getFailedCheckoutCount());
+        }
+    }
+
+    @Test
+    public void testFallbackToPrimary() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("jdbc.replica.1.url", UNREACHABLE_URL);
+        properties.setProperty(OntopSystemSQLSettings.REPLICA_INCLUDE_PRIMARY, "false");
+
+        try (ReplicaRoutingConnectionPool pool = (ReplicaRoutingConnectionPool) createPool(properties);
+             Connection c1 = pool.getConnection();
+             Connection c2 = pool.getConnection()) {
+            assertEquals(ImmutableList.of(2, 0), pool.getOutstandingConnections());
+            assertTrue(c1.isValid(1));
+        }
+    }
+
+    @Test
+    public void testOnlyConnectionFailuresMakeUnavailable() throws SQLException {
+        // Keeps the database alive after the connection is closed
+        String securedUrl = "jdbc:h2:mem:routing-secured;DB_CLOSE_DELAY=-1";
+        try (Connection c = DriverManager.getConnection(securedUrl, "sa", "secret")) {
+            assertTrue(c.isValid(1));
+        }
+
+        Properties properties = new Properties();
+        properties.setProperty("jdbc.replica.1.url", UNREACHABLE_URL);
+        properties.setProperty("jdbc.replica.2.url", securedUrl);
+        properties.setProperty("jdbc.replica.2.user", "sa");
+        properties.setProperty("jdbc.replica.2.password", "wrong");
+        properties.setProperty(OntopSystemSQLSettings.REPLICA_INCLUDE_PRIMARY, "false");
+
+        try (ReplicaRoutingConnectionPool pool = (ReplicaRoutingConnectionPool) createPool(properties);
+             Connection c1 = pool.getConnection()) {
+            assertEquals(ImmutableList.of(1, 0, 0), pool.getOutstandingConnections());
+            // The rejected authentication does not make the second replica unavailable
+            assertEquals(ImmutableList.of(true, false, true), pool.getAvailability());
+        }
+    }
+
+    private static JDBCConnectionPool createPool(Properties properties) {
+        OntopStandaloneSQLConfiguration configuration = OntopStandaloneSQLConfiguration.defaultBuilder()
+                .jdbcUrl(PRIMARY_URL)
+                .jdbcUser("sa")
+                .jdbcPassword("")
+                .jdbcDriver("org.h2.Driver")
+                .properties(properties)
+                .build();
+        return configuration.getInjector().getInstance(JDBCConnectionPool.class);
+    }
+}
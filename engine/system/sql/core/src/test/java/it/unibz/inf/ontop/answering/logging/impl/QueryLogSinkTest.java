@@ -0,0 +1,180 @@
+package it.unibz.inf.ontop.answering.logging.impl;
+
+import it.unibz.inf.ontop.injection.OntopReformulationSettings.QueryLoggingOverflowPolicy;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class QueryLogSinkTest {
+
+    private static final int THREADS = 4;
+    private static final int ENTRIES_PER_THREAD = 5000;
+
+    @Test
+    public void testAsyncBlockingKeepsAllTheEntries() throws InterruptedException {
+        CollectingOutput output = new CollectingOutput();
+        QueryLogSinkImpl sink = new QueryLogSinkImpl(output, true, 64, QueryLoggingOverflowPolicy.BLOCK, 16);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            executor.submit(() -> {
+                for (int i = 0; i < ENTRIES_PER_THREAD; i++)
+                    sink.log(thread + ":" + i);
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        sink.close();
+
+        assertEquals(0, sink.getDroppedEntryCount());
+        assertEquals(THREADS * ENTRIES_PER_THREAD, output.entries.size());
+        assertTrue(output.closed);
+
+        // The order of the entries of each thread is preserved
+        for (int t = 0; t < THREADS; t++) {
+            String prefix = t + ":";
+            List<String> threadEntries = output.entries.stream()
+                    .filter(e -> e.startsWith(prefix))
+                    .collect(Collectors.toList());
+            for (int i = 0; i < ENTRIES_PER_THREAD; i++)
+                assertEquals(prefix + i, threadEntries.get(i));
+        }
+    }
+
+    @Test
+    public void testAsyncDropWhenFull() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        CollectingOutput output = new CollectingOutput() {
+            @Override
+            public void write(String entry) {
+                try {
+                    latch.await();
+                }
+                catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                super.write(entry);
+            }
+        };
+        QueryLogSinkImpl sink = new QueryLogSinkImpl(output, true, 4, QueryLoggingOverflowPolicy.DROP, 16);
+
+        for (int i = 0; i < 100; i++)
+            sink.log("entry " + i);
+
+        assertTrue(sink.getDroppedEntryCount() > 0);
+        latch.countDown();
+        sink.close();
+
+        assertEquals(100, output.entries.size() + sink.getDroppedEntryCount());
+    }
+
+    @Test
+    public void testSync() {
+        CollectingOutput output = new CollectingOutput();
+        QueryLogSinkImpl sink = new QueryLogSinkImpl(output);
+        sink.log("a");
+        sink.log("b");
+        assertEquals(List.of("a", "b"), output.entries);
+        assertEquals(2, output.flushCount);
+    }
+
+    @Test
+    public void testRollingFile() throws IOException {
+        Path directory = Files.createTempDirectory("query-log");
+        Path file = directory.resolve("query.log");
+        RollingFileQueryLogOutput output = RollingFileQueryLogOutput.acquire(file, 100, 2);
+        for (int i = 0; i < 30; i++)
+            output.write(String.format("entry %03d", i));
+        output.close();
+
+        assertTrue(Files.size(file) <= 100);
+        assertTrue(Files.exists(directory.resolve("query.log.1")));
+        assertTrue(Files.exists(directory.resolve("query.log.2")));
+        assertFalse(Files.exists(directory.resolve("query.log.3")));
+
+        // The most recent entries are kept
+        List<String> lastEntries = Files.readAllLines(file);
+        assertEquals("entry 029", lastEntries.get(lastEntries.size() - 1));
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path f : files.collect(Collectors.toList()))
+                Files.delete(f);
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testSharedRollingFile() throws IOException {
+        Path directory = Files.createTempDirectory("query-log");
+        Path file = directory.resolve("query.log");
+        // E.g. the sinks of the previous and of the new engine during a reload
+        RollingFileQueryLogOutput output1 = RollingFileQueryLogOutput.acquire(file, 0, 0);
+        RollingFileQueryLogOutput output2 = RollingFileQueryLogOutput.acquire(file, 0, 0);
+        assertSame(output1, output2);
+
+        output1.write("a");
+        output1.close();
+        // Still open for the second sink
+        output2.write("b");
+        output2.close();
+        assertEquals(List.of("a", "b"), Files.readAllLines(file));
+
+        // A new file is opened once all the sinks are closed
+        RollingFileQueryLogOutput output3 = RollingFileQueryLogOutput.acquire(file, 0, 0);
+        assertNotSame(output1, output3);
+        output3.close();
+
+        Files.delete(file);
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testRingBuffer() {
+        BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+        for (int i = 0; i < 4; i++)
+            assertTrue(buffer.offer(i));
+        assertFalse(buffer.offer(4));
+
+        assertEquals(Integer.valueOf(0), buffer.poll());
+        assertTrue(buffer.offer(4));
+        for (int i = 1; i <= 4; i++)
+            assertEquals(Integer.valueOf(i), buffer.poll());
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    private static class CollectingOutput implements QueryLogOutput {
+        final List<String> entries = new ArrayList<>();
+        int flushCount = 0;
+        volatile boolean closed = false;
+
+        @Override
+        public void write(String entry) {
+            entries.add(entry);
+        }
+
+        @Override
+        public void flush() {
+            flushCount++;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
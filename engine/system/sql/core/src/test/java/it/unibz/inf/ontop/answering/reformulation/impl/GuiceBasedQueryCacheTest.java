@@ -0,0 +1,151 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.reformulation.QueryCache;
+import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
+import it.unibz.inf.ontop.evaluator.QueryContext;
+import it.unibz.inf.ontop.exception.OntopReformulationException;
+import it.unibz.inf.ontop.injection.OntopMappingSQLAllConfiguration;
+import it.unibz.inf.ontop.injection.OntopReformulationSQLConfiguration;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.query.KGQuery;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.stream.Collectors.joining;
+import static org.junit.Assert.*;
+
+public class GuiceBasedQueryCacheTest {
+
+    private static final String OBDA_FILE = "src/test/resources/marriage/marriage.obda";
+    private static final String CREATE_DB_FILE = "src/test/resources/marriage/create-db.sql";
+    private static final String JDBC_URL = "jdbc:h2:mem:querycachedb";
+    private static final String JDBC_USER = "sa";
+    private static final String JDBC_PASSWORD = "";
+    private static final String QUERY_STRING = "PREFIX : <http://example.org/marriage/voc#>\n" +
+            "SELECT DISTINCT ?x WHERE { ?x a :Person . }";
+    private static final int THREAD_COUNT = 8;
+
+    private static Connection CONN;
+    private static OntopReformulationSQLConfiguration CONFIGURATION;
+    private static KGQuery<?> QUERY;
+    private static QueryContext QUERY_CONTEXT;
+    private static IQ EXECUTABLE_QUERY;
+
+    private QueryCache cache;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        CONN = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+        try (Statement st = CONN.createStatement()) {
+            st.executeUpdate(Files.lines(Paths.get(CREATE_DB_FILE)).collect(joining()));
+            CONN.commit();
+        }
+
+        CONFIGURATION = OntopReformulationSQLConfiguration.defaultBuilder()
+                .obdaSpecification(OntopMappingSQLAllConfiguration.defaultBuilder()
+                        .nativeOntopMappingFile(OBDA_FILE)
+                        .jdbcUser(JDBC_USER)
+                        .jdbcPassword(JDBC_PASSWORD)
+                        .jdbcUrl(JDBC_URL)
+                        .enableTestMode()
+                        .build()
+                        .loadSpecification())
+                .jdbcUrl(JDBC_URL)
+                .enableTestMode()
+                .build();
+
+        QueryReformulator reformulator = CONFIGURATION.loadQueryReformulator();
+        QUERY = reformulator.getInputQueryFactory().createSelectQuery(QUERY_STRING);
+        QUERY_CONTEXT = reformulator.getQueryContextFactory().create(ImmutableMap.of());
+        EXECUTABLE_QUERY = reformulator.reformulateIntoNativeQuery(QUERY, QUERY_CONTEXT,
+                reformulator.getQueryLoggerFactory().create(ImmutableMap.of()));
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        CONN.close();
+    }
+
+    @Before
+    public void createCache() {
+        cache = CONFIGURATION.getInjector().getInstance(GuiceBasedQueryCache.class);
+    }
+
+    @Test
+    public void testConcurrentRequestsReformulateOnce() throws Exception {
+        AtomicInteger reformulationCount = new AtomicInteger();
+        CountDownLatch reformulationStarted = new CountDownLatch(1);
+        CountDownLatch releaseReformulation = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<IQ>> futures = new ArrayList<>();
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                futures.add(executor.submit(() -> cache.computeIfAbsent(QUERY, QUERY_CONTEXT, () -> {
+                    reformulationCount.incrementAndGet();
+                    reformulationStarted.countDown();
+                    await(releaseReformulation);
+                    return EXECUTABLE_QUERY;
+                })));
+            }
+            await(reformulationStarted);
+            // Gives the time to the other threads to reach the cache
+            Thread.sleep(100);
+            releaseReformulation.countDown();
+
+            for (Future<IQ> future : futures)
+                assertSame(EXECUTABLE_QUERY, future.get(10, TimeUnit.SECONDS));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, reformulationCount.get());
+        assertSame(EXECUTABLE_QUERY, cache.get(QUERY, QUERY_CONTEXT));
+    }
+
+    @Test
+    public void testFailureIsPropagatedAndNotCached() throws Exception {
+        OntopReformulationException exception = new OntopReformulationException(new Exception("failure"));
+        try {
+            cache.computeIfAbsent(QUERY, QUERY_CONTEXT, () -> {
+                throw exception;
+            });
+            fail("The exception should have been propagated");
+        }
+        catch (OntopReformulationException e) {
+            assertSame(exception, e);
+        }
+        assertNull(cache.get(QUERY, QUERY_CONTEXT));
+
+        assertSame(EXECUTABLE_QUERY, cache.computeIfAbsent(QUERY, QUERY_CONTEXT, () -> EXECUTABLE_QUERY));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUncheckedExceptionIsPropagated() throws Exception {
+        cache.computeIfAbsent(QUERY, QUERY_CONTEXT, () -> {
+            throw new IllegalStateException();
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
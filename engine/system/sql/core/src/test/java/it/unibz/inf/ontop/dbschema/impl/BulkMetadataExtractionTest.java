@@ -0,0 +1,141 @@
+package it.unibz.inf.ontop.dbschema.impl;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.injection.OntopOBDASettings;
+import it.unibz.inf.ontop.injection.OntopSQLCoreConfiguration;
+import it.unibz.inf.ontop.injection.OntopSQLCoreSettings;
+import it.unibz.inf.ontop.injection.OntopSQLCredentialSettings;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the bulk mode does not fall back to the per-relation JDBC metadata calls when the schema-wide
+ * result sets are available (H2: INFORMATION_SCHEMA)
+ */
+public class BulkMetadataExtractionTest {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:bulkmetadatadb";
+    private static final String JDBC_USER = "sa";
+    private static final String JDBC_PASSWORD = "";
+
+    private static final ImmutableSet<String> PER_RELATION_METHODS = ImmutableSet.of(
+            "getPrimaryKeys", "getIndexInfo", "getImportedKeys", "getColumns");
+
+    private static Connection CONN;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        CONN = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+        try (Statement st = CONN.createStatement()) {
+            st.executeUpdate("CREATE TABLE COUNTRY (ID INT PRIMARY KEY, CODE VARCHAR(3) NOT NULL UNIQUE, NAME VARCHAR(100));" +
+                    "CREATE TABLE CITY (ID INT PRIMARY KEY, NAME VARCHAR(100), COUNTRY_ID INT REFERENCES COUNTRY(ID));" +
+                    "CREATE TABLE PERSON (ID INT PRIMARY KEY, NAME VARCHAR(100), CITY_ID INT REFERENCES CITY(ID));");
+        }
+        CONN.commit();
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        CONN.close();
+    }
+
+    @Test
+    public void testNoPerRelationLookupInBulkMode() throws Exception {
+        AtomicInteger perRelationCalls = new AtomicInteger();
+        ImmutableMap<String, NamedRelationDefinition> relations = extract(true, perRelationCalls);
+
+        assertEquals(0, perRelationCalls.get());
+        checkConstraints(relations);
+    }
+
+    @Test
+    public void testPerRelationLookupInRegularMode() throws Exception {
+        AtomicInteger perRelationCalls = new AtomicInteger();
+        ImmutableMap<String, NamedRelationDefinition> relations = extract(false, perRelationCalls);
+
+        assertTrue(perRelationCalls.get() > 0);
+        checkConstraints(relations);
+    }
+
+    private static void checkConstraints(ImmutableMap<String, NamedRelationDefinition> relations) {
+        NamedRelationDefinition country = relations.get("COUNTRY");
+        assertTrue(country.getPrimaryKey().isPresent());
+        // Primary key and unique constraint on CODE
+        assertEquals(2, country.getUniqueConstraints().size());
+
+        assertEquals(1, relations.get("CITY").getForeignKeys().size());
+        assertEquals(1, relations.get("PERSON").getForeignKeys().size());
+    }
+
+    private static ImmutableMap<String, NamedRelationDefinition> extract(boolean bulk, AtomicInteger perRelationCalls)
+            throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(OntopSQLCoreSettings.JDBC_URL, JDBC_URL);
+        properties.setProperty(OntopSQLCredentialSettings.JDBC_USER, JDBC_USER);
+        properties.setProperty(OntopSQLCredentialSettings.JDBC_PASSWORD, JDBC_PASSWORD);
+        properties.setProperty(OntopOBDASettings.BULK_METADATA_EXTRACTION, Boolean.toString(bulk));
+
+        OntopSQLCoreConfiguration configuration = OntopSQLCoreConfiguration.defaultBuilder()
+                .properties(properties)
+                .build();
+        JDBCMetadataProviderFactory metadataProviderFactory = configuration.getInjector()
+                .getInstance(JDBCMetadataProviderFactory.class);
+
+        try (Connection connection = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD)) {
+            MetadataProvider provider = metadataProviderFactory.getMetadataProvider(
+                    countingConnection(connection, perRelationCalls));
+            return ImmutableMetadata.extractImmutableMetadata(provider).getAllRelations().stream()
+                    .collect(ImmutableCollectors.toMap(
+                            r -> r.getID().getComponents().get(RelationID.TABLE_INDEX).getName(),
+                            Function.identity()));
+        }
+    }
+
+    /**
+     * Counts the calls to the DatabaseMetaData methods with a table name (i.e. for a single relation)
+     */
+    private static Connection countingConnection(Connection connection, AtomicInteger perRelationCalls) throws Exception {
+        DatabaseMetaData metadata = connection.getMetaData();
+        DatabaseMetaData countingMetadata = (DatabaseMetaData) Proxy.newProxyInstance(
+                BulkMetadataExtractionTest.class.getClassLoader(),
+                new Class<?>[]{DatabaseMetaData.class},
+                (proxy, method, args) -> {
+                    if (PER_RELATION_METHODS.contains(method.getName()) && args != null && args.length > 2
+                            && args[2] != null)
+                        perRelationCalls.incrementAndGet();
+                    return invoke(metadata, method, args);
+                });
+
+        return (Connection) Proxy.newProxyInstance(
+                BulkMetadataExtractionTest.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> method.getName().equals("getMetaData")
+                        ? countingMetadata
+                        : invoke(connection, method, args));
+    }
+
+    private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        }
+        catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
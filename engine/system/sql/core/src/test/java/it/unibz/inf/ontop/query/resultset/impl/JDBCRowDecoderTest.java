@@ -0,0 +1,192 @@
+package it.unibz.inf.ontop.query.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.injection.OntopSQLCoreConfiguration;
+import it.unibz.inf.ontop.model.template.Template;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.type.DBTypeFactory;
+import it.unibz.inf.ontop.model.type.RDFTermType;
+import it.unibz.inf.ontop.model.type.TypeFactory;
+import it.unibz.inf.ontop.query.resultset.LexicalRowHandler;
+import it.unibz.inf.ontop.query.resultset.OntopBinding;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * The terms are evaluated directly on the column values (constants, columns, IRI templates)
+ * or generically, and the lexical decoding agrees with the regular one
+ */
+public class JDBCRowDecoderTest {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:rowdecoderdb";
+    private static final String JDBC_USER = "sa";
+    private static final String JDBC_PASSWORD = "";
+    private static final String SQL_QUERY = "SELECT \"id\", \"name\", \"nickname\", \"big\" FROM \"person\" ORDER BY \"id\"";
+
+    private static final OntopSQLCoreConfiguration CONFIGURATION = OntopSQLCoreConfiguration.defaultBuilder()
+            .jdbcDriver("org.h2.Driver")
+            .jdbcUrl(JDBC_URL)
+            .jdbcUser(JDBC_USER)
+            .jdbcPassword(JDBC_PASSWORD)
+            .build();
+
+    private static final TermFactory TERM_FACTORY = CONFIGURATION.getTermFactory();
+    private static final TypeFactory TYPE_FACTORY = CONFIGURATION.getTypeFactory();
+    private static final DBTypeFactory DB_TYPE_FACTORY = TYPE_FACTORY.getDBTypeFactory();
+    private static final SubstitutionFactory SUBSTITUTION_FACTORY = CONFIGURATION.getInjector()
+            .getInstance(SubstitutionFactory.class);
+
+    // SQL variables
+    private static final Variable ID = TERM_FACTORY.getVariable("id");
+    private static final Variable NAME = TERM_FACTORY.getVariable("name");
+    private static final Variable NICKNAME = TERM_FACTORY.getVariable("nickname");
+    private static final Variable BIG = TERM_FACTORY.getVariable("big");
+
+    // SPARQL variables
+    private static final Variable S = TERM_FACTORY.getVariable("s");
+    private static final Variable P = TERM_FACTORY.getVariable("p");
+    private static final Variable N = TERM_FACTORY.getVariable("n");
+    private static final Variable L = TERM_FACTORY.getVariable("l");
+    private static final Variable C = TERM_FACTORY.getVariable("c");
+    private static final Variable B = TERM_FACTORY.getVariable("b");
+
+    private static final RDFConstant CONSTANT = TERM_FACTORY.getRDFLiteralConstant("constant",
+            TYPE_FACTORY.getXsdStringDatatype());
+
+    private static Connection CONN;
+
+    @BeforeClass
+    public static void setUp() throws SQLException {
+        CONN = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+        try (Statement st = CONN.createStatement()) {
+            st.executeUpdate("CREATE TABLE \"person\" (\"id\" BIGINT PRIMARY KEY, \"name\" VARCHAR(50) NOT NULL, " +
+                    "\"nickname\" VARCHAR(50), \"big\" DECIMAL(40, 0) NOT NULL)");
+            st.executeUpdate("INSERT INTO \"person\" VALUES (1, 'Alice', 'A b', 10)");
+            st.executeUpdate("INSERT INTO \"person\" VALUES (2, 'Bob', NULL, 1000000000000000000000000000000)");
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() throws SQLException {
+        CONN.close();
+    }
+
+    @Test
+    public void testDecode() throws SQLException {
+        List<Map<String, RDFConstant>> rows = decode(createDecoder());
+        assertEquals(2, rows.size());
+
+        Map<String, RDFConstant> alice = rows.get(0);
+        assertEquals(TERM_FACTORY.getConstantIRI("http://example.org/person/1"), alice.get("s"));
+        // Encoded by the template
+        assertEquals(TERM_FACTORY.getConstantIRI("http://example.org/nickname/A%20b"), alice.get("p"));
+        assertEquals(getStringLiteral("Alice"), alice.get("n"));
+        // Generic evaluation
+        assertEquals(getStringLiteral("Alice#1"), alice.get("l"));
+        assertEquals(CONSTANT, alice.get("c"));
+        assertEquals(getIntegerLiteral("10"), alice.get("b"));
+
+        Map<String, RDFConstant> bob = rows.get(1);
+        assertEquals(TERM_FACTORY.getConstantIRI("http://example.org/person/2"), bob.get("s"));
+        // NULL nickname
+        assertFalse(bob.containsKey("p"));
+        assertEquals(getStringLiteral("Bob"), bob.get("n"));
+        assertEquals(getStringLiteral("Bob#2"), bob.get("l"));
+        assertEquals(CONSTANT, bob.get("c"));
+        // Out of the range of getLong(): read as a string
+        assertEquals(getIntegerLiteral("1000000000000000000000000000000"), bob.get("b"));
+    }
+
+    @Test
+    public void testDecodeLexically() throws SQLException {
+        List<Map<String, RDFConstant>> expectedRows = decode(createDecoder());
+
+        JDBCRowDecoder decoder = createDecoder();
+        ImmutableList<Variable> signature = getSignature();
+        try (Statement st = CONN.createStatement();
+             ResultSet rs = st.executeQuery(SQL_QUERY)) {
+            String[] values = new String[decoder.getValueCount()];
+            CharSequence[] lexicalValues = new CharSequence[signature.size()];
+            RDFTermType[] types = new RDFTermType[signature.size()];
+            for (Map<String, RDFConstant> expectedRow : expectedRows) {
+                assertTrue(rs.next());
+                decoder.decodeLexically(decoder.readValues(rs, values), lexicalValues, types);
+                for (int i = 0; i < signature.size(); i++) {
+                    RDFConstant expected = expectedRow.get(signature.get(i).getName());
+                    if (expected == null) {
+                        assertNull(lexicalValues[i]);
+                        assertNull(types[i]);
+                    }
+                    else {
+                        assertEquals(LexicalRowHandler.getLexicalValue(expected), lexicalValues[i].toString());
+                        assertEquals(expected.getType(), types[i]);
+                    }
+                }
+            }
+            assertFalse(rs.next());
+        }
+    }
+
+    private static List<Map<String, RDFConstant>> decode(JDBCRowDecoder decoder) throws SQLException {
+        List<Map<String, RDFConstant>> rows = new ArrayList<>();
+        try (Statement st = CONN.createStatement();
+             ResultSet rs = st.executeQuery(SQL_QUERY)) {
+            while (rs.next()) {
+                Map<String, RDFConstant> row = new HashMap<>();
+                for (OntopBinding binding : decoder.decode(decoder.readValues(rs)))
+                    row.put(binding.getName(), binding.getValue());
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private static JDBCRowDecoder createDecoder() {
+        DBTermType integerType = DB_TYPE_FACTORY.getDBLargeIntegerType();
+        DBTermType stringType = DB_TYPE_FACTORY.getDBStringType();
+        RDFTermType xsdString = TYPE_FACTORY.getXsdStringDatatype();
+
+        ImmutableList<ImmutableTerm> terms = ImmutableList.of(
+                TERM_FACTORY.getIRIFunctionalTerm(Template.of("http://example.org/person/", 0), ImmutableList.of(ID)),
+                TERM_FACTORY.getIRIFunctionalTerm(Template.of("http://example.org/nickname/", 0), ImmutableList.of(NICKNAME)),
+                TERM_FACTORY.getRDFFunctionalTerm(NAME, TERM_FACTORY.getRDFTermTypeConstant(xsdString)),
+                TERM_FACTORY.getRDFFunctionalTerm(
+                        TERM_FACTORY.getNullRejectingDBConcatFunctionalTerm(ImmutableList.of(
+                                NAME, TERM_FACTORY.getDBStringConstant("#"), ID)),
+                        TERM_FACTORY.getRDFTermTypeConstant(xsdString)),
+                CONSTANT,
+                TERM_FACTORY.getRDFFunctionalTerm(BIG,
+                        TERM_FACTORY.getRDFTermTypeConstant(TYPE_FACTORY.getXsdIntegerDatatype())));
+
+        // The big column is declared as an integer one on purpose
+        return new JDBCRowDecoder(ImmutableList.of(ID, NAME, NICKNAME, BIG),
+                ImmutableMap.of(ID, integerType, NAME, stringType, NICKNAME, stringType, BIG, integerType),
+                SUBSTITUTION_FACTORY.getSubstitution(getSignature(), terms),
+                getSignature(),
+                TERM_FACTORY, SUBSTITUTION_FACTORY);
+    }
+
+    private static ImmutableList<Variable> getSignature() {
+        return ImmutableList.of(S, P, N, L, C, B);
+    }
+
+    private static RDFConstant getStringLiteral(String value) {
+        return TERM_FACTORY.getRDFLiteralConstant(value, TYPE_FACTORY.getXsdStringDatatype());
+    }
+
+    private static RDFConstant getIntegerLiteral(String value) {
+        return TERM_FACTORY.getRDFLiteralConstant(value, TYPE_FACTORY.getXsdIntegerDatatype());
+    }
+}
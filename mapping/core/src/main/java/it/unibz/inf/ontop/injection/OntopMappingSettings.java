@@ -48,6 +48,12 @@ public interface OntopMappingSettings extends OntopKGQuerySettings {
 
     boolean isValuesNodesWrapInLensesInMappingEnabled();
 
+    /**
+     * Number of threads used for saturating the mapping with the ontology (T-mappings).
+     * If 1, the saturation is sequential.
+     */
+    int getTMappingSaturationThreads();
+
     //--------------------------
     // Keys
     //--------------------------
@@ -59,6 +65,7 @@ public interface OntopMappingSettings extends OntopKGQuerySettings {
     String ENABLE_FACT_EXTRACTION_WITH_TBOX = "ontop.enableFactExtractionWithTBox";
     String INFER_SUPER_CLASSES_OF_DOMAIN_RANGE = "ontop.querySuperClassesOfDomainRange";
     String WRAP_MAPPING_VALUES_NODES_IN_LENSES = "ontop.wrapMappingValuesNodesInLenses";
+    String TMAPPING_SATURATION_THREADS = "ontop.tMappingSaturationThreads";
 
     /**
      * Options to specify base IRI.
@@ -74,4 +74,9 @@ class OntopMappingSettingsImpl extends OntopKGQuerySettingsImpl implements Ontop
     public boolean isValuesNodesWrapInLensesInMappingEnabled() {
         return getRequiredBoolean(OntopMappingSettings.WRAP_MAPPING_VALUES_NODES_IN_LENSES);
     }
+
+    @Override
+    public int getTMappingSaturationThreads() {
+        return getRequiredInteger(OntopMappingSettings.TMAPPING_SATURATION_THREADS);
+    }
 }
@@ -27,6 +27,7 @@ import it.unibz.inf.ontop.constraints.impl.ExtensionalDataNodeListContainmentChe
 import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
 import it.unibz.inf.ontop.injection.CoreSingletons;
 import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.injection.OntopMappingSettings;
 import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.iq.UnaryIQTree;
 import it.unibz.inf.ontop.iq.node.ConstructionNode;
@@ -46,11 +47,14 @@ import it.unibz.inf.ontop.spec.mapping.transformer.MappingSaturator;
 import it.unibz.inf.ontop.spec.ontology.*;
 import it.unibz.inf.ontop.substitution.Substitution;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.FunctionalTools;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 @Singleton
@@ -65,6 +69,7 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
     private final CoreSingletons coreSingletons;
     private final IntermediateQueryFactory iqFactory;
     private final SubstitutionFactory substitutionFactory;
+    private final int saturationThreads;
 
     @Inject
 	private TMappingSaturatorImpl(TMappingExclusionConfig tMappingExclusionConfig,
@@ -78,8 +83,15 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
         this.coreSingletons = coreSingletons;
         this.substitutionFactory = coreSingletons.getSubstitutionFactory();
         this.iqFactory = coreSingletons.getIQFactory();
+        this.saturationThreads = ((OntopMappingSettings) coreSingletons.getSettings()).getTMappingSaturationThreads();
     }
 
+    /**
+     * The DAG nodes are saturated independently from each other, on a dedicated fork-join pool
+     * when several threads are configured. The output order does not depend on the number of threads.
+     *
+     * The subsumees are retrieved before the parallel saturation, as the DAGs are not thread-safe.
+     */
     @Override
     public ImmutableList<MappingAssertion> saturate(ImmutableList<MappingAssertion> mapping, ClassifiedTBox reasoner) {
 
@@ -90,71 +102,145 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
         //     but the same IRI cannot be an object and a data or annotation property name at the same time
         // see https://www.w3.org/TR/owl2-new-features/#F12:_Punning
 
-        ImmutableMultimap<MappingAssertionIndex, MappingAssertion> original = mapping.stream()
-                .map(m -> optimize(cqc, m))
+        ImmutableMultimap<MappingAssertionIndex, MappingAssertion> original = map(mapping, m -> optimize(cqc, m)).stream()
                 .collect(ImmutableCollectors.toMultimap(MappingAssertion::getIndex, m -> m));
 
-        ImmutableMap<MappingAssertionIndex, MappingAssertion> saturated = original.keySet().stream()
+        OptimizationCache optimizationCache = new OptimizationCache(cqc);
+
+        ImmutableList<Supplier<ImmutableList<Map.Entry<MappingAssertionIndex, MappingAssertion>>>> nodeSaturations = original.keySet().stream()
                 .map(MappingAssertionIndex::getPredicate)
                 .distinct()
                 .map(MappingAssertionConstructionNodeTransformerProvider::new)
                 .flatMap(provider -> Stream.concat(Stream.concat(
                     reasoner.objectPropertiesDAG().stream()
                             .filter(node -> !node.getRepresentative().isInverse() && !tMappingExclusionConfig.contains(node.getRepresentative()))
-                            .flatMap(node -> saturate(node.getRepresentative(), getSubsumees(reasoner.objectPropertiesDAG(), node), original, provider::getTransformer, cqc).stream()
+                            .map(node -> {
+                                ImmutableList<ObjectPropertyExpression> subsumees = getSubsumees(reasoner.objectPropertiesDAG(), node);
+                                return nodeSaturation(() -> saturate(node.getRepresentative(), subsumees, original, provider::getTransformer, cqc, optimizationCache).stream()
                                     .flatMap(ma -> node.getMembers().stream()
                                             .filter(d -> !d.isInverse() || d.getInverse() != node.getRepresentative())
-                                            .map(d -> Maps.immutableEntry(provider.getTransformer(node.getRepresentative(), d), ma)))),
+                                            .map(d -> Maps.immutableEntry(provider.getTransformer(node.getRepresentative(), d), ma))));
+                            }),
 
                     reasoner.dataPropertiesDAG().stream()
                             .filter(node -> !tMappingExclusionConfig.contains(node.getRepresentative()))
-                            .flatMap(node -> saturate(node.getRepresentative(), getSubsumees(reasoner.dataPropertiesDAG(), node), original, provider::getTransformer, cqc).stream()
+                            .map(node -> {
+                                ImmutableList<DataPropertyExpression> subsumees = getSubsumees(reasoner.dataPropertiesDAG(), node);
+                                return nodeSaturation(() -> saturate(node.getRepresentative(), subsumees, original, provider::getTransformer, cqc, optimizationCache).stream()
                                     .flatMap(ma -> node.getMembers().stream()
-                                            .map(d -> Maps.immutableEntry(provider.getTransformer(node.getRepresentative(), d), ma))))),
+                                            .map(d -> Maps.immutableEntry(provider.getTransformer(node.getRepresentative(), d), ma))));
+                            })),
 
                     reasoner.classesDAG().stream()
                             .filter(node -> (node.getRepresentative() instanceof OClass) && !tMappingExclusionConfig.contains((OClass)node.getRepresentative()))
-                            .flatMap(node -> saturate(node.getRepresentative(), getSubsumees(reasoner.classesDAG(), node), original, provider::getTransformer, cqc).stream()
+                            .map(node -> {
+                                ImmutableList<ClassExpression> subsumees = getSubsumees(reasoner.classesDAG(), node);
+                                return nodeSaturation(() -> saturate(node.getRepresentative(), subsumees, original, provider::getTransformer, cqc, optimizationCache).stream()
                                     .flatMap(ma -> node.getMembers().stream()
                                             .filter(d -> d instanceof OClass)
-                                            .map(d -> Maps.immutableEntry(provider.getTransformer(node.getRepresentative(), d), ma))))))
+                                            .map(d -> Maps.immutableEntry(provider.getTransformer(node.getRepresentative(), d), ma))));
+                            })))
+                .collect(ImmutableCollectors.toList());
 
-                .map(e -> Maps.immutableEntry(
-                        e.getKey().getToIndex(), e.getKey().updateConstructionNodeIri(e.getValue())))
+        ImmutableMap<MappingAssertionIndex, MappingAssertion> saturated = map(nodeSaturations, Supplier::get).stream()
+                .flatMap(Collection::stream)
                 .collect(ImmutableCollectors.toMap());
 
+        ImmutableList<Collection<MappingAssertion>> notSaturated = original.asMap().entrySet().stream()
+                .filter(e -> !saturated.containsKey(e.getKey()))
+                .map(Map.Entry::getValue)
+                .collect(ImmutableCollectors.toList());
+
         return Stream.concat(
                 saturated.values().stream(),
-                original.asMap().entrySet().stream()
-                        .filter(e -> !saturated.containsKey(e.getKey()))
-                        .map(e -> e.getValue().stream()
-                                        .collect(MappingAssertionUnion.toMappingAssertion(cqc, coreSingletons, queryMerger)))
+                map(notSaturated, c -> c.stream()
+                                .collect(MappingAssertionUnion.toMappingAssertion(cqc, coreSingletons, queryMerger))).stream()
                         .map(Optional::get))
                 .collect(ImmutableCollectors.toList());
     }
 
+    /**
+     * Materializes the saturation of a DAG node when the task is run
+     */
+    private static Supplier<ImmutableList<Map.Entry<MappingAssertionIndex, MappingAssertion>>> nodeSaturation(
+            Supplier<Stream<Map.Entry<MappingAssertionConstructionNodeTransformer, MappingAssertion>>> entries) {
+        return () -> entries.get()
+                .map(e -> Maps.immutableEntry(
+                        e.getKey().getToIndex(), e.getKey().updateConstructionNodeIri(e.getValue())))
+                .collect(ImmutableCollectors.toList());
+    }
+
+    private <T, R> ImmutableList<R> map(ImmutableList<T> list, Function<T, R> function) {
+        try {
+            return FunctionalTools.parallelMap(list, function, saturationThreads);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during the saturation of the mapping", e);
+        }
+    }
+
     private MappingAssertion optimize(ExtensionalDataNodeListContainmentCheck cqc, MappingAssertion m) {
         IQ optimizedIQ = m.getQuery().normalizeForOptimization();
         IQ cqcOptimizedIQ = mappingCqcOptimizer.optimize(cqc, optimizedIQ);
         return m.copyOf(cqcOptimizedIQ);
     }
 
-    private <T> Optional<MappingAssertion> saturate(T representative, Stream<T> subsumees,
+    private <T> Optional<MappingAssertion> saturate(T representative, ImmutableList<T> subsumees,
                                                     ImmutableMultimap<MappingAssertionIndex, MappingAssertion> original,
                                                     BiFunction<T, T, MappingAssertionConstructionNodeTransformer> transformerProvider,
-                                                    ExtensionalDataNodeListContainmentCheck cqc) {
+                                                    ExtensionalDataNodeListContainmentCheck cqc,
+                                                    OptimizationCache optimizationCache) {
 
-        return subsumees
-                .map(s -> transformerProvider.apply(s, representative))
-                .flatMap(u -> original.get(u.getFromIndex()).stream()
-                        .map(u::updateConstructionNodeIri)
-                        .map(m -> u.needOptimization() ? optimize(cqc, m) : m))
+        return subsumees.stream()
+                .flatMap(s -> {
+                    MappingAssertionConstructionNodeTransformer u = transformerProvider.apply(s, representative);
+                    if (!u.needOptimization())
+                        return original.get(u.getFromIndex()).stream()
+                                .map(u::updateConstructionNodeIri);
+
+                    // s is an existential restriction and the representative a class
+                    MappingAssertionConstructionNodeTransformer classIriUpdater = transformerProvider.apply(representative, representative);
+                    return original.get(u.getFromIndex()).stream()
+                            .map(m -> optimizationCache.get(s, m, u, classIriUpdater));
+                })
                 .collect(MappingAssertionUnion.toMappingAssertion(cqc, coreSingletons, queryMerger));
     }
 
-    private static <T> Stream<T> getSubsumees(EquivalencesDAG<T> dag, Equivalences<T> node) {
+    /**
+     * Memoizes the optimization of the assertions for a property P that are turned into assertions
+     * for a class A by an existential restriction (e.g., \exists P subClassOf A).
+     * As the optimization does not depend on A, its result is reused, after updating the class IRI,
+     * for all the classes subsuming the restriction.
+     */
+    private class OptimizationCache {
+        private final ExtensionalDataNodeListContainmentCheck cqc;
+        // NB: mapping assertions are compared by identity
+        private final Map<Map.Entry<Object, MappingAssertion>, MappingAssertion> map = new ConcurrentHashMap<>();
+
+        OptimizationCache(ExtensionalDataNodeListContainmentCheck cqc) {
+            this.cqc = cqc;
+        }
+
+        MappingAssertion get(Object restriction, MappingAssertion assertion,
+                             MappingAssertionConstructionNodeTransformer transformer,
+                             MappingAssertionConstructionNodeTransformer classIriUpdater) {
+            Map.Entry<Object, MappingAssertion> key = Maps.immutableEntry(restriction, assertion);
+            MappingAssertion optimized = map.get(key);
+            if (optimized != null)
+                return classIriUpdater.updateConstructionNodeIri(optimized);
+
+            // not computed under a lock: the same optimization may rarely be run by two threads
+            MappingAssertion newOptimized = optimize(cqc, transformer.updateConstructionNodeIri(assertion));
+            map.putIfAbsent(key, newOptimized);
+            return newOptimized;
+        }
+    }
+
+    private static <T> ImmutableList<T> getSubsumees(EquivalencesDAG<T> dag, Equivalences<T> node) {
         return dag.getSub(node).stream()
-                .flatMap(n -> n.getMembers().stream());
+                .flatMap(n -> n.getMembers().stream())
+                .collect(ImmutableCollectors.toList());
     }
 
     private class MappingAssertionConstructionNodeTransformer {
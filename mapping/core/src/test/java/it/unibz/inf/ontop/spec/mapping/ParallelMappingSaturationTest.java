@@ -0,0 +1,141 @@
+package it.unibz.inf.ontop.spec.mapping;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+import it.unibz.inf.ontop.injection.OntopMappingConfiguration;
+import it.unibz.inf.ontop.injection.OntopMappingSettings;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.template.Template;
+import it.unibz.inf.ontop.model.term.ImmutableTerm;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.vocabulary.RDF;
+import it.unibz.inf.ontop.spec.mapping.transformer.MappingSaturator;
+import it.unibz.inf.ontop.spec.ontology.*;
+import it.unibz.inf.ontop.spec.ontology.impl.OntologyBuilderImpl;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.apache.commons.rdf.api.IRI;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Properties;
+
+import static it.unibz.inf.ontop.utils.MappingTestingTools.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The saturated mapping must not depend on the number of threads, including for classes sharing subsumees
+ * (directly or through existential restrictions).
+ */
+public class ParallelMappingSaturationTest {
+
+    private static final int LEAF_COUNT = 12;
+    private static final int MIDDLE_COUNT = 4;
+
+    private static final Variable A = TERM_FACTORY.getVariable("a");
+    private static final Variable B = TERM_FACTORY.getVariable("b");
+
+    private static final Variable S = TERM_FACTORY.getVariable("s");
+    private static final Variable P = TERM_FACTORY.getVariable("p");
+    private static final Variable O = TERM_FACTORY.getVariable("o");
+
+    private static final ImmutableList<Template.Component> URI_TEMPLATE_PERSON = Template.of("http://example.org/person/", 0);
+    private static final ImmutableList<Template.Component> URI_TEMPLATE_COURSE = Template.of("http://example.org/course/", 0);
+
+    @Test
+    public void testSameOutputForAllThreadCounts() throws InconsistentOntologyException {
+        OntologyBuilder builder = OntologyBuilderImpl.builder(RDF_FACTORY, TERM_FACTORY);
+        OClass top = builder.declareClass(getClassIRI("Top"));
+
+        ImmutableList.Builder<OClass> middleBuilder = ImmutableList.builder();
+        for (int i = 0; i < MIDDLE_COUNT; i++) {
+            OClass middle = builder.declareClass(getClassIRI("Middle" + i));
+            builder.addSubClassOfAxiom(middle, top);
+            middleBuilder.add(middle);
+        }
+        ImmutableList<OClass> middles = middleBuilder.build();
+
+        ImmutableList.Builder<MappingAssertion> mappingBuilder = ImmutableList.builder();
+        for (int i = 0; i < LEAF_COUNT; i++) {
+            IRI leafIRI = getClassIRI("Leaf" + i);
+            OClass leaf = builder.declareClass(leafIRI);
+            // Each leaf is shared by two middle classes
+            builder.addSubClassOfAxiom(leaf, middles.get(i % MIDDLE_COUNT));
+            builder.addSubClassOfAxiom(leaf, middles.get((i + 1) % MIDDLE_COUNT));
+            mappingBuilder.add(new MappingAssertion(getClassAssertion(leafIRI, i % 2 == 0 ? TABLE1_AR2 : TABLE2_AR2), null));
+        }
+
+        // The domain and range of the properties are shared by several middle classes
+        for (int i = 0; i < MIDDLE_COUNT; i++) {
+            IRI propertyIRI = RDF_FACTORY.createIRI("http://example.org/voc#prop" + i);
+            ObjectPropertyExpression property = builder.declareObjectProperty(propertyIRI);
+            builder.addSubClassOfAxiom(property.getDomain(), middles.get(i));
+            builder.addSubClassOfAxiom(property.getDomain(), middles.get((i + 2) % MIDDLE_COUNT));
+            builder.addSubClassOfAxiom(property.getRange(), middles.get((i + 1) % MIDDLE_COUNT));
+            mappingBuilder.add(new MappingAssertion(getPropertyAssertion(propertyIRI), null));
+        }
+
+        ClassifiedTBox classifiedTBox = builder.build().tbox();
+        ImmutableList<MappingAssertion> mapping = mappingBuilder.build();
+
+        ImmutableList<Map.Entry<MappingAssertionIndex, IQ>> expected = toComparable(createSaturator(1).saturate(mapping, classifiedTBox));
+        // Top, the middle classes, the leaves and the properties
+        assertEquals(1 + MIDDLE_COUNT + LEAF_COUNT + MIDDLE_COUNT, expected.size());
+
+        for (int threads : new int[]{2, 4, 8}) {
+            MappingSaturator saturator = createSaturator(threads);
+            for (int i = 0; i < 5; i++)
+                assertEquals(expected, toComparable(saturator.saturate(mapping, classifiedTBox)),
+                        "Different saturation with " + threads + " threads");
+        }
+    }
+
+    private static ImmutableList<Map.Entry<MappingAssertionIndex, IQ>> toComparable(ImmutableList<MappingAssertion> assertions) {
+        return assertions.stream()
+                .map(a -> Maps.immutableEntry(a.getIndex(), a.getQuery()))
+                .collect(ImmutableCollectors.toList());
+    }
+
+    private static MappingSaturator createSaturator(int threads) {
+        Properties properties = new Properties();
+        properties.setProperty(OntopMappingSettings.TMAPPING_SATURATION_THREADS, Integer.toString(threads));
+        return OntopMappingConfiguration.defaultBuilder()
+                .enableTestMode()
+                .properties(properties)
+                .build()
+                .getInjector()
+                .getInstance(MappingSaturator.class);
+    }
+
+    private static IRI getClassIRI(String name) {
+        return RDF_FACTORY.createIRI("http://example.org/voc#" + name);
+    }
+
+    private static IQ getClassAssertion(IRI classIRI, RelationDefinition table) {
+        return getAssertion(table,
+                TERM_FACTORY.getIRIFunctionalTerm(URI_TEMPLATE_PERSON, ImmutableList.of(A)),
+                TERM_FACTORY.getConstantIRI(RDF.TYPE),
+                TERM_FACTORY.getConstantIRI(classIRI));
+    }
+
+    private static IQ getPropertyAssertion(IRI propertyIRI) {
+        return getAssertion(TABLE3_AR3,
+                TERM_FACTORY.getIRIFunctionalTerm(URI_TEMPLATE_PERSON, ImmutableList.of(A)),
+                TERM_FACTORY.getConstantIRI(propertyIRI),
+                TERM_FACTORY.getIRIFunctionalTerm(URI_TEMPLATE_COURSE, ImmutableList.of(B)));
+    }
+
+    private static IQ getAssertion(RelationDefinition table,
+                                   ImmutableTerm subject, ImmutableTerm predicate, ImmutableTerm object) {
+        DistinctVariableOnlyDataAtom spoAtom = ATOM_FACTORY.getDistinctTripleAtom(S, P, O);
+        ConstructionNode rootNode = IQ_FACTORY.createConstructionNode(
+                ImmutableSet.of(S, P, O),
+                SUBSTITUTION_FACTORY.getSubstitution(S, subject, P, predicate, O, object));
+        return IQ_FACTORY.createIQ(spoAtom, IQ_FACTORY.createUnaryIQTree(rootNode,
+                IQ_FACTORY.createExtensionalDataNode(table, ImmutableMap.of(0, A, 1, B))));
+    }
+}
@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
 import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.dbschema.impl.CachingMetadataLookup;
 import it.unibz.inf.ontop.dbschema.impl.RawQuotedIDFactory;
 import it.unibz.inf.ontop.exception.InvalidMappingSourceQueriesException;
 import it.unibz.inf.ontop.exception.InvalidQueryException;
@@ -21,6 +22,7 @@ import it.unibz.inf.ontop.spec.mapping.pp.SQLPPMappingConverter;
 import it.unibz.inf.ontop.spec.mapping.pp.SQLPPTriplesMap;
 import it.unibz.inf.ontop.substitution.Substitution;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.FunctionalTools;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,6 +30,7 @@ import org.slf4j.LoggerFactory;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 
 /**
@@ -42,6 +45,7 @@ public class SQLPPMappingConverterImpl implements SQLPPMappingConverter {
     private final SQLQueryParser sqlQueryParser;
 
     private final boolean ignoreInvalidMappingEntries;
+    private final int conversionThreads;
 
     @Inject
     private SQLPPMappingConverterImpl(CoreSingletons coreSingletons, SQLQueryParser sqlQueryParser) {
@@ -49,26 +53,44 @@ public class SQLPPMappingConverterImpl implements SQLPPMappingConverter {
         this.substitutionFactory = coreSingletons.getSubstitutionFactory();
         this.sqlQueryParser = sqlQueryParser;
 
-        ignoreInvalidMappingEntries = ((OntopOBDASettings)coreSingletons.getSettings()).ignoreInvalidMappingEntries();
+        OntopOBDASettings settings = (OntopOBDASettings)coreSingletons.getSettings();
+        ignoreInvalidMappingEntries = settings.ignoreInvalidMappingEntries();
+        conversionThreads = settings.getMappingConversionThreads();
 
     }
 
+    /**
+     * The source queries are parsed (once per distinct SQL string) and the assertions are converted
+     * on a fork-join pool when several threads are configured.
+     * The issues are then reported in the order of the mapping, as in the sequential conversion.
+     *
+     * In parallel mode, the metadata lookup must be thread-safe (e.g. {@link CachingMetadataLookup}).
+     */
     @Override
     public ImmutableList<MappingAssertion> convert(ImmutableList<SQLPPTriplesMap> mapping, MetadataLookup metadataLookup) throws InvalidMappingSourceQueriesException, MetadataExtractionException {
-        ImmutableList.Builder<MappingAssertion> builder = ImmutableList.builder();
-        for (SQLPPTriplesMap assertion : mapping) {
-            IQTree tree;
-            Function<Variable, Optional<ImmutableTerm>> lookup;
+        ImmutableList<String> sourceQueries = mapping.stream()
+                .map(a -> a.getSourceQuery().getSQL())
+                .distinct()
+                .collect(ImmutableCollectors.toList());
 
-            try {
-                RAExpression re = getRAExpression(assertion, metadataLookup);
-                tree = sqlQueryParser.convert(re);
+        ImmutableList<ParsedSourceQuery> parsedSourceQueryList = map(sourceQueries, q -> parse(q, metadataLookup));
+        ImmutableMap<String, ParsedSourceQuery> parsedSourceQueries = IntStream.range(0, sourceQueries.size())
+                .boxed()
+                .collect(ImmutableCollectors.toMap(sourceQueries::get, parsedSourceQueryList::get));
 
-                lookup = placeholderLookup(assertion, metadataLookup.getQuotedIDFactory(), re.getUnqualifiedAttributes());
-            }
+        QuotedIDFactory idFactory = metadataLookup.getQuotedIDFactory();
+        ImmutableList<ConvertedTriplesMap> convertedTriplesMaps = map(mapping,
+                a -> convert(a, parsedSourceQueries.get(a.getSourceQuery().getSQL()), idFactory));
+
+        ImmutableList.Builder<MappingAssertion> builder = ImmutableList.builder();
+        for (ConvertedTriplesMap convertedTriplesMap : convertedTriplesMaps) {
+            SQLPPTriplesMap assertion = convertedTriplesMap.triplesMap;
             /*
              * NB: runtime exceptions are also caught due to some JDBC drivers throwing them instead of SQLException-s
              */
+            try {
+                convertedTriplesMap.checkSourceQuery();
+            }
             catch (InvalidMappingSourceQueriesException | MetadataExtractionException | RuntimeException e) {
                 if(!ignoreInvalidMappingEntries)
                     throw e;
@@ -76,15 +98,16 @@ public class SQLPPMappingConverterImpl implements SQLPPMappingConverter {
                 continue;
             }
 
-            for (TargetAtom target : assertion.getTargetAtoms()) {
-                try {
-                    PPMappingAssertionProvenance provenance = assertion.getMappingAssertionProvenance(target);
-                    builder.add(convert(target, lookup, provenance, tree));
-                }
-                catch (InvalidMappingSourceQueriesException e) {
+            ImmutableList<TargetAtom> targets = assertion.getTargetAtoms();
+            for (int i = 0; i < targets.size(); i++) {
+                Object targetConversion = convertedTriplesMap.targetConversions.get(i);
+                if (targetConversion instanceof MappingAssertion)
+                    builder.add((MappingAssertion) targetConversion);
+                else {
+                    InvalidMappingSourceQueriesException e = (InvalidMappingSourceQueriesException) targetConversion;
                     if (!ignoreInvalidMappingEntries)
                         throw e;
-                    LOGGER.warn("Target atom {} was ignored due to an issue: {}", target, e.getMessage());
+                    LOGGER.warn("Target atom {} was ignored due to an issue: {}", targets.get(i), e.getMessage());
                 }
             }
         }
@@ -94,6 +117,85 @@ public class SQLPPMappingConverterImpl implements SQLPPMappingConverter {
         return result;
     }
 
+    private <T, R> ImmutableList<R> map(ImmutableList<T> list, Function<T, R> function) throws MetadataExtractionException {
+        try {
+            return FunctionalTools.parallelMap(list, function, conversionThreads);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MetadataExtractionException("Interrupted during the conversion of the mapping", e);
+        }
+    }
+
+    /**
+     * Never throws: the issue is kept and reported for each triples map having this source query
+     */
+    private ParsedSourceQuery parse(String sourceQuery, MetadataLookup metadataLookup) {
+        try {
+            RAExpression re = sqlQueryParser.getRAExpression(sourceQuery, metadataLookup);
+            return new ParsedSourceQuery(re, sqlQueryParser.convert(re), null);
+        }
+        catch (InvalidQueryException | MetadataExtractionException | RuntimeException e) {
+            return new ParsedSourceQuery(null, null, e);
+        }
+    }
+
+    private ConvertedTriplesMap convert(SQLPPTriplesMap assertion, ParsedSourceQuery sourceQuery, QuotedIDFactory idFactory) {
+        if (sourceQuery.exception != null)
+            return new ConvertedTriplesMap(assertion, sourceQuery, ImmutableList.of());
+
+        Function<Variable, Optional<ImmutableTerm>> lookup = placeholderLookup(assertion, idFactory,
+                sourceQuery.re.getUnqualifiedAttributes());
+
+        ImmutableList<Object> targetConversions = assertion.getTargetAtoms().stream()
+                .map(t -> {
+                    try {
+                        return convert(t, lookup, assertion.getMappingAssertionProvenance(t), sourceQuery.tree);
+                    }
+                    catch (InvalidMappingSourceQueriesException e) {
+                        return e;
+                    }
+                })
+                .collect(ImmutableCollectors.toList());
+        return new ConvertedTriplesMap(assertion, sourceQuery, targetConversions);
+    }
+
+    private static class ParsedSourceQuery {
+        private final RAExpression re;
+        private final IQTree tree;
+        private final Exception exception;
+
+        private ParsedSourceQuery(RAExpression re, IQTree tree, Exception exception) {
+            this.re = re;
+            this.tree = tree;
+            this.exception = exception;
+        }
+    }
+
+    private static class ConvertedTriplesMap {
+        private final SQLPPTriplesMap triplesMap;
+        private final ParsedSourceQuery sourceQuery;
+        // for each target atom, MappingAssertion or InvalidMappingSourceQueriesException
+        private final ImmutableList<Object> targetConversions;
+
+        private ConvertedTriplesMap(SQLPPTriplesMap triplesMap, ParsedSourceQuery sourceQuery,
+                                    ImmutableList<Object> targetConversions) {
+            this.triplesMap = triplesMap;
+            this.sourceQuery = sourceQuery;
+            this.targetConversions = targetConversions;
+        }
+
+        void checkSourceQuery() throws InvalidMappingSourceQueriesException, MetadataExtractionException {
+            Exception e = sourceQuery.exception;
+            if (e == null)
+                return;
+            if (e instanceof InvalidQueryException)
+                throw getInvalidSourceQueryException(triplesMap, (InvalidQueryException) e);
+            if (e instanceof MetadataExtractionException)
+                throw (MetadataExtractionException) e;
+            throw (RuntimeException) e;
+        }
+    }
 
     private static <T> Function<Variable, Optional<T>> placeholderLookup(SQLPPTriplesMap mappingAssertion, QuotedIDFactory idFactory, ImmutableMap<QuotedID, T> lookup) {
         Function<Variable, Optional<T>> standard =
@@ -157,9 +259,13 @@ public class SQLPPMappingConverterImpl implements SQLPPMappingConverter {
             return sqlQueryParser.getRAExpression(sourceQuery, metadataLookup);
         }
         catch (InvalidQueryException e) {
-            throw new InvalidMappingSourceQueriesException("Error: " + e.getMessage()
-                    + " \nProblem location: source query of triplesMap \n["
-                    +  mappingAssertion.getTriplesMapProvenance().getProvenanceInfo() + "]");
+            throw getInvalidSourceQueryException(mappingAssertion, e);
         }
     }
+
+    private static InvalidMappingSourceQueriesException getInvalidSourceQueryException(SQLPPTriplesMap mappingAssertion, InvalidQueryException e) {
+        return new InvalidMappingSourceQueriesException("Error: " + e.getMessage()
+                + " \nProblem location: source query of triplesMap \n["
+                +  mappingAssertion.getTriplesMapProvenance().getProvenanceInfo() + "]");
+    }
 }
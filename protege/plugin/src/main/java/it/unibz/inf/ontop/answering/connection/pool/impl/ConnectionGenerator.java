@@ -2,8 +2,12 @@ package it.unibz.inf.ontop.answering.connection.pool.impl;
 
 
 import com.google.inject.Inject;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.injection.OntopSQLCredentialSettings;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPool;
+import it.unibz.inf.ontop.answering.connection.pool.JDBCConnectionPoolMetrics;
 import it.unibz.inf.ontop.utils.LocalJDBCConnectionUtils;
 
 import java.sql.Connection;
@@ -20,13 +24,22 @@ import java.sql.SQLException;
  */
 public class ConnectionGenerator implements JDBCConnectionPool {
 
-    private final OntopSystemSQLSettings settings;
+    private final OntopSQLCredentialSettings settings;
+    private final ConnectionCheckoutRecorder checkoutRecorder = new ConnectionCheckoutRecorder();
 
     @Inject
     private ConnectionGenerator(OntopSystemSQLSettings settings) {
         this.settings = settings;
     }
 
+    /**
+     * For another data source than the primary one
+     */
+    @AssistedInject
+    private ConnectionGenerator(@Assisted OntopSQLCredentialSettings dataSourceSettings) {
+        this.settings = dataSourceSettings;
+    }
+
 
     @Override
     public void close() {
@@ -37,6 +50,14 @@ public class ConnectionGenerator implements JDBCConnectionPool {
      */
     @Override
     public Connection getConnection() throws SQLException {
-        return LocalJDBCConnectionUtils.createConnection(settings);
+        return checkoutRecorder.record(() -> LocalJDBCConnectionUtils.createConnection(settings));
+    }
+
+    /**
+     * Connections are not tracked: only the checkout statistics are reported
+     */
+    @Override
+    public JDBCConnectionPoolMetrics getMetrics() {
+        return checkoutRecorder.getMetrics(0, 0, 0);
     }
 }
@@ -365,4 +365,34 @@ public class DAGHierarchyTest extends TestCase {
 
 		assertTrue(ancestors.contains(new Equivalences<>(ImmutableSet.of(T, U))));		// ancestor is reflexive now
 	}
+
+	/**
+	 * The subsumption check agrees with the ancestors and the descendants
+	 */
+	public void testSubsumptionClasses() throws Exception {
+		final String ontoURI = "http://obda.inf.unibz.it/ontologies/test-class-hierarchy.owl#";
+
+		ClassifiedTBox dag = loadOntologyFromFileAndClassify(inputFile1);
+		EquivalencesDAG<ClassExpression> classes = dag.classesDAG();
+
+		Equivalences<ClassExpression> A = classes.getVertex(dag.classes().get(getIRI(ontoURI, "A")));
+		Equivalences<ClassExpression> C = classes.getVertex(dag.classes().get(getIRI(ontoURI, "C")));
+		Equivalences<ClassExpression> E = classes.getVertex(dag.classes().get(getIRI(ontoURI, "E")));
+
+		assertTrue(classes.isSubsumedBy(A, A));
+		assertTrue(classes.isSubsumedBy(A, E));
+		assertTrue(classes.isSubsumedBy(C, E));
+		assertFalse(classes.isSubsumedBy(E, A));
+		assertFalse(classes.isSubsumedBy(A, C));
+
+		for (Equivalences<ClassExpression> sub : classes) {
+			// The vertex itself comes first
+			assertEquals(sub, classes.getSuper(sub).iterator().next());
+			assertEquals(sub, classes.getSub(sub).iterator().next());
+			for (Equivalences<ClassExpression> sup : classes) {
+				assertEquals(classes.getSuper(sub).contains(sup), classes.isSubsumedBy(sub, sup));
+				assertEquals(classes.getSub(sup).contains(sub), classes.isSubsumedBy(sub, sup));
+			}
+		}
+	}
 }